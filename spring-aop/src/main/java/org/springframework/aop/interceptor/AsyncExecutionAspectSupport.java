@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -37,8 +37,10 @@ import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.task.AsyncListenableTaskExecutor;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskTagHolder;
 import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.util.concurrent.ListenableFuture;
@@ -74,6 +76,8 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 
 	private final Map<Method, AsyncTaskExecutor> executors = new ConcurrentHashMap<>(16);
 
+	private final Map<Method, String> taskTags = new ConcurrentHashMap<>(16);
+
 	private SingletonSupplier<Executor> defaultExecutor;
 
 	private SingletonSupplier<AsyncUncaughtExceptionHandler> exceptionHandler;
@@ -181,6 +185,24 @@ public abstract class AsyncExecutionAspectSupport implements BeanFactoryAware {
 		return executor;
 	}
 
+	/**
+	 * Determine the tag to expose through {@link TaskTagHolder} while submitting
+	 * a task for the given method, identifying the method for instrumented executors.
+	 * <p>The default implementation returns the qualified method name.
+	 * @param method the async method
+	 * @return the tag for tasks executing the given method
+	 * @since 5.2.7
+	 * @see org.springframework.scheduling.concurrent.TaskMetricsCallback
+	 */
+	protected String determineTaskTag(Method method) {
+		String tag = this.taskTags.get(method);
+		if (tag == null) {
+			tag = ClassUtils.getQualifiedMethodName(method);
+			this.taskTags.put(method, tag);
+		}
+		return tag;
+	}
+
 	/**
 	 * Return the qualifier or bean name of the executor to be used when executing the
 	 * given async method, typically specified in the form of an annotation attribute.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.Ordered;
 import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskTagHolder;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ClassUtils;
 
@@ -126,7 +127,13 @@ public class AsyncExecutionInterceptor extends AsyncExecutionAspectSupport imple
 			return null;
 		};
 
-		return doSubmit(task, executor, invocation.getMethod().getReturnType());
+		String previousTag = TaskTagHolder.setTag(determineTaskTag(userDeclaredMethod));
+		try {
+			return doSubmit(task, executor, invocation.getMethod().getReturnType());
+		}
+		finally {
+			TaskTagHolder.setTag(previousTag);
+		}
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2012 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.aop.interceptor;
 
 import java.io.Serializable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -33,7 +35,15 @@ import org.springframework.util.ConcurrencyThrottleSupport;
  * the entire thread pool (e.g. the web container's thread pool).
  *
  * <p>The default concurrency limit of this interceptor is 1.
- * Specify the "concurrencyLimit" bean property to change this value.
+ * Specify the "concurrencyLimit" bean property to change this value,
+ * or an {@link #setAdaptiveLimit "adaptiveLimit"} which adjusts the limit
+ * according to the observed execution time of the invocations. Invocations
+ * failing with a {@link TimeoutException} or a {@link RejectedExecutionException}
+ * count as dropped, just like invocations timing out before they could enter.
+ *
+ * <p>By default, invocations block until the concurrency limit allows for
+ * them. Specify an {@link #setAccessTimeout "accessTimeout"} in order to
+ * fail invocations which could not enter within that time instead.
  *
  * @author Juergen Hoeller
  * @since 11.02.2004
@@ -43,18 +53,54 @@ import org.springframework.util.ConcurrencyThrottleSupport;
 public class ConcurrencyThrottleInterceptor extends ConcurrencyThrottleSupport
 		implements MethodInterceptor, Serializable {
 
+	private long accessTimeout = -1;
+
+
 	public ConcurrencyThrottleInterceptor() {
 		setConcurrencyLimit(1);
 	}
 
+
+	/**
+	 * Set the maximum time (in milliseconds) that an invocation waits for the
+	 * concurrency limit to allow for it, throwing an {@link IllegalStateException}
+	 * once that time has elapsed.
+	 * <p>Default is -1, waiting indefinitely.
+	 * @since 5.2.7
+	 * @see #getTimeoutCount()
+	 */
+	public void setAccessTimeout(long accessTimeout) {
+		this.accessTimeout = accessTimeout;
+	}
+
+	/**
+	 * Return the maximum time (in milliseconds) that an invocation waits
+	 * for the concurrency limit to allow for it.
+	 * @since 5.2.7
+	 */
+	public long getAccessTimeout() {
+		return this.accessTimeout;
+	}
+
+
 	@Override
 	public Object invoke(MethodInvocation methodInvocation) throws Throwable {
-		beforeAccess();
+		if (!beforeAccess(this.accessTimeout)) {
+			throw new IllegalStateException("Concurrency limit did not allow for invoking method [" +
+					methodInvocation.getMethod() + "] within " + this.accessTimeout + " ms");
+		}
+		long startTime = System.nanoTime();
+		boolean dropped = false;
 		try {
 			return methodInvocation.proceed();
 		}
+		catch (TimeoutException | RejectedExecutionException ex) {
+			// The guarded resource timed out or rejected the invocation: a sign of overload.
+			dropped = true;
+			throw ex;
+		}
 		finally {
-			afterAccess();
+			afterAccess(System.nanoTime() - startTime, dropped);
 		}
 	}
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.aop.interceptor;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.Test;
@@ -28,6 +31,7 @@ import org.springframework.beans.testfixture.beans.TestBean;
 import org.springframework.core.testfixture.io.SerializationTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Juergen Hoeller
@@ -72,12 +76,67 @@ public class ConcurrencyThrottleInterceptorTests {
 		testMultipleThreads(10);
 	}
 
+	@Test
+	public void testMultipleThreadsWithLimit1AndFairness() {
+		testMultipleThreads(1, true);
+	}
+
+	@Test
+	public void testMultipleThreadsWithLimit10AndFairness() {
+		testMultipleThreads(10, true);
+	}
+
+	@Test
+	public void testAccessTimeout() throws Exception {
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		TestBean tb = new TestBean() {
+			@Override
+			public String getName() {
+				entered.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+				return super.getName();
+			}
+		};
+		ProxyFactory proxyFactory = new ProxyFactory();
+		proxyFactory.setInterfaces(ITestBean.class);
+		ConcurrencyThrottleInterceptor cti = new ConcurrencyThrottleInterceptor();
+		cti.setAccessTimeout(50);
+		proxyFactory.addAdvice(cti);
+		proxyFactory.setTarget(tb);
+		ITestBean proxy = (ITestBean) proxyFactory.getProxy();
+
+		Thread thread = new Thread(proxy::getName);
+		thread.start();
+		assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(cti.getConcurrencyCount()).isEqualTo(1);
+		assertThatIllegalStateException().isThrownBy(proxy::getAge);
+		assertThat(cti.getWaitCount()).isEqualTo(1);
+		assertThat(cti.getTimeoutCount()).isEqualTo(1);
+		assertThat(cti.getWaitingCount()).isEqualTo(0);
+
+		release.countDown();
+		thread.join();
+		assertThat(cti.getConcurrencyCount()).isEqualTo(0);
+		proxy.getAge();
+	}
+
 	private void testMultipleThreads(int concurrencyLimit) {
+		testMultipleThreads(concurrencyLimit, false);
+	}
+
+	private void testMultipleThreads(int concurrencyLimit, boolean fair) {
 		TestBean tb = new TestBean();
 		ProxyFactory proxyFactory = new ProxyFactory();
 		proxyFactory.setInterfaces(ITestBean.class);
 		ConcurrencyThrottleInterceptor cti = new ConcurrencyThrottleInterceptor();
 		cti.setConcurrencyLimit(concurrencyLimit);
+		cti.setFair(fair);
 		proxyFactory.addAdvice(cti);
 		proxyFactory.setTarget(tb);
 		ITestBean proxy = (ITestBean) proxyFactory.getProxy();
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -43,6 +43,10 @@ public class AspectJCachingConfiguration extends AbstractCachingConfiguration {
 	public AnnotationCacheAspect cacheAspect() {
 		AnnotationCacheAspect cacheAspect = AnnotationCacheAspect.aspectOf();
 		cacheAspect.configure(this.errorHandler, this.keyGenerator, this.cacheResolver, this.cacheManager);
+		if (this.enableCaching != null) {
+			cacheAspect.setCoalesceMisses(this.enableCaching.getBoolean("coalesceMisses"));
+			cacheAspect.setCacheAsyncValues(this.enableCaching.getBoolean("cacheAsyncValues"));
+		}
 		return cacheAspect;
 	}
 
@@ -16,7 +16,11 @@
 
 package org.springframework.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.lang.Nullable;
 
@@ -100,6 +104,63 @@ public interface Cache {
 	@Nullable
 	<T> T get(Object key, Callable<T> valueLoader);
 
+	/**
+	 * Return the value to which this cache maps the specified key, contained
+	 * within a {@link CompletableFuture} for asynchronous retrieval.
+	 * <p>The future completes with {@code null} if the cache contains no mapping
+	 * for this key; otherwise, with the cached value (which may be {@code null}
+	 * itself) in a {@link ValueWrapper}, analogous to {@link #get(Object)}.
+	 * <p>The default implementation delegates to {@link #get(Object)}, returning
+	 * an immediately completed future. Implementations backed by a provider with
+	 * a non-blocking API are encouraged to override this method.
+	 * @param key the key whose associated value is to be returned
+	 * @return a future for the value to which this cache maps the specified key
+	 * @since 5.2.7
+	 * @see #get(Object)
+	 */
+	default CompletableFuture<ValueWrapper> retrieve(Object key) {
+		return CompletableFuture.completedFuture(get(key));
+	}
+
+	/**
+	 * Return the values to which this cache maps the specified keys.
+	 * <p>The returned map only contains entries for keys which are present
+	 * in the cache, each value contained within a {@link ValueWrapper} which
+	 * may also hold a cached {@code null} value, analogous to {@link #get(Object)}.
+	 * <p>The default implementation delegates to {@link #get(Object)} for each
+	 * key. Implementations backed by a provider with a bulk API, in particular
+	 * a remote one, are encouraged to override this method.
+	 * @param keys the keys whose associated values are to be returned
+	 * @return a map from each key found to its value (never {@code null})
+	 * @since 5.2.7
+	 * @see #get(Object)
+	 */
+	default Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			ValueWrapper wrapper = get(key);
+			if (wrapper != null) {
+				result.put(key, wrapper);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Associate the specified values with their keys in this cache.
+	 * <p>The same registration semantics as for {@link #put(Object, Object)}
+	 * apply to each entry.
+	 * <p>The default implementation delegates to {@link #put(Object, Object)}
+	 * for each entry. Implementations backed by a provider with a bulk API,
+	 * in particular a remote one, are encouraged to override this method.
+	 * @param entries the keys and values to associate
+	 * @since 5.2.7
+	 * @see #put(Object, Object)
+	 */
+	default void putAll(Map<?, ?> entries) {
+		entries.forEach(this::put);
+	}
+
 	/**
 	 * Associate the specified value with the specified key in this cache.
 	 * <p>If the cache previously contained a mapping for this key, the old
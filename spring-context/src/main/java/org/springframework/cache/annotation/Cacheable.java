@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -179,4 +179,28 @@ public @interface Cacheable {
 	 */
 	boolean sync() default false;
 
+	/**
+	 * Cache the entries of the returned {@link java.util.Map} individually, keyed
+	 * by the elements of the method's {@link java.util.Collection} parameter.
+	 * <p>The cache is consulted for all elements at once through
+	 * {@link org.springframework.cache.Cache#getAll}, and the method is only
+	 * invoked for the elements that are missing, with the result being stored
+	 * through {@link org.springframework.cache.Cache#putAll} and merged with
+	 * the cached entries. This leads to a couple of limitations:
+	 * <ol>
+	 * <li>The method must declare exactly one {@code Collection} parameter,
+	 * and a return type that a {@link java.util.LinkedHashMap} is assignable to</li>
+	 * <li>The elements are used as cache keys as-is: {@link #key()},
+	 * {@link #keyGenerator()}, including one specified through
+	 * {@link CacheConfig}, and {@link #unless()} are not supported</li>
+	 * <li>No other cache-related operation can be combined</li>
+	 * <li>Interception needs to be proxy-based, since the method gets invoked
+	 * with a different argument</li>
+	 * </ol>
+	 * @since 5.2.7
+	 * @see org.springframework.cache.Cache#getAll(java.util.Collection)
+	 * @see org.springframework.cache.Cache#putAll(java.util.Map)
+	 */
+	boolean batch() default false;
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -204,4 +204,24 @@ public @interface EnableCaching {
 	 */
 	int order() default Ordered.LOWEST_PRECEDENCE;
 
+	/**
+	 * Indicate whether concurrent cache misses for the same key should be coalesced
+	 * into a single invocation of the {@code @Cacheable} method, with all concurrent
+	 * callers sharing its result.
+	 * <p>The default is {@code false}.
+	 * @since 5.2.7
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setCoalesceMisses
+	 */
+	boolean coalesceMisses() default false;
+
+	/**
+	 * Indicate whether {@code @Cacheable} methods returning a {@code CompletableFuture},
+	 * {@code ListenableFuture}, {@code Mono} or {@code Flux} should cache the value
+	 * they resolve to, rather than the future or publisher instance itself.
+	 * <p>The default is {@code false}.
+	 * @since 5.2.7
+	 * @see org.springframework.cache.interceptor.CacheAspectSupport#setCacheAsyncValues
+	 */
+	boolean cacheAsyncValues() default false;
+
 }
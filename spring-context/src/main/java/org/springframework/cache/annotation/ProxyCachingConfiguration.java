@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -63,6 +63,10 @@ public class ProxyCachingConfiguration extends AbstractCachingConfiguration {
 		CacheInterceptor interceptor = new CacheInterceptor();
 		interceptor.configure(this.errorHandler, this.keyGenerator, this.cacheResolver, this.cacheManager);
 		interceptor.setCacheOperationSource(cacheOperationSource());
+		if (this.enableCaching != null) {
+			interceptor.setCoalesceMisses(this.enableCaching.getBoolean("coalesceMisses"));
+			interceptor.setCacheAsyncValues(this.enableCaching.getBoolean("cacheAsyncValues"));
+		}
 		return interceptor;
 	}
 
@@ -0,0 +1,506 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.CacheStatisticsMXBean;
+import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Bounded {@link org.springframework.cache.Cache} implementation based on the
+ * core JDK {@code java.util.concurrent} package, for local caching needs where
+ * a dedicated caching provider such as Caffeine is not an option.
+ *
+ * <p>Entries are kept in a {@link ConcurrentHashMap}, with lookups being
+ * lock-free. Once the total weight of all entries exceeds the configured
+ * maximum, entries are evicted according to a CLOCK policy: the oldest entry
+ * is removed unless it has been accessed since it was last considered, in
+ * which case it gets a second chance. By default, each entry has a weight of 1,
+ * turning the maximum weight into a maximum number of entries; a custom
+ * {@link Weigher} may be specified instead. Entries may additionally expire
+ * a fixed time after they have been written.
+ *
+ * <p>Hit, miss, eviction and expiration counts are always recorded and can be
+ * obtained through the {@link CacheStatisticsMXBean} interface, which also
+ * allows for exposing this cache via JMX as-is.
+ *
+ * @since 5.2.7
+ * @see ConcurrentMapCacheManager#setMaximumSize
+ * @see ConcurrentMapCacheManager#setExpireAfterWrite
+ */
+public class BoundedConcurrentMapCache extends AbstractValueAdaptingCache implements CacheStatisticsMXBean {
+
+	private final String name;
+
+	private final ConcurrentMap<Object, Entry> store = new ConcurrentHashMap<>(256);
+
+	private final ConcurrentLinkedQueue<Entry> writeOrder = new ConcurrentLinkedQueue<>();
+
+	private final long maximumWeight;
+
+	@Nullable
+	private final Weigher weigher;
+
+	private final long expireAfterWriteNanos;
+
+	@Nullable
+	private final SerializationDelegate serialization;
+
+	private final AtomicLong weight = new AtomicLong();
+
+	private final AtomicInteger removedInQueue = new AtomicInteger();
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private final LongAdder expirationCount = new LongAdder();
+
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name,
+	 * holding at most the given number of entries.
+	 * @param name the name of the cache
+	 * @param maximumSize the maximum number of entries
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumSize) {
+		this(name, maximumSize, null, null, true, null);
+	}
+
+	/**
+	 * Create a new BoundedConcurrentMapCache with the specified name and constraints.
+	 * @param name the name of the cache
+	 * @param maximumWeight the maximum total weight of all entries, or the maximum
+	 * number of entries if no {@link Weigher} is specified ({@code Long.MAX_VALUE}
+	 * for no limit)
+	 * @param weigher the weigher to determine the weight of each entry,
+	 * or {@code null} for a weight of 1 per entry
+	 * @param expireAfterWrite the time after which an entry expires once written,
+	 * or {@code null} for no expiration
+	 * @param allowNullValues whether to allow {@code null} values
+	 * (adapting them to an internal null holder value)
+	 * @param serialization the {@link SerializationDelegate} to use
+	 * to serialize cache entry or {@code null} to store the reference
+	 */
+	public BoundedConcurrentMapCache(String name, long maximumWeight, @Nullable Weigher weigher,
+			@Nullable Duration expireAfterWrite, boolean allowNullValues,
+			@Nullable SerializationDelegate serialization) {
+
+		super(allowNullValues);
+		Assert.notNull(name, "Name must not be null");
+		Assert.isTrue(maximumWeight >= 0, "Maximum weight must not be negative");
+		Assert.isTrue(expireAfterWrite == null || !expireAfterWrite.isNegative(),
+				"Expire-after-write duration must not be negative");
+		this.name = name;
+		this.maximumWeight = maximumWeight;
+		this.weigher = weigher;
+		this.expireAfterWriteNanos = (expireAfterWrite != null ? expireAfterWrite.toNanos() : 0);
+		this.serialization = serialization;
+	}
+
+
+	/**
+	 * Return whether this cache stores a copy of each entry ({@code true}) or
+	 * a reference ({@code false}, default). If store by value is enabled, each
+	 * entry in the cache must be serializable.
+	 */
+	public final boolean isStoreByValue() {
+		return (this.serialization != null);
+	}
+
+	/**
+	 * Return the maximum total weight of all entries in this cache.
+	 */
+	public final long getMaximumWeight() {
+		return this.maximumWeight;
+	}
+
+	@Override
+	public final String getName() {
+		return this.name;
+	}
+
+	@Override
+	public final ConcurrentMap<Object, ?> getNativeCache() {
+		return this.store;
+	}
+
+	@Override
+	@Nullable
+	protected Object lookup(Object key) {
+		Entry entry = this.store.get(key);
+		if (entry != null) {
+			if (isExpired(entry, System.nanoTime())) {
+				if (remove(entry)) {
+					this.expirationCount.increment();
+				}
+			}
+			else {
+				markAccessed(entry);
+				this.hitCount.increment();
+				return entry.value;
+			}
+		}
+		this.missCount.increment();
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object value = lookup(key);
+		if (value != null) {
+			return (T) fromStoreValue(value);
+		}
+		Entry[] created = new Entry[1];
+		Entry entry = this.store.compute(key, (k, existing) -> {
+			if (existing != null && !isExpired(existing, System.nanoTime())) {
+				return existing;
+			}
+			if (existing != null) {
+				this.expirationCount.increment();
+			}
+			Object storeValue;
+			try {
+				storeValue = toStoreValue(valueLoader.call());
+			}
+			catch (Throwable ex) {
+				throw new ValueRetrievalException(key, valueLoader, ex);
+			}
+			created[0] = createEntry(key, storeValue);
+			if (existing != null) {
+				replaced(existing);
+			}
+			return created[0];
+		});
+		if (created[0] != null) {
+			added(created[0]);
+		}
+		return (T) fromStoreValue(entry.value);
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		Entry entry = createEntry(key, toStoreValue(value));
+		Entry existing = this.store.put(key, entry);
+		if (existing != null) {
+			replaced(existing);
+		}
+		added(entry);
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		Entry entry = createEntry(key, toStoreValue(value));
+		while (true) {
+			Entry existing = this.store.putIfAbsent(key, entry);
+			if (existing == null) {
+				added(entry);
+				return null;
+			}
+			if (!isExpired(existing, System.nanoTime())) {
+				markAccessed(existing);
+				this.weight.addAndGet(-entry.weight);
+				return toValueWrapper(existing.value);
+			}
+			if (remove(existing)) {
+				this.expirationCount.increment();
+			}
+		}
+	}
+
+	@Override
+	public void evict(Object key) {
+		Entry entry = this.store.get(key);
+		if (entry != null) {
+			remove(entry);
+		}
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		Entry entry = this.store.get(key);
+		return (entry != null && remove(entry) && !isExpired(entry, System.nanoTime()));
+	}
+
+	@Override
+	public void clear() {
+		this.evictionLock.lock();
+		try {
+			for (Entry entry : this.store.values()) {
+				remove(entry);
+			}
+			// Only drop queue nodes of removed entries: entries concurrently
+			// added to the store need to remain in the queue for eviction
+			this.writeOrder.removeIf(entry -> entry.removed);
+			this.removedInQueue.set(0);
+		}
+		finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean notEmpty = !this.store.isEmpty();
+		clear();
+		return notEmpty;
+	}
+
+
+	// Statistics
+
+	@Override
+	public long getSize() {
+		return this.store.size();
+	}
+
+	@Override
+	public long getWeight() {
+		return this.weight.get();
+	}
+
+	@Override
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	@Override
+	public double getHitRatio() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total != 0 ? (double) hits / total : 1.0);
+	}
+
+	@Override
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	@Override
+	public long getExpirationCount() {
+		return this.expirationCount.sum();
+	}
+
+	@Override
+	public void resetStatistics() {
+		this.hitCount.reset();
+		this.missCount.reset();
+		this.evictionCount.reset();
+		this.expirationCount.reset();
+	}
+
+
+	// Internal bookkeeping
+
+	private long weigh(Object key, Object storeValue) {
+		if (this.weigher == null) {
+			return 1;
+		}
+		int entryWeight = this.weigher.weigh(key, fromStoreValue(storeValue));
+		Assert.state(entryWeight >= 0, "Weigher must not return a negative weight");
+		return entryWeight;
+	}
+
+	/**
+	 * Create an entry for the given key and store value, accounting for its
+	 * weight before the entry becomes visible in the store, so that a concurrent
+	 * removal of the entry never subtracts a weight that has not been added yet.
+	 */
+	private Entry createEntry(Object key, Object storeValue) {
+		Entry entry = new Entry(key, storeValue, weigh(key, storeValue), System.nanoTime());
+		this.weight.addAndGet(entry.weight);
+		return entry;
+	}
+
+	private void markAccessed(Entry entry) {
+		// Avoid a volatile write on every hit
+		if (!entry.accessed) {
+			entry.accessed = true;
+		}
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return (this.expireAfterWriteNanos > 0 && now - entry.writeTime >= this.expireAfterWriteNanos);
+	}
+
+	/**
+	 * Remove the given entry from the store, if still current.
+	 * @return {@code true} if this call removed the entry
+	 */
+	private boolean remove(Entry entry) {
+		if (this.store.remove(entry.key, entry)) {
+			replaced(entry);
+			return true;
+		}
+		return false;
+	}
+
+	private void replaced(Entry entry) {
+		entry.removed = true;
+		this.weight.addAndGet(-entry.weight);
+		this.removedInQueue.incrementAndGet();
+	}
+
+	private void added(Entry entry) {
+		this.writeOrder.offer(entry);
+		if (this.weight.get() > this.maximumWeight || this.removedInQueue.get() > this.store.size() + 64) {
+			this.evictionLock.lock();
+			try {
+				evictEntries();
+			}
+			finally {
+				this.evictionLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Evict entries in write order until the maximum weight is met again,
+	 * giving recently accessed entries a second chance. Also drops queue
+	 * nodes for entries which have already been removed otherwise.
+	 * <p>To be called with the eviction lock held.
+	 */
+	private void evictEntries() {
+		if (this.removedInQueue.get() > this.store.size() + 64) {
+			this.writeOrder.removeIf(entry -> entry.removed);
+			this.removedInQueue.set(0);
+		}
+		long now = System.nanoTime();
+		int attempts = this.store.size() * 2 + 1;
+		while (this.weight.get() > this.maximumWeight && attempts-- > 0) {
+			Entry entry = this.writeOrder.poll();
+			if (entry == null) {
+				break;
+			}
+			if (entry.removed) {
+				this.removedInQueue.decrementAndGet();
+			}
+			else if (isExpired(entry, now)) {
+				if (remove(entry)) {
+					this.removedInQueue.decrementAndGet();
+					this.expirationCount.increment();
+				}
+			}
+			else if (entry.accessed) {
+				entry.accessed = false;
+				this.writeOrder.offer(entry);
+			}
+			else if (remove(entry)) {
+				this.removedInQueue.decrementAndGet();
+				this.evictionCount.increment();
+			}
+		}
+	}
+
+
+	@Override
+	protected Object toStoreValue(@Nullable Object userValue) {
+		Object storeValue = super.toStoreValue(userValue);
+		if (this.serialization != null) {
+			try {
+				return this.serialization.serializeToByteArray(storeValue);
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to serialize cache value '" + userValue +
+						"'. Does it implement Serializable?", ex);
+			}
+		}
+		else {
+			return storeValue;
+		}
+	}
+
+	@Override
+	protected Object fromStoreValue(@Nullable Object storeValue) {
+		if (storeValue != null && this.serialization != null) {
+			try {
+				return super.fromStoreValue(this.serialization.deserializeFromByteArray((byte[]) storeValue));
+			}
+			catch (Throwable ex) {
+				throw new IllegalArgumentException("Failed to deserialize cache value '" + storeValue + "'", ex);
+			}
+		}
+		else {
+			return super.fromStoreValue(storeValue);
+		}
+	}
+
+
+	/**
+	 * Strategy for determining the weight of a cache entry.
+	 */
+	@FunctionalInterface
+	public interface Weigher {
+
+		/**
+		 * Return the weight of the given entry, relative to the maximum weight
+		 * of the cache.
+		 * @param key the key of the entry
+		 * @param value the value of the entry (may be {@code null})
+		 * @return the weight of the entry (never negative)
+		 */
+		int weigh(Object key, @Nullable Object value);
+	}
+
+
+	private static final class Entry {
+
+		final Object key;
+
+		final Object value;
+
+		final long weight;
+
+		final long writeTime;
+
+		volatile boolean accessed;
+
+		volatile boolean removed;
+
+		Entry(Object key, Object value, long weight, long writeTime) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+			this.writeTime = writeTime;
+		}
+	}
+
+}
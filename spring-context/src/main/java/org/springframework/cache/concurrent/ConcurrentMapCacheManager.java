@@ -16,18 +16,27 @@
 
 package org.springframework.cache.concurrent;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.CacheStatisticsMXBean;
 import org.springframework.core.serializer.support.SerializationDelegate;
+import org.springframework.jmx.export.MBeanExportOperations;
+import org.springframework.jmx.support.ObjectNameManager;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * {@link CacheManager} implementation that lazily builds {@link ConcurrentMapCache}
@@ -35,8 +44,14 @@ import org.springframework.lang.Nullable;
  * the set of cache names is pre-defined through {@link #setCacheNames}, with no
  * dynamic creation of further cache regions at runtime.
  *
- * <p>Note: This is by no means a sophisticated CacheManager; it comes with no
- * cache configuration options. However, it may be useful for testing or simple
+ * <p>By default, caches are unbounded. Specifying a {@link #setMaximumSize maximum
+ * size}, {@link #setMaximumWeight maximum weight} or {@link #setExpireAfterWrite
+ * expiration} switches to {@link BoundedConcurrentMapCache} instances which evict
+ * entries accordingly and record hit, miss and eviction statistics, optionally
+ * exposed via JMX through {@link #setMBeanExporter}.
+ *
+ * <p>Note: This is by no means a sophisticated CacheManager; it comes with only
+ * basic cache configuration options. However, it may be useful for testing or simple
  * caching scenarios. For advanced local caching needs, consider
  * {@link org.springframework.cache.jcache.JCacheCacheManager},
  * {@link org.springframework.cache.ehcache.EhCacheCacheManager},
@@ -59,6 +74,19 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 	@Nullable
 	private SerializationDelegate serialization;
 
+	private long maximumWeight = Long.MAX_VALUE;
+
+	private boolean maximumSizeSet = false;
+
+	@Nullable
+	private BoundedConcurrentMapCache.Weigher weigher;
+
+	@Nullable
+	private Duration expireAfterWrite;
+
+	@Nullable
+	private MBeanExportOperations mbeanExporter;
+
 
 	/**
 	 * Construct a dynamic ConcurrentMapCacheManager,
@@ -146,6 +174,86 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return this.storeByValue;
 	}
 
+	/**
+	 * Specify the maximum number of entries in each cache, evicting entries
+	 * which have not been accessed recently once exceeded.
+	 * <p>Default is no limit. A maximum size cannot be combined with a
+	 * {@link #setWeigher weigher}; use {@link #setMaximumWeight} instead.
+	 * <p>Note: A change of the maximum size will reset all existing caches,
+	 * if any, to reconfigure them with the new size constraint.
+	 * @since 5.2.7
+	 * @see BoundedConcurrentMapCache
+	 */
+	public void setMaximumSize(long maximumSize) {
+		Assert.state(this.weigher == null, "Maximum size cannot be combined with a weigher: " +
+				"specify a maximum weight instead");
+		this.maximumSizeSet = true;
+		this.maximumWeight = maximumSize;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the maximum total weight of the entries in each cache, as determined
+	 * by the specified {@link #setWeigher weigher}.
+	 * <p>Default is no limit.
+	 * <p>Note: A change of the maximum weight will reset all existing caches,
+	 * if any, to reconfigure them with the new weight constraint.
+	 * @since 5.2.7
+	 * @see #setWeigher
+	 */
+	public void setMaximumWeight(long maximumWeight) {
+		this.maximumWeight = maximumWeight;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the {@link BoundedConcurrentMapCache.Weigher} to determine the weight
+	 * of each entry against the {@link #setMaximumWeight maximum weight}.
+	 * <p>Default is a weight of 1 per entry. A weigher cannot be combined with
+	 * a {@link #setMaximumSize maximum size}.
+	 * @since 5.2.7
+	 */
+	public void setWeigher(@Nullable BoundedConcurrentMapCache.Weigher weigher) {
+		Assert.state(weigher == null || !this.maximumSizeSet, "Weigher cannot be combined with a maximum size: " +
+				"specify a maximum weight instead");
+		this.weigher = weigher;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify the time after which each cache entry expires once written.
+	 * <p>Default is no expiration.
+	 * <p>Note: A change of the expiration setting will reset all existing caches,
+	 * if any, to reconfigure them with the new expiration.
+	 * @since 5.2.7
+	 */
+	public void setExpireAfterWrite(@Nullable Duration expireAfterWrite) {
+		this.expireAfterWrite = expireAfterWrite;
+		recreateCaches();
+	}
+
+	/**
+	 * Specify an {@link org.springframework.jmx.export.MBeanExporter} to register
+	 * the statistics of each bounded cache with, under an object name of the form
+	 * {@code org.springframework.cache:type=ConcurrentMapCache,name=...}.
+	 * <p>Only applies to caches created afterwards, so this should be specified
+	 * before any caches are defined through {@link #setCacheNames}.
+	 * @since 5.2.7
+	 * @see CacheStatisticsMXBean
+	 */
+	public void setMBeanExporter(@Nullable MBeanExportOperations mbeanExporter) {
+		this.mbeanExporter = mbeanExporter;
+	}
+
+	/**
+	 * Return whether this cache manager creates bounded caches, i.e. whether
+	 * a maximum size or weight or an expiration has been specified.
+	 * @since 5.2.7
+	 */
+	public boolean isBounded() {
+		return (this.maximumWeight != Long.MAX_VALUE || this.weigher != null || this.expireAfterWrite != null);
+	}
+
 	@Override
 	public void setBeanClassLoader(ClassLoader classLoader) {
 		this.serialization = new SerializationDelegate(classLoader);
@@ -177,6 +285,23 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 		return cache;
 	}
 
+	/**
+	 * Return the statistics of all bounded caches in this cache manager.
+	 * @return a Map from cache name to statistics (empty if no bounded caches
+	 * have been created)
+	 * @since 5.2.7
+	 * @see #isBounded()
+	 */
+	public Map<String, CacheStatisticsMXBean> getCacheStatistics() {
+		Map<String, CacheStatisticsMXBean> statistics = new LinkedHashMap<>(this.cacheMap.size());
+		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
+			if (entry.getValue() instanceof CacheStatisticsMXBean) {
+				statistics.put(entry.getKey(), (CacheStatisticsMXBean) entry.getValue());
+			}
+		}
+		return statistics;
+	}
+
 	private void recreateCaches() {
 		for (Map.Entry<String, Cache> entry : this.cacheMap.entrySet()) {
 			entry.setValue(createConcurrentMapCache(entry.getKey()));
@@ -185,11 +310,30 @@ public class ConcurrentMapCacheManager implements CacheManager, BeanClassLoaderA
 
 	/**
 	 * Create a new ConcurrentMapCache instance for the specified cache name.
+	 * <p>Returns a {@link BoundedConcurrentMapCache} if any size, weight or
+	 * expiration constraint has been specified.
 	 * @param name the name of the cache
 	 * @return the ConcurrentMapCache (or a decorator thereof)
 	 */
 	protected Cache createConcurrentMapCache(String name) {
 		SerializationDelegate actualSerialization = (isStoreByValue() ? this.serialization : null);
+		if (isBounded()) {
+			BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(name, this.maximumWeight,
+					this.weigher, this.expireAfterWrite, isAllowNullValues(), actualSerialization);
+			if (this.mbeanExporter != null) {
+				try {
+					ObjectName objectName = ObjectNameManager.getInstance(
+							"org.springframework.cache:type=ConcurrentMapCache,name=" + ObjectName.quote(name));
+					// Replace any registration for a previous cache instance with the same name
+					this.mbeanExporter.unregisterManagedResource(objectName);
+					this.mbeanExporter.registerManagedResource(cache, objectName);
+				}
+				catch (MalformedObjectNameException ex) {
+					throw new IllegalArgumentException("Invalid cache name for JMX registration: " + name, ex);
+				}
+			}
+			return cache;
+		}
 		return new ConcurrentMapCache(name, new ConcurrentHashMap<>(256), isAllowNullValues(), actualSerialization);
 	}
 
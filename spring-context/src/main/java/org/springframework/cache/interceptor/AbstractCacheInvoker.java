@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,12 @@
 
 package org.springframework.cache.interceptor;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.cache.Cache;
 import org.springframework.lang.Nullable;
 import org.springframework.util.function.SingletonSupplier;
@@ -78,6 +84,31 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#retrieve(Object)} on the specified {@link Cache} and
+	 * invoke the error handler if an exception occurs, either immediately or on
+	 * completion of the returned future. Complete with {@code null} if the handler
+	 * does not throw any exception, which simulates a cache miss in case of error.
+	 * @since 5.2.7
+	 * @see Cache#retrieve(Object)
+	 */
+	protected CompletableFuture<Cache.ValueWrapper> doRetrieve(Cache cache, Object key) {
+		try {
+			return cache.retrieve(key).exceptionally(ex -> {
+				Throwable cause = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+				if (!(cause instanceof RuntimeException)) {
+					throw new CompletionException(cause);
+				}
+				getErrorHandler().handleCacheGetError((RuntimeException) cause, cache, key);
+				return null;  // If the exception is handled, return a cache miss
+			});
+		}
+		catch (RuntimeException ex) {
+			getErrorHandler().handleCacheGetError(ex, cache, key);
+			return CompletableFuture.completedFuture(null);  // If the exception is handled, return a cache miss
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#put(Object, Object)} on the specified {@link Cache}
 	 * and invoke the error handler if an exception occurs.
@@ -91,6 +122,45 @@ public abstract class AbstractCacheInvoker {
 		}
 	}
 
+	/**
+	 * Execute {@link Cache#getAll(Collection)} on the specified {@link Cache}.
+	 * If an exception occurs, fall back to {@link #doGet individual lookups}
+	 * so that the error handler gets invoked with the affected key.
+	 * @since 5.2.7
+	 * @see Cache#getAll(Collection)
+	 */
+	protected Map<Object, Cache.ValueWrapper> doGetAll(Cache cache, Collection<?> keys) {
+		try {
+			return cache.getAll(keys);
+		}
+		catch (RuntimeException ex) {
+			Map<Object, Cache.ValueWrapper> result = new LinkedHashMap<>(keys.size());
+			for (Object key : keys) {
+				Cache.ValueWrapper wrapper = doGet(cache, key);
+				if (wrapper != null) {
+					result.put(key, wrapper);
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Execute {@link Cache#putAll(Map)} on the specified {@link Cache}.
+	 * If an exception occurs, fall back to {@link #doPut individual puts}
+	 * so that the error handler gets invoked with the affected key and value.
+	 * @since 5.2.7
+	 * @see Cache#putAll(Map)
+	 */
+	protected void doPutAll(Cache cache, Map<?, ?> entries) {
+		try {
+			cache.putAll(entries);
+		}
+		catch (RuntimeException ex) {
+			entries.forEach((key, value) -> doPut(cache, key, value));
+		}
+	}
+
 	/**
 	 * Execute {@link Cache#evict(Object)}/{@link Cache#evictIfPresent(Object)} on the
 	 * specified {@link Cache} and invoke the error handler if an exception occurs.
@@ -21,15 +21,26 @@ import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.support.AopUtils;
@@ -44,6 +55,7 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.core.BridgeMethodResolver;
+import org.springframework.core.CollectionFactory;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -54,6 +66,8 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
+import org.springframework.util.concurrent.CompletableToListenableFutureAdapter;
+import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.function.SingletonSupplier;
 import org.springframework.util.function.SupplierUtils;
 
@@ -70,6 +84,12 @@ import org.springframework.util.function.SupplierUtils;
  * used for determining caching operations, a {@link KeyGenerator} will build the
  * cache keys, and a {@link CacheResolver} will resolve the actual cache(s) to use.
  *
+ * <p>Methods returning a {@link CompletableFuture}, a {@link ListenableFuture} or
+ * (if Reactor is present) a {@code Mono} or {@code Flux} are cached by the value
+ * they eventually resolve to rather than by the returned handle itself, with cache
+ * lookups going through {@link Cache#retrieve(Object)}. Concurrent misses for the
+ * same key on such methods share a single invocation.
+ *
  * <p>Note: A cache aspect is serializable but does not perform any actual caching
  * after deserialization.
  *
@@ -84,12 +104,20 @@ import org.springframework.util.function.SupplierUtils;
 public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		implements BeanFactoryAware, InitializingBean, SmartInitializingSingleton {
 
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.publisher.Flux", CacheAspectSupport.class.getClassLoader());
+
+
 	protected final Log logger = LogFactory.getLog(getClass());
 
 	private final Map<CacheOperationCacheKey, CacheOperationMetadata> metadataCache = new ConcurrentHashMap<>(1024);
 
 	private final CacheOperationExpressionEvaluator evaluator = new CacheOperationExpressionEvaluator();
 
+	private final Map<CoalescingKey, InFlightInvocation> inFlightInvocations = new ConcurrentHashMap<>(64);
+
+	private final Map<CoalescingKey, CompletableFuture<Object>> asyncInFlightInvocations = new ConcurrentHashMap<>(64);
+
 	@Nullable
 	private CacheOperationSource cacheOperationSource;
 
@@ -101,6 +129,10 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	@Nullable
 	private BeanFactory beanFactory;
 
+	private boolean coalesceMisses = false;
+
+	private boolean cacheAsyncValues = false;
+
 	private boolean initialized = false;
 
 
@@ -195,6 +227,65 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		this.cacheResolver = SingletonSupplier.of(new SimpleCacheResolver(cacheManager));
 	}
 
+	/**
+	 * Specify whether concurrent cache misses for the same key should be coalesced
+	 * into a single invocation of the underlying method.
+	 * <p>When enabled, the first caller missing a given key in a given set of caches
+	 * invokes the method and populates the caches, while any concurrent callers for
+	 * the same key wait for that invocation and share its result (or its exception)
+	 * instead of invoking the method themselves. In contrast to
+	 * {@link org.springframework.cache.annotation.Cacheable#sync() sync=true}, this
+	 * does not rely on the underlying cache provider for locking, and callers for
+	 * different keys never block each other.
+	 * <p>Coalescing only applies to methods declaring {@code @Cacheable} operations
+	 * exclusively; methods combined with {@code @CachePut} or {@code @CacheEvict}
+	 * are always invoked individually. Default is {@code false}.
+	 * @since 5.2.7
+	 */
+	public void setCoalesceMisses(boolean coalesceMisses) {
+		this.coalesceMisses = coalesceMisses;
+	}
+
+	/**
+	 * Return whether concurrent cache misses for the same key are coalesced
+	 * into a single invocation of the underlying method.
+	 * @since 5.2.7
+	 */
+	public boolean isCoalesceMisses() {
+		return this.coalesceMisses;
+	}
+
+	/**
+	 * Specify whether methods returning a {@link CompletableFuture},
+	 * {@link CompletionStage}, {@link ListenableFuture}, {@code Mono} or
+	 * {@code Flux} should cache the value they resolve to, rather than the
+	 * returned future or publisher instance itself.
+	 * <p>When enabled, a cache hit is returned as an already resolved future or
+	 * publisher, and the method result is put into the caches once it completes
+	 * successfully. A {@code Flux} is cached as the {@link List} of its elements.
+	 * Concurrent misses for the same key are coalesced if
+	 * {@link #setCoalesceMisses coalesceMisses} is enabled or if the operation
+	 * is declared with {@code sync=true}. For future return types, an exception
+	 * thrown by the method itself is rethrown to the caller as-is, whereas
+	 * reactive return types defer the cache lookup to subscription and
+	 * therefore signal such an exception as an error.
+	 * <p>Default is {@code false}, caching the returned instance as-is.
+	 * @since 5.2.7
+	 * @see Cache#retrieve(Object)
+	 */
+	public void setCacheAsyncValues(boolean cacheAsyncValues) {
+		this.cacheAsyncValues = cacheAsyncValues;
+	}
+
+	/**
+	 * Return whether methods with asynchronous return types cache the value
+	 * they resolve to.
+	 * @since 5.2.7
+	 */
+	public boolean isCacheAsyncValues() {
+		return this.cacheAsyncValues;
+	}
+
 	/**
 	 * Set the containing {@link BeanFactory} for {@link CacheManager} and other
 	 * service lookups.
@@ -281,6 +372,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		CacheOperationCacheKey cacheKey = new CacheOperationCacheKey(operation, method, targetClass);
 		CacheOperationMetadata metadata = this.metadataCache.get(cacheKey);
 		if (metadata == null) {
+			if (operation instanceof CacheableOperation && ((CacheableOperation) operation).isBatch() &&
+					!isBatchInvocationSupported()) {
+				throw new IllegalStateException("@Cacheable(batch=true) is not supported by " +
+						getClass().getSimpleName() + " on '" + method + "': use proxy mode instead");
+			}
 			KeyGenerator operationKeyGenerator;
 			if (StringUtils.hasText(operation.getKeyGenerator())) {
 				operationKeyGenerator = getBean(operation.getKeyGenerator(), KeyGenerator.class);
@@ -366,12 +462,57 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return invoker.invoke();
 	}
 
+	/**
+	 * Execute the underlying operation with the given arguments instead of the
+	 * original ones, e.g. for a subset of the keys of a batch operation.
+	 * @param invoker the invoker handling the operation being cached
+	 * @param args the arguments to use
+	 * @return the result of the invocation
+	 * @since 5.2.7
+	 * @see CacheOperationInvoker#invoke(Object[])
+	 */
+	protected Object invokeOperation(CacheOperationInvoker invoker, Object[] args) {
+		return invoker.invoke(args);
+	}
+
+	/**
+	 * Return whether the {@link CacheOperationInvoker} instances passed to
+	 * {@link #execute} support {@link CacheOperationInvoker#invoke(Object[])
+	 * invoking the method with different arguments}, as required for
+	 * {@code @Cacheable(batch=true)}.
+	 * <p>The default is {@code true}. Subclasses which cannot change the arguments
+	 * of an invocation should override this to reject batch operations as soon as
+	 * their metadata gets resolved, rather than failing on the first cache miss.
+	 * @since 5.2.7
+	 */
+	protected boolean isBatchInvocationSupported() {
+		return true;
+	}
+
 	private Class<?> getTargetClass(Object target) {
 		return AopProxyUtils.ultimateTargetClass(target);
 	}
 
 	@Nullable
 	private Object execute(final CacheOperationInvoker invoker, Method method, CacheOperationContexts contexts) {
+		// Special handling of per-element invocation
+		if (contexts.isBatch()) {
+			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
+			if (isConditionPassing(context, CacheOperationExpressionEvaluator.NO_RESULT)) {
+				return executeBatch(invoker, context, contexts.getBatchArgumentIndex());
+			}
+			else {
+				// No caching required, only call the underlying method
+				return invokeOperation(invoker);
+			}
+		}
+
+		// Special handling of asynchronous return types, if caching their resolved values
+		AsyncValueAdapter asyncAdapter = contexts.getAsyncAdapter();
+		if (asyncAdapter != null) {
+			return asyncAdapter.fromFuture(() -> executeAsync(invoker, contexts, asyncAdapter));
+		}
+
 		// Special handling of synchronized invocation
 		if (contexts.isSynchronized()) {
 			CacheOperationContext context = contexts.get(CacheableOperation.class).iterator().next();
@@ -401,6 +542,101 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		// Check if we have a cached item matching the conditions
 		Cache.ValueWrapper cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
 
+		// Join an in-flight invocation for the same key, if coalescing is enabled
+		InFlightInvocation inFlight = null;
+		if (cacheHit == null && this.coalesceMisses && contexts.isCoalescable()) {
+			CoalescingKey coalescingKey = findCoalescingKey(contexts.get(CacheableOperation.class));
+			if (coalescingKey != null) {
+				InFlightInvocation candidate = new InFlightInvocation();
+				InFlightInvocation existing = this.inFlightInvocations.putIfAbsent(coalescingKey, candidate);
+				if (existing != null) {
+					return existing.await();
+				}
+				inFlight = candidate;
+				try {
+					// Another invocation may have completed in the meantime
+					cacheHit = findCachedItem(contexts.get(CacheableOperation.class));
+				}
+				catch (RuntimeException | Error ex) {
+					this.inFlightInvocations.remove(coalescingKey, inFlight);
+					inFlight.fail(ex);
+					throw ex;
+				}
+				if (cacheHit != null) {
+					this.inFlightInvocations.remove(coalescingKey, inFlight);
+					Object returnValue = wrapCacheValue(method, cacheHit.get());
+					inFlight.complete(returnValue);
+					return returnValue;
+				}
+				return executeCoalesced(invoker, method, contexts, coalescingKey, inFlight);
+			}
+		}
+
+		return execute(invoker, method, contexts, cacheHit);
+	}
+
+	/**
+	 * Look up all elements of the batch argument in the caches, invoke the method
+	 * for the missing elements only and merge its result with the cached entries.
+	 */
+	@Nullable
+	private Object executeBatch(CacheOperationInvoker invoker, CacheOperationContext context, int argumentIndex) {
+		Object[] args = context.getArgs();
+		Collection<?> keys = (Collection<?>) args[argumentIndex];
+		if (keys == null) {
+			return invokeOperation(invoker);
+		}
+
+		Map<Object, Object> cached = new LinkedHashMap<>(keys.size());
+		Set<Object> missingKeys = new LinkedHashSet<>(keys);
+		for (Cache cache : context.getCaches()) {
+			if (missingKeys.isEmpty()) {
+				break;
+			}
+			Map<Object, Cache.ValueWrapper> found = doGetAll(cache, missingKeys);
+			found.forEach((key, wrapper) -> cached.put(key, wrapper.get()));
+			missingKeys.removeAll(found.keySet());
+		}
+		if (logger.isTraceEnabled()) {
+			logger.trace("Found " + cached.size() + " of " + keys.size() + " cache entries in cache(s) " +
+					context.getCacheNames() + " for operation " + context.metadata.operation);
+		}
+
+		Map<?, ?> loaded = Collections.emptyMap();
+		if (!missingKeys.isEmpty()) {
+			Class<?> collectionType = context.getMethod().getParameterTypes()[argumentIndex];
+			Collection<Object> missingArgument = CollectionFactory.createCollection(collectionType, missingKeys.size());
+			missingArgument.addAll(missingKeys);
+			Object[] invocationArgs = args.clone();
+			invocationArgs[argumentIndex] = missingArgument;
+			Map<?, ?> result = (Map<?, ?>) invokeOperation(invoker, invocationArgs);
+			if (result != null) {
+				loaded = result;
+				if (!loaded.isEmpty()) {
+					for (Cache cache : context.getCaches()) {
+						doPutAll(cache, loaded);
+					}
+				}
+			}
+		}
+
+		// Merge cached and loaded entries in the order of the requested keys
+		Map<Object, Object> returnValue = new LinkedHashMap<>(keys.size());
+		for (Object key : keys) {
+			if (cached.containsKey(key)) {
+				returnValue.put(key, cached.get(key));
+			}
+			else if (loaded.containsKey(key)) {
+				returnValue.put(key, loaded.get(key));
+			}
+		}
+		return returnValue;
+	}
+
+	@Nullable
+	private Object execute(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, @Nullable Cache.ValueWrapper cacheHit) {
+
 		// Collect puts from any @Cacheable miss, if no cached item is found
 		List<CachePutRequest> cachePutRequests = new LinkedList<>();
 		if (cacheHit == null) {
@@ -436,6 +672,235 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 		return returnValue;
 	}
 
+	/**
+	 * Execute the given cache miss on behalf of all callers waiting on the given
+	 * {@link InFlightInvocation}, only releasing the key once the result has been
+	 * put into the caches.
+	 */
+	@Nullable
+	private Object executeCoalesced(CacheOperationInvoker invoker, Method method,
+			CacheOperationContexts contexts, CoalescingKey coalescingKey, InFlightInvocation inFlight) {
+
+		try {
+			Object returnValue = execute(invoker, method, contexts, null);
+			inFlight.complete(returnValue);
+			return returnValue;
+		}
+		catch (RuntimeException | Error ex) {
+			inFlight.fail(ex);
+			throw ex;
+		}
+		finally {
+			this.inFlightInvocations.remove(coalescingKey, inFlight);
+		}
+	}
+
+	private CompletableFuture<Object> executeAsync(
+			CacheOperationInvoker invoker, CacheOperationContexts contexts, AsyncValueAdapter adapter) {
+
+		CompletableFuture<Object> future = lookupOrInvokeAsync(invoker, contexts, adapter);
+		if (future.isCompletedExceptionally()) {
+			// Rethrow an exception thrown by the method on the calling thread as-is
+			try {
+				future.join();
+			}
+			catch (CompletionException ex) {
+				if (ex.getCause() instanceof InvocationFailure) {
+					ReflectionUtils.rethrowRuntimeException(((InvocationFailure) ex.getCause()).failure);
+				}
+			}
+		}
+		CompletableFuture<Object> result = new CompletableFuture<>();
+		future.whenComplete((value, ex) -> {
+			if (ex != null) {
+				result.completeExceptionally(unwrapAsyncFailure(ex));
+			}
+			else {
+				result.complete(value);
+			}
+		});
+		return result;
+	}
+
+	private CompletableFuture<Object> lookupOrInvokeAsync(
+			CacheOperationInvoker invoker, CacheOperationContexts contexts, AsyncValueAdapter adapter) {
+
+		// Process any early evictions
+		processCacheEvicts(contexts.get(CacheEvictOperation.class), true,
+				CacheOperationExpressionEvaluator.NO_RESULT);
+
+		// Check if we have a cached item matching the conditions, and invoke the method if not
+		return findCachedItemAsync(contexts.get(CacheableOperation.class).iterator()).thenCompose(cacheHit -> {
+			if (cacheHit != null && !hasCachePut(contexts)) {
+				return CompletableFuture.completedFuture(cacheHit.get());
+			}
+			return coalesceOrInvokeAsync(invoker, contexts, adapter, cacheHit == null);
+		});
+	}
+
+	private CompletableFuture<Object> coalesceOrInvokeAsync(CacheOperationInvoker invoker,
+			CacheOperationContexts contexts, AsyncValueAdapter adapter, boolean cacheMiss) {
+
+		// Collect puts from any @Cacheable miss
+		List<CachePutRequest> cachePutRequests = new LinkedList<>();
+		CoalescingKey coalescingKey = null;
+		if (cacheMiss) {
+			collectPutRequests(contexts.get(CacheableOperation.class),
+					CacheOperationExpressionEvaluator.NO_RESULT, cachePutRequests);
+			if ((this.coalesceMisses || contexts.isSynchronized()) && contexts.isCoalescable()) {
+				coalescingKey = findCoalescingKey(contexts.get(CacheableOperation.class));
+			}
+		}
+
+		CompletableFuture<Object> promise = new CompletableFuture<>();
+		if (coalescingKey == null) {
+			return invokeAsync(invoker, contexts, adapter, cachePutRequests, null, promise);
+		}
+
+		// Join an in-flight invocation for the same key, if any
+		CompletableFuture<Object> existing = this.asyncInFlightInvocations.putIfAbsent(coalescingKey, promise);
+		if (existing != null) {
+			return existing.thenApply(Function.identity());
+		}
+
+		// Another invocation may have completed in the meantime
+		CoalescingKey keyToRelease = coalescingKey;
+		CompletableFuture<Cache.ValueWrapper> cacheHit;
+		try {
+			cacheHit = findCachedItemAsync(contexts.get(CacheableOperation.class).iterator());
+		}
+		catch (RuntimeException | Error ex) {
+			this.asyncInFlightInvocations.remove(keyToRelease, promise);
+			promise.completeExceptionally(ex);
+			throw ex;
+		}
+		return cacheHit.handle((wrapper, ex) -> {
+			if (ex == null && wrapper == null) {
+				return invokeAsync(invoker, contexts, adapter, cachePutRequests, keyToRelease, promise);
+			}
+			this.asyncInFlightInvocations.remove(keyToRelease, promise);
+			if (ex != null) {
+				promise.completeExceptionally(ex);
+			}
+			else {
+				promise.complete(wrapper.get());
+			}
+			return promise.thenApply(Function.identity());
+		}).thenCompose(Function.identity());
+	}
+
+	private CompletableFuture<Object> invokeAsync(CacheOperationInvoker invoker, CacheOperationContexts contexts,
+			AsyncValueAdapter adapter, List<CachePutRequest> cachePutRequests,
+			@Nullable CoalescingKey keyToRelease, CompletableFuture<Object> promise) {
+
+		CompletableFuture<Object> result;
+		try {
+			result = adapter.toFuture(invokeOperation(invoker));
+		}
+		catch (RuntimeException | Error ex) {
+			// Fail any joined callers, then propagate the exception to the invoking caller
+			if (keyToRelease != null) {
+				this.asyncInFlightInvocations.remove(keyToRelease, promise);
+			}
+			promise.completeExceptionally(ex);
+			throw new InvocationFailure(ex);
+		}
+
+		result.whenComplete((cacheValue, ex) -> {
+			Throwable failure = ex;
+			try {
+				if (failure == null) {
+					// Collect any explicit @CachePuts and process all put requests
+					collectPutRequests(contexts.get(CachePutOperation.class), cacheValue, cachePutRequests);
+					for (CachePutRequest cachePutRequest : cachePutRequests) {
+						cachePutRequest.apply(cacheValue);
+					}
+					// Process any late evictions
+					processCacheEvicts(contexts.get(CacheEvictOperation.class), false, cacheValue);
+				}
+			}
+			catch (Throwable cacheEx) {
+				failure = cacheEx;
+			}
+			finally {
+				if (keyToRelease != null) {
+					this.asyncInFlightInvocations.remove(keyToRelease, promise);
+				}
+			}
+			if (failure != null) {
+				promise.completeExceptionally(failure);
+			}
+			else {
+				promise.complete(cacheValue);
+			}
+		});
+		return promise.thenApply(Function.identity());
+	}
+
+	private Throwable unwrapAsyncFailure(Throwable ex) {
+		Throwable failure = (ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+		if (failure instanceof InvocationFailure) {
+			failure = ((InvocationFailure) failure).failure;
+		}
+		if (failure instanceof CacheOperationInvoker.ThrowableWrapper) {
+			failure = ((CacheOperationInvoker.ThrowableWrapper) failure).getOriginal();
+		}
+		return failure;
+	}
+
+	private CompletableFuture<Cache.ValueWrapper> findCachedItemAsync(Iterator<CacheOperationContext> contexts) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		while (contexts.hasNext()) {
+			CacheOperationContext context = contexts.next();
+			if (isConditionPassing(context, result)) {
+				Object key = generateKey(context, result);
+				return findInCachesAsync(context.getCaches().iterator(), key).thenCompose(cached -> {
+					if (cached != null) {
+						return CompletableFuture.completedFuture(cached);
+					}
+					if (logger.isTraceEnabled()) {
+						logger.trace("No cache entry for key '" + key + "' in cache(s) " + context.getCacheNames());
+					}
+					return findCachedItemAsync(contexts);
+				});
+			}
+		}
+		return CompletableFuture.completedFuture(null);
+	}
+
+	private CompletableFuture<Cache.ValueWrapper> findInCachesAsync(Iterator<? extends Cache> caches, Object key) {
+		if (!caches.hasNext()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Cache cache = caches.next();
+		return doRetrieve(cache, key).thenCompose(wrapper -> {
+			if (wrapper != null) {
+				if (logger.isTraceEnabled()) {
+					logger.trace("Cache entry for key '" + key + "' found in cache '" + cache.getName() + "'");
+				}
+				return CompletableFuture.completedFuture(wrapper);
+			}
+			return findInCachesAsync(caches, key);
+		});
+	}
+
+	/**
+	 * Determine the key to coalesce concurrent misses on, based on the first
+	 * {@link CacheableOperation} that passes its condition.
+	 * @param contexts the cacheable operations
+	 * @return the coalescing key, or {@code null} if no operation applies
+	 */
+	@Nullable
+	private CoalescingKey findCoalescingKey(Collection<CacheOperationContext> contexts) {
+		Object result = CacheOperationExpressionEvaluator.NO_RESULT;
+		for (CacheOperationContext context : contexts) {
+			if (isConditionPassing(context, result)) {
+				return new CoalescingKey(context.getCacheNames(), generateKey(context, result));
+			}
+		}
+		return null;
+	}
+
 	@Nullable
 	private Object wrapCacheValue(Method method, @Nullable Object cacheValue) {
 		if (method.getReturnType() == Optional.class &&
@@ -591,6 +1056,11 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 
 		private final boolean sync;
 
+		private final int batchArgumentIndex;
+
+		@Nullable
+		private final AsyncValueAdapter asyncAdapter;
+
 		public CacheOperationContexts(Collection<? extends CacheOperation> operations, Method method,
 				Object[] args, Object target, Class<?> targetClass) {
 
@@ -599,6 +1069,8 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 				this.contexts.add(op.getClass(), getOperationContext(op, method, args, target, targetClass));
 			}
 			this.sync = determineSyncFlag(method);
+			this.batchArgumentIndex = determineBatchArgumentIndex(method);
+			this.asyncAdapter = (cacheAsyncValues ? determineAsyncAdapter(method) : null);
 		}
 
 		public Collection<CacheOperationContext> get(Class<? extends CacheOperation> operationClass) {
@@ -610,6 +1082,23 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			return this.sync;
 		}
 
+		public boolean isBatch() {
+			return (this.batchArgumentIndex >= 0);
+		}
+
+		public int getBatchArgumentIndex() {
+			return this.batchArgumentIndex;
+		}
+
+		@Nullable
+		public AsyncValueAdapter getAsyncAdapter() {
+			return this.asyncAdapter;
+		}
+
+		public boolean isCoalescable() {
+			return (this.contexts.size() == 1 && this.contexts.containsKey(CacheableOperation.class));
+		}
+
 		private boolean determineSyncFlag(Method method) {
 			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
 			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
@@ -645,6 +1134,83 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 			}
 			return false;
 		}
+
+		private int determineBatchArgumentIndex(Method method) {
+			List<CacheOperationContext> cacheOperationContexts = this.contexts.get(CacheableOperation.class);
+			if (cacheOperationContexts == null) {  // no @Cacheable operation at all
+				return -1;
+			}
+			boolean batchEnabled = false;
+			for (CacheOperationContext cacheOperationContext : cacheOperationContexts) {
+				if (((CacheableOperation) cacheOperationContext.getOperation()).isBatch()) {
+					batchEnabled = true;
+					break;
+				}
+			}
+			if (!batchEnabled) {
+				return -1;
+			}
+			if (this.contexts.size() > 1) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with other cache operations on '" + method + "'");
+			}
+			if (cacheOperationContexts.size() > 1) {
+				throw new IllegalStateException(
+						"Only one @Cacheable(batch=true) entry is allowed on '" + method + "'");
+			}
+			CacheableOperation operation = (CacheableOperation) cacheOperationContexts.get(0).getOperation();
+			if (operation.isSync()) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) cannot be combined with sync attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKey())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support key attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getUnless())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support unless attribute on '" + operation + "'");
+			}
+			if (StringUtils.hasText(operation.getKeyGenerator())) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) does not support keyGenerator attribute on '" + operation + "'");
+			}
+			if (!method.getReturnType().isAssignableFrom(LinkedHashMap.class)) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) requires a Map return type on '" + method + "'");
+			}
+			int argumentIndex = -1;
+			Class<?>[] parameterTypes = method.getParameterTypes();
+			for (int i = 0; i < parameterTypes.length; i++) {
+				if (Collection.class.isAssignableFrom(parameterTypes[i])) {
+					if (argumentIndex >= 0) {
+						argumentIndex = -1;
+						break;
+					}
+					argumentIndex = i;
+				}
+			}
+			if (argumentIndex < 0 || method.isVarArgs()) {
+				throw new IllegalStateException(
+						"@Cacheable(batch=true) requires exactly one Collection parameter on '" + method + "'");
+			}
+			return argumentIndex;
+		}
+
+		@Nullable
+		private AsyncValueAdapter determineAsyncAdapter(Method method) {
+			Class<?> returnType = method.getReturnType();
+			if (returnType == CompletableFuture.class || returnType == CompletionStage.class) {
+				return CompletableFutureAdapter.INSTANCE;
+			}
+			if (returnType == ListenableFuture.class) {
+				return ListenableFutureAdapter.INSTANCE;
+			}
+			if (reactorPresent) {
+				return ReactorAdapters.forReturnType(returnType);
+			}
+			return null;
+		}
 	}
 
 
@@ -825,6 +1391,221 @@ public abstract class CacheAspectSupport extends AbstractCacheInvoker
 	}
 
 
+	/**
+	 * Key for an in-flight invocation: the names of the target caches
+	 * along with the computed cache key.
+	 */
+	private static final class CoalescingKey {
+
+		private final Collection<String> cacheNames;
+
+		private final Object key;
+
+		private CoalescingKey(Collection<String> cacheNames, Object key) {
+			this.cacheNames = cacheNames;
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof CoalescingKey)) {
+				return false;
+			}
+			CoalescingKey otherKey = (CoalescingKey) other;
+			return (this.cacheNames.equals(otherKey.cacheNames) && this.key.equals(otherKey.key));
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.cacheNames.hashCode() * 31 + this.key.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return this.key + " in " + this.cacheNames;
+		}
+	}
+
+
+	/**
+	 * The result of an invocation shared with concurrent callers for the same key.
+	 */
+	private static final class InFlightInvocation {
+
+		private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+		void complete(@Nullable Object returnValue) {
+			this.result.complete(returnValue);
+		}
+
+		void fail(Throwable ex) {
+			this.result.completeExceptionally(ex);
+		}
+
+		@Nullable
+		Object await() {
+			try {
+				return this.result.join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw ex;
+			}
+		}
+	}
+
+
+	/**
+	 * Marks an exception thrown by the method itself, as opposed to an
+	 * exception from a returned future, for propagating it to the caller as-is.
+	 */
+	@SuppressWarnings("serial")
+	private static final class InvocationFailure extends RuntimeException {
+
+		final Throwable failure;
+
+		InvocationFailure(Throwable failure) {
+			super(null, null, false, false);
+			this.failure = failure;
+		}
+	}
+
+
+	/**
+	 * Strategy for adapting an asynchronous return type to and from a
+	 * {@link CompletableFuture} for the value to cache.
+	 */
+	private interface AsyncValueAdapter {
+
+		/**
+		 * Adapt the given return value to a future for the value to cache.
+		 */
+		CompletableFuture<Object> toFuture(@Nullable Object returnValue);
+
+		/**
+		 * Adapt a future for the cached value to the declared return type.
+		 */
+		Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier);
+	}
+
+
+	private static final class CompletableFutureAdapter implements AsyncValueAdapter {
+
+		static final CompletableFutureAdapter INSTANCE = new CompletableFutureAdapter();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ? ((CompletionStage<Object>) returnValue).toCompletableFuture() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return futureSupplier.get();
+		}
+	}
+
+
+	private static final class ListenableFutureAdapter implements AsyncValueAdapter {
+
+		static final ListenableFutureAdapter INSTANCE = new ListenableFutureAdapter();
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+			return (returnValue != null ? ((ListenableFuture<Object>) returnValue).completable() :
+					CompletableFuture.completedFuture(null));
+		}
+
+		@Override
+		public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			return new CompletableToListenableFutureAdapter<>(futureSupplier.get());
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 * A {@code Mono} is cached by its value, a {@code Flux} by the
+	 * {@link List} of its elements.
+	 */
+	private static final class ReactorAdapters {
+
+		@Nullable
+		static AsyncValueAdapter forReturnType(Class<?> returnType) {
+			if (returnType == Mono.class) {
+				return MonoAdapter.INSTANCE;
+			}
+			if (returnType == Flux.class) {
+				return FluxAdapter.INSTANCE;
+			}
+			return null;
+		}
+
+		/**
+		 * Obtain the future on subscription, signalling an exception thrown
+		 * by the method itself through the future as well.
+		 */
+		static CompletableFuture<Object> obtainFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+			try {
+				return futureSupplier.get();
+			}
+			catch (CacheOperationInvoker.ThrowableWrapper ex) {
+				CompletableFuture<Object> future = new CompletableFuture<>();
+				future.completeExceptionally(ex.getOriginal());
+				return future;
+			}
+		}
+
+		private static final class MonoAdapter implements AsyncValueAdapter {
+
+			static final MonoAdapter INSTANCE = new MonoAdapter();
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+				return (returnValue != null ? Mono.from((Publisher<Object>) returnValue).toFuture() :
+						CompletableFuture.completedFuture(null));
+			}
+
+			@Override
+			public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+				return Mono.defer(() -> Mono.fromFuture(obtainFuture(futureSupplier)));
+			}
+		}
+
+		private static final class FluxAdapter implements AsyncValueAdapter {
+
+			static final FluxAdapter INSTANCE = new FluxAdapter();
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public CompletableFuture<Object> toFuture(@Nullable Object returnValue) {
+				return (returnValue != null ?
+						Flux.from((Publisher<Object>) returnValue).collectList().cast(Object.class).toFuture() :
+						CompletableFuture.completedFuture(Collections.emptyList()));
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public Object fromFuture(Supplier<CompletableFuture<Object>> futureSupplier) {
+				return Flux.defer(() -> Mono.fromFuture(obtainFuture(futureSupplier))
+						.flatMapIterable(list -> (List<Object>) list));
+			}
+		}
+	}
+
+
 	private static final class CacheOperationCacheKey implements Comparable<CacheOperationCacheKey> {
 
 		private final CacheOperation cacheOperation;
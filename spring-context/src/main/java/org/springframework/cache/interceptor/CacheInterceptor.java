@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
 
+import org.springframework.aop.ProxyMethodInvocation;
 import org.springframework.lang.Nullable;
 
 /**
@@ -48,12 +49,37 @@ public class CacheInterceptor extends CacheAspectSupport implements MethodInterc
 	public Object invoke(final MethodInvocation invocation) throws Throwable {
 		Method method = invocation.getMethod();
 
-		CacheOperationInvoker aopAllianceInvoker = () -> {
-			try {
-				return invocation.proceed();
+		CacheOperationInvoker aopAllianceInvoker = new CacheOperationInvoker() {
+			@Override
+			public Object invoke() {
+				try {
+					return invocation.proceed();
+				}
+				catch (Throwable ex) {
+					throw new ThrowableWrapper(ex);
+				}
 			}
-			catch (Throwable ex) {
-				throw new CacheOperationInvoker.ThrowableWrapper(ex);
+			@Override
+			public Object invoke(Object[] args) {
+				if (invocation instanceof ProxyMethodInvocation) {
+					// Proceed on a clone, leaving the arguments of the caller's invocation untouched
+					try {
+						return ((ProxyMethodInvocation) invocation).invocableClone(args).proceed();
+					}
+					catch (Throwable ex) {
+						throw new ThrowableWrapper(ex);
+					}
+				}
+				// Otherwise change the arguments in place, restoring them afterwards
+				Object[] arguments = invocation.getArguments();
+				Object[] originalArguments = arguments.clone();
+				System.arraycopy(args, 0, arguments, 0, arguments.length);
+				try {
+					return invoke();
+				}
+				finally {
+					System.arraycopy(originalArguments, 0, arguments, 0, arguments.length);
+				}
 			}
 		};
 
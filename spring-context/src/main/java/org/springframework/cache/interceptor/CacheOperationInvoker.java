@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -38,6 +38,24 @@ public interface CacheOperationInvoker {
 	 */
 	Object invoke() throws ThrowableWrapper;
 
+	/**
+	 * Invoke the cache operation defined by this instance with the given
+	 * arguments instead of the original ones. Wraps any exception that is
+	 * thrown during the invocation in a {@link ThrowableWrapper}.
+	 * <p>The default implementation throws an {@link UnsupportedOperationException}:
+	 * implementations need to override this for supporting
+	 * {@code @Cacheable(batch=true)}, with the caching aspect declaring this through
+	 * {@link CacheAspectSupport#isBatchInvocationSupported()}.
+	 * @param args the arguments to use for the invocation
+	 * @return the result of the operation
+	 * @throws ThrowableWrapper if an error occurred while invoking the operation
+	 * @since 5.2.7
+	 */
+	default Object invoke(Object[] args) throws ThrowableWrapper {
+		throw new UnsupportedOperationException(
+				"Invocation with custom arguments not supported by " + getClass().getName());
+	}
+
 
 	/**
 	 * Wrap any exception thrown while invoking {@link #invoke()}.
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+/**
+ * Runtime statistics of a {@link org.springframework.cache.Cache} implementation.
+ *
+ * <p>Follows the MXBean conventions, so that any cache implementing this
+ * interface can be registered with an {@link javax.management.MBeanServer}
+ * as-is, e.g. through
+ * {@link org.springframework.jmx.export.MBeanExporter#registerManagedResource}.
+ *
+ * @since 5.2.7
+ * @see org.springframework.cache.concurrent.BoundedConcurrentMapCache
+ */
+public interface CacheStatisticsMXBean {
+
+	/**
+	 * Return the name of the cache.
+	 */
+	String getName();
+
+	/**
+	 * Return the current number of entries in the cache.
+	 */
+	long getSize();
+
+	/**
+	 * Return the current total weight of the entries in the cache,
+	 * which equals the size unless a custom weigher is in use.
+	 */
+	long getWeight();
+
+	/**
+	 * Return the number of lookups which found a cache entry.
+	 */
+	long getHitCount();
+
+	/**
+	 * Return the number of lookups which did not find a cache entry.
+	 */
+	long getMissCount();
+
+	/**
+	 * Return the ratio of hits to the total number of lookups,
+	 * or {@code 1.0} if there have been no lookups yet.
+	 */
+	double getHitRatio();
+
+	/**
+	 * Return the number of entries removed due to size or weight constraints.
+	 */
+	long getEvictionCount();
+
+	/**
+	 * Return the number of entries removed due to expiration.
+	 */
+	long getExpirationCount();
+
+	/**
+	 * Reset all counters to zero.
+	 */
+	void resetStatistics();
+
+}
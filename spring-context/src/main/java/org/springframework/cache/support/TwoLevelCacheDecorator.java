@@ -0,0 +1,384 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Cache decorator which layers a bounded in-process near cache in front of a
+ * target {@link Cache}, typically backed by a remote or out-of-process store.
+ *
+ * <p>Lookups are served from the near cache if possible, falling back to the
+ * target cache and keeping the value locally for subsequent lookups. The least
+ * recently used local entry is dropped once the configured maximum size is
+ * exceeded. Write operations go to the target cache and update or drop the
+ * local entry accordingly. Local entries expire after a configurable time to
+ * live, so that changes made by other nodes are picked up eventually even
+ * without an explicit invalidation.
+ *
+ * <p>Since other nodes may modify the target cache, the near cache offers
+ * {@link #evictLocal} and {@link #clearLocal} hooks for dropping local state
+ * only, e.g. in response to an invalidation message. Conversely, an
+ * {@link InvalidationListener} gets notified of local writes that other
+ * nodes should be informed about.
+ *
+ * @since 5.2.7
+ * @see TwoLevelCacheManagerProxy
+ */
+public class TwoLevelCacheDecorator implements Cache {
+
+	/**
+	 * Default maximum number of entries in the near cache: 256.
+	 */
+	public static final int DEFAULT_NEAR_CACHE_SIZE = 256;
+
+	/**
+	 * Default time to live of near cache entries: 60 seconds.
+	 */
+	public static final Duration DEFAULT_NEAR_CACHE_TIME_TO_LIVE = Duration.ofSeconds(60);
+
+
+	private final Cache targetCache;
+
+	private final Map<Object, NearEntry> nearCache;
+
+	private final long timeToLiveNanos;
+
+	@Nullable
+	private final InvalidationListener invalidationListener;
+
+
+	/**
+	 * Create a new TwoLevelCacheDecorator for the given target Cache,
+	 * with a near cache of {@link #DEFAULT_NEAR_CACHE_SIZE} entries which
+	 * expire after {@link #DEFAULT_NEAR_CACHE_TIME_TO_LIVE}.
+	 * @param targetCache the target Cache to decorate
+	 */
+	public TwoLevelCacheDecorator(Cache targetCache) {
+		this(targetCache, DEFAULT_NEAR_CACHE_SIZE, null);
+	}
+
+	/**
+	 * Create a new TwoLevelCacheDecorator for the given target Cache,
+	 * with near cache entries which expire after
+	 * {@link #DEFAULT_NEAR_CACHE_TIME_TO_LIVE}.
+	 * @param targetCache the target Cache to decorate
+	 * @param nearCacheSize the maximum number of entries in the near cache
+	 * @param invalidationListener a listener to notify of local write operations
+	 * (may be {@code null})
+	 */
+	public TwoLevelCacheDecorator(Cache targetCache, int nearCacheSize,
+			@Nullable InvalidationListener invalidationListener) {
+
+		this(targetCache, nearCacheSize, DEFAULT_NEAR_CACHE_TIME_TO_LIVE, invalidationListener);
+	}
+
+	/**
+	 * Create a new TwoLevelCacheDecorator for the given target Cache.
+	 * @param targetCache the target Cache to decorate
+	 * @param nearCacheSize the maximum number of entries in the near cache
+	 * @param nearCacheTimeToLive the time after which near cache entries expire,
+	 * or {@code null} to keep them until evicted or invalidated
+	 * @param invalidationListener a listener to notify of local write operations
+	 * (may be {@code null})
+	 */
+	@SuppressWarnings("serial")
+	public TwoLevelCacheDecorator(Cache targetCache, final int nearCacheSize,
+			@Nullable Duration nearCacheTimeToLive, @Nullable InvalidationListener invalidationListener) {
+
+		Assert.notNull(targetCache, "Target Cache must not be null");
+		Assert.isTrue(nearCacheSize > 0, "Near cache size must be greater than 0");
+		Assert.isTrue(nearCacheTimeToLive == null || !nearCacheTimeToLive.isNegative(),
+				"Near cache time to live must not be negative");
+		this.targetCache = targetCache;
+		this.nearCache = new LinkedHashMap<Object, NearEntry>(Math.min(nearCacheSize, 256), 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Object, NearEntry> eldest) {
+				return size() > nearCacheSize;
+			}
+		};
+		this.timeToLiveNanos = (nearCacheTimeToLive != null ? nearCacheTimeToLive.toNanos() : -1);
+		this.invalidationListener = invalidationListener;
+	}
+
+
+	/**
+	 * Return the target Cache that this Cache should delegate to.
+	 */
+	public Cache getTargetCache() {
+		return this.targetCache;
+	}
+
+	@Override
+	public String getName() {
+		return this.targetCache.getName();
+	}
+
+	@Override
+	public Object getNativeCache() {
+		return this.targetCache.getNativeCache();
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper get(Object key) {
+		Object nearValue = getLocal(key);
+		if (nearValue != null) {
+			return new SimpleValueWrapper(fromNearValue(nearValue));
+		}
+		ValueWrapper wrapper = this.targetCache.get(key);
+		if (wrapper != null) {
+			putLocal(key, wrapper.get());
+		}
+		return wrapper;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, @Nullable Class<T> type) {
+		Object nearValue = getLocal(key);
+		if (nearValue != null) {
+			Object value = fromNearValue(nearValue);
+			if (value != null && type != null && !type.isInstance(value)) {
+				throw new IllegalStateException(
+						"Cached value is not of required type [" + type.getName() + "]: " + value);
+			}
+			return (T) value;
+		}
+		ValueWrapper wrapper = get(key);
+		if (wrapper == null) {
+			return null;
+		}
+		Object value = wrapper.get();
+		if (value != null && type != null && !type.isInstance(value)) {
+			throw new IllegalStateException(
+					"Cached value is not of required type [" + type.getName() + "]: " + value);
+		}
+		return (T) value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public <T> T get(Object key, Callable<T> valueLoader) {
+		Object nearValue = getLocal(key);
+		if (nearValue != null) {
+			return (T) fromNearValue(nearValue);
+		}
+		T value = this.targetCache.get(key, valueLoader);
+		putLocal(key, value);
+		return value;
+	}
+
+	@Override
+	public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+		Map<Object, ValueWrapper> result = new LinkedHashMap<>(keys.size());
+		List<Object> missingKeys = new ArrayList<>();
+		for (Object key : keys) {
+			Object nearValue = getLocal(key);
+			if (nearValue != null) {
+				result.put(key, new SimpleValueWrapper(fromNearValue(nearValue)));
+			}
+			else {
+				missingKeys.add(key);
+			}
+		}
+		if (!missingKeys.isEmpty()) {
+			Map<Object, ValueWrapper> targetResult = this.targetCache.getAll(missingKeys);
+			targetResult.forEach((key, wrapper) -> putLocal(key, wrapper.get()));
+			result.putAll(targetResult);
+		}
+		return result;
+	}
+
+	@Override
+	public void put(Object key, @Nullable Object value) {
+		this.targetCache.put(key, value);
+		putLocal(key, value);
+		notifyInvalidation(key);
+	}
+
+	@Override
+	public void putAll(Map<?, ?> entries) {
+		this.targetCache.putAll(entries);
+		entries.forEach((key, value) -> {
+			putLocal(key, value);
+			notifyInvalidation(key);
+		});
+	}
+
+	@Override
+	@Nullable
+	public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+		ValueWrapper existing = this.targetCache.putIfAbsent(key, value);
+		if (existing != null) {
+			putLocal(key, existing.get());
+		}
+		else {
+			putLocal(key, value);
+			notifyInvalidation(key);
+		}
+		return existing;
+	}
+
+	@Override
+	public void evict(Object key) {
+		this.targetCache.evict(key);
+		evictLocal(key);
+		notifyInvalidation(key);
+	}
+
+	@Override
+	public boolean evictIfPresent(Object key) {
+		boolean evicted = this.targetCache.evictIfPresent(key);
+		evictLocal(key);
+		if (evicted) {
+			notifyInvalidation(key);
+		}
+		return evicted;
+	}
+
+	@Override
+	public void clear() {
+		this.targetCache.clear();
+		clearLocal();
+		notifyInvalidation(null);
+	}
+
+	@Override
+	public boolean invalidate() {
+		boolean invalidated = this.targetCache.invalidate();
+		clearLocal();
+		notifyInvalidation(null);
+		return invalidated;
+	}
+
+	/**
+	 * Drop the near cache entry for the given key, if any,
+	 * without affecting the target cache.
+	 * @param key the key whose local mapping is to be removed
+	 */
+	public void evictLocal(Object key) {
+		synchronized (this.nearCache) {
+			this.nearCache.remove(key);
+		}
+	}
+
+	/**
+	 * Drop all near cache entries, without affecting the target cache.
+	 */
+	public void clearLocal() {
+		synchronized (this.nearCache) {
+			this.nearCache.clear();
+		}
+	}
+
+	/**
+	 * Return the current number of entries in the near cache.
+	 */
+	public int getLocalSize() {
+		synchronized (this.nearCache) {
+			return this.nearCache.size();
+		}
+	}
+
+
+	@Nullable
+	private Object getLocal(Object key) {
+		synchronized (this.nearCache) {
+			NearEntry entry = this.nearCache.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (entry.isExpired()) {
+				this.nearCache.remove(key);
+				return null;
+			}
+			return entry.value;
+		}
+	}
+
+	private void putLocal(Object key, @Nullable Object value) {
+		long expiresAt = (this.timeToLiveNanos >= 0 ? System.nanoTime() + this.timeToLiveNanos : Long.MAX_VALUE);
+		NearEntry entry = new NearEntry(value != null ? value : NullValue.INSTANCE, expiresAt);
+		synchronized (this.nearCache) {
+			this.nearCache.put(key, entry);
+		}
+	}
+
+	@Nullable
+	private Object fromNearValue(Object nearValue) {
+		return (nearValue != NullValue.INSTANCE ? nearValue : null);
+	}
+
+	private void notifyInvalidation(@Nullable Object key) {
+		if (this.invalidationListener != null) {
+			this.invalidationListener.invalidated(getName(), key);
+		}
+	}
+
+
+	/**
+	 * A near cache value along with its expiration time.
+	 */
+	private static final class NearEntry {
+
+		final Object value;
+
+		private final long expiresAt;
+
+		NearEntry(Object value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired() {
+			return (this.expiresAt != Long.MAX_VALUE && System.nanoTime() - this.expiresAt >= 0);
+		}
+	}
+
+
+	/**
+	 * Callback interface for propagating local write operations to the near
+	 * caches of other nodes, e.g. through a messaging system which eventually
+	 * calls {@link TwoLevelCacheManagerProxy#evictLocal} on each receiver.
+	 */
+	@FunctionalInterface
+	public interface InvalidationListener {
+
+		/**
+		 * Notification that the given key has been modified or removed
+		 * in the target cache.
+		 * @param cacheName the name of the affected cache
+		 * @param key the affected key, or {@code null} if the entire cache
+		 * has been cleared
+		 */
+		void invalidated(String cacheName, @Nullable Object key);
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Proxy for a target {@link CacheManager}, exposing {@link TwoLevelCacheDecorator}
+ * instances which keep a bounded in-process near cache in front of each target
+ * {@link Cache}. Can be applied to any provider, e.g. a JCache or EhCache based
+ * cache manager, reducing round-trips for hot keys.
+ *
+ * <p>Near caches are local to this proxy: use {@link #evictLocal} and
+ * {@link #clearLocal} to apply invalidations received from other nodes, and
+ * register an {@link TwoLevelCacheDecorator.InvalidationListener} for
+ * broadcasting local write operations.
+ *
+ * @since 5.2.7
+ * @see #setTargetCacheManager
+ * @see TwoLevelCacheDecorator
+ */
+public class TwoLevelCacheManagerProxy implements CacheManager, InitializingBean {
+
+	private final ConcurrentMap<String, TwoLevelCacheDecorator> cacheMap = new ConcurrentHashMap<>(16);
+
+	@Nullable
+	private CacheManager targetCacheManager;
+
+	private int nearCacheSize = TwoLevelCacheDecorator.DEFAULT_NEAR_CACHE_SIZE;
+
+	@Nullable
+	private Duration nearCacheTimeToLive = TwoLevelCacheDecorator.DEFAULT_NEAR_CACHE_TIME_TO_LIVE;
+
+	@Nullable
+	private TwoLevelCacheDecorator.InvalidationListener invalidationListener;
+
+
+	/**
+	 * Create a new TwoLevelCacheManagerProxy, setting the target CacheManager
+	 * through the {@link #setTargetCacheManager} bean property.
+	 */
+	public TwoLevelCacheManagerProxy() {
+	}
+
+	/**
+	 * Create a new TwoLevelCacheManagerProxy for the given target CacheManager.
+	 * @param targetCacheManager the target CacheManager to proxy
+	 */
+	public TwoLevelCacheManagerProxy(CacheManager targetCacheManager) {
+		Assert.notNull(targetCacheManager, "Target CacheManager must not be null");
+		this.targetCacheManager = targetCacheManager;
+	}
+
+
+	/**
+	 * Set the target CacheManager to proxy.
+	 */
+	public void setTargetCacheManager(CacheManager targetCacheManager) {
+		this.targetCacheManager = targetCacheManager;
+	}
+
+	/**
+	 * Set the maximum number of entries to keep in each near cache.
+	 * <p>Default is {@link TwoLevelCacheDecorator#DEFAULT_NEAR_CACHE_SIZE}.
+	 */
+	public void setNearCacheSize(int nearCacheSize) {
+		this.nearCacheSize = nearCacheSize;
+	}
+
+	/**
+	 * Set the time after which near cache entries expire, or {@code null}
+	 * to keep them until evicted or invalidated.
+	 * <p>Default is {@link TwoLevelCacheDecorator#DEFAULT_NEAR_CACHE_TIME_TO_LIVE}.
+	 */
+	public void setNearCacheTimeToLive(@Nullable Duration nearCacheTimeToLive) {
+		this.nearCacheTimeToLive = nearCacheTimeToLive;
+	}
+
+	/**
+	 * Set a listener to notify of local write operations, for propagating
+	 * invalidations to the near caches of other nodes.
+	 */
+	public void setInvalidationListener(@Nullable TwoLevelCacheDecorator.InvalidationListener invalidationListener) {
+		this.invalidationListener = invalidationListener;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.targetCacheManager == null) {
+			throw new IllegalArgumentException("Property 'targetCacheManager' is required");
+		}
+	}
+
+
+	@Override
+	@Nullable
+	public Cache getCache(String name) {
+		TwoLevelCacheDecorator cache = this.cacheMap.get(name);
+		if (cache == null) {
+			Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+			Cache targetCache = this.targetCacheManager.getCache(name);
+			if (targetCache == null) {
+				return null;
+			}
+			cache = this.cacheMap.computeIfAbsent(name, key ->
+					new TwoLevelCacheDecorator(targetCache, this.nearCacheSize,
+							this.nearCacheTimeToLive, this.invalidationListener));
+		}
+		return cache;
+	}
+
+	@Override
+	public Collection<String> getCacheNames() {
+		Assert.state(this.targetCacheManager != null, "No target CacheManager set");
+		return this.targetCacheManager.getCacheNames();
+	}
+
+	/**
+	 * Drop the near cache entry for the given key in the specified cache,
+	 * without affecting the target cache.
+	 * @param cacheName the name of the cache
+	 * @param key the key to drop, or {@code null} to drop all local entries
+	 */
+	public void evictLocal(String cacheName, @Nullable Object key) {
+		TwoLevelCacheDecorator cache = this.cacheMap.get(cacheName);
+		if (cache != null) {
+			if (key != null) {
+				cache.evictLocal(key);
+			}
+			else {
+				cache.clearLocal();
+			}
+		}
+	}
+
+	/**
+	 * Drop all near cache entries in all caches, without affecting the target caches.
+	 */
+	public void clearLocal() {
+		for (TwoLevelCacheDecorator cache : this.cacheMap.values()) {
+			cache.clearLocal();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,8 @@
 
 package org.springframework.context;
 
+import java.util.Collection;
+
 /**
  * Interface that encapsulates event publication functionality.
  *
@@ -68,4 +70,22 @@ public interface ApplicationEventPublisher {
 	 */
 	void publishEvent(Object event);
 
+	/**
+	 * Notify all <strong>matching</strong> listeners registered with this
+	 * application of the given batch of events, in the given order.
+	 * <p>Each event that is not an {@link ApplicationEvent} is wrapped in a
+	 * {@link PayloadApplicationEvent}. Publishing a batch allows the multicaster
+	 * to hand over all events for an asynchronously executed listener at once.
+	 * <p>The default implementation publishes each event individually.
+	 * @param events the events to publish
+	 * @since 5.2.7
+	 * @see #publishEvent(Object)
+	 * @see org.springframework.context.event.ApplicationEventMulticaster#multicastEvents
+	 */
+	default void publishEvents(Collection<?> events) {
+		for (Object event : events) {
+			publishEvent(event);
+		}
+	}
+
 }
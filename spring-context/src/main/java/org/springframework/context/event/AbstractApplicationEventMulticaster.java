@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.context.event;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +26,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.BeanFactoryAware;
@@ -54,6 +56,12 @@ import org.springframework.util.ObjectUtils;
  * all events to all registered listeners, invoking them in the calling thread.
  * Alternative implementations could be more sophisticated in those respects.
  *
+ * <p>Pre-filtered listener retrievers are cached per event type and source type.
+ * Registering an additional listener only drops the cached retrievers for event
+ * types that the new listener applies to, so that incremental registration at
+ * runtime (e.g. for lazily initialized or prototype listener beans) does not
+ * invalidate the retrieval state for all other events.
+ *
  * @author Juergen Hoeller
  * @author Stephane Nicoll
  * @since 1.2.3
@@ -108,27 +116,63 @@ public abstract class AbstractApplicationEventMulticaster
 			// Explicitly remove target for a proxy, if registered already,
 			// in order to avoid double invocations of the same listener.
 			Object singletonTarget = AopProxyUtils.getSingletonTarget(listener);
-			if (singletonTarget instanceof ApplicationListener) {
-				this.defaultRetriever.applicationListeners.remove(singletonTarget);
+			if (singletonTarget instanceof ApplicationListener &&
+					this.defaultRetriever.applicationListeners.remove(singletonTarget)) {
+				evictRetrieversContaining(singletonTarget);
+			}
+			if (this.defaultRetriever.applicationListeners.add(listener)) {
+				// Only drop cached retrievers that the new listener would participate in
+				this.retrieverCache.keySet().removeIf(cacheKey ->
+						supportsEvent(listener, cacheKey.eventType, cacheKey.sourceType));
 			}
-			this.defaultRetriever.applicationListeners.add(listener);
-			this.retrieverCache.clear();
 		}
 	}
 
 	@Override
 	public void addApplicationListenerBean(String listenerBeanName) {
+		// Determine the affected retrievers before acquiring the mutex, since
+		// resolving the type of the listener bean may trigger bean creation.
+		ConfigurableBeanFactory beanFactory = this.beanFactory;
+		Object singleton = null;
+		Set<ListenerCacheKey> evaluatedKeys = null;
+		Set<ListenerCacheKey> affectedKeys = null;
+		if (beanFactory != null) {
+			singleton = beanFactory.getSingleton(listenerBeanName);
+			evaluatedKeys = new HashSet<>(this.retrieverCache.keySet());
+			affectedKeys = new HashSet<>();
+			for (ListenerCacheKey cacheKey : evaluatedKeys) {
+				if (mayParticipate(beanFactory, listenerBeanName, cacheKey.eventType)) {
+					affectedKeys.add(cacheKey);
+				}
+			}
+		}
+
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListenerBeans.add(listenerBeanName);
-			this.retrieverCache.clear();
+			if (this.defaultRetriever.applicationListenerBeans.add(listenerBeanName)) {
+				if (evaluatedKeys != null) {
+					// A listener bean may also rule out a previously detected singleton
+					// listener instance, so drop retrievers that contain that instance too.
+					// Retrievers cached in the meantime have not been evaluated at all.
+					Object listenerInstance = singleton;
+					Set<ListenerCacheKey> evaluated = evaluatedKeys;
+					Set<ListenerCacheKey> affected = affectedKeys;
+					this.retrieverCache.entrySet().removeIf(entry ->
+							!evaluated.contains(entry.getKey()) || affected.contains(entry.getKey()) ||
+							(listenerInstance != null && entry.getValue().applicationListeners.contains(listenerInstance)));
+				}
+				else {
+					this.retrieverCache.clear();
+				}
+			}
 		}
 	}
 
 	@Override
 	public void removeApplicationListener(ApplicationListener<?> listener) {
 		synchronized (this.retrievalMutex) {
-			this.defaultRetriever.applicationListeners.remove(listener);
-			this.retrieverCache.clear();
+			if (this.defaultRetriever.applicationListeners.remove(listener)) {
+				evictRetrieversContaining(listener);
+			}
 		}
 	}
 
@@ -149,6 +193,29 @@ public abstract class AbstractApplicationEventMulticaster
 		}
 	}
 
+	/**
+	 * Drop all cached retrievers that contain the given listener instance.
+	 * Must be called within the retrieval mutex.
+	 */
+	private void evictRetrieversContaining(Object listener) {
+		this.retrieverCache.values().removeIf(retriever -> retriever.applicationListeners.contains(listener));
+	}
+
+	/**
+	 * Conservatively determine whether the given listener bean might participate
+	 * in the retrieval for the given event type, also in case of a lookup failure.
+	 */
+	private boolean mayParticipate(
+			ConfigurableBeanFactory beanFactory, String listenerBeanName, ResolvableType eventType) {
+
+		try {
+			return supportsEvent(beanFactory, listenerBeanName, eventType);
+		}
+		catch (BeansException ex) {
+			return true;
+		}
+	}
+
 
 	/**
 	 * Return a Collection containing all ApplicationListeners.
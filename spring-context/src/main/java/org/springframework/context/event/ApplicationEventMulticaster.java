@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
+
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
@@ -85,4 +87,20 @@ public interface ApplicationEventMulticaster {
 	 */
 	void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType);
 
+	/**
+	 * Multicast the given batch of application events to appropriate listeners.
+	 * <p>The default implementation multicasts each event individually.
+	 * Implementations may group the deliveries per listener instead, e.g. to
+	 * hand over all events for an asynchronously executed listener in one task.
+	 * Each listener will still receive its events in the given order.
+	 * @param events the events to multicast
+	 * @since 5.2.7
+	 * @see #multicastEvent(ApplicationEvent)
+	 */
+	default void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		for (ApplicationEvent event : events) {
+			multicastEvent(event);
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,12 @@
 
 package org.springframework.context.event;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
@@ -25,6 +29,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -60,6 +65,11 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>As of 5.2.7, the listener method is bound to a {@link MethodHandle} at
+ * construction time, so that each event gets dispatched without going through
+ * {@link Method#invoke}. Reflection remains in use for argument arrays that do
+ * not match the method signature, in order to preserve its error reporting.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -70,6 +80,8 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	private static final boolean reactiveStreamsPresent = ClassUtils.isPresent(
 			"org.reactivestreams.Publisher", ApplicationListenerMethodAdapter.class.getClassLoader());
 
+	private static final Object[] EMPTY_ARGS = new Object[0];
+
 
 	protected final Log logger = LogFactory.getLog(getClass());
 
@@ -79,6 +91,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final Method targetMethod;
 
+	@Nullable
+	private final MethodHandle invoker;
+
+	@Nullable
+	private final Class<?> parameterType;
+
 	private final AnnotatedElementKey methodKey;
 
 	private final List<ResolvableType> declaredEventTypes;
@@ -88,6 +106,12 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final int order;
 
+	@Nullable
+	private final String executorName;
+
+	@Nullable
+	private volatile Executor executor;
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
@@ -100,12 +124,15 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
 		this.targetMethod = (!Proxy.isProxyClass(targetClass) ?
 				AopUtils.getMostSpecificMethod(method, targetClass) : this.method);
+		this.invoker = createInvoker(this.method);
+		this.parameterType = (this.method.getParameterCount() == 1 ? this.method.getParameterTypes()[0] : null);
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
+		this.executorName = (ann != null && StringUtils.hasText(ann.executor()) ? ann.executor() : null);
 	}
 
 	private static List<ResolvableType> resolveDeclaredEventTypes(Method method, @Nullable EventListener ann) {
@@ -138,6 +165,30 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return (ann != null ? ann.value() : 0);
 	}
 
+	/**
+	 * Create a {@link MethodHandle} for the given listener method, adapted to
+	 * a generic {@code (Object bean[, Object event])Object} signature.
+	 * @return the handle, or {@code null} if reflection needs to be used
+	 */
+	@Nullable
+	private static MethodHandle createInvoker(Method method) {
+		int count = method.getParameterCount();
+		if (count > 1) {
+			return null;
+		}
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			return handle.asType(MethodType.genericMethodType(count + 1));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
 
 	/**
 	 * Initialize this instance.
@@ -179,6 +230,28 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return this.order;
 	}
 
+	/**
+	 * Return the {@link java.util.concurrent.Executor} that this listener
+	 * is supposed to be invoked with, as declared through the {@code executor}
+	 * attribute of the {@link EventListener} annotation.
+	 * <p>The executor bean is lazily retrieved from the application context.
+	 * @return the executor, or {@code null} if none has been declared
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public Executor getExecutor() {
+		if (this.executorName == null) {
+			return null;
+		}
+		Executor executor = this.executor;
+		if (executor == null) {
+			Assert.notNull(this.applicationContext, "ApplicationContext must not be null");
+			executor = this.applicationContext.getBean(this.executorName, Executor.class);
+			this.executor = executor;
+		}
+		return executor;
+	}
+
 
 	/**
 	 * Process the specified {@link ApplicationEvent}, checking if the condition
@@ -210,7 +283,7 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			return null;
 		}
 		if (this.method.getParameterCount() == 0) {
-			return new Object[0];
+			return EMPTY_ARGS;
 		}
 		Class<?> declaredEventClass = declaredEventType.toClass();
 		if (!ApplicationEvent.class.isAssignableFrom(declaredEventClass) &&
@@ -300,6 +373,17 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 			return null;
 		}
 
+		MethodHandle invoker = this.invoker;
+		if (invoker != null && isInvocableWithHandle(bean, args)) {
+			try {
+				return (args.length == 0 ? (Object) invoker.invokeExact(bean) :
+						(Object) invoker.invokeExact(bean, args[0]));
+			}
+			catch (Throwable ex) {
+				throw handleTargetException(bean, ex, args);
+			}
+		}
+
 		ReflectionUtils.makeAccessible(this.method);
 		try {
 			return this.method.invoke(bean, args);
@@ -313,15 +397,36 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 		catch (InvocationTargetException ex) {
 			// Throw underlying exception
-			Throwable targetException = ex.getTargetException();
-			if (targetException instanceof RuntimeException) {
-				throw (RuntimeException) targetException;
-			}
-			else {
-				String msg = getInvocationErrorMessage(bean, "Failed to invoke event listener method", args);
-				throw new UndeclaredThrowableException(targetException, msg);
-			}
+			throw handleTargetException(bean, ex.getTargetException(), args);
+		}
+	}
+
+	/**
+	 * Check whether the given bean and arguments can be passed to the
+	 * pre-bound {@link MethodHandle} as-is. Anything else goes through
+	 * reflection which reports mismatches in a descriptive manner.
+	 */
+	private boolean isInvocableWithHandle(Object bean, Object[] args) {
+		if (args.length != this.method.getParameterCount()) {
+			return false;
+		}
+		if (!Modifier.isStatic(this.method.getModifiers()) && !this.method.getDeclaringClass().isInstance(bean)) {
+			return false;
+		}
+		Class<?> parameterType = this.parameterType;
+		if (args.length == 1 && parameterType != null) {
+			return (args[0] != null ? ClassUtils.resolvePrimitiveIfNecessary(parameterType).isInstance(args[0]) :
+					!parameterType.isPrimitive());
+		}
+		return true;
+	}
+
+	private RuntimeException handleTargetException(Object bean, Throwable targetException, Object[] args) {
+		if (targetException instanceof RuntimeException) {
+			return (RuntimeException) targetException;
 		}
+		String msg = getInvocationErrorMessage(bean, "Failed to invoke event listener method", args);
+		return new UndeclaredThrowableException(targetException, msg);
 	}
 
 	/**
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,22 +26,52 @@ import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.SpringProperties;
 import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.lang.Nullable;
 
 /**
  * Utility class for handling SpEL expression parsing for application events.
  * <p>Meant to be used as a reusable, thread-safe component.
  *
+ * <p>As of 5.2.7, condition expressions are compiled in
+ * {@link SpelCompilerMode#MIXED mixed mode} unless a compiler mode has been
+ * specified globally through the "spring.expression.compiler.mode" property.
+ *
  * @author Stephane Nicoll
  * @since 4.2
  * @see CachedExpressionEvaluator
  */
 class EventExpressionEvaluator extends CachedExpressionEvaluator {
 
+	private static final String COMPILER_MODE_PROPERTY_NAME = "spring.expression.compiler.mode";
+
+
 	private final Map<ExpressionKey, Expression> conditionCache = new ConcurrentHashMap<>(64);
 
 
+	/**
+	 * Create a new evaluator, compiling conditions against the default ClassLoader.
+	 */
+	public EventExpressionEvaluator() {
+		this(null);
+	}
+
+	/**
+	 * Create a new evaluator, compiling conditions against the given ClassLoader.
+	 * @param classLoader the ClassLoader to use as the basis for expression
+	 * compilation (typically the bean ClassLoader)
+	 */
+	public EventExpressionEvaluator(@Nullable ClassLoader classLoader) {
+		super(new SpelExpressionParser(new SpelParserConfiguration(
+				(SpringProperties.getProperty(COMPILER_MODE_PROPERTY_NAME) == null ? SpelCompilerMode.MIXED : null),
+				classLoader)));
+	}
+
+
 	/**
 	 * Determine if the condition defined by the specified expression evaluates
 	 * to {@code true}.
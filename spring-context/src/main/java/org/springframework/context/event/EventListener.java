@@ -73,6 +73,13 @@ import org.springframework.core.annotation.AliasFor;
  * to publish the event manually.</li>
  * </ul>
  *
+ * <p>Alternatively, a listener may declare the name of an
+ * {@link java.util.concurrent.Executor} bean to run on through the
+ * {@link #executor} attribute. Such listeners are dispatched to their executor
+ * by the {@link SimpleApplicationEventMulticaster}, with other listeners for
+ * the same event still being invoked in the publishing thread. In contrast to
+ * {@code @Async}, a return value will still be published as a new event.
+ *
  * <h3>Ordering Listeners</h3>
  * <p>It is also possible to define the order in which listeners for a
  * certain event are to be invoked. To do so, add Spring's common
@@ -128,4 +135,16 @@ public @interface EventListener {
 	 */
 	String condition() default "";
 
+	/**
+	 * The name of an {@link java.util.concurrent.Executor} bean (typically a
+	 * {@link org.springframework.core.task.TaskExecutor}) to invoke this
+	 * listener with.
+	 * <p>The default is {@code ""}, meaning that the listener is invoked
+	 * according to the multicaster's general policy, by default synchronously
+	 * in the publishing thread.
+	 * @since 5.2.7
+	 * @see SimpleApplicationEventMulticaster#determineExecutor
+	 */
+	String executor() default "";
+
 }
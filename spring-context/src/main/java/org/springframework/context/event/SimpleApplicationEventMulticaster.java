@@ -16,6 +16,11 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 
 import org.apache.commons.logging.Log;
@@ -26,6 +31,7 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.ResolvableType;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 import org.springframework.util.ErrorHandler;
 
 /**
@@ -40,6 +46,8 @@ import org.springframework.util.ErrorHandler;
  * This allows the danger of a rogue listener blocking the entire application,
  * but adds minimal overhead. Specify an alternative task executor to have
  * listeners executed in different threads, for example from a thread pool.
+ * Individual {@link EventListener @EventListener} methods may also declare an
+ * executor of their own, see {@link #determineExecutor}.
  *
  * @author Rod Johnson
  * @author Juergen Hoeller
@@ -130,8 +138,8 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 	@Override
 	public void multicastEvent(final ApplicationEvent event, @Nullable ResolvableType eventType) {
 		ResolvableType type = (eventType != null ? eventType : resolveDefaultEventType(event));
-		Executor executor = getTaskExecutor();
 		for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+			Executor executor = determineExecutor(listener);
 			if (executor != null) {
 				executor.execute(() -> invokeListener(listener, event));
 			}
@@ -141,6 +149,74 @@ public class SimpleApplicationEventMulticaster extends AbstractApplicationEventM
 		}
 	}
 
+	/**
+	 * Multicast the given batch of events, handing all events for a specific
+	 * asynchronously executed listener over to its executor in a single task.
+	 * Synchronously executed listeners get invoked per event in the calling
+	 * thread, after all asynchronous deliveries have been submitted.
+	 * @since 5.2.7
+	 * @see #determineExecutor
+	 */
+	@Override
+	public void multicastEvents(Collection<? extends ApplicationEvent> events) {
+		Map<ApplicationListener<?>, List<ApplicationEvent>> asyncDeliveries = new LinkedHashMap<>();
+		List<ApplicationEvent> syncEvents = new ArrayList<>(events.size());
+		List<List<ApplicationListener<?>>> syncListeners = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			List<ApplicationListener<?>> listeners = new ArrayList<>();
+			for (ApplicationListener<?> listener : getApplicationListeners(event, resolveDefaultEventType(event))) {
+				if (determineExecutor(listener) != null) {
+					asyncDeliveries.computeIfAbsent(listener, key -> new ArrayList<>()).add(event);
+				}
+				else {
+					listeners.add(listener);
+				}
+			}
+			if (!listeners.isEmpty()) {
+				syncEvents.add(event);
+				syncListeners.add(listeners);
+			}
+		}
+
+		asyncDeliveries.forEach((listener, listenerEvents) -> {
+			Executor executor = determineExecutor(listener);
+			Assert.state(executor != null, "No executor for listener");
+			executor.execute(() -> {
+				for (ApplicationEvent event : listenerEvents) {
+					invokeListener(listener, event);
+				}
+			});
+		});
+		for (int i = 0; i < syncEvents.size(); i++) {
+			ApplicationEvent event = syncEvents.get(i);
+			for (ApplicationListener<?> listener : syncListeners.get(i)) {
+				invokeListener(listener, event);
+			}
+		}
+	}
+
+	/**
+	 * Determine the executor to invoke the given listener with.
+	 * <p>The default implementation uses the executor declared by an
+	 * {@link EventListener#executor() @EventListener} method, if any,
+	 * falling back to the general {@link #setTaskExecutor task executor}.
+	 * Can be overridden for custom per-listener execution policies.
+	 * @param listener the ApplicationListener to invoke
+	 * @return the executor to use, or {@code null} for invoking the
+	 * listener synchronously in the calling thread
+	 * @since 5.2.7
+	 */
+	@Nullable
+	protected Executor determineExecutor(ApplicationListener<?> listener) {
+		if (listener instanceof ApplicationListenerMethodAdapter) {
+			Executor executor = ((ApplicationListenerMethodAdapter) listener).getExecutor();
+			if (executor != null) {
+				return executor;
+			}
+		}
+		return getTaskExecutor();
+	}
+
 	private ResolvableType resolveDefaultEventType(ApplicationEvent event) {
 		return ResolvableType.forInstance(event);
 	}
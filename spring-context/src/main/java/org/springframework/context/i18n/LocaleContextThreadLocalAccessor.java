@@ -0,0 +1,47 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.i18n;
+
+import org.springframework.core.task.support.ThreadLocalAccessor;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ThreadLocalAccessor} for the {@link LocaleContext} bound to the
+ * current thread through {@link LocaleContextHolder}, registered with
+ * {@link org.springframework.core.task.support.ContextPropagator#getDefault()}.
+ *
+ * @since 5.2.7
+ */
+public class LocaleContextThreadLocalAccessor implements ThreadLocalAccessor<LocaleContext> {
+
+	@Override
+	@Nullable
+	public LocaleContext getValue() {
+		return LocaleContextHolder.getLocaleContext();
+	}
+
+	@Override
+	public void setValue(LocaleContext value) {
+		LocaleContextHolder.setLocaleContext(value);
+	}
+
+	@Override
+	public void reset() {
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+}
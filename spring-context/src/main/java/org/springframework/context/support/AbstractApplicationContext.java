@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -414,6 +414,40 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
 		}
 	}
 
+	/**
+	 * Publish the given batch of events to all listeners, handing them to the
+	 * {@link ApplicationEventMulticaster#multicastEvents multicaster} at once.
+	 * @param events the events to publish (may be {@link ApplicationEvent
+	 * ApplicationEvents} or payload objects to be turned into a
+	 * {@link PayloadApplicationEvent})
+	 * @since 5.2.7
+	 */
+	@Override
+	public void publishEvents(Collection<?> events) {
+		Assert.notNull(events, "Events must not be null");
+
+		// Decorate events as ApplicationEvents if necessary
+		List<ApplicationEvent> applicationEvents = new ArrayList<>(events.size());
+		for (Object event : events) {
+			Assert.notNull(event, "Event must not be null");
+			applicationEvents.add(event instanceof ApplicationEvent ?
+					(ApplicationEvent) event : new PayloadApplicationEvent<>(this, event));
+		}
+
+		// Multicast right now if possible - or lazily once the multicaster is initialized
+		if (this.earlyApplicationEvents != null) {
+			this.earlyApplicationEvents.addAll(applicationEvents);
+		}
+		else {
+			getApplicationEventMulticaster().multicastEvents(applicationEvents);
+		}
+
+		// Publish events via parent context as well...
+		if (this.parent != null) {
+			this.parent.publishEvents(events);
+		}
+	}
+
 	/**
 	 * Return the internal ApplicationEventMulticaster used by the context.
 	 * @return the internal ApplicationEventMulticaster (never {@code null})
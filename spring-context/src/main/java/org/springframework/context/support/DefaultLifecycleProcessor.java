@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -25,8 +25,14 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -46,6 +52,12 @@ import org.springframework.util.Assert;
 /**
  * Default implementation of the {@link LifecycleProcessor} strategy.
  *
+ * <p>By default, the beans within each phase get started and stopped one after
+ * the other in the calling thread. As of 5.2.7, a {@link #setTaskExecutor
+ * task executor} may be specified for starting and stopping the beans within
+ * each phase concurrently, still starting a bean after its dependencies and
+ * stopping a bean after its dependent beans.
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @since 3.0
@@ -54,8 +66,14 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 
 	private final Log logger = LogFactory.getLog(getClass());
 
+	private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+
 	private volatile long timeoutPerShutdownPhase = 30000;
 
+	@Nullable
+	private volatile Executor taskExecutor;
+
 	private volatile boolean running;
 
 	@Nullable
@@ -71,6 +89,26 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		this.timeoutPerShutdownPhase = timeoutPerShutdownPhase;
 	}
 
+	/**
+	 * Specify an {@link Executor} for starting and stopping the beans within
+	 * each phase concurrently, e.g. a
+	 * {@link org.springframework.core.task.SimpleAsyncTaskExecutor} or a
+	 * {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor}.
+	 * <p>Phases are still processed one after the other: the next phase only
+	 * begins once all beans of the current phase have been started, or once
+	 * all beans have been stopped (or the {@link #setTimeoutPerShutdownPhase
+	 * shutdown timeout} elapsed). A bean gets started once its dependencies
+	 * have been started, and gets asked to stop once its dependent beans
+	 * have been asked to stop.
+	 * <p>Default is none, starting and stopping all beans in the calling thread.
+	 * Note that the given executor must not be managed through the same
+	 * lifecycle, and that tasks rejected by it will be run in the calling thread.
+	 * @since 5.2.7
+	 */
+	public void setTaskExecutor(@Nullable Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
 	@Override
 	public void setBeanFactory(BeanFactory beanFactory) {
 		if (!(beanFactory instanceof ConfigurableListableBeanFactory)) {
@@ -173,20 +211,57 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			for (String dependency : dependenciesForBean) {
 				doStart(lifecycleBeans, dependency, autoStartupOnly);
 			}
-			if (!bean.isRunning() &&
-					(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
-				if (logger.isTraceEnabled()) {
-					logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
-				}
-				try {
-					bean.start();
-				}
-				catch (Throwable ex) {
-					throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
-				}
-				if (logger.isDebugEnabled()) {
-					logger.debug("Successfully started bean '" + beanName + "'");
-				}
+			doStartBean(beanName, bean, autoStartupOnly);
+		}
+	}
+
+	/**
+	 * Start the specified bean as part of the given set of Lifecycle beans
+	 * on the given executor, once all beans that it depends on are started.
+	 * @param lifecycleBeans a Map with bean name as key and Lifecycle instance as value
+	 * @param beanName the name of the bean to start
+	 * @param startFutures the futures for the beans already scheduled in the current phase
+	 * @return a future which completes once the bean has been started
+	 */
+	private CompletableFuture<Void> doStartAsync(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			boolean autoStartupOnly, Executor executor, Map<String, CompletableFuture<Void>> startFutures) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null || bean == this) {
+			// Already scheduled in this phase or already started in a previous phase
+			return startFutures.getOrDefault(beanName, COMPLETED);
+		}
+		String[] dependenciesForBean = getBeanFactory().getDependenciesForBean(beanName);
+		CompletableFuture<?>[] dependencyFutures = new CompletableFuture<?>[dependenciesForBean.length];
+		for (int i = 0; i < dependenciesForBean.length; i++) {
+			dependencyFutures[i] = doStartAsync(
+					lifecycleBeans, dependenciesForBean[i], autoStartupOnly, executor, startFutures);
+		}
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependencyFutures)
+				.thenRunAsync(() -> doStartBean(beanName, bean, autoStartupOnly), executor);
+		startFutures.put(beanName, future);
+		return future;
+	}
+
+	/**
+	 * Start the given bean unless it is running already.
+	 */
+	private void doStartBean(String beanName, Lifecycle bean, boolean autoStartupOnly) {
+		if (!bean.isRunning() &&
+				(!autoStartupOnly || !(bean instanceof SmartLifecycle) || ((SmartLifecycle) bean).isAutoStartup())) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Starting bean '" + beanName + "' of type [" + bean.getClass().getName() + "]");
+			}
+			long startTime = System.nanoTime();
+			try {
+				bean.start();
+			}
+			catch (Throwable ex) {
+				throw new ApplicationContextException("Failed to start bean '" + beanName + "'", ex);
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully started bean '" + beanName + "' in " +
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
 			}
 		}
 	}
@@ -229,30 +304,7 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 			}
 			try {
 				if (bean.isRunning()) {
-					if (bean instanceof SmartLifecycle) {
-						if (logger.isTraceEnabled()) {
-							logger.trace("Asking bean '" + beanName + "' of type [" +
-									bean.getClass().getName() + "] to stop");
-						}
-						countDownBeanNames.add(beanName);
-						((SmartLifecycle) bean).stop(() -> {
-							latch.countDown();
-							countDownBeanNames.remove(beanName);
-							if (logger.isDebugEnabled()) {
-								logger.debug("Bean '" + beanName + "' completed its stop procedure");
-							}
-						});
-					}
-					else {
-						if (logger.isTraceEnabled()) {
-							logger.trace("Stopping bean '" + beanName + "' of type [" +
-									bean.getClass().getName() + "]");
-						}
-						bean.stop();
-						if (logger.isDebugEnabled()) {
-							logger.debug("Successfully stopped bean '" + beanName + "'");
-						}
-					}
+					doStopBean(beanName, bean, countDownBeanNames, latch::countDown);
 				}
 				else if (bean instanceof SmartLifecycle) {
 					// Don't wait for beans that aren't running...
@@ -267,6 +319,113 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 		}
 	}
 
+	/**
+	 * Stop the specified bean as part of the given set of Lifecycle beans
+	 * on the given executor, once all beans that depend on it have been
+	 * asked to stop.
+	 * @param lifecycleBeans a Map with bean name as key and Lifecycle instance as value
+	 * @param beanName the name of the bean to stop
+	 * @param stopFutures the futures for the beans already scheduled in the current phase
+	 * @param completionFutures the futures for the completed stop procedure of each bean
+	 * @return a future which completes once the bean has been asked to stop
+	 */
+	private CompletableFuture<Void> doStopAsync(Map<String, ? extends Lifecycle> lifecycleBeans, String beanName,
+			Executor executor, Map<String, CompletableFuture<Void>> stopFutures,
+			List<CompletableFuture<Void>> completionFutures, Set<String> countDownBeanNames) {
+
+		Lifecycle bean = lifecycleBeans.remove(beanName);
+		if (bean == null) {
+			// Already scheduled in this phase or already stopped in a previous phase
+			return stopFutures.getOrDefault(beanName, COMPLETED);
+		}
+		String[] dependentBeans = getBeanFactory().getDependentBeans(beanName);
+		CompletableFuture<?>[] dependentFutures = new CompletableFuture<?>[dependentBeans.length];
+		for (int i = 0; i < dependentBeans.length; i++) {
+			dependentFutures[i] = doStopAsync(lifecycleBeans, dependentBeans[i], executor,
+					stopFutures, completionFutures, countDownBeanNames);
+		}
+		CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+		completionFutures.add(completionFuture);
+		CompletableFuture<Void> future = CompletableFuture.allOf(dependentFutures).thenRunAsync(() -> {
+			try {
+				if (bean.isRunning()) {
+					countDownBeanNames.add(beanName);
+					doStopBean(beanName, bean, countDownBeanNames, () -> {
+						countDownBeanNames.remove(beanName);
+						completionFuture.complete(null);
+					});
+				}
+				else {
+					completionFuture.complete(null);
+				}
+			}
+			catch (Throwable ex) {
+				countDownBeanNames.remove(beanName);
+				completionFuture.complete(null);
+				if (logger.isWarnEnabled()) {
+					logger.warn("Failed to stop bean '" + beanName + "'", ex);
+				}
+			}
+		}, executor);
+		stopFutures.put(beanName, future);
+		return future;
+	}
+
+	/**
+	 * Stop the given running bean, invoking the given callback once a
+	 * {@link SmartLifecycle} bean completed its stop procedure.
+	 */
+	private void doStopBean(String beanName, Lifecycle bean, Set<String> countDownBeanNames, Runnable callback) {
+		long startTime = System.nanoTime();
+		if (bean instanceof SmartLifecycle) {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Asking bean '" + beanName + "' of type [" +
+						bean.getClass().getName() + "] to stop");
+			}
+			countDownBeanNames.add(beanName);
+			((SmartLifecycle) bean).stop(() -> {
+				callback.run();
+				countDownBeanNames.remove(beanName);
+				if (logger.isDebugEnabled()) {
+					logger.debug("Bean '" + beanName + "' completed its stop procedure in " +
+							TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+				}
+			});
+		}
+		else {
+			if (logger.isTraceEnabled()) {
+				logger.trace("Stopping bean '" + beanName + "' of type [" +
+						bean.getClass().getName() + "]");
+			}
+			bean.stop();
+			callback.run();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Successfully stopped bean '" + beanName + "' in " +
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+			}
+		}
+	}
+
+	/**
+	 * Return the {@link #setTaskExecutor task executor} for starting and
+	 * stopping beans concurrently, running rejected tasks in the calling thread.
+	 */
+	@Nullable
+	private Executor getTaskExecutor() {
+		Executor taskExecutor = this.taskExecutor;
+		if (taskExecutor == null) {
+			return null;
+		}
+		return task -> {
+			try {
+				taskExecutor.execute(task);
+			}
+			catch (RejectedExecutionException ex) {
+				task.run();
+			}
+		};
+	}
+
 
 	// overridable hooks
 
@@ -356,8 +515,37 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.debug("Starting beans in phase " + this.phase);
 			}
 			Collections.sort(this.members);
+			long startTime = System.nanoTime();
+			Executor executor = getTaskExecutor();
+			if (executor != null) {
+				startConcurrently(executor);
+			}
+			else {
+				for (LifecycleGroupMember member : this.members) {
+					doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Started beans in phase " + this.phase + " in " +
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+			}
+		}
+
+		private void startConcurrently(Executor executor) {
+			Map<String, CompletableFuture<Void>> startFutures = new HashMap<>();
+			List<CompletableFuture<Void>> futures = new ArrayList<>(this.members.size());
 			for (LifecycleGroupMember member : this.members) {
-				doStart(this.lifecycleBeans, member.name, this.autoStartupOnly);
+				futures.add(doStartAsync(this.lifecycleBeans, member.name, this.autoStartupOnly, executor, startFutures));
+			}
+			try {
+				CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+			}
+			catch (CompletionException ex) {
+				Throwable cause = ex.getCause();
+				if (cause instanceof ApplicationContextException) {
+					throw (ApplicationContextException) cause;
+				}
+				throw new ApplicationContextException("Failed to start beans in phase " + this.phase, cause);
 			}
 		}
 
@@ -369,6 +557,21 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				logger.debug("Stopping beans in phase " + this.phase);
 			}
 			this.members.sort(Collections.reverseOrder());
+			long startTime = System.nanoTime();
+			Executor executor = getTaskExecutor();
+			if (executor != null) {
+				stopConcurrently(executor);
+			}
+			else {
+				stopSequentially();
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Stopped beans in phase " + this.phase + " in " +
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+			}
+		}
+
+		private void stopSequentially() {
 			CountDownLatch latch = new CountDownLatch(this.smartMemberCount);
 			Set<String> countDownBeanNames = Collections.synchronizedSet(new LinkedHashSet<>());
 			Set<String> lifecycleBeanNames = new HashSet<>(this.lifecycleBeans.keySet());
@@ -393,6 +596,39 @@ public class DefaultLifecycleProcessor implements LifecycleProcessor, BeanFactor
 				Thread.currentThread().interrupt();
 			}
 		}
+
+		private void stopConcurrently(Executor executor) {
+			Map<String, CompletableFuture<Void>> stopFutures = new HashMap<>();
+			List<CompletableFuture<Void>> completionFutures = new ArrayList<>(this.members.size());
+			Set<String> countDownBeanNames = Collections.synchronizedSet(new LinkedHashSet<>());
+			Set<String> lifecycleBeanNames = new HashSet<>(this.lifecycleBeans.keySet());
+			for (LifecycleGroupMember member : this.members) {
+				if (lifecycleBeanNames.contains(member.name)) {
+					doStopAsync(this.lifecycleBeans, member.name, executor,
+							stopFutures, completionFutures, countDownBeanNames);
+				}
+			}
+			try {
+				CompletableFuture.allOf(completionFutures.toArray(new CompletableFuture<?>[0]))
+						.get(this.timeout, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException ex) {
+				if (!countDownBeanNames.isEmpty() && logger.isInfoEnabled()) {
+					logger.info("Failed to shut down " + countDownBeanNames.size() + " bean" +
+							(countDownBeanNames.size() > 1 ? "s" : "") + " with phase value " +
+							this.phase + " within timeout of " + this.timeout + "ms: " + countDownBeanNames);
+				}
+			}
+			catch (ExecutionException ex) {
+				// Not expected: each completion future gets completed normally.
+				if (logger.isWarnEnabled()) {
+					logger.warn("Failed to stop beans in phase " + this.phase, ex.getCause());
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
 	}
 
 
@@ -81,11 +81,14 @@ public @interface Scheduled {
 	 * <li>month</li>
 	 * <li>day of week</li>
 	 * </ul>
+	 * <p>Quartz-style {@code L}, {@code W} and {@code #} day expressions as well as
+	 * macros such as {@code "@daily"} are supported as well; see
+	 * {@link org.springframework.scheduling.support.CronExpression} for details.
 	 * <p>The special value {@link #CRON_DISABLED "-"} indicates a disabled cron
 	 * trigger, primarily meant for externally specified values resolved by a
 	 * <code>${...}</code> placeholder.
 	 * @return an expression that can be parsed to a cron schedule
-	 * @see org.springframework.scheduling.support.CronSequenceGenerator
+	 * @see org.springframework.scheduling.support.CronExpression
 	 */
 	String cron() default "";
 
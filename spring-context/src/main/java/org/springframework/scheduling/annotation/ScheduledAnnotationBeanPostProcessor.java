@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -72,6 +72,7 @@ import org.springframework.scheduling.config.ScheduledTaskHolder;
 import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.scheduling.support.TaskLockProvider;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import org.springframework.util.StringValueResolver;
@@ -90,6 +91,9 @@ import org.springframework.util.StringValueResolver;
  * control over task registration (e.g. registration of {@link Trigger} tasks.
  * See the @{@link EnableScheduling} javadocs for complete usage details.
  *
+ * <p>As of 5.2.7, a unique {@link TaskLockProvider} bean is autodetected as well,
+ * coordinating the execution of scheduled methods across several nodes.
+ *
  * @author Mark Fisher
  * @author Juergen Hoeller
  * @author Chris Beams
@@ -249,6 +253,12 @@ public class ScheduledAnnotationBeanPostProcessor
 			}
 		}
 
+		if (this.registrar.hasTasks() && this.registrar.getTaskLockProvider() == null && this.beanFactory != null) {
+			// Search for a unique TaskLockProvider bean for distributed coordination...
+			this.registrar.setTaskLockProvider(
+					this.beanFactory.getBeanProvider(TaskLockProvider.class).getIfUnique());
+		}
+
 		if (this.registrar.hasTasks() && this.registrar.getScheduler() == null) {
 			Assert.state(this.beanFactory != null, "BeanFactory must be set to find scheduler by type");
 			try {
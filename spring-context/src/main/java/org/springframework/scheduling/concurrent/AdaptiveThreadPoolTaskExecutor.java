@@ -0,0 +1,658 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskOverloadException;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.AimdConcurrencyLimit;
+import org.springframework.util.concurrent.ConcurrencyLimit;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * {@link org.springframework.core.task.TaskExecutor} implementation which bounds
+ * the number of concurrently executing tasks through an adaptive
+ * {@link ConcurrencyLimit}, queueing excess tasks in a bounded queue with
+ * deadline-aware admission and shedding load with a {@link TaskOverloadException}.
+ *
+ * <p>In contrast to {@link ThreadPoolTaskExecutor} with its fixed pool size and
+ * its typically unbounded queue, this executor keeps queueing delay in check
+ * under overload: the concurrency limit adapts to the observed execution time
+ * of the tasks (see {@link AimdConcurrencyLimit} and
+ * {@link org.springframework.util.concurrent.VegasConcurrencyLimit}), and a
+ * task only gets queued if the {@link #setQueueCapacity queue capacity} has not
+ * been reached and the task can be expected to start within the
+ * {@link #setQueueTimeoutMillis queue timeout}, based on the current limit
+ * and the average execution time. Otherwise, the submitting thread may wait for
+ * the {@link #setAdmissionTimeoutMillis admission timeout} and then either runs
+ * the task itself (see {@link #setCallerRunsOnOverload}) or receives a
+ * {@link TaskOverloadException}, e.g. to be translated to a "503 Service
+ * Unavailable" response for a {@code WebAsyncManager}-managed request.
+ *
+ * <p>Futures returned from {@code submit} methods fail with a
+ * {@link TaskOverloadException} if their task is still queued once its deadline
+ * has passed. Plain {@code Runnable} tasks, e.g. from {@code @Async} methods
+ * with a {@code CompletableFuture} return type, are executed in any case once
+ * admitted, since there is no way to report their cancellation to the caller.
+ * Shed futures as well as rejected tasks are reported as dropped to the
+ * concurrency limit, making it back off just like for slow executions.
+ *
+ * <p>Worker threads are created on demand through the configured
+ * {@link #setThreadFactory ThreadFactory}, up to the current concurrency limit,
+ * and are kept alive for {@link #setKeepAliveSeconds "keepAliveSeconds"}.
+ *
+ * @since 5.2.7
+ * @see #setConcurrencyLimit
+ * @see #setQueueCapacity
+ * @see #setQueueTimeoutMillis
+ * @see ThreadPoolTaskExecutor
+ * @see org.springframework.core.task.SimpleAsyncTaskExecutor#setAdaptiveConcurrencyLimit
+ */
+@SuppressWarnings("serial")
+public class AdaptiveThreadPoolTaskExecutor extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
+
+	private final Object monitor = new Object();
+
+	private ConcurrencyLimit concurrencyLimit = new AimdConcurrencyLimit();
+
+	private int queueCapacity = 100;
+
+	private long queueTimeoutNanos = TimeUnit.SECONDS.toNanos(5);
+
+	private long admissionTimeoutNanos = 0;
+
+	private boolean callerRunsOnOverload = false;
+
+	private int keepAliveSeconds = 60;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+	@Nullable
+	private ThreadPoolExecutor threadPoolExecutor;
+
+	private final Deque<QueuedTask> queue = new ArrayDeque<>();
+
+	private int inFlight;
+
+	private int waitingCallers;
+
+	private long averageRttNanos;
+
+
+	/**
+	 * Specify the {@link ConcurrencyLimit} which determines the maximum number
+	 * of concurrently executing tasks. Each executor needs its own instance.
+	 * <p>Default is a new {@link AimdConcurrencyLimit} with its default settings.
+	 * @see org.springframework.util.concurrent.VegasConcurrencyLimit
+	 */
+	public void setConcurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+		Assert.notNull(concurrencyLimit, "ConcurrencyLimit must not be null");
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	/**
+	 * Return the {@link ConcurrencyLimit} used by this executor.
+	 */
+	public ConcurrencyLimit getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	/**
+	 * Set the capacity of the queue for tasks exceeding the current concurrency
+	 * limit. Default is 100. A capacity of 0 sheds any task that cannot be
+	 * started right away.
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity >= 0, "Queue capacity must not be negative");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) that a task may wait in the queue.
+	 * Default is 5000.
+	 * <p>A task only gets queued if it is expected to start within this
+	 * time, and futures returned from {@code submit} methods fail with a
+	 * {@link TaskOverloadException} once it has elapsed before their task
+	 * started. A lower start timeout given to {@link #execute(Runnable, long)}
+	 * takes precedence.
+	 */
+	public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+		Assert.isTrue(queueTimeoutMillis > 0, "Queue timeout must be greater than 0");
+		this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+	}
+
+	/**
+	 * Set the maximum time (in milliseconds) that a submitting thread waits for
+	 * the executor to accept a task when the concurrency limit has been reached
+	 * and the queue does not admit the task either. Default is 0, i.e. applying
+	 * the overload policy right away.
+	 * <p>This provides backpressure towards the producers of tasks, only
+	 * shedding load (or running the task in the caller, see
+	 * {@link #setCallerRunsOnOverload}) once the timeout has elapsed.
+	 */
+	public void setAdmissionTimeoutMillis(long admissionTimeoutMillis) {
+		Assert.isTrue(admissionTimeoutMillis >= 0, "Admission timeout must not be negative");
+		this.admissionTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(admissionTimeoutMillis);
+	}
+
+	/**
+	 * Specify whether to run a task in the submitting thread if it cannot be
+	 * admitted within the {@link #setAdmissionTimeoutMillis admission timeout},
+	 * analogous to {@link ThreadPoolExecutor.CallerRunsPolicy}.
+	 * <p>Default is "false", throwing a {@link TaskOverloadException} instead.
+	 */
+	public void setCallerRunsOnOverload(boolean callerRunsOnOverload) {
+		this.callerRunsOnOverload = callerRunsOnOverload;
+	}
+
+	/**
+	 * Set the time (in seconds) that idle worker threads are kept alive.
+	 * Default is 60.
+	 */
+	public void setKeepAliveSeconds(int keepAliveSeconds) {
+		this.keepAliveSeconds = keepAliveSeconds;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * <p>Note that such a decorator is not necessarily being applied to the
+	 * user-supplied {@code Runnable}/{@code Callable} but rather to the actual
+	 * execution callback (which may be a wrapper around the user-supplied task).
+	 * <p>The primary use case is to set some execution context around the task's
+	 * invocation, or to provide some monitoring/statistics for task execution.
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		this.threadPoolExecutor = new WorkerThreadPoolExecutor(
+				this.keepAliveSeconds, threadFactory, rejectedExecutionHandler);
+		return this.threadPoolExecutor;
+	}
+
+	/**
+	 * Return the underlying ThreadPoolExecutor for native access.
+	 * @return the underlying ThreadPoolExecutor (never {@code null})
+	 * @throws IllegalStateException if the AdaptiveThreadPoolTaskExecutor hasn't been initialized yet
+	 */
+	public ThreadPoolExecutor getThreadPoolExecutor() throws IllegalStateException {
+		Assert.state(this.threadPoolExecutor != null, "AdaptiveThreadPoolTaskExecutor not initialized");
+		return this.threadPoolExecutor;
+	}
+
+	/**
+	 * Return the current concurrency limit.
+	 * @see ConcurrencyLimit#getLimit()
+	 */
+	public int getCurrentLimit() {
+		return Math.max(this.concurrencyLimit.getLimit(), 1);
+	}
+
+	/**
+	 * Return the number of tasks currently executing.
+	 */
+	public int getActiveCount() {
+		synchronized (this.monitor) {
+			return this.inFlight;
+		}
+	}
+
+	/**
+	 * Return the number of tasks currently waiting in the queue.
+	 */
+	public int getQueueSize() {
+		synchronized (this.monitor) {
+			return this.queue.size();
+		}
+	}
+
+	/**
+	 * Return the current number of worker threads.
+	 * @see java.util.concurrent.ThreadPoolExecutor#getPoolSize()
+	 */
+	public int getPoolSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume no threads.
+			return 0;
+		}
+		return this.threadPoolExecutor.getPoolSize();
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		doExecute(task, this.queueTimeoutNanos);
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		doExecute(task, (startTimeout > TIMEOUT_IMMEDIATE && startTimeout < TIMEOUT_INDEFINITE ?
+				Math.min(TimeUnit.MILLISECONDS.toNanos(startTimeout), this.queueTimeoutNanos) :
+				this.queueTimeoutNanos));
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		SheddableFutureTask<Object> future = new SheddableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		SheddableFutureTask<T> future = new SheddableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		SheddableFutureTask<Object> future = new SheddableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		SheddableFutureTask<T> future = new SheddableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+
+	/**
+	 * Admit the given task for execution, queueing it or starting a new worker
+	 * for it if possible, and otherwise applying the overload policy.
+	 */
+	private void doExecute(Runnable task, long queueTimeoutNanos) {
+		ThreadPoolExecutor executor = getThreadPoolExecutor();
+		if (executor.isShutdown()) {
+			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task);
+		}
+		Runnable decorated = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		QueuedTask queuedTask = new QueuedTask(task, instrumentTask(decorated), queueTimeoutNanos);
+
+		Admission admission = admit(queuedTask);
+		if (!admission.isAdmitted() && this.admissionTimeoutNanos > 0) {
+			admission = awaitAdmission(queuedTask);
+		}
+		switch (admission) {
+			case STARTED:
+				startWorker(queuedTask, task);
+				break;
+			case STARTED_FROM_QUEUE:
+				startWorker(null, task);
+				break;
+			case QUEUED:
+				break;
+			default:
+				recordDrop(queuedTask);
+				if (this.callerRunsOnOverload) {
+					queuedTask.taskToRun.run();
+				}
+				else {
+					recordTaskRejection(queuedTask.taskToRun);
+					if (admission == Admission.QUEUE_FULL) {
+						throw new TaskOverloadException("Executor [" + this + "] queue full at capacity " +
+								this.queueCapacity + " - did not accept task: " + task);
+					}
+					throw new TaskOverloadException("Executor [" + this + "] overloaded at concurrency limit " +
+							getCurrentLimit() + " - task not expected to start within its queue timeout: " + task);
+				}
+		}
+	}
+
+	/**
+	 * Try to admit the given task right away.
+	 */
+	private Admission admit(QueuedTask queuedTask) {
+		synchronized (this.monitor) {
+			int limit = getCurrentLimit();
+			boolean queueEmpty = this.queue.isEmpty();
+			if (this.inFlight < limit && queueEmpty) {
+				this.inFlight++;
+				return Admission.STARTED;
+			}
+			if (this.queue.size() >= this.queueCapacity) {
+				return Admission.QUEUE_FULL;
+			}
+			if (!isExpectedToStartInTime(queuedTask, limit)) {
+				return Admission.OVERLOADED;
+			}
+			this.queue.add(queuedTask);
+			if (this.inFlight < limit) {
+				// Catching up with a grown limit: start the oldest task first.
+				this.inFlight++;
+				return Admission.STARTED_FROM_QUEUE;
+			}
+			return Admission.QUEUED;
+		}
+	}
+
+	/**
+	 * Wait for the admission timeout at most for the given task to be admitted.
+	 */
+	private Admission awaitAdmission(QueuedTask queuedTask) {
+		long deadline = System.nanoTime() + this.admissionTimeoutNanos;
+		synchronized (this.monitor) {
+			this.waitingCallers++;
+			try {
+				Admission admission;
+				while (!(admission = admit(queuedTask)).isAdmitted()) {
+					long remainingNanos = deadline - System.nanoTime();
+					if (remainingNanos <= 0) {
+						break;
+					}
+					TimeUnit.NANOSECONDS.timedWait(this.monitor, remainingNanos);
+				}
+				return admission;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return admit(queuedTask);
+			}
+			finally {
+				this.waitingCallers--;
+			}
+		}
+	}
+
+	/**
+	 * Estimate whether the given task would start before its deadline if
+	 * added to the queue, based on the average execution time so far.
+	 */
+	private boolean isExpectedToStartInTime(QueuedTask queuedTask, int limit) {
+		long averageRtt = this.averageRttNanos;
+		if (averageRtt == 0) {
+			return true;
+		}
+		double expectedWait = (double) averageRtt * (this.queue.size() + 1) / limit;
+		return (expectedWait <= queuedTask.deadline - queuedTask.enqueueTime);
+	}
+
+	/**
+	 * Start a new worker for the given task, or for the oldest queued task.
+	 */
+	private void startWorker(@Nullable QueuedTask firstTask, @Nullable Runnable task) {
+		try {
+			getThreadPoolExecutor().execute(new Worker(firstTask));
+		}
+		catch (RejectedExecutionException ex) {
+			synchronized (this.monitor) {
+				this.inFlight--;
+			}
+			if (firstTask != null) {
+				recordDrop(firstTask);
+				recordTaskRejection(firstTask.taskToRun);
+			}
+			throw new TaskRejectedException("Executor [" + this.threadPoolExecutor +
+					"] did not accept task: " + task, ex);
+		}
+	}
+
+	/**
+	 * Called by a worker after completing a task (or when starting without a
+	 * task), recording the execution time and determining the next task to run.
+	 * @param rttNanos the execution time of the completed task, or -1 if none
+	 * @return the next task for the calling worker, or {@code null} if it should stop
+	 */
+	@Nullable
+	private QueuedTask nextTask(long rttNanos) {
+		if (rttNanos >= 0) {
+			int inFlight;
+			synchronized (this.monitor) {
+				inFlight = this.inFlight;
+			}
+			this.concurrencyLimit.onSample(rttNanos, inFlight, false);
+		}
+
+		QueuedTask next = null;
+		List<QueuedTask> expired = null;
+		int additionalWorkers = 0;
+		synchronized (this.monitor) {
+			if (rttNanos >= 0) {
+				long averageRtt = this.averageRttNanos;
+				this.averageRttNanos = (averageRtt == 0 ? rttNanos : averageRtt + (rttNanos - averageRtt) / 8);
+			}
+			int limit = getCurrentLimit();
+			if (this.inFlight <= limit) {
+				long now = System.nanoTime();
+				while ((next = this.queue.poll()) != null && next.isExpired(now)) {
+					// A shed future: skip it and try the next task.
+					if (expired == null) {
+						expired = new ArrayList<>();
+					}
+					expired.add(next);
+				}
+			}
+			if (next != null) {
+				additionalWorkers = Math.min(limit - this.inFlight, this.queue.size());
+				this.inFlight += additionalWorkers;
+			}
+			else {
+				this.inFlight--;
+			}
+			if (this.waitingCallers > 0) {
+				this.monitor.notifyAll();
+			}
+		}
+
+		if (expired != null) {
+			for (QueuedTask expiredTask : expired) {
+				shed(expiredTask);
+			}
+		}
+		for (int i = 0; i < additionalWorkers; i++) {
+			try {
+				startWorker(null, null);
+			}
+			catch (TaskRejectedException ex) {
+				// Shut down in the meantime - the remaining workers drain the queue.
+			}
+		}
+		return next;
+	}
+
+	/**
+	 * Shed the given future whose deadline passed while waiting in the queue.
+	 */
+	private void shed(QueuedTask queuedTask) {
+		recordDrop(queuedTask);
+		recordTaskRejection(queuedTask.taskToRun);
+		((SheddableFutureTask<?>) queuedTask.task).shed(new TaskOverloadException(
+				"Task [" + queuedTask.task + "] not started within its deadline - shed by executor [" + this + "]"));
+	}
+
+	/**
+	 * Report the given task as dropped to the concurrency limit, with the time
+	 * since its submission as round-trip time: a sign of overload, just like a
+	 * task exceeding the latency threshold of the limit.
+	 */
+	private void recordDrop(QueuedTask queuedTask) {
+		int inFlight;
+		synchronized (this.monitor) {
+			inFlight = this.inFlight;
+		}
+		this.concurrencyLimit.onSample(System.nanoTime() - queuedTask.enqueueTime, inFlight, true);
+	}
+
+	private long runTask(QueuedTask queuedTask) {
+		long startTime = System.nanoTime();
+		try {
+			queuedTask.taskToRun.run();
+		}
+		catch (Throwable ex) {
+			Thread thread = Thread.currentThread();
+			thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+		}
+		return System.nanoTime() - startTime;
+	}
+
+
+	private enum Admission {
+
+		/** Started right away on a new worker. */
+		STARTED,
+
+		/** Queued, with a new worker started for the oldest queued task. */
+		STARTED_FROM_QUEUE,
+
+		/** Queued for a running worker to pick up. */
+		QUEUED,
+
+		/** Not admitted since the queue is at its capacity. */
+		QUEUE_FULL,
+
+		/** Not admitted since the task is not expected to start in time at the current limit. */
+		OVERLOADED;
+
+		boolean isAdmitted() {
+			return (this != QUEUE_FULL && this != OVERLOADED);
+		}
+	}
+
+
+	/**
+	 * Holder for a submitted task along with its deadline for starting.
+	 */
+	private static class QueuedTask {
+
+		final Runnable task;
+
+		final Runnable taskToRun;
+
+		final long enqueueTime;
+
+		final long deadline;
+
+		public QueuedTask(Runnable task, Runnable taskToRun, long queueTimeoutNanos) {
+			this.task = task;
+			this.taskToRun = taskToRun;
+			this.enqueueTime = System.nanoTime();
+			this.deadline = this.enqueueTime + queueTimeoutNanos;
+		}
+
+		/**
+		 * Whether this task is a future which has not been started within
+		 * its deadline. Plain tasks never expire, since they cannot be
+		 * reported as shed to the caller.
+		 */
+		public boolean isExpired(long now) {
+			return (this.task instanceof SheddableFutureTask && now - this.deadline > 0);
+		}
+	}
+
+
+	/**
+	 * Worker which runs its first task (if any) and then keeps running
+	 * queued tasks as long as the concurrency limit allows for it.
+	 */
+	private class Worker implements Runnable {
+
+		@Nullable
+		private final QueuedTask firstTask;
+
+		public Worker(@Nullable QueuedTask firstTask) {
+			this.firstTask = firstTask;
+		}
+
+		@Override
+		public void run() {
+			QueuedTask current = (this.firstTask != null ? this.firstTask : nextTask(-1));
+			while (current != null) {
+				current = nextTask(runTask(current));
+			}
+		}
+	}
+
+
+	/**
+	 * ThreadPoolExecutor for the worker threads, handing each worker to a
+	 * new or idle thread and exposing the queued tasks from {@link #shutdownNow()}.
+	 */
+	private class WorkerThreadPoolExecutor extends ThreadPoolExecutor {
+
+		public WorkerThreadPoolExecutor(int keepAliveSeconds, ThreadFactory threadFactory,
+				RejectedExecutionHandler rejectedExecutionHandler) {
+
+			super(0, Integer.MAX_VALUE, keepAliveSeconds, TimeUnit.SECONDS,
+					new SynchronousQueue<>(), threadFactory, rejectedExecutionHandler);
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			List<Runnable> remainingTasks;
+			synchronized (monitor) {
+				remainingTasks = new ArrayList<>(queue.size());
+				for (QueuedTask queuedTask : queue) {
+					remainingTasks.add(queuedTask.task);
+				}
+				queue.clear();
+			}
+			super.shutdownNow();
+			return remainingTasks;
+		}
+	}
+
+
+	/**
+	 * ListenableFutureTask which can be failed with a {@link TaskOverloadException}
+	 * before it has been started.
+	 */
+	private static class SheddableFutureTask<T> extends ListenableFutureTask<T> {
+
+		public SheddableFutureTask(Callable<T> callable) {
+			super(callable);
+		}
+
+		public SheddableFutureTask(Runnable runnable, @Nullable T result) {
+			super(runnable, result);
+		}
+
+		void shed(TaskOverloadException ex) {
+			setException(ex);
+		}
+	}
+
+}
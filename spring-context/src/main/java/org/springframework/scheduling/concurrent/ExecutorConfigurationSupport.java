@@ -16,6 +16,7 @@
 
 package org.springframework.scheduling.concurrent;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -30,6 +31,8 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.TaskTagHolder;
+import org.springframework.core.task.support.ContextPropagator;
 import org.springframework.lang.Nullable;
 
 /**
@@ -38,6 +41,12 @@ import org.springframework.lang.Nullable;
  * {@link java.util.concurrent.ScheduledThreadPoolExecutor}).
  * Defines common configuration settings and common lifecycle handling.
  *
+ * <p>Executors may be instrumented through a {@link TaskMetricsCallback},
+ * recording the wait time and execution time of each task as well as task
+ * rejections, e.g. for exposing {@link TaskExecutionStatistics} via JMX.
+ * Thread-bound context of the submitting thread may be propagated to the
+ * executing thread through a {@link ContextPropagator}.
+ *
  * @author Juergen Hoeller
  * @since 3.0
  * @see java.util.concurrent.ExecutorService
@@ -61,6 +70,12 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 
 	private long awaitTerminationMillis = 0;
 
+	@Nullable
+	private TaskMetricsCallback taskMetricsCallback;
+
+	@Nullable
+	private ContextPropagator contextPropagator;
+
 	@Nullable
 	private String beanName;
 
@@ -158,6 +173,51 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 		this.awaitTerminationMillis = awaitTerminationMillis;
 	}
 
+	/**
+	 * Specify a callback for recording task execution metrics: wait time between
+	 * submission and execution, execution time, and rejected tasks.
+	 * <p>Default is none, not instrumenting the executor at all. This setting
+	 * needs to be specified before the executor gets initialized.
+	 * @since 5.2.7
+	 * @see TaskExecutionStatistics
+	 * @see org.springframework.core.task.TaskTagHolder
+	 */
+	public void setTaskMetricsCallback(@Nullable TaskMetricsCallback taskMetricsCallback) {
+		this.taskMetricsCallback = taskMetricsCallback;
+	}
+
+	/**
+	 * Return the callback for recording task execution metrics, if any.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public TaskMetricsCallback getTaskMetricsCallback() {
+		return this.taskMetricsCallback;
+	}
+
+	/**
+	 * Specify a {@link ContextPropagator} for propagating thread-bound context,
+	 * e.g. the current {@code LocaleContext} or {@code RequestAttributes},
+	 * from the submitting thread to the thread executing the task.
+	 * <p>Default is none. Specify {@link ContextPropagator#getDefault()} for
+	 * propagating the context of all accessors registered on the classpath.
+	 * This setting needs to be specified before the executor gets initialized.
+	 * @since 5.2.7
+	 * @see org.springframework.core.task.support.ContextPropagatingTaskDecorator
+	 */
+	public void setContextPropagator(@Nullable ContextPropagator contextPropagator) {
+		this.contextPropagator = contextPropagator;
+	}
+
+	/**
+	 * Return the {@link ContextPropagator} for thread-bound context, if any.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public ContextPropagator getContextPropagator() {
+		return this.contextPropagator;
+	}
+
 	@Override
 	public void setBeanName(String name) {
 		this.beanName = name;
@@ -197,6 +257,66 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 	protected abstract ExecutorService initializeExecutor(
 			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler);
 
+	/**
+	 * Instrument the given task for recording its wait time and execution time
+	 * with the {@link #setTaskMetricsCallback TaskMetricsCallback}, if any, and
+	 * for propagating the current thread-bound context through the
+	 * {@link #setContextPropagator ContextPropagator}, if any.
+	 * To be called by subclasses right before handing the task to the executor.
+	 * @param task the task to instrument
+	 * @return the instrumented task, or the given task as-is if not instrumented
+	 * @since 5.2.7
+	 * @see #recordTaskRejection
+	 */
+	protected Runnable instrumentTask(Runnable task) {
+		TaskMetricsCallback callback = this.taskMetricsCallback;
+		Runnable taskToRun = propagateContext(task);
+		if (callback == null) {
+			return (taskToRun != task ? new InstrumentedTask(task, taskToRun, null, null) : task);
+		}
+		String tag = TaskTagHolder.getTag();
+		callback.taskSubmitted(tag);
+		return new InstrumentedTask(task, taskToRun, tag, callback);
+	}
+
+	/**
+	 * Wrap the given task for propagating the current thread-bound context
+	 * through the {@link #setContextPropagator ContextPropagator}, if any.
+	 * @param task the task to wrap
+	 * @return the wrapped task, or the given task as-is if there is no context to propagate
+	 * @since 5.2.7
+	 */
+	protected Runnable propagateContext(Runnable task) {
+		ContextPropagator propagator = this.contextPropagator;
+		return (propagator != null ? propagator.capture().wrap(task) : task);
+	}
+
+	/**
+	 * Wrap the given task for propagating the current thread-bound context
+	 * through the {@link #setContextPropagator ContextPropagator}, if any.
+	 * @param task the task to wrap
+	 * @return the wrapped task, or the given task as-is if there is no context to propagate
+	 * @since 5.2.7
+	 */
+	protected <V> Callable<V> propagateContext(Callable<V> task) {
+		ContextPropagator propagator = this.contextPropagator;
+		return (propagator != null ? propagator.capture().wrap(task) : task);
+	}
+
+	/**
+	 * Record the rejection of the given task, as returned from {@link #instrumentTask}.
+	 * @param task the rejected task
+	 * @since 5.2.7
+	 */
+	protected void recordTaskRejection(Runnable task) {
+		if (task instanceof InstrumentedTask) {
+			InstrumentedTask instrumentedTask = (InstrumentedTask) task;
+			if (instrumentedTask.callback != null) {
+				instrumentedTask.callback.taskRejected(instrumentedTask.tag);
+			}
+		}
+	}
+
 
 	/**
 	 * Calls {@code shutdown} when the BeanFactory destroys
@@ -223,6 +343,9 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 			}
 			else {
 				for (Runnable remainingTask : this.executor.shutdownNow()) {
+					if (remainingTask instanceof InstrumentedTask) {
+						remainingTask = ((InstrumentedTask) remainingTask).task;
+					}
 					cancelRemainingTask(remainingTask);
 				}
 			}
@@ -268,4 +391,62 @@ public abstract class ExecutorConfigurationSupport extends CustomizableThreadFac
 		}
 	}
 
+
+	/**
+	 * Runnable wrapper which reports wait time and execution time of the
+	 * target task to a {@link TaskMetricsCallback}, if any, keeping track of
+	 * the original task in case of a context-propagating task to run.
+	 */
+	private static class InstrumentedTask implements Runnable {
+
+		private final Runnable task;
+
+		private final Runnable taskToRun;
+
+		@Nullable
+		private final String tag;
+
+		@Nullable
+		private final TaskMetricsCallback callback;
+
+		private final long submitTime;
+
+		public InstrumentedTask(Runnable task, Runnable taskToRun,
+				@Nullable String tag, @Nullable TaskMetricsCallback callback) {
+
+			this.task = task;
+			this.taskToRun = taskToRun;
+			this.tag = tag;
+			this.callback = callback;
+			this.submitTime = (callback != null ? System.nanoTime() : 0);
+		}
+
+		@Override
+		public void run() {
+			TaskMetricsCallback callback = this.callback;
+			if (callback == null) {
+				this.taskToRun.run();
+				return;
+			}
+			long startTime = System.nanoTime();
+			callback.taskStarted(this.tag, startTime - this.submitTime);
+			Throwable failure = null;
+			try {
+				this.taskToRun.run();
+			}
+			catch (RuntimeException | Error ex) {
+				failure = ex;
+				throw ex;
+			}
+			finally {
+				callback.taskCompleted(this.tag, System.nanoTime() - startTime, failure);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.task.toString();
+		}
+	}
+
 }
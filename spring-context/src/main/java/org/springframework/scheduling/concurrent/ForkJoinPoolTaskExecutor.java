@@ -0,0 +1,330 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.SchedulingTaskExecutor;
+import org.springframework.util.Assert;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * JavaBean that allows for configuring a work-stealing {@link ForkJoinPool}
+ * in bean style (through its "parallelism" and "asyncMode" properties) and
+ * exposing it as a Spring {@link org.springframework.core.task.TaskExecutor}.
+ *
+ * <p>In contrast to {@link ThreadPoolTaskExecutor} with its single shared
+ * queue, each worker thread maintains its own task queue here, with idle
+ * workers stealing tasks from busy ones. This reduces contention for
+ * high rates of short-lived tasks, e.g. for {@code @Async} fan-out,
+ * {@code DeferredResult} processing or asynchronous event multicasting
+ * (through {@code SimpleApplicationEventMulticaster.setTaskExecutor}).
+ *
+ * <p>Worker threads are named according to the
+ * {@link #setThreadNamePrefix "threadNamePrefix"} and also respect the
+ * "threadPriority" and "daemon" settings. Since a ForkJoinPool requires
+ * {@link ForkJoinWorkerThread} instances, a general
+ * {@link #setThreadFactory ThreadFactory} and a
+ * {@link #setRejectedExecutionHandler RejectedExecutionHandler} do not apply;
+ * tasks submitted after shutdown are rejected with a {@link TaskRejectedException}.
+ *
+ * @since 5.2.7
+ * @see java.util.concurrent.ForkJoinPool
+ * @see ForkJoinPoolFactoryBean
+ * @see ThreadPoolTaskExecutor
+ * @see org.springframework.core.task.SimpleAsyncTaskExecutor#setVirtualThreads
+ */
+@SuppressWarnings("serial")
+public class ForkJoinPoolTaskExecutor extends ExecutorConfigurationSupport
+		implements AsyncListenableTaskExecutor, SchedulingTaskExecutor {
+
+	private boolean commonPool = false;
+
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private boolean asyncMode = true;
+
+	@Nullable
+	private TaskDecorator taskDecorator;
+
+	@Nullable
+	private ForkJoinPool forkJoinPool;
+
+
+	/**
+	 * Set whether to use JDK 8's 'common' {@link ForkJoinPool}.
+	 * <p>Default is "false", creating a local {@link ForkJoinPool} instance based
+	 * on the {@link #setParallelism "parallelism"} and {@link #setAsyncMode "asyncMode"}
+	 * properties as well as the thread settings on this executor. The common pool
+	 * won't be shut down along with this executor.
+	 * @see java.util.concurrent.ForkJoinPool#commonPool()
+	 */
+	public void setCommonPool(boolean commonPool) {
+		this.commonPool = commonPool;
+	}
+
+	/**
+	 * Specify the parallelism level, i.e. the targeted number of active threads.
+	 * Default is {@link Runtime#availableProcessors()}.
+	 */
+	public void setParallelism(int parallelism) {
+		Assert.isTrue(parallelism > 0, "'parallelism' must be greater than 0");
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Return the parallelism level of the ForkJoinPool.
+	 */
+	public int getParallelism() {
+		if (this.forkJoinPool == null) {
+			return (this.commonPool ? ForkJoinPool.getCommonPoolParallelism() : this.parallelism);
+		}
+		return this.forkJoinPool.getParallelism();
+	}
+
+	/**
+	 * Specify whether to establish a local first-in-first-out scheduling mode for
+	 * tasks that are never joined, as is the case for tasks submitted to this executor.
+	 * <p>Default is {@code true}, in contrast to a plain {@link ForkJoinPool} and
+	 * {@link ForkJoinPoolFactoryBean}, since this mode is more appropriate for
+	 * event-style asynchronous tasks.
+	 * @see ForkJoinPoolFactoryBean#setAsyncMode
+	 */
+	public void setAsyncMode(boolean asyncMode) {
+		this.asyncMode = asyncMode;
+	}
+
+	/**
+	 * Specify a custom {@link TaskDecorator} to be applied to any {@link Runnable}
+	 * about to be executed.
+	 * <p>Note that such a decorator is not necessarily being applied to the
+	 * user-supplied {@code Runnable}/{@code Callable} but rather to the actual
+	 * execution callback (which may be a wrapper around the user-supplied task).
+	 * <p>The primary use case is to set some execution context around the task's
+	 * invocation, or to provide some monitoring/statistics for task execution.
+	 */
+	public void setTaskDecorator(TaskDecorator taskDecorator) {
+		this.taskDecorator = taskDecorator;
+	}
+
+
+	@Override
+	protected ExecutorService initializeExecutor(
+			ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		if (this.commonPool) {
+			this.forkJoinPool = ForkJoinPool.commonPool();
+		}
+		else {
+			this.forkJoinPool = new TaskExecutorForkJoinPool(this.parallelism, this::newWorkerThread, this.asyncMode);
+		}
+		return this.forkJoinPool;
+	}
+
+	/**
+	 * Create a new worker thread for the given ForkJoinPool, applying
+	 * this executor's thread name prefix, priority and daemon settings.
+	 * @param pool the ForkJoinPool to create the worker thread for
+	 * @return the new worker thread
+	 */
+	protected ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+		ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) {};
+		thread.setName(nextThreadName());
+		thread.setPriority(getThreadPriority());
+		thread.setDaemon(isDaemon());
+		return thread;
+	}
+
+	/**
+	 * Return the underlying ForkJoinPool for native access.
+	 * @return the underlying ForkJoinPool (never {@code null})
+	 * @throws IllegalStateException if the ForkJoinPoolTaskExecutor hasn't been initialized yet
+	 */
+	public ForkJoinPool getForkJoinPool() throws IllegalStateException {
+		Assert.state(this.forkJoinPool != null, "ForkJoinPoolTaskExecutor not initialized");
+		return this.forkJoinPool;
+	}
+
+	/**
+	 * Return the current number of worker threads.
+	 * @see java.util.concurrent.ForkJoinPool#getPoolSize()
+	 */
+	public int getPoolSize() {
+		if (this.forkJoinPool == null) {
+			// Not initialized yet: assume no threads.
+			return 0;
+		}
+		return this.forkJoinPool.getPoolSize();
+	}
+
+	/**
+	 * Return the estimated number of threads currently executing tasks.
+	 * @see java.util.concurrent.ForkJoinPool#getActiveThreadCount()
+	 */
+	public int getActiveCount() {
+		if (this.forkJoinPool == null) {
+			// Not initialized yet: assume no active threads.
+			return 0;
+		}
+		return this.forkJoinPool.getActiveThreadCount();
+	}
+
+	/**
+	 * Return the estimated number of tasks waiting in the worker queues
+	 * and the submission queues of the ForkJoinPool.
+	 * @see java.util.concurrent.ForkJoinPool#getQueuedTaskCount()
+	 * @see java.util.concurrent.ForkJoinPool#getQueuedSubmissionCount()
+	 */
+	public long getQueuedTaskCount() {
+		if (this.forkJoinPool == null) {
+			return 0;
+		}
+		return this.forkJoinPool.getQueuedTaskCount() + this.forkJoinPool.getQueuedSubmissionCount();
+	}
+
+
+	@Override
+	public void execute(Runnable task) {
+		ForkJoinPool pool = getForkJoinPool();
+		Runnable decorated = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
+		Runnable instrumented = instrumentTask(decorated);
+		try {
+			pool.execute(new TaskAdapter(task, instrumented));
+		}
+		catch (RejectedExecutionException ex) {
+			recordTaskRejection(instrumented);
+			throw new TaskRejectedException("Executor [" + pool + "] did not accept task: " + task, ex);
+		}
+	}
+
+	@Override
+	public void execute(Runnable task, long startTimeout) {
+		execute(task);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		FutureTask<Object> future = new FutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		FutureTask<T> future = new FutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<?> submitListenable(Runnable task) {
+		ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+		execute(future);
+		return future;
+	}
+
+	@Override
+	public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+		ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+		execute(future);
+		return future;
+	}
+
+
+	/**
+	 * ForkJoinPool variant which exposes the user-level tasks that never
+	 * commenced execution from {@link #shutdownNow()}, for the common
+	 * {@link #cancelRemainingTask} handling on shutdown.
+	 */
+	private static class TaskExecutorForkJoinPool extends ForkJoinPool {
+
+		public TaskExecutorForkJoinPool(int parallelism, ForkJoinWorkerThreadFactory factory, boolean asyncMode) {
+			super(parallelism, factory, null, asyncMode);
+		}
+
+		@Override
+		public List<Runnable> shutdownNow() {
+			List<ForkJoinTask<?>> remainingTasks = new ArrayList<>();
+			drainTasksTo(remainingTasks);
+			List<Runnable> result = new ArrayList<>(remainingTasks.size());
+			for (ForkJoinTask<?> remainingTask : remainingTasks) {
+				if (remainingTask instanceof TaskAdapter) {
+					result.add(((TaskAdapter) remainingTask).task);
+				}
+			}
+			super.shutdownNow();
+			return result;
+		}
+	}
+
+
+	/**
+	 * ForkJoinTask adapter for a submitted Runnable, keeping track of the original
+	 * task and reporting task failures to the uncaught exception handler of the
+	 * worker thread, analogous to a {@link java.util.concurrent.ThreadPoolExecutor}.
+	 */
+	private static class TaskAdapter extends ForkJoinTask<Void> {
+
+		final Runnable task;
+
+		private final Runnable taskToRun;
+
+		public TaskAdapter(Runnable task, Runnable taskToRun) {
+			this.task = task;
+			this.taskToRun = taskToRun;
+		}
+
+		@Override
+		@Nullable
+		public Void getRawResult() {
+			return null;
+		}
+
+		@Override
+		protected void setRawResult(@Nullable Void value) {
+		}
+
+		@Override
+		protected boolean exec() {
+			try {
+				this.taskToRun.run();
+			}
+			catch (Throwable ex) {
+				Thread thread = Thread.currentThread();
+				thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedMetric;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.jmx.support.MetricType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link TaskMetricsCallback} implementation which aggregates task execution
+ * statistics in memory: task counts, wait time (submission to start) and
+ * execution time, including simple latency histograms.
+ *
+ * <p>Wait time and execution time are tracked separately, so that queueing
+ * delays can be told apart from slow tasks. The number of pending tasks reflects
+ * the tasks submitted but not started yet, i.e. the effective queue depth.
+ * A periodic task counts as submitted again for each subsequent execution.
+ *
+ * <p>Tasks with a tag, e.g. the qualified name of an {@code @Async} method,
+ * are additionally recorded per tag: see {@link #getTaskTags()} and
+ * {@link #getTaskStatistics(String)}.
+ *
+ * <p>This class exposes its statistics as JavaBean properties, so it may be
+ * registered with an {@link org.springframework.jmx.export.MBeanExporter}
+ * directly. As a {@link ManagedResource}, it is also autodetected by
+ * {@link org.springframework.context.annotation.EnableMBeanExport} when
+ * defined as a bean:
+ *
+ * <pre class="code">
+ * &#064;Bean
+ * public TaskExecutionStatistics asyncStatistics() {
+ *     return new TaskExecutionStatistics();
+ * }
+ *
+ * &#064;Bean
+ * public ThreadPoolTaskExecutor asyncExecutor(TaskExecutionStatistics asyncStatistics) {
+ *     ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+ *     executor.setTaskMetricsCallback(asyncStatistics);
+ *     return executor;
+ * }</pre>
+ *
+ * @since 5.2.7
+ * @see ExecutorConfigurationSupport#setTaskMetricsCallback
+ */
+@ManagedResource(description = "Task execution statistics")
+public class TaskExecutionStatistics implements TaskMetricsCallback {
+
+	private static final long[] BUCKET_BOUNDS_MILLIS =
+			{1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, Long.MAX_VALUE};
+
+	private static final long[] BUCKET_BOUNDS_NANOS = new long[BUCKET_BOUNDS_MILLIS.length];
+
+	static {
+		for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length - 1; i++) {
+			BUCKET_BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BUCKET_BOUNDS_MILLIS[i]);
+		}
+		BUCKET_BOUNDS_NANOS[BUCKET_BOUNDS_MILLIS.length - 1] = Long.MAX_VALUE;
+	}
+
+
+	private final LongAdder submittedCount = new LongAdder();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder startedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder totalWaitNanos = new LongAdder();
+
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+	private final LongAdder totalExecutionNanos = new LongAdder();
+
+	private final LongAccumulator maxExecutionNanos = new LongAccumulator(Long::max, 0);
+
+	private final LongAdder[] waitTimeHistogram = newHistogram();
+
+	private final LongAdder[] executionTimeHistogram = newHistogram();
+
+	@Nullable
+	private final ConcurrentMap<String, TaskExecutionStatistics> taskStatistics;
+
+
+	/**
+	 * Create a new TaskExecutionStatistics instance.
+	 */
+	public TaskExecutionStatistics() {
+		this.taskStatistics = new ConcurrentHashMap<>();
+	}
+
+	private TaskExecutionStatistics(boolean perTag) {
+		this.taskStatistics = (perTag ? new ConcurrentHashMap<>() : null);
+	}
+
+
+	@Override
+	public void taskSubmitted(@Nullable String tag) {
+		this.submittedCount.increment();
+		TaskExecutionStatistics statistics = obtainTaskStatistics(tag);
+		if (statistics != null) {
+			statistics.taskSubmitted(null);
+		}
+	}
+
+	@Override
+	public void taskRejected(@Nullable String tag) {
+		this.rejectedCount.increment();
+		TaskExecutionStatistics statistics = obtainTaskStatistics(tag);
+		if (statistics != null) {
+			statistics.taskRejected(null);
+		}
+	}
+
+	@Override
+	public void taskStarted(@Nullable String tag, long waitNanos) {
+		long nanos = Math.max(waitNanos, 0);
+		this.startedCount.increment();
+		this.totalWaitNanos.add(nanos);
+		this.maxWaitNanos.accumulate(nanos);
+		record(this.waitTimeHistogram, nanos);
+		TaskExecutionStatistics statistics = obtainTaskStatistics(tag);
+		if (statistics != null) {
+			statistics.taskStarted(null, waitNanos);
+		}
+	}
+
+	@Override
+	public void taskCompleted(@Nullable String tag, long executionNanos, @Nullable Throwable failure) {
+		long nanos = Math.max(executionNanos, 0);
+		this.completedCount.increment();
+		if (failure != null) {
+			this.failedCount.increment();
+		}
+		this.totalExecutionNanos.add(nanos);
+		this.maxExecutionNanos.accumulate(nanos);
+		record(this.executionTimeHistogram, nanos);
+		TaskExecutionStatistics statistics = obtainTaskStatistics(tag);
+		if (statistics != null) {
+			statistics.taskCompleted(null, executionNanos, failure);
+		}
+	}
+
+	@Nullable
+	private TaskExecutionStatistics obtainTaskStatistics(@Nullable String tag) {
+		if (tag == null || this.taskStatistics == null) {
+			return null;
+		}
+		TaskExecutionStatistics statistics = this.taskStatistics.get(tag);
+		if (statistics == null) {
+			statistics = this.taskStatistics.computeIfAbsent(tag, key -> new TaskExecutionStatistics(false));
+		}
+		return statistics;
+	}
+
+
+	/**
+	 * Return the number of tasks submitted so far, including rejected tasks.
+	 */
+	@ManagedMetric(description = "Number of submitted tasks", metricType = MetricType.COUNTER)
+	public long getSubmittedTaskCount() {
+		return this.submittedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks rejected by the executor so far.
+	 */
+	@ManagedMetric(description = "Number of rejected tasks", metricType = MetricType.COUNTER)
+	public long getRejectedTaskCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks which have finished their execution so far.
+	 */
+	@ManagedMetric(description = "Number of completed tasks", metricType = MetricType.COUNTER)
+	public long getCompletedTaskCount() {
+		return this.completedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks which have thrown an exception so far.
+	 */
+	@ManagedMetric(description = "Number of failed tasks", metricType = MetricType.COUNTER)
+	public long getFailedTaskCount() {
+		return this.failedCount.sum();
+	}
+
+	/**
+	 * Return the number of tasks currently waiting for execution,
+	 * i.e. submitted and accepted but not started yet.
+	 */
+	@ManagedMetric(description = "Number of tasks waiting for execution")
+	public long getPendingTaskCount() {
+		long started = this.startedCount.sum();
+		long rejected = this.rejectedCount.sum();
+		return Math.max(this.submittedCount.sum() - rejected - started, 0);
+	}
+
+	/**
+	 * Return the number of tasks currently executing.
+	 */
+	@ManagedMetric(description = "Number of tasks currently executing")
+	public long getActiveTaskCount() {
+		long completed = this.completedCount.sum();
+		return Math.max(this.startedCount.sum() - completed, 0);
+	}
+
+	/**
+	 * Return the average time between submission and start of execution, in milliseconds.
+	 */
+	@ManagedMetric(description = "Average wait time before execution", unit = "ms")
+	public double getAverageWaitTime() {
+		return average(this.totalWaitNanos.sum(), this.startedCount.sum());
+	}
+
+	/**
+	 * Return the maximum time between submission and start of execution, in milliseconds.
+	 */
+	@ManagedMetric(description = "Maximum wait time before execution", unit = "ms")
+	public double getMaxWaitTime() {
+		return toMillis(this.maxWaitNanos.get());
+	}
+
+	/**
+	 * Return the average execution time of completed tasks, in milliseconds.
+	 */
+	@ManagedMetric(description = "Average execution time", unit = "ms")
+	public double getAverageExecutionTime() {
+		return average(this.totalExecutionNanos.sum(), this.completedCount.sum());
+	}
+
+	/**
+	 * Return the maximum execution time of completed tasks, in milliseconds.
+	 */
+	@ManagedMetric(description = "Maximum execution time", unit = "ms")
+	public double getMaxExecutionTime() {
+		return toMillis(this.maxExecutionNanos.get());
+	}
+
+	/**
+	 * Return the wait time histogram: the number of tasks per bucket,
+	 * aligned with the {@link #getHistogramBucketBounds() bucket bounds}.
+	 */
+	@ManagedMetric(description = "Wait time histogram, per bucket")
+	public long[] getWaitTimeHistogram() {
+		return snapshot(this.waitTimeHistogram);
+	}
+
+	/**
+	 * Return the execution time histogram: the number of tasks per bucket,
+	 * aligned with the {@link #getHistogramBucketBounds() bucket bounds}.
+	 */
+	@ManagedMetric(description = "Execution time histogram, per bucket")
+	public long[] getExecutionTimeHistogram() {
+		return snapshot(this.executionTimeHistogram);
+	}
+
+	/**
+	 * Return the inclusive upper bounds of the histogram buckets in milliseconds,
+	 * with the last bucket being unbounded ({@code Long.MAX_VALUE}).
+	 */
+	@ManagedMetric(description = "Upper bounds of the histogram buckets", unit = "ms")
+	public long[] getHistogramBucketBounds() {
+		return BUCKET_BOUNDS_MILLIS.clone();
+	}
+
+	/**
+	 * Return the tags of all tasks recorded so far, e.g. the qualified
+	 * names of {@code @Async} methods.
+	 * @see #getTaskStatistics(String)
+	 */
+	@ManagedAttribute(description = "Tags of the recorded tasks")
+	public String[] getTaskTags() {
+		return (this.taskStatistics != null ? StringUtils.toStringArray(this.taskStatistics.keySet()) : new String[0]);
+	}
+
+	/**
+	 * Return the statistics for tasks with the given tag, e.g. for the
+	 * invocations of a specific {@code @Async} method.
+	 * @param tag the tag of the tasks
+	 * @return the statistics for the given tag, or {@code null} if no task
+	 * with that tag has been recorded
+	 * @see #getTaskTags()
+	 */
+	@Nullable
+	public TaskExecutionStatistics getTaskStatistics(String tag) {
+		return (this.taskStatistics != null ? this.taskStatistics.get(tag) : null);
+	}
+
+	/**
+	 * Return a summary of the statistics for tasks with the given tag.
+	 * @param tag the tag of the tasks
+	 * @return the summary, or {@code null} if no task with that tag has been recorded
+	 * @see #getTaskStatistics(String)
+	 */
+	@ManagedOperation(description = "Summary of the statistics for tasks with the given tag")
+	@Nullable
+	public String getTaskStatisticsSummary(String tag) {
+		TaskExecutionStatistics statistics = getTaskStatistics(tag);
+		return (statistics != null ? statistics.toString() : null);
+	}
+
+	/**
+	 * Reset all statistics.
+	 * <p>Note that the {@link #getPendingTaskCount() pending} and
+	 * {@link #getActiveTaskCount() active} task counts may be temporarily
+	 * inaccurate when resetting while tasks are in flight.
+	 */
+	@ManagedOperation(description = "Reset all statistics")
+	public void reset() {
+		this.submittedCount.reset();
+		this.rejectedCount.reset();
+		this.startedCount.reset();
+		this.completedCount.reset();
+		this.failedCount.reset();
+		this.totalWaitNanos.reset();
+		this.maxWaitNanos.reset();
+		this.totalExecutionNanos.reset();
+		this.maxExecutionNanos.reset();
+		for (int i = 0; i < BUCKET_BOUNDS_MILLIS.length; i++) {
+			this.waitTimeHistogram[i].reset();
+			this.executionTimeHistogram[i].reset();
+		}
+		if (this.taskStatistics != null) {
+			this.taskStatistics.clear();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionStatistics: submitted=" + getSubmittedTaskCount() +
+				", rejected=" + getRejectedTaskCount() + ", completed=" + getCompletedTaskCount() +
+				", failed=" + getFailedTaskCount() + ", pending=" + getPendingTaskCount() +
+				", averageWaitTime=" + getAverageWaitTime() + "ms" +
+				", averageExecutionTime=" + getAverageExecutionTime() + "ms";
+	}
+
+
+	private static LongAdder[] newHistogram() {
+		LongAdder[] histogram = new LongAdder[BUCKET_BOUNDS_MILLIS.length];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+		return histogram;
+	}
+
+	private static void record(LongAdder[] histogram, long nanos) {
+		int bucket = 0;
+		while (nanos > BUCKET_BOUNDS_NANOS[bucket]) {
+			bucket++;
+		}
+		histogram[bucket].increment();
+	}
+
+	private static long[] snapshot(LongAdder[] histogram) {
+		long[] result = new long[histogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			result[i] = histogram[i].sum();
+		}
+		return result;
+	}
+
+	private static double average(long totalNanos, long count) {
+		return (count > 0 ? toMillis(totalNanos) / count : 0);
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / 1_000_000d;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Callback interface for recording task execution metrics of an instrumented
+ * executor, e.g. for forwarding them to a metrics registry as timers and counters.
+ *
+ * <p>The given tag identifies the origin of a task if known: e.g. the qualified
+ * name of an {@code @Async} method, as exposed through
+ * {@link org.springframework.core.task.TaskTagHolder} at submission time.
+ *
+ * <p>Implementations are invoked on the submitting and the executing threads,
+ * so they need to be thread-safe and should avoid blocking.
+ *
+ * @since 5.2.7
+ * @see ExecutorConfigurationSupport#setTaskMetricsCallback
+ * @see TaskExecutionStatistics
+ */
+public interface TaskMetricsCallback {
+
+	/**
+	 * Notification that a task has been submitted for execution.
+	 * @param tag the tag of the task, or {@code null} if none
+	 */
+	default void taskSubmitted(@Nullable String tag) {
+	}
+
+	/**
+	 * Notification that a task has been rejected by the executor.
+	 * @param tag the tag of the task, or {@code null} if none
+	 */
+	default void taskRejected(@Nullable String tag) {
+	}
+
+	/**
+	 * Notification that a task is about to be executed.
+	 * @param tag the tag of the task, or {@code null} if none
+	 * @param waitNanos the time between submission (or the scheduled execution
+	 * time, for scheduled tasks) and the start of execution, in nanoseconds
+	 */
+	default void taskStarted(@Nullable String tag, long waitNanos) {
+	}
+
+	/**
+	 * Notification that a task has finished its execution.
+	 * @param tag the tag of the task, or {@code null} if none
+	 * @param executionNanos the execution time in nanoseconds
+	 * @param failure the exception thrown by the task, or {@code null} if it
+	 * completed normally (note that tasks submitted as a {@code Future} capture
+	 * their own exceptions)
+	 */
+	default void taskCompleted(@Nullable String tag, long executionNanos, @Nullable Throwable failure) {
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,7 +46,9 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  * properties) and exposing it as a Spring {@link org.springframework.core.task.TaskExecutor}.
  * This class is also well suited for management and monitoring (e.g. through JMX),
  * providing several useful attributes: "corePoolSize", "maxPoolSize", "keepAliveSeconds"
- * (all supporting updates at runtime); "poolSize", "activeCount" (for introspection only).
+ * (all supporting updates at runtime); "poolSize", "activeCount", "queueSize" (for
+ * introspection only). For task-level metrics, consider specifying a
+ * {@link #setTaskMetricsCallback TaskMetricsCallback}.
  *
  * <p>The default configuration is a core pool size of 1, with unlimited max pool size
  * and unlimited queue capacity. This is roughly equivalent to
@@ -225,17 +227,27 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		BlockingQueue<Runnable> queue = createQueue(this.queueCapacity);
 
 		ThreadPoolExecutor executor;
-		if (this.taskDecorator != null) {
+		if (this.taskDecorator != null || getTaskMetricsCallback() != null || getContextPropagator() != null) {
 			executor = new ThreadPoolExecutor(
 					this.corePoolSize, this.maxPoolSize, this.keepAliveSeconds, TimeUnit.SECONDS,
 					queue, threadFactory, rejectedExecutionHandler) {
 				@Override
 				public void execute(Runnable command) {
-					Runnable decorated = taskDecorator.decorate(command);
-					if (decorated != command) {
-						decoratedTaskMap.put(decorated, command);
+					Runnable decorated = command;
+					if (taskDecorator != null) {
+						decorated = taskDecorator.decorate(command);
+						if (decorated != command) {
+							decoratedTaskMap.put(decorated, command);
+						}
+					}
+					Runnable instrumented = instrumentTask(decorated);
+					try {
+						super.execute(instrumented);
+					}
+					catch (RejectedExecutionException ex) {
+						recordTaskRejection(instrumented);
+						throw ex;
 					}
-					super.execute(decorated);
 				}
 			};
 		}
@@ -306,6 +318,19 @@ public class ThreadPoolTaskExecutor extends ExecutorConfigurationSupport
 		return this.threadPoolExecutor.getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks currently waiting in the queue.
+	 * @since 5.2.7
+	 * @see java.util.concurrent.ThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.threadPoolExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return this.threadPoolExecutor.getQueue().size();
+	}
+
 
 	@Override
 	public void execute(Runnable task) {
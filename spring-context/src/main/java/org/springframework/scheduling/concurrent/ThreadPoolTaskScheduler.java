@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,11 +19,14 @@ package org.springframework.scheduling.concurrent;
 import java.util.Date;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -131,7 +134,8 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 
 	/**
 	 * Create a new {@link ScheduledExecutorService} instance.
-	 * <p>The default implementation creates a {@link ScheduledThreadPoolExecutor}.
+	 * <p>The default implementation creates a {@link ScheduledThreadPoolExecutor},
+	 * instrumented for the {@link #setTaskMetricsCallback TaskMetricsCallback} if any.
 	 * Can be overridden in subclasses to provide custom {@link ScheduledExecutorService} instances.
 	 * @param poolSize the specified pool size
 	 * @param threadFactory the ThreadFactory to use
@@ -143,6 +147,11 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 	protected ScheduledExecutorService createExecutor(
 			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
 
+		TaskMetricsCallback callback = getTaskMetricsCallback();
+		if (callback != null) {
+			return new InstrumentedScheduledThreadPoolExecutor(
+					poolSize, threadFactory, rejectedExecutionHandler, callback);
+		}
 		return new ScheduledThreadPoolExecutor(poolSize, threadFactory, rejectedExecutionHandler);
 	}
 
@@ -209,6 +218,22 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 		return getScheduledThreadPoolExecutor().getActiveCount();
 	}
 
+	/**
+	 * Return the number of tasks currently waiting in the queue,
+	 * including delayed tasks which are not due yet.
+	 * <p>Requires an underlying {@link ScheduledThreadPoolExecutor}.
+	 * @since 5.2.7
+	 * @see #getScheduledThreadPoolExecutor()
+	 * @see java.util.concurrent.ScheduledThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		if (this.scheduledExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return getScheduledThreadPoolExecutor().getQueue().size();
+	}
+
 
 	// SchedulingTaskExecutor implementation
 
@@ -248,7 +273,7 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 			if (errorHandler != null) {
 				taskToUse = new DelegatingErrorHandlingCallable<>(task, errorHandler);
 			}
-			return executor.submit(taskToUse);
+			return executor.submit(propagateContext(taskToUse));
 		}
 		catch (RejectedExecutionException ex) {
 			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
@@ -310,7 +335,7 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 			if (errorHandler == null) {
 				errorHandler = TaskUtils.getDefaultErrorHandler(true);
 			}
-			return new ReschedulingRunnable(task, trigger, executor, errorHandler).schedule();
+			return new ReschedulingRunnable(propagateContext(task), trigger, executor, errorHandler).schedule();
 		}
 		catch (RejectedExecutionException ex) {
 			throw new TaskRejectedException("Executor [" + executor + "] did not accept task: " + task, ex);
@@ -377,7 +402,42 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 
 
 	private Runnable errorHandlingTask(Runnable task, boolean isRepeatingTask) {
-		return TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask);
+		return propagateContext(TaskUtils.decorateTaskWithErrorHandler(task, this.errorHandler, isRepeatingTask));
+	}
+
+	/**
+	 * Determine whether the given task has been rescheduled for its next
+	 * execution after a run, i.e. whether it is a periodic task which has
+	 * not been cancelled and has not failed.
+	 */
+	static boolean isRescheduled(Runnable task) {
+		return (task instanceof RunnableScheduledFuture && ((RunnableScheduledFuture<?>) task).isPeriodic() &&
+				!((RunnableScheduledFuture<?>) task).isDone());
+	}
+
+	/**
+	 * Determine the exception thrown by the given task, as captured by a
+	 * {@link Future} in case of a regularly completed execution.
+	 * @param task the executed task
+	 * @param ex the exception that caused termination, if any
+	 * @return the failure to report, or {@code null} if none
+	 */
+	@Nullable
+	static Throwable determineFailure(Runnable task, @Nullable Throwable ex) {
+		Throwable failure = ex;
+		if (failure == null && task instanceof Future && ((Future<?>) task).isDone() &&
+				!((Future<?>) task).isCancelled()) {
+			try {
+				((Future<?>) task).get();
+			}
+			catch (ExecutionException execEx) {
+				failure = execEx.getCause();
+			}
+			catch (InterruptedException intEx) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return failure;
 	}
 
 
@@ -405,4 +465,57 @@ public class ThreadPoolTaskScheduler extends ExecutorConfigurationSupport
 		}
 	}
 
+
+	/**
+	 * ScheduledThreadPoolExecutor variant which reports the lateness of each
+	 * task execution relative to its scheduled time (i.e. the queueing delay
+	 * for immediately submitted tasks) as well as the execution time of each
+	 * task to a {@link TaskMetricsCallback}.
+	 */
+	private static class InstrumentedScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor {
+
+		private final TaskMetricsCallback callback;
+
+		private final ThreadLocal<long[]> startTime = ThreadLocal.withInitial(() -> new long[1]);
+
+		public InstrumentedScheduledThreadPoolExecutor(int poolSize, ThreadFactory threadFactory,
+				RejectedExecutionHandler rejectedExecutionHandler, TaskMetricsCallback callback) {
+
+			super(poolSize, threadFactory, (task, executor) -> {
+				callback.taskRejected(null);
+				rejectedExecutionHandler.rejectedExecution(task, executor);
+			});
+			this.callback = callback;
+		}
+
+		@Override
+		protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+			this.callback.taskSubmitted(null);
+			return task;
+		}
+
+		@Override
+		protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+			this.callback.taskSubmitted(null);
+			return task;
+		}
+
+		@Override
+		protected void beforeExecute(Thread thread, Runnable task) {
+			long waitNanos = (task instanceof Delayed ? -((Delayed) task).getDelay(TimeUnit.NANOSECONDS) : 0);
+			this.callback.taskStarted(null, waitNanos);
+			this.startTime.get()[0] = System.nanoTime();
+		}
+
+		@Override
+		protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+			long executionNanos = System.nanoTime() - this.startTime.get()[0];
+			this.callback.taskCompleted(null, executionNanos, determineFailure(task, ex));
+			if (isRescheduled(task)) {
+				// Each execution of a periodic task counts as a submission
+				this.callback.taskSubmitted(null);
+			}
+		}
+	}
+
 }
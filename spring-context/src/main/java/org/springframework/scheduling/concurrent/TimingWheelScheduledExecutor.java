@@ -0,0 +1,728 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ScheduledExecutorService} implementation based on a hierarchical
+ * timing wheel, designed for very large numbers of scheduled tasks such as
+ * per-session heartbeats and timeouts.
+ *
+ * <p>In contrast to {@link java.util.concurrent.ScheduledThreadPoolExecutor}
+ * with its single-lock binary heap, scheduling and cancelling a task are O(1)
+ * operations: new and cancelled tasks are handed to a tick thread through
+ * lock-free queues, and the tick thread maintains the wheel buckets on its own.
+ * Several tick threads ("shards") may be configured, with each task being
+ * assigned to a random shard. Due tasks are executed on a separate fixed-size
+ * worker pool; tick threads never run tasks themselves.
+ *
+ * <p>The price for this is precision: tasks are executed at the first tick
+ * at or after their scheduled time, so the tick duration determines the
+ * maximum lateness. Tasks are never executed early. A tick thread does not
+ * wake up for ticks without due tasks, parking until the next tick with work
+ * to do instead, so a short tick duration does not cost anything while idle.
+ *
+ * <p>Like {@link ThreadPoolExecutor}, this class offers {@link #beforeExecute}
+ * and {@link #afterExecute} hooks around each task execution, as well as a
+ * {@link #taskSubmitted} hook, e.g. for instrumentation purposes.
+ *
+ * <p>On {@link #shutdown()}, delayed tasks which are not due yet get cancelled
+ * (including periodic tasks), while tasks already handed to the worker pool
+ * still get executed.
+ *
+ * @since 5.2.7
+ * @see TimingWheelTaskScheduler
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+	/**
+	 * Default tick duration: 10 milliseconds.
+	 */
+	public static final long DEFAULT_TICK_MILLIS = 10;
+
+	/**
+	 * Default number of buckets per wheel level: 512.
+	 */
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	// Upper bound for delays, avoiding overflow in deadline arithmetic
+	private static final long MAX_DELAY_NANOS = Long.MAX_VALUE >> 2;
+
+
+	private final long tickNanos;
+
+	private final int wheelBits;
+
+	private final int wheelLevels;
+
+	private final ThreadPoolExecutor workerExecutor;
+
+	private final Shard[] shards;
+
+	private final Object lifecycleMonitor = new Object();
+
+	private volatile boolean shutdown;
+
+
+	/**
+	 * Create a new TimingWheelScheduledExecutor with a single tick thread
+	 * and default wheel settings.
+	 * @param poolSize the number of worker threads for executing due tasks
+	 */
+	public TimingWheelScheduledExecutor(int poolSize) {
+		this(poolSize, 1, DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE,
+				Executors.defaultThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	/**
+	 * Create a new TimingWheelScheduledExecutor.
+	 * @param poolSize the number of worker threads for executing due tasks
+	 * @param tickThreadCount the number of tick threads, each maintaining
+	 * its own timing wheel for a share of the scheduled tasks
+	 * @param tickDuration the duration of a tick, i.e. the scheduling precision
+	 * @param unit the time unit of the tick duration
+	 * @param wheelSize the number of buckets per wheel level (a power of two)
+	 * @param threadFactory the ThreadFactory to create worker and tick threads with
+	 * @param rejectedExecutionHandler the handler for tasks that the worker pool
+	 * does not accept
+	 */
+	public TimingWheelScheduledExecutor(int poolSize, int tickThreadCount, long tickDuration, TimeUnit unit,
+			int wheelSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		Assert.isTrue(tickThreadCount > 0, "'tickThreadCount' must be 1 or higher");
+		Assert.isTrue(tickDuration > 0, "'tickDuration' must be greater than 0");
+		Assert.isTrue(wheelSize > 1 && wheelSize <= (1 << 16) && Integer.bitCount(wheelSize) == 1,
+				"'wheelSize' must be a power of two between 2 and 65536");
+		Assert.notNull(threadFactory, "ThreadFactory must not be null");
+		Assert.notNull(rejectedExecutionHandler, "RejectedExecutionHandler must not be null");
+
+		this.tickNanos = unit.toNanos(tickDuration);
+		this.wheelBits = Integer.numberOfTrailingZeros(wheelSize);
+		// Enough levels to cover any non-negative long tick value
+		this.wheelLevels = (63 + this.wheelBits - 1) / this.wheelBits;
+		this.workerExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), threadFactory, rejectedExecutionHandler) {
+			@Override
+			protected void beforeExecute(Thread thread, Runnable task) {
+				TimingWheelScheduledExecutor.this.beforeExecute(thread, task);
+			}
+			@Override
+			protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+				TimingWheelScheduledExecutor.this.afterExecute(task, ex);
+			}
+		};
+		this.shards = new Shard[tickThreadCount];
+		for (int i = 0; i < tickThreadCount; i++) {
+			this.shards[i] = new Shard(threadFactory);
+		}
+		for (Shard shard : this.shards) {
+			shard.start();
+		}
+	}
+
+
+	/**
+	 * Set the number of worker threads for executing due tasks.
+	 * <p><b>This setting can be modified at runtime.</b>
+	 */
+	public void setPoolSize(int poolSize) {
+		Assert.isTrue(poolSize > 0, "'poolSize' must be 1 or higher");
+		if (poolSize > this.workerExecutor.getMaximumPoolSize()) {
+			this.workerExecutor.setMaximumPoolSize(poolSize);
+			this.workerExecutor.setCorePoolSize(poolSize);
+		}
+		else {
+			this.workerExecutor.setCorePoolSize(poolSize);
+			this.workerExecutor.setMaximumPoolSize(poolSize);
+		}
+	}
+
+	/**
+	 * Return the current number of worker threads.
+	 * @see ThreadPoolExecutor#getPoolSize()
+	 */
+	public int getPoolSize() {
+		return this.workerExecutor.getPoolSize();
+	}
+
+	/**
+	 * Return the number of worker threads that are currently executing tasks.
+	 * @see ThreadPoolExecutor#getActiveCount()
+	 */
+	public int getActiveCount() {
+		return this.workerExecutor.getActiveCount();
+	}
+
+	/**
+	 * Return the number of tick threads, i.e. the number of timing wheels.
+	 */
+	public int getTickThreadCount() {
+		return this.shards.length;
+	}
+
+	/**
+	 * Return the approximate number of tasks waiting for execution: delayed tasks
+	 * which are not due yet as well as due tasks waiting for a worker thread.
+	 * @see java.util.concurrent.ScheduledThreadPoolExecutor#getQueue()
+	 */
+	public int getQueueSize() {
+		int queueSize = this.workerExecutor.getQueue().size();
+		for (Shard shard : this.shards) {
+			queueSize += shard.getTimeoutCount();
+		}
+		return queueSize;
+	}
+
+
+	// ScheduledExecutorService implementation
+
+	@Override
+	public void execute(Runnable command) {
+		taskSubmitted(command);
+		this.workerExecutor.execute(command);
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		return scheduleTimeout(new ScheduledTimeout<Void>(command, null, triggerTime(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		Assert.notNull(callable, "Callable must not be null");
+		return scheduleTimeout(new ScheduledTimeout<>(callable, triggerTime(delay, unit)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(period > 0, "Period must be greater than 0");
+		return scheduleTimeout(new ScheduledTimeout<Void>(
+				command, null, triggerTime(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		Assert.notNull(command, "Runnable must not be null");
+		Assert.isTrue(delay > 0, "Delay must be greater than 0");
+		return scheduleTimeout(new ScheduledTimeout<Void>(
+				command, null, triggerTime(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	private long triggerTime(long delay, TimeUnit unit) {
+		long delayNanos = Math.min(Math.max(unit.toNanos(delay), 0), MAX_DELAY_NANOS);
+		return System.nanoTime() + delayNanos;
+	}
+
+	private <V> ScheduledTimeout<V> scheduleTimeout(ScheduledTimeout<V> timeout) {
+		if (this.shutdown) {
+			throw new RejectedExecutionException("Executor has been shut down - did not accept task: " + timeout);
+		}
+		taskSubmitted(timeout);
+		timeout.shard.add(timeout);
+		return timeout;
+	}
+
+	private Shard selectShard() {
+		Shard[] shards = this.shards;
+		return (shards.length == 1 ? shards[0] : shards[ThreadLocalRandom.current().nextInt(shards.length)]);
+	}
+
+
+	// Extension hooks
+
+	/**
+	 * Callback for a task which has just been submitted for immediate execution
+	 * or scheduled for later execution, invoked by the submitting thread.
+	 * The default implementation is empty.
+	 * @param task the submitted task (a {@link RunnableScheduledFuture}
+	 * for scheduled tasks)
+	 */
+	protected void taskSubmitted(Runnable task) {
+	}
+
+	/**
+	 * Callback before executing a due task in the given worker thread.
+	 * The default implementation is empty.
+	 * @param thread the thread that will run the task
+	 * @param task the task that will be executed (a {@link RunnableScheduledFuture}
+	 * for scheduled tasks)
+	 * @see ThreadPoolExecutor#beforeExecute
+	 */
+	protected void beforeExecute(Thread thread, Runnable task) {
+	}
+
+	/**
+	 * Callback after executing a task, invoked by the worker thread that
+	 * executed the task. The default implementation is empty.
+	 * @param task the task that has been executed
+	 * @param ex the exception that caused termination, or {@code null}
+	 * if execution completed normally
+	 * @see ThreadPoolExecutor#afterExecute
+	 */
+	protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+	}
+
+
+	// Lifecycle
+
+	@Override
+	public void shutdown() {
+		for (ScheduledTimeout<?> timeout : stopTicking()) {
+			timeout.cancel(false);
+		}
+		this.workerExecutor.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> remainingTasks = new ArrayList<>(stopTicking());
+		remainingTasks.addAll(this.workerExecutor.shutdownNow());
+		return remainingTasks;
+	}
+
+	private List<ScheduledTimeout<?>> stopTicking() {
+		synchronized (this.lifecycleMonitor) {
+			if (this.shutdown) {
+				return new ArrayList<>();
+			}
+			this.shutdown = true;
+			List<ScheduledTimeout<?>> remainingTimeouts = new ArrayList<>();
+			for (Shard shard : this.shards) {
+				shard.stop(remainingTimeouts);
+			}
+			return remainingTimeouts;
+		}
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return this.shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return (this.shutdown && this.workerExecutor.isTerminated());
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return this.workerExecutor.awaitTermination(timeout, unit);
+	}
+
+
+	/**
+	 * A single timing wheel with its own tick thread.
+	 * <p>Buckets are only ever accessed by the tick thread; other threads
+	 * communicate through the lock-free pending and cancelled queues.
+	 */
+	private final class Shard implements Runnable {
+
+		private final Thread thread;
+
+		private final long startNanos = System.nanoTime();
+
+		private final Bucket[][] wheels = new Bucket[wheelLevels][1 << wheelBits];
+
+		private final Queue<ScheduledTimeout<?>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+		private final Queue<ScheduledTimeout<?>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+		private volatile boolean running = true;
+
+		private final AtomicInteger pendingCount = new AtomicInteger();
+
+		private volatile boolean idle;
+
+		// The last tick processed - tick thread only
+		private long currentTick;
+
+		// The number of timeouts in buckets - written by tick thread only
+		private volatile int size;
+
+		Shard(ThreadFactory threadFactory) {
+			this.thread = threadFactory.newThread(this);
+			Assert.state(this.thread != null, "ThreadFactory did not create a tick thread");
+		}
+
+		void start() {
+			this.thread.start();
+		}
+
+		void add(ScheduledTimeout<?> timeout) {
+			this.pendingCount.incrementAndGet();
+			this.pendingTimeouts.add(timeout);
+			if (this.idle) {
+				LockSupport.unpark(this.thread);
+			}
+			if (!this.running) {
+				// Raced with shutdown
+				timeout.cancel(false);
+			}
+		}
+
+		void cancelled(ScheduledTimeout<?> timeout) {
+			this.cancelledTimeouts.add(timeout);
+			if (this.idle) {
+				// Unlink it right away rather than on the next due tick
+				LockSupport.unpark(this.thread);
+			}
+		}
+
+		int getTimeoutCount() {
+			return this.size + this.pendingCount.get();
+		}
+
+		@Override
+		public void run() {
+			while (this.running) {
+				processCancelledTimeouts();
+				transferPendingTimeouts();
+				if (this.size == 0) {
+					// Nothing scheduled: wait for a new timeout instead of ticking
+					this.idle = true;
+					if (this.pendingTimeouts.isEmpty() && this.running) {
+						LockSupport.park(this);
+					}
+					this.idle = false;
+					this.cancelledTimeouts.clear();
+					this.currentTick = Math.max(this.currentTick, elapsedTicks(System.nanoTime()));
+					continue;
+				}
+				// Skip ticks without any bucket to process
+				long nextTick = nextTickToProcess();
+				long waitNanos = this.startNanos + nextTick * tickNanos - System.nanoTime();
+				if (waitNanos > 0) {
+					// Wake up early for new and cancelled timeouts unless the next tick is imminent anyway
+					boolean idle = (nextTick > this.currentTick + 1);
+					this.idle = idle;
+					if (!idle || (this.pendingTimeouts.isEmpty() && this.cancelledTimeouts.isEmpty())) {
+						LockSupport.parkNanos(this, waitNanos);
+					}
+					this.idle = false;
+					continue;
+				}
+				this.currentTick = nextTick;
+				advance(nextTick);
+			}
+		}
+
+		private long elapsedTicks(long nanoTime) {
+			long elapsed = nanoTime - this.startNanos;
+			return (elapsed > 0 ? elapsed / tickNanos : 0);
+		}
+
+		/**
+		 * Determine the next tick at which a non-empty bucket needs to be
+		 * processed, either expiring its timeouts or cascading them down.
+		 * <p>Buckets of a lower level always come due before the next bucket of
+		 * a higher level, so the first non-empty bucket from the bottom is it.
+		 */
+		private long nextTickToProcess() {
+			int mask = (1 << wheelBits) - 1;
+			for (int level = 0; level < wheelLevels; level++) {
+				int shift = wheelBits * level;
+				Bucket[] wheel = this.wheels[level];
+				for (int index = (int) ((this.currentTick >>> shift) & mask) + 1; index <= mask; index++) {
+					Bucket bucket = wheel[index];
+					if (bucket != null && !bucket.isEmpty()) {
+						int upperShift = shift + wheelBits;
+						long upperTicks = (upperShift >= 63 ? 0 : (this.currentTick >>> upperShift) << upperShift);
+						return upperTicks | ((long) index << shift);
+					}
+				}
+			}
+			// Should not happen with timeouts in buckets: tick along
+			return this.currentTick + 1;
+		}
+
+		private void processCancelledTimeouts() {
+			ScheduledTimeout<?> timeout;
+			while ((timeout = this.cancelledTimeouts.poll()) != null) {
+				if (timeout.bucket != null) {
+					timeout.bucket.remove(timeout);
+					this.size--;
+				}
+			}
+		}
+
+		private void transferPendingTimeouts() {
+			ScheduledTimeout<?> timeout;
+			while ((timeout = this.pendingTimeouts.poll()) != null) {
+				this.pendingCount.decrementAndGet();
+				if (!timeout.isCancelled()) {
+					long elapsed = timeout.deadlineNanos - this.startNanos;
+					timeout.deadlineTick = (elapsed > 0 ? (elapsed + tickNanos - 1) / tickNanos : 0);
+					place(timeout);
+				}
+			}
+		}
+
+		private void place(ScheduledTimeout<?> timeout) {
+			long deadlineTick = timeout.deadlineTick;
+			if (deadlineTick <= this.currentTick) {
+				expire(timeout);
+				return;
+			}
+			// Lowest level whose higher-order digits match the current tick
+			for (int level = 0; level < wheelLevels; level++) {
+				int shift = wheelBits * (level + 1);
+				if (shift >= 63 || (deadlineTick >>> shift) == (this.currentTick >>> shift)) {
+					int index = (int) ((deadlineTick >>> (wheelBits * level)) & ((1 << wheelBits) - 1));
+					Bucket bucket = this.wheels[level][index];
+					if (bucket == null) {
+						bucket = new Bucket();
+						this.wheels[level][index] = bucket;
+					}
+					bucket.add(timeout);
+					this.size++;
+					return;
+				}
+			}
+		}
+
+		private void advance(long tick) {
+			int mask = (1 << wheelBits) - 1;
+			// Cascade higher levels whose lower-order digits just wrapped around
+			for (int level = wheelLevels - 1; level > 0; level--) {
+				int shift = wheelBits * level;
+				if ((tick & ((1L << shift) - 1)) == 0) {
+					drain(this.wheels[level][(int) ((tick >>> shift) & mask)]);
+				}
+			}
+			drain(this.wheels[0][(int) (tick & mask)]);
+		}
+
+		private void drain(@Nullable Bucket bucket) {
+			if (bucket != null) {
+				ScheduledTimeout<?> timeout;
+				while ((timeout = bucket.poll()) != null) {
+					this.size--;
+					place(timeout);
+				}
+			}
+		}
+
+		private void expire(ScheduledTimeout<?> timeout) {
+			if (!timeout.isCancelled()) {
+				try {
+					workerExecutor.execute(timeout);
+				}
+				catch (RejectedExecutionException ex) {
+					timeout.cancel(false);
+				}
+			}
+		}
+
+		void stop(List<ScheduledTimeout<?>> remainingTimeouts) {
+			this.running = false;
+			LockSupport.unpark(this.thread);
+			boolean interrupted = false;
+			while (this.thread.isAlive() && this.thread != Thread.currentThread()) {
+				try {
+					this.thread.join();
+				}
+				catch (InterruptedException ex) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			ScheduledTimeout<?> timeout;
+			while ((timeout = this.pendingTimeouts.poll()) != null) {
+				this.pendingCount.decrementAndGet();
+				remainingTimeouts.add(timeout);
+			}
+			for (Bucket[] wheel : this.wheels) {
+				for (Bucket bucket : wheel) {
+					if (bucket != null) {
+						while ((timeout = bucket.poll()) != null) {
+							remainingTimeouts.add(timeout);
+						}
+					}
+				}
+			}
+			this.size = 0;
+		}
+	}
+
+
+	/**
+	 * Intrusive doubly-linked list of timeouts, allowing for O(1) removal.
+	 */
+	private static final class Bucket {
+
+		@Nullable
+		private ScheduledTimeout<?> head;
+
+		@Nullable
+		private ScheduledTimeout<?> tail;
+
+		void add(ScheduledTimeout<?> timeout) {
+			timeout.bucket = this;
+			timeout.prev = this.tail;
+			timeout.next = null;
+			if (this.tail != null) {
+				this.tail.next = timeout;
+			}
+			else {
+				this.head = timeout;
+			}
+			this.tail = timeout;
+		}
+
+		void remove(ScheduledTimeout<?> timeout) {
+			if (timeout.prev != null) {
+				timeout.prev.next = timeout.next;
+			}
+			else {
+				this.head = timeout.next;
+			}
+			if (timeout.next != null) {
+				timeout.next.prev = timeout.prev;
+			}
+			else {
+				this.tail = timeout.prev;
+			}
+			timeout.bucket = null;
+			timeout.prev = null;
+			timeout.next = null;
+		}
+
+		boolean isEmpty() {
+			return (this.head == null);
+		}
+
+		@Nullable
+		ScheduledTimeout<?> poll() {
+			ScheduledTimeout<?> timeout = this.head;
+			if (timeout != null) {
+				remove(timeout);
+			}
+			return timeout;
+		}
+	}
+
+
+	/**
+	 * A scheduled task, either one-shot or periodic, which reschedules itself
+	 * in its original shard after each execution of a periodic task.
+	 */
+	private final class ScheduledTimeout<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+		final Shard shard;
+
+		// Positive for fixed rate, negative for fixed delay, 0 for one-shot
+		private final long period;
+
+		volatile long deadlineNanos;
+
+		// Bucket state - tick thread only
+		long deadlineTick;
+
+		@Nullable
+		Bucket bucket;
+
+		@Nullable
+		ScheduledTimeout<?> prev;
+
+		@Nullable
+		ScheduledTimeout<?> next;
+
+		ScheduledTimeout(Runnable runnable, @Nullable V result, long deadlineNanos, long period) {
+			super(runnable, result);
+			this.shard = selectShard();
+			this.deadlineNanos = deadlineNanos;
+			this.period = period;
+		}
+
+		ScheduledTimeout(Callable<V> callable, long deadlineNanos) {
+			super(callable);
+			this.shard = selectShard();
+			this.deadlineNanos = deadlineNanos;
+			this.period = 0;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return (this.period != 0);
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+			}
+			else if (runAndReset() && !shutdown) {
+				this.deadlineNanos = (this.period > 0 ? this.deadlineNanos + this.period :
+						System.nanoTime() - this.period);
+				this.shard.add(this);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				this.shard.cancelled(this);
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (this == other) {
+				return 0;
+			}
+			long diff = getDelay(TimeUnit.NANOSECONDS) - other.getDelay(TimeUnit.NANOSECONDS);
+			return (diff == 0 ? 0 : (diff < 0 ? -1 : 1));
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Variant of {@link ThreadPoolTaskScheduler} which is backed by a
+ * {@link TimingWheelScheduledExecutor} instead of a
+ * {@link java.util.concurrent.ScheduledThreadPoolExecutor}, for scenarios
+ * with very large numbers of scheduled tasks: e.g. SockJS and STOMP heartbeats
+ * for hundreds of thousands of sessions.
+ *
+ * <p>Scheduling and cancelling a task are O(1) operations here, at the expense
+ * of a scheduling precision of one {@link #setTickMillis tick}. This makes it a
+ * drop-in {@link org.springframework.scheduling.TaskScheduler} for
+ * {@code @Scheduled} methods as well as for the WebSocket message broker's
+ * heartbeat and SockJS session scheduling.
+ *
+ * <p>The {@link #setPoolSize pool size} determines the number of worker threads
+ * executing due tasks, whereas the {@link #setTickThreadCount tick thread count}
+ * determines the number of timing wheels that tasks are spread across.
+ * A {@link #setTaskMetricsCallback TaskMetricsCallback} gets applied to the
+ * worker pool in the same way as for a regular {@code ThreadPoolTaskScheduler}.
+ *
+ * <p>Note that {@code ConcurrentWebSocketSessionDecorator}
+ * does not use a scheduler for its send-time limit: the limit is checked
+ * whenever another send attempt finds a send in progress.
+ *
+ * @since 5.2.7
+ * @see TimingWheelScheduledExecutor
+ */
+@SuppressWarnings("serial")
+public class TimingWheelTaskScheduler extends ThreadPoolTaskScheduler {
+
+	private long tickMillis = TimingWheelScheduledExecutor.DEFAULT_TICK_MILLIS;
+
+	private int wheelSize = TimingWheelScheduledExecutor.DEFAULT_WHEEL_SIZE;
+
+	private int tickThreadCount = 1;
+
+	@Nullable
+	private TimingWheelScheduledExecutor timingWheelExecutor;
+
+
+	/**
+	 * Set the duration of a tick in milliseconds, i.e. the scheduling precision.
+	 * <p>Default is {@link TimingWheelScheduledExecutor#DEFAULT_TICK_MILLIS}.
+	 */
+	public void setTickMillis(long tickMillis) {
+		Assert.isTrue(tickMillis > 0, "'tickMillis' must be greater than 0");
+		this.tickMillis = tickMillis;
+	}
+
+	/**
+	 * Set the number of buckets per timing wheel level (a power of two).
+	 * <p>Default is {@link TimingWheelScheduledExecutor#DEFAULT_WHEEL_SIZE}.
+	 */
+	public void setWheelSize(int wheelSize) {
+		this.wheelSize = wheelSize;
+	}
+
+	/**
+	 * Set the number of tick threads, each maintaining its own timing wheel
+	 * for a share of the scheduled tasks.
+	 * <p>Default is 1. Consider raising this for very high scheduling rates
+	 * from many concurrent threads.
+	 */
+	public void setTickThreadCount(int tickThreadCount) {
+		Assert.isTrue(tickThreadCount > 0, "'tickThreadCount' must be 1 or higher");
+		this.tickThreadCount = tickThreadCount;
+	}
+
+	@Override
+	public void setPoolSize(int poolSize) {
+		super.setPoolSize(poolSize);
+		if (this.timingWheelExecutor != null) {
+			this.timingWheelExecutor.setPoolSize(poolSize);
+		}
+	}
+
+
+	/**
+	 * Create a new {@link TimingWheelScheduledExecutor} instance,
+	 * instrumented for the {@link #setTaskMetricsCallback TaskMetricsCallback} if any.
+	 * @see #setTickMillis
+	 * @see #setWheelSize
+	 * @see #setTickThreadCount
+	 */
+	@Override
+	protected ScheduledExecutorService createExecutor(
+			int poolSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+
+		TaskMetricsCallback callback = getTaskMetricsCallback();
+		if (callback != null) {
+			this.timingWheelExecutor = new InstrumentedTimingWheelScheduledExecutor(poolSize, this.tickThreadCount,
+					this.tickMillis, this.wheelSize, threadFactory, rejectedExecutionHandler, callback);
+		}
+		else {
+			this.timingWheelExecutor = new TimingWheelScheduledExecutor(poolSize, this.tickThreadCount,
+					this.tickMillis, TimeUnit.MILLISECONDS, this.wheelSize, threadFactory, rejectedExecutionHandler);
+		}
+		return this.timingWheelExecutor;
+	}
+
+	/**
+	 * Return the underlying TimingWheelScheduledExecutor.
+	 * @throws IllegalStateException if the TimingWheelTaskScheduler hasn't been initialized yet
+	 */
+	public TimingWheelScheduledExecutor getTimingWheelExecutor() throws IllegalStateException {
+		Assert.state(this.timingWheelExecutor != null, "TimingWheelTaskScheduler not initialized");
+		return this.timingWheelExecutor;
+	}
+
+	@Override
+	public int getPoolSize() {
+		if (this.timingWheelExecutor == null) {
+			return super.getPoolSize();
+		}
+		return this.timingWheelExecutor.getPoolSize();
+	}
+
+	/**
+	 * Always returns {@code true} once initialized, since cancelled tasks
+	 * are unlinked from the timing wheel on the next tick.
+	 */
+	@Override
+	public boolean isRemoveOnCancelPolicy() {
+		return (this.timingWheelExecutor != null || super.isRemoveOnCancelPolicy());
+	}
+
+	@Override
+	public int getActiveCount() {
+		if (this.timingWheelExecutor == null) {
+			return 0;
+		}
+		return this.timingWheelExecutor.getActiveCount();
+	}
+
+	/**
+	 * Return the approximate number of tasks waiting for execution,
+	 * including delayed tasks which are not due yet.
+	 * @see TimingWheelScheduledExecutor#getQueueSize()
+	 */
+	@Override
+	public int getQueueSize() {
+		if (this.timingWheelExecutor == null) {
+			// Not initialized yet: assume no queued tasks.
+			return 0;
+		}
+		return this.timingWheelExecutor.getQueueSize();
+	}
+
+
+	/**
+	 * TimingWheelScheduledExecutor variant which reports the lateness of each
+	 * task execution relative to its scheduled time as well as the execution
+	 * time of each task to a {@link TaskMetricsCallback}.
+	 */
+	private static class InstrumentedTimingWheelScheduledExecutor extends TimingWheelScheduledExecutor {
+
+		private final TaskMetricsCallback callback;
+
+		private final ThreadLocal<long[]> startTime = ThreadLocal.withInitial(() -> new long[1]);
+
+		public InstrumentedTimingWheelScheduledExecutor(int poolSize, int tickThreadCount, long tickMillis,
+				int wheelSize, ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler,
+				TaskMetricsCallback callback) {
+
+			super(poolSize, tickThreadCount, tickMillis, TimeUnit.MILLISECONDS, wheelSize, threadFactory,
+					(task, executor) -> {
+						callback.taskRejected(null);
+						rejectedExecutionHandler.rejectedExecution(task, executor);
+					});
+			this.callback = callback;
+		}
+
+		@Override
+		protected void taskSubmitted(Runnable task) {
+			this.callback.taskSubmitted(null);
+		}
+
+		@Override
+		protected void beforeExecute(Thread thread, Runnable task) {
+			long waitNanos = (task instanceof Delayed ? -((Delayed) task).getDelay(TimeUnit.NANOSECONDS) : 0);
+			this.callback.taskStarted(null, waitNanos);
+			this.startTime.get()[0] = System.nanoTime();
+		}
+
+		@Override
+		protected void afterExecute(Runnable task, @Nullable Throwable ex) {
+			long executionNanos = System.nanoTime() - this.startTime.get()[0];
+			this.callback.taskCompleted(null, executionNanos, ThreadPoolTaskScheduler.determineFailure(task, ex));
+			if (ThreadPoolTaskScheduler.isRescheduled(task)) {
+				// Each execution of a periodic task counts as a submission
+				this.callback.taskSubmitted(null);
+			}
+		}
+	}
+
+}
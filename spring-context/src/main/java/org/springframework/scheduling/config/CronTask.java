@@ -20,7 +20,7 @@ import org.springframework.scheduling.support.CronTrigger;
 
 /**
  * {@link TriggerTask} implementation defining a {@code Runnable} to be executed according
- * to a {@linkplain org.springframework.scheduling.support.CronSequenceGenerator standard
+ * to a {@linkplain org.springframework.scheduling.support.CronExpression standard
  * cron expression}.
  *
  * @author Chris Beams
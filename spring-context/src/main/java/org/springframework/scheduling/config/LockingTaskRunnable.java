@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.TriggerContext;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskLock;
+import org.springframework.scheduling.support.TaskLockProvider;
+
+/**
+ * Runnable wrapper which executes the target task only if the lock for the
+ * current execution time can be acquired from a {@link TaskLockProvider}.
+ *
+ * <p>The execution time is the scheduled execution time for trigger-based tasks
+ * and the current time aligned to the interval for fixed-rate and fixed-delay
+ * tasks, so that all nodes arrive at the same execution time for the same tick.
+ *
+ * <p>A lock acquisition delay is applied as a constant offset to the schedule of
+ * this node, rather than as a separate delayed execution: the target task still
+ * runs within the scheduler's invocation of this runnable, preserving fixed-delay
+ * semantics, with the execution time determined without the offset.
+ *
+ * @since 5.2.7
+ * @see ScheduledTaskRegistrar#setTaskLockProvider
+ */
+class LockingTaskRunnable implements Runnable {
+
+	private static final long MIN_CATCH_UP_LOOK_BACK = 1000;
+
+	private static final Log logger = LogFactory.getLog(LockingTaskRunnable.class);
+
+
+	private final Runnable task;
+
+	private final String taskName;
+
+	private final TaskLockProvider lockProvider;
+
+	private final Duration lockAtMostFor;
+
+	private final long interval;
+
+	private final long acquisitionDelay;
+
+	private final TaskScheduler taskScheduler;
+
+	private volatile long scheduledExecutionTime;
+
+
+	/**
+	 * Create a new LockingTaskRunnable.
+	 * @param task the target task
+	 * @param taskName the unique name of the task
+	 * @param lockProvider the provider to acquire locks from
+	 * @param lockAtMostFor the maximum time to hold a lock
+	 * @param interval the interval of a fixed-rate or fixed-delay task,
+	 * or 0 for a trigger-based task
+	 * @param acquisitionDelay the offset (in milliseconds) to apply to the schedule
+	 * of this node before trying to acquire the lock
+	 * @param taskScheduler the scheduler to use for catching up with a missed execution
+	 */
+	public LockingTaskRunnable(Runnable task, String taskName, TaskLockProvider lockProvider,
+			Duration lockAtMostFor, long interval, long acquisitionDelay, TaskScheduler taskScheduler) {
+
+		this.task = task;
+		this.taskName = taskName;
+		this.lockProvider = lockProvider;
+		this.lockAtMostFor = lockAtMostFor;
+		this.interval = interval;
+		this.acquisitionDelay = acquisitionDelay;
+		this.taskScheduler = taskScheduler;
+	}
+
+
+	/**
+	 * Return the offset (in milliseconds) to apply to the schedule of this node.
+	 * Fixed-rate and fixed-delay tasks need to be started with this additional
+	 * initial delay, whereas {@link #wrapTrigger wrapped triggers} apply it
+	 * to every execution time.
+	 */
+	public long getAcquisitionDelay() {
+		return this.acquisitionDelay;
+	}
+
+	/**
+	 * Wrap the given trigger for tracking the scheduled execution time,
+	 * shifting every execution time by the acquisition delay.
+	 */
+	public Trigger wrapTrigger(Trigger trigger) {
+		long delay = this.acquisitionDelay;
+		return triggerContext -> {
+			Date next = trigger.nextExecutionTime(
+					delay > 0 ? new UnshiftedTriggerContext(triggerContext, delay) : triggerContext);
+			if (next == null) {
+				return null;
+			}
+			this.scheduledExecutionTime = next.getTime();
+			return (delay > 0 ? new Date(next.getTime() + delay) : next);
+		};
+	}
+
+	@Override
+	public void run() {
+		long executionTime = (this.interval > 0 ? alignToInterval(System.currentTimeMillis() - this.acquisitionDelay) :
+				(this.scheduledExecutionTime > 0 ? this.scheduledExecutionTime : System.currentTimeMillis()));
+		runLocked(Instant.ofEpochMilli(executionTime));
+	}
+
+	/**
+	 * Run the target task once for the most recent execution time that has been
+	 * missed according to the lock provider's last recorded execution, if any.
+	 * @param trigger the trigger of a trigger-based task, or {@code null} for
+	 * a fixed-rate or fixed-delay task
+	 */
+	public void catchUpIfNecessary(@Nullable Trigger trigger) {
+		Instant lastExecution = this.lockProvider.getLastExecutionTime(this.taskName);
+		if (lastExecution == null) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		Date missed = null;
+		if (this.interval > 0) {
+			long tick = alignToInterval(now);
+			if (lastExecution.toEpochMilli() < tick) {
+				missed = new Date(tick);
+			}
+		}
+		else if (trigger != null) {
+			missed = determineLatestExecutionTime(trigger, lastExecution.toEpochMilli(), now);
+		}
+		if (missed != null) {
+			if (logger.isInfoEnabled()) {
+				logger.info("Catching up with missed execution of task '" + this.taskName + "' for " + missed);
+			}
+			Instant executionTime = missed.toInstant();
+			this.taskScheduler.schedule(() -> runLocked(executionTime), new Date(now));
+		}
+	}
+
+	/**
+	 * Determine the latest execution time of the given trigger after the last
+	 * execution and not after the current time. Rather than iterating over all
+	 * execution times since the last execution, this looks back from the current
+	 * time with a doubling window until an execution time is found.
+	 */
+	@Nullable
+	private Date determineLatestExecutionTime(Trigger trigger, long lastExecution, long now) {
+		long lookBack = MIN_CATCH_UP_LOOK_BACK;
+		while (true) {
+			long start = Math.max(now - lookBack, lastExecution);
+			Date startDate = new Date(start);
+			Date next = trigger.nextExecutionTime(new SimpleTriggerContext(startDate, startDate, startDate));
+			if (next != null && next.getTime() > start && next.getTime() <= now) {
+				// The previous window did not contain an execution time,
+				// so only a few remain to be iterated until the current time.
+				Date latest = next;
+				while (true) {
+					next = trigger.nextExecutionTime(new SimpleTriggerContext(latest, latest, latest));
+					if (next == null || next.getTime() > now || !next.after(latest)) {
+						return latest;
+					}
+					latest = next;
+				}
+			}
+			if (start == lastExecution || lookBack > Long.MAX_VALUE / 2) {
+				return null;
+			}
+			lookBack *= 2;
+		}
+	}
+
+	private void runLocked(Instant executionTime) {
+		TaskLock lock = this.lockProvider.tryLock(this.taskName, executionTime, this.lockAtMostFor);
+		if (lock == null) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Skipping execution of task '" + this.taskName + "' for " + executionTime +
+						": locked or already executed on another node");
+			}
+			return;
+		}
+		try {
+			this.task.run();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private long alignToInterval(long time) {
+		return time - Math.floorMod(time, this.interval);
+	}
+
+	@Override
+	public String toString() {
+		return this.task.toString();
+	}
+
+
+	/**
+	 * TriggerContext which reverts the acquisition delay from the last scheduled
+	 * execution time, for determining the unshifted next execution time.
+	 */
+	private static class UnshiftedTriggerContext implements TriggerContext {
+
+		private final TriggerContext triggerContext;
+
+		private final long delay;
+
+		UnshiftedTriggerContext(TriggerContext triggerContext, long delay) {
+			this.triggerContext = triggerContext;
+			this.delay = delay;
+		}
+
+		@Override
+		@Nullable
+		public Date lastScheduledExecutionTime() {
+			Date lastScheduled = this.triggerContext.lastScheduledExecutionTime();
+			return (lastScheduled != null ? new Date(lastScheduled.getTime() - this.delay) : null);
+		}
+
+		@Override
+		@Nullable
+		public Date lastActualExecutionTime() {
+			return this.triggerContext.lastActualExecutionTime();
+		}
+
+		@Override
+		@Nullable
+		public Date lastCompletionTime() {
+			return this.triggerContext.lastCompletionTime();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,13 @@
 
 package org.springframework.scheduling.config;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -34,6 +37,7 @@ import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.Trigger;
 import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.TaskLockProvider;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
@@ -91,6 +95,19 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 
 	private final Set<ScheduledTask> scheduledTasks = new LinkedHashSet<>(16);
 
+	@Nullable
+	private TaskLockProvider taskLockProvider;
+
+	private Duration lockAtMostFor = Duration.ofMinutes(30);
+
+	private boolean catchUpMissedExecutions = false;
+
+	private Duration lockAcquisitionSpread = Duration.ZERO;
+
+	private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+	private final Set<String> lockedTaskNames = new HashSet<>();
+
 
 	/**
 	 * Set the {@link TaskScheduler} to register scheduled tasks with.
@@ -128,6 +145,92 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 		return this.taskScheduler;
 	}
 
+	/**
+	 * Set a {@link TaskLockProvider} for coordinating the execution of scheduled
+	 * tasks across several nodes, e.g. a JDBC-based provider for a shared database.
+	 * <p>With a lock provider, every execution of a task is only performed if the
+	 * lock for the task and its scheduled execution time can be acquired, which
+	 * happens on one node only per execution time. Tasks are identified by their
+	 * {@link #determineTaskName name}, which needs to be unique within the
+	 * application and the same on all nodes.
+	 * <p>Default is none, executing all tasks locally. This setting needs to be
+	 * specified before tasks get scheduled. {@code @Scheduled} processing picks
+	 * up a unique {@code TaskLockProvider} bean by default.
+	 * @since 5.2.7
+	 * @see org.springframework.scheduling.support.InMemoryTaskLockProvider
+	 */
+	public void setTaskLockProvider(@Nullable TaskLockProvider taskLockProvider) {
+		this.taskLockProvider = taskLockProvider;
+	}
+
+	/**
+	 * Return the {@link TaskLockProvider} for coordinating scheduled tasks, if any.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public TaskLockProvider getTaskLockProvider() {
+		return this.taskLockProvider;
+	}
+
+	/**
+	 * Set the maximum time to hold a task lock, after which the lock expires even if
+	 * not released by the executing node, e.g. since the node crashed in the meantime.
+	 * <p>Default is 30 minutes. This should be longer than the longest expected
+	 * execution time of any task, since a subsequent execution may start on
+	 * another node once the lock has expired.
+	 * @since 5.2.7
+	 * @see #setTaskLockProvider
+	 */
+	public void setLockAtMostFor(Duration lockAtMostFor) {
+		Assert.isTrue(!lockAtMostFor.isNegative() && !lockAtMostFor.isZero(), "'lockAtMostFor' must be positive");
+		this.lockAtMostFor = lockAtMostFor;
+	}
+
+	/**
+	 * Set whether to catch up with missed executions when scheduling a task,
+	 * based on the last execution time recorded by the {@link TaskLockProvider}:
+	 * e.g. after all nodes have been down at the scheduled time of a cron task.
+	 * <p>Default is "false". If switched on, a task is executed once right away
+	 * for its most recent missed execution time, with several missed executions
+	 * coalesced into a single one.
+	 * @since 5.2.7
+	 * @see TaskLockProvider#getLastExecutionTime
+	 */
+	public void setCatchUpMissedExecutions(boolean catchUpMissedExecutions) {
+		this.catchUpMissedExecutions = catchUpMissedExecutions;
+	}
+
+	/**
+	 * Set the time window for spreading lock acquisition attempts across nodes.
+	 * <p>Default is none, letting the first node that attempts to acquire a lock
+	 * win, which tends to concentrate all tasks on the same node. If a window is
+	 * specified, each node delays its attempt by an offset within the window,
+	 * derived from a hash of the task name and the {@link #setNodeId node id}:
+	 * the executing node for each task is then effectively chosen by rendezvous
+	 * hashing, spreading different tasks across nodes, with a fallback to other
+	 * nodes if the preferred node is not available.
+	 * <p>The offset is applied to the schedule of each node: fixed-rate and
+	 * fixed-delay tasks get started with a correspondingly longer initial delay,
+	 * and the execution times of trigger-based tasks get shifted accordingly.
+	 * The window should be short compared to the interval between executions.
+	 * @since 5.2.7
+	 */
+	public void setLockAcquisitionSpread(Duration lockAcquisitionSpread) {
+		Assert.isTrue(!lockAcquisitionSpread.isNegative(), "'lockAcquisitionSpread' must not be negative");
+		this.lockAcquisitionSpread = lockAcquisitionSpread;
+	}
+
+	/**
+	 * Set the unique id of this node, for spreading tasks across nodes.
+	 * <p>Default is the name of the running JVM, typically "pid@hostname".
+	 * @since 5.2.7
+	 * @see #setLockAcquisitionSpread
+	 */
+	public void setNodeId(String nodeId) {
+		Assert.hasText(nodeId, "'nodeId' must not be empty");
+		this.nodeId = nodeId;
+	}
+
 
 	/**
 	 * Specify triggered tasks as a Map of Runnables (the tasks) and Trigger objects
@@ -403,7 +506,17 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			Runnable runnable = task.getRunnable();
+			Trigger trigger = task.getTrigger();
+			if (this.taskLockProvider != null) {
+				LockingTaskRunnable lockingTask = createLockingTask(task, this.taskLockProvider, 0, this.taskScheduler);
+				runnable = lockingTask;
+				trigger = lockingTask.wrapTrigger(trigger);
+				if (this.catchUpMissedExecutions) {
+					lockingTask.catchUpIfNecessary(task.getTrigger());
+				}
+			}
+			scheduledTask.future = this.taskScheduler.schedule(runnable, trigger);
 		}
 		else {
 			addTriggerTask(task);
@@ -428,7 +541,17 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			scheduledTask.future = this.taskScheduler.schedule(task.getRunnable(), task.getTrigger());
+			Runnable runnable = task.getRunnable();
+			Trigger trigger = task.getTrigger();
+			if (this.taskLockProvider != null) {
+				LockingTaskRunnable lockingTask = createLockingTask(task, this.taskLockProvider, 0, this.taskScheduler);
+				runnable = lockingTask;
+				trigger = lockingTask.wrapTrigger(trigger);
+				if (this.catchUpMissedExecutions) {
+					lockingTask.catchUpIfNecessary(task.getTrigger());
+				}
+			}
+			scheduledTask.future = this.taskScheduler.schedule(runnable, trigger);
 		}
 		else {
 			addCronTask(task);
@@ -469,14 +592,17 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
+			Runnable runnable = lockingTaskIfNecessary(task, this.taskScheduler);
+			long initialDelay = task.getInitialDelay() + (runnable instanceof LockingTaskRunnable ?
+					((LockingTaskRunnable) runnable).getAcquisitionDelay() : 0);
+			if (initialDelay > 0) {
+				Date startTime = new Date(System.currentTimeMillis() + initialDelay);
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, startTime, task.getInterval());
 			}
 			else {
 				scheduledTask.future =
-						this.taskScheduler.scheduleAtFixedRate(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleAtFixedRate(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -518,14 +644,17 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 			newTask = true;
 		}
 		if (this.taskScheduler != null) {
-			if (task.getInitialDelay() > 0) {
-				Date startTime = new Date(System.currentTimeMillis() + task.getInitialDelay());
+			Runnable runnable = lockingTaskIfNecessary(task, this.taskScheduler);
+			long initialDelay = task.getInitialDelay() + (runnable instanceof LockingTaskRunnable ?
+					((LockingTaskRunnable) runnable).getAcquisitionDelay() : 0);
+			if (initialDelay > 0) {
+				Date startTime = new Date(System.currentTimeMillis() + initialDelay);
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), startTime, task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, startTime, task.getInterval());
 			}
 			else {
 				scheduledTask.future =
-						this.taskScheduler.scheduleWithFixedDelay(task.getRunnable(), task.getInterval());
+						this.taskScheduler.scheduleWithFixedDelay(runnable, task.getInterval());
 			}
 		}
 		else {
@@ -536,6 +665,108 @@ public class ScheduledTaskRegistrar implements ScheduledTaskHolder, Initializing
 	}
 
 
+	private Runnable lockingTaskIfNecessary(IntervalTask task, TaskScheduler taskScheduler) {
+		if (this.taskLockProvider == null) {
+			return task.getRunnable();
+		}
+		LockingTaskRunnable lockingTask =
+				createLockingTask(task, this.taskLockProvider, task.getInterval(), taskScheduler);
+		if (this.catchUpMissedExecutions) {
+			lockingTask.catchUpIfNecessary(null);
+		}
+		return lockingTask;
+	}
+
+	private LockingTaskRunnable createLockingTask(
+			Task task, TaskLockProvider lockProvider, long interval, TaskScheduler taskScheduler) {
+
+		String taskName = determineTaskName(task);
+		if (!this.lockedTaskNames.add(taskName)) {
+			throw new IllegalStateException("Duplicate task name '" + taskName + "' for lock acquisition: " +
+					"tasks with the same Runnable and schedule need to be distinguished through a custom " +
+					"determineTaskName implementation, e.g. based on the bean name");
+		}
+		long delay = determineLockAcquisitionDelay(taskName);
+		return new LockingTaskRunnable(task.getRunnable(), taskName, lockProvider,
+				this.lockAtMostFor, interval, delay, taskScheduler);
+	}
+
+	/**
+	 * Determine the name of the given task for lock acquisition purposes.
+	 * <p>The default implementation combines the {@code toString()} representation
+	 * of the task's {@code Runnable}, which is the fully qualified method name for
+	 * {@code @Scheduled} methods, with a description of the schedule, e.g.
+	 * {@code "com.example.MyBean.cleanUp(cron=0 0 * * * *)"}. Custom {@code Runnable}
+	 * implementations need to provide a stable {@code toString()} representation;
+	 * lambdas and other {@code Runnable}s with the default identity-based
+	 * representation are rejected. Tasks which end up with the same name, e.g. the
+	 * same method on two beans with the same schedule, are rejected as well.
+	 * In both cases, this method needs to be overridden for a unique name.
+	 * @param task the task to determine the name for
+	 * @return the name of the task, identical on all nodes
+	 * @throws IllegalStateException if no stable name can be determined
+	 * @since 5.2.7
+	 * @see #setTaskLockProvider
+	 */
+	protected String determineTaskName(Task task) {
+		Runnable runnable = task.getRunnable();
+		String name = runnable.toString();
+		if (isIdentityString(runnable, name)) {
+			throw new IllegalStateException("Cannot determine a stable name for task [" + name + "] for lock " +
+					"acquisition: use a Runnable with a custom toString() representation instead of a lambda, " +
+					"or override determineTaskName");
+		}
+		String schedule = null;
+		if (task instanceof CronTask) {
+			schedule = "cron=" + ((CronTask) task).getExpression();
+		}
+		else if (task instanceof FixedRateTask) {
+			schedule = "fixedRate=" + ((FixedRateTask) task).getInterval();
+		}
+		else if (task instanceof FixedDelayTask) {
+			schedule = "fixedDelay=" + ((FixedDelayTask) task).getInterval();
+		}
+		else if (task instanceof TriggerTask) {
+			Trigger trigger = ((TriggerTask) task).getTrigger();
+			String triggerString = trigger.toString();
+			if (trigger instanceof CronTrigger) {
+				schedule = "cron=" + triggerString;
+			}
+			else if (!isIdentityString(trigger, triggerString)) {
+				schedule = triggerString;
+			}
+		}
+		return (schedule != null ? name + "(" + schedule + ")" : name);
+	}
+
+	private static boolean isIdentityString(Object obj, String string) {
+		// Default Object.toString() representation, including lambdas
+		return string.startsWith(obj.getClass().getName() + "@");
+	}
+
+	/**
+	 * Determine the delay before attempting to acquire the lock for the given task
+	 * on this node, according to the {@link #setLockAcquisitionSpread spread window}.
+	 * @param taskName the name of the task
+	 * @return the delay in milliseconds
+	 * @since 5.2.7
+	 */
+	protected long determineLockAcquisitionDelay(String taskName) {
+		long window = this.lockAcquisitionSpread.toMillis();
+		if (window <= 0) {
+			return 0;
+		}
+		// Murmur3 finalizer for spreading similar task names and node ids evenly
+		long hash = taskName.hashCode() * 31L + this.nodeId.hashCode();
+		hash ^= (hash >>> 33);
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= (hash >>> 33);
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= (hash >>> 33);
+		return Math.floorMod(hash, window + 1);
+	}
+
+
 	/**
 	 * Return all locally registered tasks that have been scheduled by this registrar.
 	 * @since 5.0.2
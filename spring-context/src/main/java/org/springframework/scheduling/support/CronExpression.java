@@ -0,0 +1,549 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Representation of a
+ * <a href="https://www.manpagez.com/man/5/crontab/">crontab expression</a>
+ * that can calculate the next time it matches, based on {@code java.time}.
+ *
+ * <p>The expression is a list of six single space-separated fields: representing
+ * second, minute, hour, day, month, weekday. Month and weekday names can be
+ * given as the first three letters of the English names. Weekdays are numbered
+ * from 0 (Sunday) to 6 (Saturday), with 7 being accepted as Sunday as well.
+ * Both day fields need to match, with {@code ?} being a synonym for {@code *}.
+ *
+ * <p>In addition to the standard syntax, the following Quartz-style day
+ * expressions are supported, each as the only element of its field:
+ * <ul>
+ * <li>{@code L} in the day-of-month field: the last day of the month,
+ * optionally with an offset as in {@code L-3}</li>
+ * <li>{@code LW} in the day-of-month field: the last weekday of the month</li>
+ * <li>{@code 15W} in the day-of-month field: the weekday nearest to the 15th
+ * within the same month</li>
+ * <li>{@code 5L} or {@code FRIL} in the day-of-week field: the last Friday
+ * of the month</li>
+ * <li>{@code 5#3} or {@code FRI#3} in the day-of-week field: the third Friday
+ * of the month</li>
+ * </ul>
+ *
+ * <p>The following macros can be used instead of the six fields:
+ * {@code @yearly} (or {@code @annually}), {@code @monthly}, {@code @weekly},
+ * {@code @daily} (or {@code @midnight}) and {@code @hourly}.
+ *
+ * <p>Each field is compiled into a bit mask on parsing, and the next match
+ * is found through direct bit arithmetic per field rather than through
+ * iterating over a calendar.
+ *
+ * <p>Example expressions:
+ * <ul>
+ * <li>{@code "0 0 * * * *"} = the top of every hour of every day.</li>
+ * <li><code>"*&#47;10 * * * * *"</code> = every ten seconds.</li>
+ * <li>{@code "0 0 8-10 * * *"} = 8, 9 and 10 o'clock of every day.</li>
+ * <li>{@code "0 0 9-17 * * MON-FRI"} = on the hour nine-to-five weekdays</li>
+ * <li>{@code "0 0 0 25 12 ?"} = every Christmas Day at midnight</li>
+ * <li>{@code "0 0 0 L * *"} = last day of the month at midnight</li>
+ * <li>{@code "0 0 0 * * 5#2"} = second Friday of the month at midnight</li>
+ * <li>{@code "0 0 0 29 2 1"} = every leap day which falls on a Monday</li>
+ * </ul>
+ *
+ * @since 5.2.7
+ * @see CronTrigger
+ */
+public final class CronExpression {
+
+	private static final String[] MACROS = new String[] {
+			"@yearly", "0 0 0 1 1 *",
+			"@annually", "0 0 0 1 1 *",
+			"@monthly", "0 0 0 1 * *",
+			"@weekly", "0 0 0 * * 0",
+			"@daily", "0 0 0 * * *",
+			"@midnight", "0 0 0 * * *",
+			"@hourly", "0 0 * * * *"
+	};
+
+	private static final String[] MONTH_NAMES = new String[] {
+			"JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"};
+
+	private static final String[] DAY_NAMES = new String[] {"SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"};
+
+	// Month offsets for determining the day of the week (Sakamoto's method)
+	private static final int[] DAY_OF_WEEK_OFFSETS = new int[] {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+	// Any pattern matches again within a full Gregorian cycle
+	private static final int MAX_YEARS = 400;
+
+
+	private final String expression;
+
+	private final long seconds;
+
+	private final long minutes;
+
+	private final long hours;
+
+	// Bits 1 to 31, or 0 in case of a special day-of-month expression
+	private final long daysOfMonth;
+
+	// Bits 1 to 12
+	private final long months;
+
+	// ISO bits 1 (Monday) to 7 (Sunday), or 0 in case of a special day-of-week expression
+	private final long daysOfWeek;
+
+	// Days of the month matching daysOfWeek, indexed by the ISO day of week of the 1st
+	private final long[] weekdayPatterns = new long[8];
+
+	// -1 if none, otherwise the offset from the last day of the month ("L", "L-3")
+	private final int lastDayOffset;
+
+	// "LW"
+	private final boolean lastWeekday;
+
+	// 0 if none, otherwise the day of the month ("15W")
+	private final int nearestWeekday;
+
+	// 0 if none, otherwise the ISO day of week ("5L")
+	private final int lastDayOfWeek;
+
+	// 0 if none, otherwise the ISO day of week and its ordinal ("5#3")
+	private final int nthDayOfWeek;
+
+	private final int nthOrdinal;
+
+
+	private CronExpression(String expression, String[] fields) {
+		this.expression = expression;
+		this.seconds = parseField(fields[0], 0, 59, null, false);
+		this.minutes = parseField(fields[1], 0, 59, null, false);
+		this.hours = parseField(fields[2], 0, 23, null, false);
+		this.months = parseField(fields[4], 1, 12, MONTH_NAMES, false);
+
+		String dayOfMonth = fields[3].toUpperCase();
+		int lastDayOffset = -1;
+		boolean lastWeekday = false;
+		int nearestWeekday = 0;
+		long daysOfMonth = 0;
+		if (dayOfMonth.equals("L")) {
+			lastDayOffset = 0;
+		}
+		else if (dayOfMonth.startsWith("L-")) {
+			lastDayOffset = parseValue(dayOfMonth.substring(2), 1, 30, null);
+		}
+		else if (dayOfMonth.equals("LW")) {
+			lastWeekday = true;
+		}
+		else if (dayOfMonth.endsWith("W")) {
+			nearestWeekday = parseValue(dayOfMonth.substring(0, dayOfMonth.length() - 1), 1, 31, null);
+		}
+		else {
+			daysOfMonth = parseField(dayOfMonth, 1, 31, null, true);
+		}
+		this.lastDayOffset = lastDayOffset;
+		this.lastWeekday = lastWeekday;
+		this.nearestWeekday = nearestWeekday;
+		this.daysOfMonth = daysOfMonth;
+
+		String dayOfWeek = fields[5].toUpperCase();
+		int lastDayOfWeek = 0;
+		int nthDayOfWeek = 0;
+		int nthOrdinal = 0;
+		long daysOfWeek = 0;
+		int hashIndex = dayOfWeek.indexOf('#');
+		if (hashIndex > 0) {
+			nthDayOfWeek = toIsoDayOfWeek(parseValue(dayOfWeek.substring(0, hashIndex), 0, 7, DAY_NAMES));
+			nthOrdinal = parseValue(dayOfWeek.substring(hashIndex + 1), 1, 5, null);
+		}
+		else if (dayOfWeek.length() > 1 && dayOfWeek.endsWith("L")) {
+			lastDayOfWeek = toIsoDayOfWeek(parseValue(dayOfWeek.substring(0, dayOfWeek.length() - 1), 0, 7, DAY_NAMES));
+		}
+		else {
+			long cronBits = parseField(dayOfWeek, 0, 7, DAY_NAMES, true);
+			// Sunday can be represented as 0 or 7
+			daysOfWeek = (cronBits & 0b1111110) | ((cronBits & 0b10000001) != 0 ? 1L << 7 : 0);
+			for (int firstDayOfWeek = 1; firstDayOfWeek <= 7; firstDayOfWeek++) {
+				long pattern = 0;
+				for (int day = 1; day <= 31; day++) {
+					if ((daysOfWeek & (1L << dayOfWeek(firstDayOfWeek, day))) != 0) {
+						pattern |= 1L << day;
+					}
+				}
+				this.weekdayPatterns[firstDayOfWeek] = pattern;
+			}
+		}
+		this.lastDayOfWeek = lastDayOfWeek;
+		this.nthDayOfWeek = nthDayOfWeek;
+		this.nthOrdinal = nthOrdinal;
+		this.daysOfWeek = daysOfWeek;
+	}
+
+
+	/**
+	 * Parse the given cron expression string into a {@code CronExpression}.
+	 * @param expression the expression string to parse: six space-separated
+	 * fields or one of the supported macros
+	 * @return the parsed {@code CronExpression} object
+	 * @throws IllegalArgumentException in the expression does not conform to
+	 * the cron format
+	 */
+	public static CronExpression parse(String expression) {
+		Assert.hasLength(expression, "Expression string must not be empty");
+		String expressionToParse = resolveMacros(expression);
+		String[] fields = StringUtils.tokenizeToStringArray(expressionToParse, " ");
+		if (fields.length != 6) {
+			throw new IllegalArgumentException(String.format(
+					"Cron expression must consist of 6 fields (found %d in \"%s\")", fields.length, expression));
+		}
+		try {
+			return new CronExpression(expression, fields);
+		}
+		catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException(ex.getMessage() + " in expression \"" + expression + "\"", ex);
+		}
+	}
+
+	/**
+	 * Determine whether the given string represents a valid cron expression.
+	 * @param expression the expression to evaluate
+	 * @return {@code true} if the given expression is a valid cron expression
+	 */
+	public static boolean isValidExpression(@Nullable String expression) {
+		if (!StringUtils.hasLength(expression)) {
+			return false;
+		}
+		try {
+			parse(expression);
+			return true;
+		}
+		catch (IllegalArgumentException ex) {
+			return false;
+		}
+	}
+
+	private static String resolveMacros(String expression) {
+		String trimmed = expression.trim();
+		for (int i = 0; i < MACROS.length; i += 2) {
+			if (MACROS[i].equalsIgnoreCase(trimmed)) {
+				return MACROS[i + 1];
+			}
+		}
+		return expression;
+	}
+
+	/**
+	 * Parse a comma-separated list of values, ranges and increments into a bit mask.
+	 */
+	private static long parseField(String field, int min, int max, @Nullable String[] names, boolean questionMark) {
+		long bits = 0;
+		for (String item : StringUtils.delimitedListToStringArray(field, ",")) {
+			String range = item;
+			int step = 1;
+			int slashIndex = item.indexOf('/');
+			if (slashIndex != -1) {
+				range = item.substring(0, slashIndex);
+				step = parseNumber(item.substring(slashIndex + 1));
+				if (step <= 0) {
+					throw new IllegalArgumentException("Incrementer delta must be 1 or higher: '" + item + "'");
+				}
+			}
+			int start;
+			int end;
+			if (range.equals("*") || (questionMark && range.equals("?"))) {
+				start = min;
+				end = max;
+			}
+			else {
+				int dashIndex = range.indexOf('-');
+				if (dashIndex != -1) {
+					start = parseValue(range.substring(0, dashIndex), min, max, names);
+					end = parseValue(range.substring(dashIndex + 1), min, max, names);
+					if (start > end) {
+						throw new IllegalArgumentException("Invalid inverted range: '" + item + "'");
+					}
+				}
+				else {
+					start = parseValue(range, min, max, names);
+					end = (slashIndex != -1 ? max : start);
+				}
+			}
+			for (int i = start; i <= end; i += step) {
+				bits |= 1L << i;
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Parse a single numeric value, or a name with the given names
+	 * corresponding to the values from the minimum onwards.
+	 */
+	private static int parseValue(String value, int min, int max, @Nullable String[] names) {
+		int result = -1;
+		if (names != null) {
+			for (int i = 0; i < names.length; i++) {
+				if (names[i].equalsIgnoreCase(value)) {
+					result = min + i;
+					break;
+				}
+			}
+		}
+		if (result == -1) {
+			result = parseNumber(value);
+		}
+		if (result > max) {
+			throw new IllegalArgumentException("Value exceeds maximum (" + max + "): '" + value + "'");
+		}
+		if (result < min) {
+			throw new IllegalArgumentException("Value less than minimum (" + min + "): '" + value + "'");
+		}
+		return result;
+	}
+
+	private static int parseNumber(String value) {
+		try {
+			return Integer.parseInt(value);
+		}
+		catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("Invalid value: '" + value + "'");
+		}
+	}
+
+	private static int toIsoDayOfWeek(int cronDayOfWeek) {
+		return (cronDayOfWeek == 0 ? 7 : cronDayOfWeek);
+	}
+
+
+	/**
+	 * Calculate the next {@link ZonedDateTime} matching this expression,
+	 * strictly after the given date-time, in the latter's time zone.
+	 * <p>The returned date-time has a whole number of seconds. Local times
+	 * which do not exist due to a daylight saving transition are skipped.
+	 * @param dateTime the date-time to start searching from
+	 * @return the next matching date-time, or {@code null} if no match
+	 * can be found (e.g. for a 30th of February)
+	 */
+	@Nullable
+	public ZonedDateTime next(ZonedDateTime dateTime) {
+		LocalDateTime start = dateTime.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+		int year = start.getYear();
+		int month = start.getMonthValue();
+		int day = start.getDayOfMonth();
+		int hour = start.getHour();
+		int minute = start.getMinute();
+		int second = start.getSecond();
+		int maxYear = year + MAX_YEARS;
+
+		int dayMaskMonth = -1;
+		long dayMask = 0;
+		while (year <= maxYear) {
+			int nextMonth = nextSetBit(this.months, month);
+			if (nextMonth == -1) {
+				year++;
+				month = 1;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextMonth != month) {
+				month = nextMonth;
+				day = 1;
+				hour = minute = second = 0;
+			}
+
+			if (dayMaskMonth != year * 16 + month) {
+				dayMaskMonth = year * 16 + month;
+				dayMask = dayMask(year, month);
+			}
+			int nextDay = nextSetBit(dayMask, day);
+			if (nextDay == -1) {
+				month++;
+				day = 1;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextDay != day) {
+				day = nextDay;
+				hour = minute = second = 0;
+			}
+
+			int nextHour = nextSetBit(this.hours, hour);
+			if (nextHour == -1) {
+				day++;
+				hour = minute = second = 0;
+				continue;
+			}
+			if (nextHour != hour) {
+				hour = nextHour;
+				minute = second = 0;
+			}
+
+			int nextMinute = nextSetBit(this.minutes, minute);
+			if (nextMinute == -1) {
+				hour++;
+				minute = second = 0;
+				continue;
+			}
+			if (nextMinute != minute) {
+				minute = nextMinute;
+				second = 0;
+			}
+
+			int nextSecond = nextSetBit(this.seconds, second);
+			if (nextSecond == -1) {
+				minute++;
+				second = 0;
+				continue;
+			}
+			second = nextSecond;
+
+			LocalDateTime candidate = LocalDateTime.of(year, month, day, hour, minute, second);
+			ZonedDateTime result = ZonedDateTime.ofLocal(candidate, dateTime.getZone(), dateTime.getOffset());
+			if (result.toLocalDateTime().equals(candidate) && result.isAfter(dateTime)) {
+				return result;
+			}
+			// Local time in a daylight saving gap, or not after the given date-time
+			// within a daylight saving overlap: continue with the next second.
+			second++;
+		}
+		return null;
+	}
+
+	/**
+	 * Return the next set bit at or after the given index, or -1 if none.
+	 */
+	private static int nextSetBit(long bits, int fromIndex) {
+		if (fromIndex >= Long.SIZE) {
+			return -1;
+		}
+		long remaining = bits & (-1L << fromIndex);
+		return (remaining != 0 ? Long.numberOfTrailingZeros(remaining) : -1);
+	}
+
+	/**
+	 * Compute the bit mask of matching days (bits 1 to 31) in the given month.
+	 */
+	private long dayMask(int year, int month) {
+		int length = Month.of(month).length(Year.isLeap(year));
+		long monthMask = (1L << (length + 1)) - 2;
+		int firstDayOfWeek = dayOfWeek(year, month, 1);
+
+		long daysOfMonthMask;
+		if (this.daysOfMonth != 0) {
+			daysOfMonthMask = this.daysOfMonth;
+		}
+		else if (this.lastDayOffset != -1) {
+			int day = length - this.lastDayOffset;
+			daysOfMonthMask = (day >= 1 ? 1L << day : 0);
+		}
+		else if (this.lastWeekday) {
+			int day = length;
+			int dayOfWeek = dayOfWeek(firstDayOfWeek, day);
+			day -= (dayOfWeek == 6 ? 1 : (dayOfWeek == 7 ? 2 : 0));
+			daysOfMonthMask = 1L << day;
+		}
+		else {
+			int day = this.nearestWeekday;
+			if (day > length) {
+				return 0;
+			}
+			int dayOfWeek = dayOfWeek(firstDayOfWeek, day);
+			if (dayOfWeek == 6) {
+				day = (day > 1 ? day - 1 : day + 2);
+			}
+			else if (dayOfWeek == 7) {
+				day = (day < length ? day + 1 : day - 2);
+			}
+			daysOfMonthMask = 1L << day;
+		}
+
+		long daysOfWeekMask;
+		if (this.daysOfWeek != 0) {
+			daysOfWeekMask = this.weekdayPatterns[firstDayOfWeek];
+		}
+		else if (this.lastDayOfWeek != 0) {
+			int lastDay = dayOfWeek(firstDayOfWeek, length);
+			daysOfWeekMask = 1L << (length - (lastDay - this.lastDayOfWeek + 7) % 7);
+		}
+		else {
+			int day = 1 + (this.nthDayOfWeek - firstDayOfWeek + 7) % 7 + 7 * (this.nthOrdinal - 1);
+			daysOfWeekMask = (day <= length ? 1L << day : 0);
+		}
+
+		return daysOfMonthMask & daysOfWeekMask & monthMask;
+	}
+
+	/**
+	 * Determine the ISO day of week (1 = Monday to 7 = Sunday) of the given date.
+	 */
+	private static int dayOfWeek(int year, int month, int day) {
+		int y = (month < 3 ? year - 1 : year);
+		int result = (y + y / 4 - y / 100 + y / 400 + DAY_OF_WEEK_OFFSETS[month - 1] + day) % 7;
+		return (result == 0 ? 7 : result);
+	}
+
+	/**
+	 * Determine the ISO day of week of the given day of the month,
+	 * based on the ISO day of week of the first day of the month.
+	 */
+	private static int dayOfWeek(int firstDayOfWeek, int day) {
+		return (firstDayOfWeek - 1 + day - 1) % 7 + 1;
+	}
+
+
+	@Override
+	public boolean equals(@Nullable Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof CronExpression)) {
+			return false;
+		}
+		CronExpression otherCron = (CronExpression) other;
+		return (this.seconds == otherCron.seconds && this.minutes == otherCron.minutes &&
+				this.hours == otherCron.hours && this.daysOfMonth == otherCron.daysOfMonth &&
+				this.months == otherCron.months && this.daysOfWeek == otherCron.daysOfWeek &&
+				this.lastDayOffset == otherCron.lastDayOffset && this.lastWeekday == otherCron.lastWeekday &&
+				this.nearestWeekday == otherCron.nearestWeekday && this.lastDayOfWeek == otherCron.lastDayOfWeek &&
+				this.nthDayOfWeek == otherCron.nthDayOfWeek && this.nthOrdinal == otherCron.nthOrdinal);
+	}
+
+	@Override
+	public int hashCode() {
+		return (17 * Long.hashCode(this.months) + 29 * Long.hashCode(this.daysOfMonth) +
+				37 * Long.hashCode(this.daysOfWeek) + 41 * Long.hashCode(this.hours) +
+				53 * Long.hashCode(this.minutes) + 61 * Long.hashCode(this.seconds));
+	}
+
+	/**
+	 * Return the expression string used to create this {@code CronExpression}.
+	 */
+	@Override
+	public String toString() {
+		return this.expression;
+	}
+
+}
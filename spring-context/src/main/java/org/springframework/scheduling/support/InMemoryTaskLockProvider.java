@@ -0,0 +1,78 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link TaskLockProvider} implementation which keeps its locks in memory,
+ * coordinating the scheduled tasks of several application contexts or
+ * schedulers within the same JVM, e.g. for testing purposes.
+ *
+ * <p>For coordinating several nodes, use a shared lock store instead,
+ * e.g. {@code org.springframework.jdbc.support.lock.JdbcTaskLockProvider}.
+ *
+ * @since 5.2.7
+ */
+public class InMemoryTaskLockProvider implements TaskLockProvider {
+
+	private final Map<String, LockState> locks = new ConcurrentHashMap<>();
+
+
+	@Override
+	@Nullable
+	public TaskLock tryLock(String taskName, Instant executionTime, Duration lockAtMostFor) {
+		Instant now = Instant.now();
+		LockState newState = new LockState(executionTime, now.plus(lockAtMostFor));
+		LockState state = this.locks.compute(taskName, (key, current) ->
+				(current == null || (current.executionTime.isBefore(executionTime) &&
+						!current.lockedUntil.isAfter(now)) ? newState : current));
+		if (state != newState) {
+			return null;
+		}
+		return () -> this.locks.replace(taskName, newState, new LockState(executionTime, Instant.now()));
+	}
+
+	@Override
+	@Nullable
+	public Instant getLastExecutionTime(String taskName) {
+		LockState state = this.locks.get(taskName);
+		return (state != null ? state.executionTime : null);
+	}
+
+
+	/**
+	 * Immutable lock state per task name.
+	 */
+	private static final class LockState {
+
+		final Instant executionTime;
+
+		final Instant lockedUntil;
+
+		LockState(Instant executionTime, Instant lockedUntil) {
+			this.executionTime = executionTime;
+			this.lockedUntil = lockedUntil;
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,15 @@
 
 package org.springframework.scheduling.support;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.ReflectionUtils;
 
 /**
@@ -27,6 +32,10 @@ import org.springframework.util.ReflectionUtils;
  * of no-arg scheduled methods. Propagates user exceptions to the caller,
  * assuming that an error strategy for Runnables is in place.
  *
+ * <p>As of 5.2.7, the target method is bound to a {@link MethodHandle} once
+ * at construction time, avoiding reflective dispatch on every execution.
+ * Falls back to regular reflection if no such handle can be obtained.
+ *
  * @author Juergen Hoeller
  * @since 3.0.6
  * @see org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor
@@ -37,6 +46,9 @@ public class ScheduledMethodRunnable implements Runnable {
 
 	private final Method method;
 
+	@Nullable
+	private final MethodHandle invoker;
+
 
 	/**
 	 * Create a {@code ScheduledMethodRunnable} for the given target instance,
@@ -47,6 +59,7 @@ public class ScheduledMethodRunnable implements Runnable {
 	public ScheduledMethodRunnable(Object target, Method method) {
 		this.target = target;
 		this.method = method;
+		this.invoker = createInvoker(target, method);
 	}
 
 	/**
@@ -59,6 +72,7 @@ public class ScheduledMethodRunnable implements Runnable {
 	public ScheduledMethodRunnable(Object target, String methodName) throws NoSuchMethodException {
 		this.target = target;
 		this.method = target.getClass().getMethod(methodName);
+		this.invoker = createInvoker(target, this.method);
 	}
 
 
@@ -79,6 +93,16 @@ public class ScheduledMethodRunnable implements Runnable {
 
 	@Override
 	public void run() {
+		MethodHandle invoker = this.invoker;
+		if (invoker != null) {
+			try {
+				invoker.invokeExact();
+			}
+			catch (Throwable ex) {
+				ReflectionUtils.rethrowRuntimeException(ex);
+			}
+			return;
+		}
 		try {
 			ReflectionUtils.makeAccessible(this.method);
 			this.method.invoke(this.target);
@@ -91,6 +115,27 @@ public class ScheduledMethodRunnable implements Runnable {
 		}
 	}
 
+	/**
+	 * Bind the given method to the target instance, adapted to a
+	 * {@code ()void} signature for {@link MethodHandle#invokeExact}.
+	 * @return the bound handle, or {@code null} if the method is not
+	 * accessible through a handle (reflection is going to be used then)
+	 */
+	@Nullable
+	private static MethodHandle createInvoker(Object target, Method method) {
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			if (!Modifier.isStatic(method.getModifiers())) {
+				handle = handle.bindTo(target);
+			}
+			return handle.asType(MethodType.methodType(void.class));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return this.method.getDeclaringClass().getName() + "." + this.method.getName();
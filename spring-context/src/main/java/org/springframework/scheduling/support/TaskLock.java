@@ -0,0 +1,33 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+/**
+ * Handle for a lock acquired through {@link TaskLockProvider#tryLock}.
+ *
+ * @since 5.2.7
+ */
+@FunctionalInterface
+public interface TaskLock {
+
+	/**
+	 * Release this lock after the task execution has completed,
+	 * allowing other nodes to acquire it for a subsequent execution time.
+	 */
+	void unlock();
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy interface for acquiring a cluster-wide lock for an individual
+ * execution of a scheduled task, ensuring that a task runs on one node only
+ * for every scheduled execution time ("tick"), even when the same task is
+ * scheduled on every node of a deployment.
+ *
+ * <p>An implementation grants a lock for a given task name and execution time
+ * only if no other node currently holds an unexpired lock for that task and
+ * no execution for the same or a later execution time has been recorded yet.
+ * The execution time is recorded along with the lock and kept after unlocking,
+ * so that the same tick is not executed again by a node which attempts it later.
+ *
+ * @since 5.2.7
+ * @see InMemoryTaskLockProvider
+ * @see org.springframework.scheduling.config.ScheduledTaskRegistrar#setTaskLockProvider
+ */
+@FunctionalInterface
+public interface TaskLockProvider {
+
+	/**
+	 * Try to acquire the lock for the given execution of the specified task.
+	 * @param taskName the unique name of the task (the same on all nodes)
+	 * @param executionTime the scheduled execution time that the lock is requested for
+	 * @param lockAtMostFor the maximum time to hold the lock, after which it expires
+	 * even if not released, e.g. in case of a node which crashed while executing the task
+	 * @return the acquired lock, or {@code null} if the task is currently locked
+	 * or if the given execution time has been executed already
+	 */
+	@Nullable
+	TaskLock tryLock(String taskName, Instant executionTime, Duration lockAtMostFor);
+
+	/**
+	 * Return the most recent execution time recorded for the specified task,
+	 * as a basis for catching up with missed executions.
+	 * <p>The default implementation returns {@code null}, not supporting catch-up.
+	 * @param taskName the unique name of the task
+	 * @return the last recorded execution time, or {@code null} if none known
+	 */
+	@Nullable
+	default Instant getLastExecutionTime(String taskName) {
+		return null;
+	}
+
+}
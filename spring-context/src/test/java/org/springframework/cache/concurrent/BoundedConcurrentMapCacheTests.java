@@ -0,0 +1,205 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.CacheStatisticsMXBean;
+import org.springframework.context.testfixture.cache.AbstractValueAdaptingCacheTests;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Unit tests for {@link BoundedConcurrentMapCache}.
+ */
+public class BoundedConcurrentMapCacheTests extends AbstractValueAdaptingCacheTests<BoundedConcurrentMapCache> {
+
+	protected BoundedConcurrentMapCache cache;
+
+	protected BoundedConcurrentMapCache cacheNoNull;
+
+
+	@BeforeEach
+	public void setup() {
+		this.cache = new BoundedConcurrentMapCache(CACHE_NAME, 1000, null, null, true, null);
+		this.cacheNoNull = new BoundedConcurrentMapCache(CACHE_NAME_NO_NULL, 1000, null, null, false, null);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache() {
+		return getCache(true);
+	}
+
+	@Override
+	protected BoundedConcurrentMapCache getCache(boolean allowNull) {
+		return allowNull ? this.cache : this.cacheNoNull;
+	}
+
+	@Override
+	protected Object getNativeCache() {
+		return this.cache.getNativeCache();
+	}
+
+
+	@Test
+	public void testMaximumSize() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 3);
+		for (int i = 0; i < 10; i++) {
+			cache.put(i, "value" + i);
+		}
+		assertThat(cache.getSize()).isEqualTo(3);
+		assertThat(cache.getWeight()).isEqualTo(3);
+		assertThat(cache.getEvictionCount()).isEqualTo(7);
+		assertThat(cache.get(9).get()).isEqualTo("value9");
+		assertThat(cache.get(0)).isNull();
+	}
+
+	@Test
+	public void testRecentlyAccessedEntryGetsSecondChance() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 2);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.get("a");
+		cache.put("c", "3");
+
+		assertThat(cache.get("a")).isNotNull();
+		assertThat(cache.get("b")).isNull();
+		assertThat(cache.get("c")).isNotNull();
+	}
+
+	@Test
+	public void testMaximumWeight() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10,
+				(key, value) -> ((String) value).length(), null, true, null);
+		cache.put("a", "12345");
+		cache.put("b", "1234");
+		assertThat(cache.getWeight()).isEqualTo(9);
+		cache.put("c", "12");
+		assertThat(cache.getWeight()).isLessThanOrEqualTo(10);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("c").get()).isEqualTo("12");
+
+		cache.put("c", "1");
+		cache.evict("b");
+		assertThat(cache.getWeight()).isEqualTo(1);
+	}
+
+	@Test
+	public void testExpireAfterWrite() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, Long.MAX_VALUE,
+				null, Duration.ofMillis(50), true, null);
+		cache.put("key", "value");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		Thread.sleep(100);
+		assertThat(cache.get("key")).isNull();
+		assertThat(cache.getExpirationCount()).isEqualTo(1);
+		assertThat(cache.getSize()).isEqualTo(0);
+		assertThat(cache.putIfAbsent("key", "other")).isNull();
+	}
+
+	@Test
+	public void testConcurrentPutsDuringClearRemainEvictable() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		AtomicBoolean running = new AtomicBoolean(true);
+		Thread writer = new Thread(() -> {
+			int i = 0;
+			while (running.get()) {
+				cache.put(i++ % 100, "value");
+			}
+		});
+		writer.start();
+		for (int i = 0; i < 1000; i++) {
+			cache.clear();
+		}
+		running.set(false);
+		writer.join();
+
+		for (int i = 100; i < 200; i++) {
+			cache.put(i, "value");
+		}
+		assertThat(cache.getSize()).isEqualTo(10);
+		assertThat(cache.getWeight()).isEqualTo(10);
+	}
+
+	@Test
+	public void testConcurrentPutsForSameKeyKeepWeightConsistent() throws InterruptedException {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		Thread[] writers = new Thread[4];
+		for (int i = 0; i < writers.length; i++) {
+			writers[i] = new Thread(() -> {
+				for (int j = 0; j < 10000; j++) {
+					cache.put(j % 3, "value");
+					cache.putIfAbsent(j % 5, "value");
+				}
+			});
+			writers[i].start();
+		}
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		assertThat(cache.getWeight()).isEqualTo(cache.getSize());
+	}
+
+	@Test
+	public void testStatistics() {
+		BoundedConcurrentMapCache cache = new BoundedConcurrentMapCache(CACHE_NAME, 10);
+		cache.put("key", "value");
+		cache.get("key");
+		cache.get("key");
+		cache.get("other");
+		assertThat(cache.getHitCount()).isEqualTo(2);
+		assertThat(cache.getMissCount()).isEqualTo(1);
+		assertThat(cache.getHitRatio()).isCloseTo(2.0 / 3, offset(0.001));
+
+		cache.resetStatistics();
+		assertThat(cache.getHitCount()).isEqualTo(0);
+		assertThat(cache.getHitRatio()).isEqualTo(1.0);
+	}
+
+	@Test
+	public void testCacheManagerCreatesBoundedCaches() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("c1");
+		assertThat(cacheManager.getCache("c1")).isInstanceOf(ConcurrentMapCache.class);
+		assertThat(cacheManager.getCacheStatistics()).isEmpty();
+
+		cacheManager.setMaximumSize(100);
+		Cache cache = cacheManager.getCache("c1");
+		assertThat(cache).isInstanceOf(BoundedConcurrentMapCache.class);
+		assertThat(((BoundedConcurrentMapCache) cache).getMaximumWeight()).isEqualTo(100);
+		CacheStatisticsMXBean statistics = cacheManager.getCacheStatistics().get("c1");
+		assertThat(statistics).isSameAs(cache);
+	}
+
+	@Test
+	public void testCacheManagerRejectsMaximumSizeWithWeigher() {
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("c1");
+		cacheManager.setWeigher((key, value) -> 1);
+		assertThatIllegalStateException().isThrownBy(() -> cacheManager.setMaximumSize(100));
+
+		ConcurrentMapCacheManager otherCacheManager = new ConcurrentMapCacheManager("c1");
+		otherCacheManager.setMaximumSize(100);
+		assertThatIllegalStateException().isThrownBy(() -> otherCacheManager.setWeigher((key, value) -> 1));
+	}
+
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@code @Cacheable} methods with asynchronous and reactive return types,
+ * as enabled through {@link EnableCaching#cacheAsyncValues()}.
+ */
+public class CacheAsyncReturnTypeTests {
+
+	private ConfigurableApplicationContext context;
+
+	private AsyncService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void completableFutureCachesResolvedValue() throws Exception {
+		CompletableFuture<Long> first = new CompletableFuture<>();
+		this.service.nextFuture = first;
+		CompletableFuture<Long> result = this.service.future("key");
+		assertThat(this.cache.get("key")).isNull();
+
+		first.complete(42L);
+		assertThat(result.get()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+
+		assertThat(this.service.future("key").get()).isEqualTo(42L);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void completableFutureMissesNotCoalescedByDefault() throws Exception {
+		CompletableFuture<Long> first = new CompletableFuture<>();
+		this.service.nextFuture = first;
+		CompletableFuture<Long> result1 = this.service.future("key");
+		CompletableFuture<Long> result2 = this.service.future("key");
+		assertThat(this.service.counter.get()).isEqualTo(2);
+
+		first.complete(42L);
+		assertThat(result1.get()).isEqualTo(42L);
+		assertThat(result2.get()).isEqualTo(42L);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+	}
+
+	@Test
+	public void completableFutureCoalescesMissesWithSync() throws Exception {
+		CompletableFuture<Long> first = new CompletableFuture<>();
+		this.service.nextFuture = first;
+		CompletableFuture<Long> result1 = this.service.syncFuture("key");
+		CompletableFuture<Long> result2 = this.service.syncFuture("key");
+		assertThat(this.cache.get("key")).isNull();
+
+		first.complete(42L);
+		assertThat(result1.get()).isEqualTo(42L);
+		assertThat(result2.get()).isEqualTo(42L);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+		assertThat(this.cache.get("key").get()).isEqualTo(42L);
+
+		assertThat(this.service.syncFuture("key").get()).isEqualTo(42L);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void completableFutureFailureIsNotCached() throws Exception {
+		CompletableFuture<Long> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("Test failure"));
+		this.service.nextFuture = failed;
+		assertThat(this.service.future("key")).isCompletedExceptionally();
+		assertThat(this.cache.get("key")).isNull();
+
+		this.service.nextFuture = CompletableFuture.completedFuture(1L);
+		assertThat(this.service.future("key").get()).isEqualTo(1L);
+		assertThat(this.service.counter.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void exceptionThrownByMethodIsPropagatedAsIs() {
+		assertThatIllegalStateException().isThrownBy(() -> this.service.failingFuture("key"))
+				.withMessage("Test failure");
+		assertThat(this.cache.get("key")).isNull();
+	}
+
+	@Test
+	public void completableFutureCachedAsIsByDefault() {
+		this.context.close();
+		this.context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+		this.service = this.context.getBean(AsyncService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+
+		CompletableFuture<Long> future = new CompletableFuture<>();
+		this.service.nextFuture = future;
+		assertThat(this.service.future("key")).isSameAs(future);
+		assertThat(this.cache.get("key").get()).isSameAs(future);
+		assertThat(this.service.future("key")).isSameAs(future);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void monoCachesResolvedValue() {
+		assertThat(this.service.mono("key").block()).isEqualTo(1L);
+		assertThat(this.cache.get("key").get()).isEqualTo(1L);
+		assertThat(this.service.mono("key").block()).isEqualTo(1L);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void fluxCachesResolvedElements() {
+		assertThat(this.service.flux("key").collectList().block()).containsExactly(1L, 2L);
+		assertThat(this.service.flux("key").collectList().block()).containsExactly(1L, 2L);
+		assertThat(this.service.counter.get()).isEqualTo(1);
+	}
+
+
+	static class AsyncService {
+
+		final AtomicInteger counter = new AtomicInteger();
+
+		CompletableFuture<Long> nextFuture;
+
+		@Cacheable("testCache")
+		public CompletableFuture<Long> future(String key) {
+			this.counter.incrementAndGet();
+			return this.nextFuture;
+		}
+
+		@Cacheable(cacheNames = "testCache", sync = true)
+		public CompletableFuture<Long> syncFuture(String key) {
+			this.counter.incrementAndGet();
+			return this.nextFuture;
+		}
+
+		@Cacheable("testCache")
+		public CompletableFuture<Long> failingFuture(String key) {
+			throw new IllegalStateException("Test failure");
+		}
+
+		@Cacheable("testCache")
+		public Mono<Long> mono(String key) {
+			return Mono.fromSupplier(() -> (long) this.counter.incrementAndGet());
+		}
+
+		@Cacheable("testCache")
+		public Flux<Long> flux(String key) {
+			this.counter.incrementAndGet();
+			return Flux.just(1L, 2L);
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching(cacheAsyncValues = true)
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class DefaultConfig {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public AsyncService asyncService() {
+			return new AsyncService();
+		}
+	}
+
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.aopalliance.intercept.MethodInterceptor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link Cacheable#batch()}.
+ */
+public class CacheBatchTests {
+
+	private ConfigurableApplicationContext context;
+
+	private BatchService service;
+
+	private Cache cache;
+
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(BatchService.class);
+		this.cache = this.context.getBean(CacheManager.class).getCache("testCache");
+	}
+
+	@AfterEach
+	public void closeContext() {
+		this.context.close();
+	}
+
+
+	@Test
+	public void onlyMissingKeysAreLoaded() {
+		this.cache.put(2, "cached2");
+
+		Map<Integer, String> result = this.service.findAll(Arrays.asList(1, 2, 3));
+		assertThat(result).containsExactly(entry(1, "value1"), entry(2, "cached2"), entry(3, "value3"));
+		assertThat(this.service.requestedKeys).containsExactly(Arrays.asList(1, 3));
+		assertThat(this.cache.get(1).get()).isEqualTo("value1");
+		assertThat(this.cache.get(3).get()).isEqualTo("value3");
+
+		result = this.service.findAll(Arrays.asList(3, 1));
+		assertThat(result).containsExactly(entry(3, "value3"), entry(1, "value1"));
+		assertThat(this.service.requestedKeys).hasSize(1);
+	}
+
+	@Test
+	public void keysNotReturnedAreOmitted() {
+		Map<Integer, String> result = this.service.findAll(Arrays.asList(1, -1));
+		assertThat(result).containsOnlyKeys(1);
+		assertThat(this.cache.get(-1)).isNull();
+	}
+
+	@Test
+	public void batchWithAnotherOperation() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.batchWithEvict(Arrays.asList(1, 2)))
+			.withMessageContaining("@Cacheable(batch=true) cannot be combined with other cache operations");
+	}
+
+	@Test
+	public void batchWithKeyGenerator() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.batchWithKeyGenerator(Arrays.asList(1, 2)))
+			.withMessageContaining("@Cacheable(batch=true) does not support keyGenerator attribute");
+	}
+
+	@Test
+	public void batchWithoutCollectionParameter() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.service.batchWithoutCollection(1))
+			.withMessageContaining("requires exactly one Collection parameter");
+	}
+
+
+	@Test
+	public void callerArgumentsAreNotModified() {
+		CacheInterceptor interceptor = createInterceptor(new ConcurrentMapCacheManager());
+		List<Object[]> callerArguments = new ArrayList<>();
+		ProxyFactory proxyFactory = new ProxyFactory(new BatchService());
+		proxyFactory.addInterface(BatchRepository.class);
+		proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+			Object result = invocation.proceed();
+			callerArguments.add(invocation.getArguments());
+			return result;
+		});
+		proxyFactory.addAdvice(interceptor);
+		BatchRepository repository = (BatchRepository) proxyFactory.getProxy();
+
+		List<Integer> ids = Arrays.asList(1, 2);
+		repository.findAll(ids);
+		repository.findAll(Arrays.asList(1, 2, 3));
+		assertThat(callerArguments.get(0)[0]).isSameAs(ids);
+		assertThat(((List<?>) callerArguments.get(1)[0])).containsExactly(1, 2, 3);
+	}
+
+	@Test
+	public void putAllFailureFallsBackToIndividualPuts() throws Exception {
+		Cache failingCache = new ConcurrentMapCache("testCache") {
+			@Override
+			public void put(Object key, @Nullable Object value) {
+				if (key.equals(2)) {
+					throw new UnsupportedOperationException("Test failure");
+				}
+				super.put(key, value);
+			}
+			@Override
+			public void putAll(Map<?, ?> entries) {
+				throw new UnsupportedOperationException("Test failure");
+			}
+		};
+		ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager() {
+			@Override
+			protected Cache createConcurrentMapCache(String name) {
+				return failingCache;
+			}
+		};
+		CacheInterceptor interceptor = createInterceptor(cacheManager);
+		List<Object> failedKeys = new ArrayList<>();
+		interceptor.setErrorHandler(new SimpleCacheErrorHandler() {
+			@Override
+			public void handleCachePutError(RuntimeException exception, Cache cache, Object key, @Nullable Object value) {
+				failedKeys.add(key);
+			}
+		});
+
+		BatchService target = new BatchService();
+		Map<?, ?> result = (Map<?, ?>) execute(interceptor, target, Arrays.asList(1, 2));
+		assertThat(result).containsOnlyKeys(1, 2);
+		assertThat(failedKeys).containsExactly(2);
+		assertThat(failingCache.get(1).get()).isEqualTo("value1");
+		assertThat(failingCache.get(2)).isNull();
+	}
+
+	@Test
+	public void batchRejectedIfArgumentsCannotBeChanged() throws Exception {
+		CacheInterceptor interceptor = new CacheInterceptor() {
+			@Override
+			protected boolean isBatchInvocationSupported() {
+				return false;
+			}
+		};
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(new ConcurrentMapCacheManager());
+		interceptor.afterSingletonsInstantiated();
+
+		BatchService target = new BatchService();
+		assertThatIllegalStateException().isThrownBy(() -> execute(interceptor, target, Arrays.asList(1, 2)))
+				.withMessageContaining("@Cacheable(batch=true) is not supported");
+		assertThat(target.requestedKeys).isEmpty();
+	}
+
+
+	private static CacheInterceptor createInterceptor(CacheManager cacheManager) {
+		CacheInterceptor interceptor = new CacheInterceptor();
+		interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+		interceptor.setCacheManager(cacheManager);
+		interceptor.afterSingletonsInstantiated();
+		return interceptor;
+	}
+
+	private static Object execute(CacheInterceptor interceptor, BatchService target, List<Integer> ids)
+			throws NoSuchMethodException {
+
+		Method method = BatchService.class.getMethod("findAll", List.class);
+		CacheOperationInvoker invoker = new CacheOperationInvoker() {
+			@Override
+			public Object invoke() {
+				return target.findAll(ids);
+			}
+			@Override
+			@SuppressWarnings("unchecked")
+			public Object invoke(Object[] args) {
+				return target.findAll((List<Integer>) args[0]);
+			}
+		};
+		return interceptor.execute(invoker, target, method, new Object[] {ids});
+	}
+
+	private static Map.Entry<Integer, String> entry(Integer key, String value) {
+		return new AbstractMap.SimpleEntry<>(key, value);
+	}
+
+
+	interface BatchRepository {
+
+		Map<Integer, String> findAll(List<Integer> ids);
+	}
+
+
+	static class BatchService implements BatchRepository {
+
+		final List<Collection<Integer>> requestedKeys = new ArrayList<>();
+
+		@Override
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Integer, String> findAll(List<Integer> ids) {
+			this.requestedKeys.add(new ArrayList<>(ids));
+			Map<Integer, String> result = new LinkedHashMap<>();
+			for (Integer id : ids) {
+				if (id > 0) {
+					result.put(id, "value" + id);
+				}
+			}
+			return result;
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		@CacheEvict(cacheNames = "anotherCache", allEntries = true)
+		public Map<Integer, String> batchWithEvict(List<Integer> ids) {
+			return new LinkedHashMap<>();
+		}
+
+		@Cacheable(cacheNames = "testCache", keyGenerator = "customKeyGenerator", batch = true)
+		public Map<Integer, String> batchWithKeyGenerator(List<Integer> ids) {
+			return new LinkedHashMap<>();
+		}
+
+		@Cacheable(cacheNames = "testCache", batch = true)
+		public Map<Integer, String> batchWithoutCollection(Integer id) {
+			return new LinkedHashMap<>();
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public BatchService batchService() {
+			return new BatchService();
+		}
+
+		@Bean
+		public KeyGenerator customKeyGenerator() {
+			return new SimpleKeyGenerator();
+		}
+	}
+
+}
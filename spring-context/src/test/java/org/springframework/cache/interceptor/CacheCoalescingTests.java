@@ -0,0 +1,181 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for coalescing concurrent cache misses, as enabled through
+ * {@link EnableCaching#coalesceMisses()}.
+ */
+public class CacheCoalescingTests {
+
+	private ConfigurableApplicationContext context;
+
+	private SlowService service;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private final Queue<Thread> callers = new ConcurrentLinkedQueue<>();
+
+
+	@BeforeEach
+	public void setUp() {
+		this.context = new AnnotationConfigApplicationContext(Config.class);
+		this.service = this.context.getBean(SlowService.class);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.executor.shutdownNow();
+		this.context.close();
+	}
+
+
+	@Test
+	public void concurrentMissesInvokeMethodOnce() throws Exception {
+		List<Future<Object>> results = submit(4, () -> this.service.get("key"));
+		awaitCoalescedCallers(3);
+		this.service.release.countDown();
+
+		for (Future<Object> result : results) {
+			assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("key-1");
+		}
+		assertThat(this.service.invocations.get()).isEqualTo(1);
+		assertThat(this.service.get("key")).isEqualTo("key-1");
+	}
+
+	@Test
+	public void differentKeysAreNotCoalesced() throws Exception {
+		this.service.release.countDown();
+		assertThat(this.service.get("key1")).isEqualTo("key1-1");
+		assertThat(this.service.get("key2")).isEqualTo("key2-2");
+		assertThat(this.service.get("key1")).isEqualTo("key1-1");
+	}
+
+	@Test
+	public void exceptionIsSharedAndNotCached() throws Exception {
+		List<Future<Object>> results = submit(2, () -> this.service.fail("key"));
+		awaitCoalescedCallers(1);
+		this.service.release.countDown();
+
+		for (Future<Object> result : results) {
+			assertThatExceptionOfType(ExecutionException.class)
+					.isThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+					.withCauseInstanceOf(IllegalStateException.class);
+		}
+		assertThat(this.service.invocations.get()).isEqualTo(1);
+		assertThatIllegalStateException().isThrownBy(() -> this.service.fail("key"));
+		assertThat(this.service.invocations.get()).isEqualTo(2);
+	}
+
+	private List<Future<Object>> submit(int count, Callable<Object> call) {
+		List<Future<Object>> results = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			results.add(this.executor.submit(() -> {
+				this.callers.add(Thread.currentThread());
+				return call.call();
+			}));
+		}
+		return results;
+	}
+
+	/**
+	 * Wait until the method has been invoked and the given number of other
+	 * callers are parked on the in-flight invocation, as opposed to the invoking
+	 * caller which is in a timed wait for the release latch.
+	 */
+	private void awaitCoalescedCallers(int count) throws InterruptedException {
+		assertThat(this.service.invoked.await(5, TimeUnit.SECONDS)).isTrue();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (this.callers.stream().filter(thread -> thread.getState() == Thread.State.WAITING).count() < count) {
+			assertThat(System.nanoTime() - deadline).as("Callers did not join in time").isNegative();
+			Thread.yield();
+		}
+	}
+
+
+	static class SlowService {
+
+		final AtomicInteger invocations = new AtomicInteger();
+
+		final CountDownLatch invoked = new CountDownLatch(1);
+
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Cacheable("testCache")
+		public Object get(String key) throws InterruptedException {
+			int count = this.invocations.incrementAndGet();
+			this.invoked.countDown();
+			this.release.await(5, TimeUnit.SECONDS);
+			return key + "-" + count;
+		}
+
+		@Cacheable("testCache")
+		public Object fail(String key) throws InterruptedException {
+			this.invocations.incrementAndGet();
+			this.invoked.countDown();
+			this.release.await(5, TimeUnit.SECONDS);
+			throw new IllegalStateException("Test failure for " + key);
+		}
+	}
+
+
+	@Configuration
+	@EnableCaching(coalesceMisses = true)
+	static class Config {
+
+		@Bean
+		public CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager();
+		}
+
+		@Bean
+		public SlowService simpleService() {
+			return new SlowService();
+		}
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cache.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TwoLevelCacheDecorator} and {@link TwoLevelCacheManagerProxy}.
+ */
+public class TwoLevelCacheDecoratorTests {
+
+	@Test
+	public void getServedFromNearCache() {
+		Cache target = new ConcurrentMapCache("test");
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(target);
+		target.put("key", "value");
+
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.getLocalSize()).isEqualTo(1);
+		target.evict("key");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		assertThat(cache.get("key", String.class)).isEqualTo("value");
+
+		cache.evictLocal("key");
+		assertThat(cache.get("key")).isNull();
+	}
+
+	@Test
+	public void nullValueInNearCache() {
+		Cache target = new ConcurrentMapCache("test");
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(target);
+		cache.put("key", null);
+		target.clear();
+
+		assertThat(cache.get("key")).isNotNull();
+		assertThat(cache.get("key").get()).isNull();
+		assertThat(cache.get("key", () -> "other")).isNull();
+	}
+
+	@Test
+	public void nearCacheIsBounded() {
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(new ConcurrentMapCache("test"), 2, null);
+		cache.put("key1", "value1");
+		cache.put("key2", "value2");
+		cache.get("key1");
+		cache.put("key3", "value3");
+
+		assertThat(cache.getLocalSize()).isEqualTo(2);
+		cache.getTargetCache().clear();
+		assertThat(cache.get("key1").get()).isEqualTo("value1");
+		assertThat(cache.get("key2")).isNull();
+		assertThat(cache.get("key3").get()).isEqualTo("value3");
+	}
+
+	@Test
+	public void writeOperationsNotifyListener() {
+		List<Object> invalidations = new ArrayList<>();
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(new ConcurrentMapCache("test"), 16,
+				(cacheName, key) -> invalidations.add(cacheName + ":" + key));
+		cache.put("key1", "value1");
+		cache.putIfAbsent("key1", "value2");
+		cache.evict("key1");
+		cache.clear();
+
+		assertThat(invalidations).containsExactly("test:key1", "test:key1", "test:null");
+	}
+
+	@Test
+	public void evictIfPresentNotifiesListenerOnlyIfEvicted() {
+		List<Object> invalidations = new ArrayList<>();
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(new ConcurrentMapCache("test"), 16,
+				(cacheName, key) -> invalidations.add(cacheName + ":" + key));
+		cache.getTargetCache().put("key1", "value1");
+
+		assertThat(cache.evictIfPresent("key2")).isFalse();
+		assertThat(invalidations).isEmpty();
+		assertThat(cache.evictIfPresent("key1")).isTrue();
+		assertThat(invalidations).containsExactly("test:key1");
+	}
+
+	@Test
+	public void nearCacheEntriesExpire() throws InterruptedException {
+		Cache target = new ConcurrentMapCache("test");
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(target, 16, Duration.ofMillis(10), null);
+		cache.put("key", "value1");
+		target.put("key", "value2");
+		assertThat(cache.get("key").get()).isEqualTo("value1");
+
+		Thread.sleep(50);
+		assertThat(cache.get("key").get()).isEqualTo("value2");
+	}
+
+	@Test
+	public void nearCacheEntriesWithoutTimeToLive() {
+		Cache target = new ConcurrentMapCache("test");
+		TwoLevelCacheDecorator cache = new TwoLevelCacheDecorator(target, 16, null, null);
+		cache.put("key", "value1");
+		target.put("key", "value2");
+
+		assertThat(cache.get("key").get()).isEqualTo("value1");
+	}
+
+	@Test
+	public void cacheManagerProxyExposesSameDecorator() {
+		TwoLevelCacheManagerProxy cacheManager = new TwoLevelCacheManagerProxy(new ConcurrentMapCacheManager());
+		Cache cache = cacheManager.getCache("test");
+		assertThat(cache).isInstanceOf(TwoLevelCacheDecorator.class);
+		assertThat(cacheManager.getCache("test")).isSameAs(cache);
+
+		cache.put("key", "value");
+		((TwoLevelCacheDecorator) cache).getTargetCache().evict("key");
+		assertThat(cache.get("key").get()).isEqualTo("value");
+		cacheManager.evictLocal("test", "key");
+		assertThat(cache.get("key")).isNull();
+	}
+
+}
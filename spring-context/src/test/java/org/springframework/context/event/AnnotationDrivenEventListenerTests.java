@@ -28,6 +28,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
@@ -63,6 +64,7 @@ import org.springframework.context.event.test.TestEvent;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 import org.springframework.core.annotation.AliasFor;
 import org.springframework.core.annotation.Order;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.stereotype.Component;
@@ -443,6 +445,22 @@ public class AnnotationDrivenEventListenerTests {
 		this.eventCollector.assertTotalEventsCount(1);
 	}
 
+	@Test
+	public void executorProcessingApplied() throws InterruptedException {
+		load(ExecutorConfiguration.class, ExecutorEventListener.class);
+
+		String threadName = Thread.currentThread().getName();
+		AnotherTestEvent event = new AnotherTestEvent(this, threadName);
+		ExecutorEventListener listener = this.context.getBean(ExecutorEventListener.class);
+		this.eventCollector.assertNoEventReceived(listener);
+
+		this.context.publishEvent(event);
+		assertThat(this.countDownLatch.await(2, TimeUnit.SECONDS)).isTrue();
+		this.eventCollector.assertEvent(listener, event);
+		this.eventCollector.assertTotalEventsCount(1);
+		assertThat(listener.threadName).startsWith("event-");
+	}
+
 	@Test
 	public void exceptionPropagated() {
 		load(ExceptionEventListener.class);
@@ -813,6 +831,33 @@ public class AnnotationDrivenEventListenerTests {
 	}
 
 
+	@Component
+	static class ExecutorEventListener extends AbstractTestEventListener {
+
+		@Autowired
+		private CountDownLatch countDownLatch;
+
+		volatile String threadName;
+
+		@EventListener(executor = "eventExecutor")
+		public void handle(AnotherTestEvent event) {
+			this.threadName = Thread.currentThread().getName();
+			collectEvent(event);
+			this.countDownLatch.countDown();
+		}
+	}
+
+
+	@Configuration
+	static class ExecutorConfiguration {
+
+		@Bean
+		public Executor eventExecutor() {
+			return new SimpleAsyncTaskExecutor("event-");
+		}
+	}
+
+
 	@Configuration
 	@Import(BasicConfiguration.class)
 	@EnableAsync(proxyTargetClass = true)
@@ -16,6 +16,8 @@
 
 package org.springframework.context.event;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -181,6 +183,100 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		smc.multicastEvent(evt);
 	}
 
+	@Test
+	public void simpleApplicationEventMulticasterWithBatchedEvents() {
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		ApplicationEvent evt1 = new MyEvent(this);
+		ApplicationEvent evt2 = new MyOtherEvent(this);
+		List<Runnable> tasks = new ArrayList<>();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.setTaskExecutor(tasks::add);
+		smc.addApplicationListener(listener);
+
+		smc.multicastEvents(Arrays.asList(evt1, evt2));
+		assertThat(tasks).hasSize(1);
+		assertThat(listener.seenEvents).isEmpty();
+		tasks.get(0).run();
+		assertThat(listener.seenEvents).containsExactly(evt1, evt2);
+	}
+
+	@Test
+	public void publishEventsFromContext() {
+		StaticApplicationContext context = new StaticApplicationContext();
+		List<Runnable> tasks = new ArrayList<>();
+		SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+		multicaster.setTaskExecutor(tasks::add);
+		context.getBeanFactory().registerSingleton(
+				StaticApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME, multicaster);
+		MyOrderedListener1 listener = new MyOrderedListener1();
+		context.addApplicationListener(listener);
+		context.refresh();
+		tasks.forEach(Runnable::run);
+		tasks.clear();
+		listener.seenEvents.clear();
+
+		ApplicationEvent evt = new MyEvent(context);
+		context.publishEvents(Arrays.asList(evt, "payload"));
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(listener.seenEvents).hasSize(2);
+		assertThat(listener.seenEvents.get(0)).isSameAs(evt);
+		assertThat(listener.seenEvents.get(1)).isInstanceOf(PayloadApplicationEvent.class);
+		assertThat(((PayloadApplicationEvent<?>) listener.seenEvents.get(1)).getPayload()).isEqualTo("payload");
+
+		context.close();
+	}
+
+	@Test
+	public void simpleApplicationEventMulticasterWithListenerSpecificExecutor() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener1 listener2 = new MyOrderedListener1();
+		ApplicationEvent evt = new MyEvent(this);
+		List<Runnable> tasks = new ArrayList<>();
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster() {
+			@Override
+			protected Executor determineExecutor(ApplicationListener<?> listener) {
+				return (listener == listener2 ? tasks::add : null);
+			}
+		};
+		smc.addApplicationListener(listener1);
+		smc.addApplicationListener(listener2);
+
+		smc.multicastEvent(evt);
+		assertThat(listener1.seenEvents).containsExactly(evt);
+		assertThat(listener2.seenEvents).isEmpty();
+		assertThat(tasks).hasSize(1);
+		tasks.get(0).run();
+		assertThat(listener2.seenEvents).containsExactly(evt);
+	}
+
+	@Test
+	public void retrieverCacheRetainedForUnaffectedEventTypes() {
+		MyOrderedListener1 listener1 = new MyOrderedListener1();
+		MyOrderedListener2 listener2 = new MyOrderedListener2(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener1);
+		smc.multicastEvent(new MyEvent(this));
+		smc.multicastEvent(new MyOtherEvent(this));
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		// listener2 only handles MyEvent -> MyOtherEvent retriever remains cached
+		smc.addApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		MyEvent evt = new MyEvent(this);
+		smc.multicastEvent(evt);
+		assertThat(listener1.seenEvents).contains(evt);
+		assertThat(smc.retrieverCache.size()).isEqualTo(2);
+
+		smc.removeApplicationListener(listener2);
+		assertThat(smc.retrieverCache.size()).isEqualTo(1);
+		smc.removeApplicationListener(listener1);
+		assertThat(smc.retrieverCache.size()).isEqualTo(0);
+	}
+
 	@Test
 	public void orderedListeners() {
 		MyOrderedListener1 listener1 = new MyOrderedListener1();
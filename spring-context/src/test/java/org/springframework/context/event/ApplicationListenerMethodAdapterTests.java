@@ -324,6 +324,38 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.context, times(2)).getBean("testBean");
 	}
 
+	@Test
+	public void invokeListenerWithMismatchingArgument() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter listener = createTestInstance(method);
+
+		assertThatIllegalStateException().isThrownBy(() -> listener.doInvoke(123L))
+			.withMessageContaining("handleString");
+		verify(this.sampleEvents, never()).handleString(anyString());
+	}
+
+	@Test
+	public void invokeListenerWithStaticMethod() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStatic", String.class);
+		SampleEvents.staticCounter = 0;
+		invokeListener(method, new PayloadApplicationEvent<>(this, "test"));
+		invokeListener(method, new PayloadApplicationEvent<>(this, "test"));
+		assertThat(SampleEvents.staticCounter).isEqualTo(2);
+	}
+
+	@Test
+	public void invokeListenerWithConditionBeyondCompilationThreshold() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleStringWithCondition", String.class);
+		ApplicationListenerMethodAdapter listener = createTestInstance(method);
+		listener.init(this.context, new EventExpressionEvaluator());
+
+		for (int i = 0; i < 500; i++) {
+			listener.onApplicationEvent(new PayloadApplicationEvent<>(this, (i % 2 == 0 ? "test" : "other")));
+		}
+		verify(this.sampleEvents, times(250)).handleStringWithCondition("test");
+		verify(this.sampleEvents, never()).handleStringWithCondition("other");
+	}
+
 
 	private void supportsEventType(boolean match, Method method, ResolvableType eventType) {
 		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
@@ -363,6 +395,8 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 
 	private static class SampleEvents {
 
+		static int staticCounter;
+
 		@EventListener
 		@Order(42)
 		public void handleRaw(ApplicationEvent event) {
@@ -376,6 +410,15 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		public void handleString(String payload) {
 		}
 
+		@EventListener(condition = "#p0 == 'test'")
+		public void handleStringWithCondition(String payload) {
+		}
+
+		@EventListener
+		public static void handleStatic(String payload) {
+			staticCounter++;
+		}
+
 		@EventListener(String.class)
 		public void handleStringAnnotationValue() {
 		}
@@ -17,6 +17,8 @@
 package org.springframework.context.support;
 
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +29,7 @@ import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.Lifecycle;
 import org.springframework.context.LifecycleProcessor;
 import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.testfixture.EnabledForTestGroups;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -563,6 +566,78 @@ public class DefaultLifecycleProcessorTests {
 		assertThat(getPhase(stoppedBeans.get(4))).isEqualTo(Integer.MIN_VALUE);
 	}
 
+	@Test
+	public void concurrentStartupWithDependencies() throws Exception {
+		CopyOnWriteArrayList<Lifecycle> startedBeans = new CopyOnWriteArrayList<>();
+		TestSmartLifecycleBean bean1 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+		TestSmartLifecycleBean bean2 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+		TestSmartLifecycleBean bean3 = TestSmartLifecycleBean.forStartupTests(1, startedBeans);
+		TestSmartLifecycleBean bean99 = TestSmartLifecycleBean.forStartupTests(99, startedBeans);
+		StaticApplicationContext context = new StaticApplicationContext();
+		registerConcurrentLifecycleProcessor(context);
+		context.getBeanFactory().registerSingleton("bean1", bean1);
+		context.getBeanFactory().registerSingleton("bean2", bean2);
+		context.getBeanFactory().registerSingleton("bean3", bean3);
+		context.getBeanFactory().registerSingleton("bean99", bean99);
+		context.getBeanFactory().registerDependentBean("bean2", "bean1");
+		context.getBeanFactory().registerDependentBean("bean3", "bean2");
+		context.refresh();
+		assertThat(bean1.isRunning()).isTrue();
+		assertThat(bean2.isRunning()).isTrue();
+		assertThat(bean3.isRunning()).isTrue();
+		assertThat(bean99.isRunning()).isTrue();
+		assertThat(startedBeans).containsExactly(bean3, bean2, bean1, bean99);
+		context.stop();
+	}
+
+	@Test
+	public void concurrentShutdownWithinPhase() throws Exception {
+		CyclicBarrier barrier = new CyclicBarrier(3);
+		BarrierLifecycleBean bean1 = new BarrierLifecycleBean(barrier);
+		BarrierLifecycleBean bean2 = new BarrierLifecycleBean(barrier);
+		BarrierLifecycleBean bean3 = new BarrierLifecycleBean(barrier);
+		StaticApplicationContext context = new StaticApplicationContext();
+		registerConcurrentLifecycleProcessor(context);
+		context.getBeanFactory().registerSingleton("bean1", bean1);
+		context.getBeanFactory().registerSingleton("bean2", bean2);
+		context.getBeanFactory().registerSingleton("bean3", bean3);
+		context.refresh();
+		context.start();
+		assertThat(bean1.isRunning()).isTrue();
+		context.stop();
+		assertThat(bean1.isRunning()).isFalse();
+		assertThat(bean2.isRunning()).isFalse();
+		assertThat(bean3.isRunning()).isFalse();
+		assertThat(bean1.stoppedConcurrently).isTrue();
+		assertThat(bean2.stoppedConcurrently).isTrue();
+		assertThat(bean3.stoppedConcurrently).isTrue();
+	}
+
+	@Test
+	public void concurrentShutdownWithDependents() throws Exception {
+		CopyOnWriteArrayList<Lifecycle> stoppedBeans = new CopyOnWriteArrayList<>();
+		TestSmartLifecycleBean bean1 = TestSmartLifecycleBean.forShutdownTests(1, 10, stoppedBeans);
+		TestSmartLifecycleBean bean2 = TestSmartLifecycleBean.forShutdownTests(1, 10, stoppedBeans);
+		TestLifecycleBean simpleBean = TestLifecycleBean.forShutdownTests(stoppedBeans);
+		StaticApplicationContext context = new StaticApplicationContext();
+		registerConcurrentLifecycleProcessor(context);
+		context.getBeanFactory().registerSingleton("bean1", bean1);
+		context.getBeanFactory().registerSingleton("bean2", bean2);
+		context.getBeanFactory().registerSingleton("simpleBean", simpleBean);
+		context.getBeanFactory().registerDependentBean("bean1", "bean2");
+		context.getBeanFactory().registerDependentBean("bean2", "simpleBean");
+		context.refresh();
+		context.start();
+		context.stop();
+		assertThat(stoppedBeans).containsExactly(simpleBean, bean2, bean1);
+	}
+
+	private static void registerConcurrentLifecycleProcessor(StaticApplicationContext context) {
+		BeanDefinition beanDefinition = new RootBeanDefinition(DefaultLifecycleProcessor.class);
+		beanDefinition.getPropertyValues().addPropertyValue("taskExecutor", new SimpleAsyncTaskExecutor());
+		beanDefinition.getPropertyValues().addPropertyValue("timeoutPerShutdownPhase", 5000);
+		context.registerBeanDefinition("lifecycleProcessor", beanDefinition);
+	}
 
 	private static int getPhase(Lifecycle lifecycle) {
 		return (lifecycle instanceof SmartLifecycle) ?
@@ -672,6 +747,43 @@ public class DefaultLifecycleProcessorTests {
 	}
 
 
+	private static class BarrierLifecycleBean implements Lifecycle {
+
+		private final CyclicBarrier barrier;
+
+		private volatile boolean running;
+
+		private volatile boolean stoppedConcurrently;
+
+		BarrierLifecycleBean(CyclicBarrier barrier) {
+			this.barrier = barrier;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return this.running;
+		}
+
+		@Override
+		public void start() {
+			this.running = true;
+		}
+
+		@Override
+		public void stop() {
+			try {
+				// Only passes if all beans get stopped at the same time
+				this.barrier.await(5, TimeUnit.SECONDS);
+				this.stoppedConcurrently = true;
+			}
+			catch (Exception ex) {
+				// not stopped concurrently
+			}
+			this.running = false;
+		}
+	}
+
+
 	public static class DummySmartLifecycleBean implements SmartLifecycle {
 
 		public boolean running = false;
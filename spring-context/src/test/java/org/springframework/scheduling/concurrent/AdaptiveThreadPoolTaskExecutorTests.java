@@ -0,0 +1,259 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.TaskOverloadException;
+import org.springframework.util.concurrent.AimdConcurrencyLimit;
+import org.springframework.util.concurrent.ConcurrencyLimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @since 5.2.7
+ */
+public class AdaptiveThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setConcurrencyLimit(singleLimit());
+		executor.afterPropertiesSet();
+		return executor;
+	}
+
+	private static AimdConcurrencyLimit singleLimit() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(1);
+		limit.setMaxLimit(1);
+		return limit;
+	}
+
+
+	@Test
+	public void overloadWithoutQueue() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueCapacity(0);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			assertThat(executor.getActiveCount()).isEqualTo(1);
+			assertThatExceptionOfType(TaskOverloadException.class).isThrownBy(() ->
+					executor.execute(() -> {}))
+				.withMessageContaining("queue full");
+		}
+		finally {
+			latch.countDown();
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void overloadWithQueueCapacityLeft() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueTimeoutMillis(50);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			// Establish an average execution time beyond the queue timeout
+			executor.submit(() -> sleep(100)).get(1000, TimeUnit.MILLISECONDS);
+			executor.execute(() -> await(latch));
+			assertThatExceptionOfType(TaskOverloadException.class).isThrownBy(() ->
+					executor.execute(() -> {}))
+				.withMessageContaining("concurrency limit");
+			assertThat(executor.getQueueSize()).isEqualTo(0);
+		}
+		finally {
+			latch.countDown();
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void rejectedAndShedTasksReportedAsDropped() throws Exception {
+		RecordingConcurrencyLimit limit = new RecordingConcurrencyLimit();
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(limit);
+		executor.setQueueCapacity(1);
+		executor.setQueueTimeoutMillis(50);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			Future<?> future = executor.submit(() -> {});
+			assertThatExceptionOfType(TaskOverloadException.class).isThrownBy(() ->
+					executor.execute(() -> {}));
+			assertThat(limit.drops.get()).isEqualTo(1);
+			sleep(100);
+			latch.countDown();
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(() ->
+					future.get(1000, TimeUnit.MILLISECONDS));
+			assertThat(limit.drops.get()).isEqualTo(2);
+			assertThat(limit.samples.get()).isEqualTo(1);
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void callerRunsOnOverload() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueCapacity(0);
+		executor.setCallerRunsOnOverload(true);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicReference<Thread> thread = new AtomicReference<>();
+		try {
+			executor.execute(() -> await(latch));
+			executor.execute(() -> thread.set(Thread.currentThread()));
+			assertThat(thread.get()).isSameAs(Thread.currentThread());
+		}
+		finally {
+			latch.countDown();
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void admissionWithinTimeout() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueCapacity(0);
+		executor.setAdmissionTimeoutMillis(5000);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> sleep(50));
+			executor.execute(latch::countDown);
+			assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void queuedFutureShedAfterQueueTimeout() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueTimeoutMillis(50);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			Future<?> future = executor.submit(() -> {});
+			assertThat(executor.getQueueSize()).isEqualTo(1);
+			sleep(100);
+			latch.countDown();
+			assertThatExceptionOfType(ExecutionException.class).isThrownBy(() ->
+					future.get(1000, TimeUnit.MILLISECONDS))
+				.withCauseInstanceOf(TaskOverloadException.class);
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void queuedRunnableExecutedAfterQueueTimeout() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(singleLimit());
+		executor.setQueueTimeoutMillis(50);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		CountDownLatch executed = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			executor.execute(executed::countDown);
+			sleep(100);
+			latch.countDown();
+			assertThat(executed.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+	@Test
+	public void limitGrowsUnderLoad() throws Exception {
+		AdaptiveThreadPoolTaskExecutor executor = new AdaptiveThreadPoolTaskExecutor();
+		executor.setConcurrencyLimit(new AimdConcurrencyLimit(1));
+		executor.afterPropertiesSet();
+		try {
+			for (int i = 0; i < 20; i++) {
+				executor.submit(() -> sleep(5)).get(1000, TimeUnit.MILLISECONDS);
+			}
+			assertThat(executor.getCurrentLimit()).isGreaterThan(1);
+		}
+		finally {
+			executor.destroy();
+		}
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5000, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static class RecordingConcurrencyLimit implements ConcurrencyLimit {
+
+		final AtomicInteger samples = new AtomicInteger();
+
+		final AtomicInteger drops = new AtomicInteger();
+
+		@Override
+		public int getLimit() {
+			return 1;
+		}
+
+		@Override
+		public void onSample(long rttNanos, int inFlight, boolean dropped) {
+			(dropped ? this.drops : this.samples).incrementAndGet();
+		}
+	}
+
+}
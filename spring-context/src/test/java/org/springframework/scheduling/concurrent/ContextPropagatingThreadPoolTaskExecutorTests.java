@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.core.task.support.ContextPropagator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 5.2.7
+ */
+class ContextPropagatingThreadPoolTaskExecutorTests extends AbstractSchedulingTaskExecutorTests {
+
+	private ThreadPoolTaskExecutor contextPropagatingExecutor;
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setContextPropagator(ContextPropagator.getDefault());
+		executor.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		executor.setMaxPoolSize(1);
+		executor.afterPropertiesSet();
+		this.contextPropagatingExecutor = executor;
+		return executor;
+	}
+
+	@BeforeEach
+	void setLocale() {
+		LocaleContextHolder.setLocale(Locale.FRENCH);
+	}
+
+	@AfterEach
+	void resetLocale() {
+		LocaleContextHolder.resetLocaleContext();
+	}
+
+
+	@Test
+	void localeContextPropagated() throws Exception {
+		assertThat(this.contextPropagatingExecutor.submit(LocaleContextHolder::getLocale).get(1, TimeUnit.SECONDS))
+				.isEqualTo(Locale.FRENCH);
+		LocaleContextHolder.resetLocaleContext();
+		assertThat(this.contextPropagatingExecutor.submit(LocaleContextHolder::getLocaleContext).get(1, TimeUnit.SECONDS))
+				.isNull();
+	}
+
+	@Test
+	void localeContextPropagatedByScheduler() throws Exception {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setContextPropagator(ContextPropagator.getDefault());
+		scheduler.afterPropertiesSet();
+		try {
+			assertThat(scheduler.submit(LocaleContextHolder::getLocale).get(1, TimeUnit.SECONDS))
+					.isEqualTo(Locale.FRENCH);
+			AtomicReference<Locale> scheduledLocale = new AtomicReference<>();
+			scheduler.schedule(() -> scheduledLocale.set(LocaleContextHolder.getLocale()), new Date());
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> scheduledLocale.get() == Locale.FRENCH);
+		}
+		finally {
+			scheduler.shutdown();
+		}
+	}
+
+}
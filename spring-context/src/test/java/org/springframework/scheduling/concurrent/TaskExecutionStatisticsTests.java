@@ -0,0 +1,243 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.task.TaskTagHolder;
+import org.springframework.jmx.export.MBeanExporter;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @since 5.2.7
+ */
+class TaskExecutionStatisticsTests {
+
+	private final TaskExecutionStatistics statistics = new TaskExecutionStatistics();
+
+
+	@Test
+	void threadPoolTaskExecutorWithWaitAndExecutionTime() throws Exception {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskMetricsCallback(this.statistics);
+		executor.afterPropertiesSet();
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			executor.execute(() -> await(latch));
+			for (int i = 0; i < 4; i++) {
+				executor.execute(() -> {});
+			}
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> executor.getQueueSize() == 4);
+			assertThat(this.statistics.getPendingTaskCount()).isEqualTo(4);
+			Thread.sleep(20);
+			latch.countDown();
+
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> this.statistics.getCompletedTaskCount() == 5);
+			assertThat(this.statistics.getSubmittedTaskCount()).isEqualTo(5);
+			assertThat(this.statistics.getPendingTaskCount()).isEqualTo(0);
+			assertThat(this.statistics.getActiveTaskCount()).isEqualTo(0);
+			assertThat(this.statistics.getFailedTaskCount()).isEqualTo(0);
+			assertThat(this.statistics.getMaxWaitTime()).isGreaterThanOrEqualTo(20);
+			assertThat(this.statistics.getMaxExecutionTime()).isGreaterThanOrEqualTo(20);
+			assertThat(LongStream.of(this.statistics.getWaitTimeHistogram()).sum()).isEqualTo(5);
+			assertThat(LongStream.of(this.statistics.getExecutionTimeHistogram()).sum()).isEqualTo(5);
+			assertThat(this.statistics.getHistogramBucketBounds()).hasSameSizeAs(this.statistics.getWaitTimeHistogram());
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void threadPoolTaskExecutorWithRejection() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setTaskMetricsCallback(this.statistics);
+		executor.afterPropertiesSet();
+		CountDownLatch latch = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(latch));
+			executor.execute(() -> {});
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() -> executor.execute(() -> {}));
+			assertThat(this.statistics.getRejectedTaskCount()).isEqualTo(1);
+			assertThat(this.statistics.getSubmittedTaskCount()).isEqualTo(3);
+		}
+		finally {
+			latch.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void threadPoolTaskExecutorWithFailure() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskMetricsCallback(this.statistics);
+		executor.afterPropertiesSet();
+		try {
+			executor.execute(() -> {
+				throw new IllegalStateException("intentional test failure");
+			});
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> this.statistics.getCompletedTaskCount() == 1);
+			assertThat(this.statistics.getFailedTaskCount()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void threadPoolTaskExecutorWithTag() {
+		TaggingCallback callback = new TaggingCallback();
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskMetricsCallback(callback);
+		executor.afterPropertiesSet();
+		try {
+			String previousTag = TaskTagHolder.setTag("myTask");
+			try {
+				executor.submit(() -> {});
+			}
+			finally {
+				TaskTagHolder.setTag(previousTag);
+			}
+			executor.submit(() -> {});
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> callback.completedTags.size() == 2);
+			assertThat(callback.completedTags).containsExactly("myTask", "none");
+			assertThat(TaskTagHolder.getTag()).isNull();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void threadPoolTaskExecutorWithStatisticsPerTag() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setTaskMetricsCallback(this.statistics);
+		executor.afterPropertiesSet();
+		try {
+			String previousTag = TaskTagHolder.setTag("myTask");
+			try {
+				executor.execute(() -> {});
+				executor.execute(() -> {
+					throw new IllegalStateException("intentional test failure");
+				});
+			}
+			finally {
+				TaskTagHolder.setTag(previousTag);
+			}
+			executor.execute(() -> {});
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> this.statistics.getCompletedTaskCount() == 3);
+			assertThat(this.statistics.getTaskTags()).containsExactly("myTask");
+			TaskExecutionStatistics taskStatistics = this.statistics.getTaskStatistics("myTask");
+			assertThat(taskStatistics.getSubmittedTaskCount()).isEqualTo(2);
+			assertThat(taskStatistics.getCompletedTaskCount()).isEqualTo(2);
+			assertThat(taskStatistics.getFailedTaskCount()).isEqualTo(1);
+			assertThat(taskStatistics.getTaskTags()).isEmpty();
+			assertThat(this.statistics.getTaskStatistics("otherTask")).isNull();
+
+			this.statistics.reset();
+			assertThat(this.statistics.getTaskTags()).isEmpty();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void threadPoolTaskSchedulerWithScheduledTasks() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setTaskMetricsCallback(this.statistics);
+		scheduler.afterPropertiesSet();
+		try {
+			scheduler.scheduleWithFixedDelay(() -> {}, 10);
+			scheduler.execute(() -> {
+				throw new IllegalStateException("intentional test failure");
+			});
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> this.statistics.getCompletedTaskCount() >= 4);
+			// Each execution of the periodic task counts as a submission
+			long completed = this.statistics.getCompletedTaskCount();
+			assertThat(this.statistics.getSubmittedTaskCount()).isGreaterThanOrEqualTo(completed);
+			assertThat(this.statistics.getPendingTaskCount()).isLessThanOrEqualTo(1);
+			assertThat(this.statistics.getFailedTaskCount()).isEqualTo(1);
+			assertThat(scheduler.getQueueSize()).isLessThanOrEqualTo(1);
+		}
+		finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void exportThroughMBeanExporter() throws Exception {
+		MBeanServer server = MBeanServerFactory.newMBeanServer();
+		ObjectName objectName = ObjectName.getInstance("spring:name=taskStatistics");
+		MBeanExporter exporter = new MBeanExporter();
+		exporter.setServer(server);
+		exporter.setBeans(Collections.singletonMap(objectName.toString(), this.statistics));
+		exporter.afterPropertiesSet();
+		exporter.afterSingletonsInstantiated();
+		try {
+			this.statistics.taskSubmitted(null);
+			this.statistics.taskRejected(null);
+			assertThat(server.getAttribute(objectName, "SubmittedTaskCount")).isEqualTo(1L);
+			assertThat(server.getAttribute(objectName, "RejectedTaskCount")).isEqualTo(1L);
+			server.invoke(objectName, "reset", null, null);
+			assertThat(this.statistics.getSubmittedTaskCount()).isEqualTo(0);
+		}
+		finally {
+			exporter.destroy();
+		}
+	}
+
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private static class TaggingCallback implements TaskMetricsCallback {
+
+		final List<String> completedTags = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void taskCompleted(@Nullable String tag, long executionNanos, @Nullable Throwable failure) {
+			this.completedTags.add(tag != null ? tag : "none");
+		}
+	}
+
+}
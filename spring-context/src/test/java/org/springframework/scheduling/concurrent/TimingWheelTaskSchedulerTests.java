@@ -0,0 +1,176 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.concurrent;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.task.AsyncListenableTaskExecutor;
+import org.springframework.scheduling.support.PeriodicTrigger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 5.2.7
+ */
+public class TimingWheelTaskSchedulerTests extends AbstractSchedulingTaskExecutorTests {
+
+	private final TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+
+
+	@Override
+	protected AsyncListenableTaskExecutor buildExecutor() {
+		scheduler.setThreadNamePrefix(THREAD_NAME_PREFIX);
+		scheduler.setTickMillis(1);
+		// Small wheels for exercising the cascading between levels
+		scheduler.setWheelSize(4);
+		scheduler.setTickThreadCount(2);
+		scheduler.afterPropertiesSet();
+		return scheduler;
+	}
+
+
+	@Test
+	public void scheduleOneTimeTask() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		long start = System.currentTimeMillis();
+		ScheduledFuture<?> future = scheduler.schedule(latch::countDown, new Date(start + 50));
+		assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(System.currentTimeMillis() - start).isGreaterThanOrEqualTo(50);
+		future.get(1000, TimeUnit.MILLISECONDS);
+		assertThat(future.isDone()).isTrue();
+	}
+
+	@Test
+	public void scheduleManyTasksWithDifferentDelays() throws Exception {
+		int count = 1000;
+		CountDownLatch latch = new CountDownLatch(count);
+		long start = System.nanoTime();
+		List<Long> lateness = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			long delay = i % 100;
+			scheduler.getScheduledExecutor().schedule(() -> {
+				long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				synchronized (lateness) {
+					lateness.add(elapsed - delay);
+				}
+				latch.countDown();
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+		assertThat(latch.await(2000, TimeUnit.MILLISECONDS)).isTrue();
+		synchronized (lateness) {
+			assertThat(lateness).allMatch(late -> late >= 0);
+		}
+	}
+
+	@Test
+	public void scheduleTriggerTask() throws Exception {
+		AtomicInteger counter = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(3);
+		ScheduledFuture<?> future = scheduler.schedule(() -> {
+			counter.incrementAndGet();
+			latch.countDown();
+		}, new PeriodicTrigger(10));
+		assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		future.cancel(false);
+		assertThat(counter.get()).isGreaterThanOrEqualTo(3);
+	}
+
+	@Test
+	public void scheduleAtFixedRate() throws Exception {
+		CountDownLatch latch = new CountDownLatch(5);
+		ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(latch::countDown, 5);
+		assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(future.cancel(false)).isTrue();
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void cancelScheduledTask() throws Exception {
+		AtomicInteger counter = new AtomicInteger();
+		ScheduledFuture<?> future = scheduler.schedule(counter::incrementAndGet, new Date(System.currentTimeMillis() + 50));
+		assertThat(future.cancel(false)).isTrue();
+		Thread.sleep(100);
+		assertThat(counter.get()).isEqualTo(0);
+		assertThat(future.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void scheduleTaskAcrossWheelLevels() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		long start = System.nanoTime();
+		// 200 ticks with 4 buckets per level: cascading through four levels
+		scheduler.getScheduledExecutor().schedule(latch::countDown, 200, TimeUnit.MILLISECONDS);
+		assertThat(latch.await(2000, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(200);
+	}
+
+	@Test
+	public void queueSize() throws Exception {
+		assertThat(scheduler.getQueueSize()).isEqualTo(0);
+		ScheduledFuture<?> future1 = scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 10000));
+		ScheduledFuture<?> future2 = scheduler.schedule(() -> {}, new Date(System.currentTimeMillis() + 10000));
+		assertThat(scheduler.getQueueSize()).isEqualTo(2);
+		future1.cancel(false);
+		future2.cancel(false);
+		long deadline = System.currentTimeMillis() + 1000;
+		while (scheduler.getQueueSize() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(scheduler.getQueueSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void taskMetricsCallback() throws Exception {
+		TaskExecutionStatistics statistics = new TaskExecutionStatistics();
+		TimingWheelTaskScheduler scheduler = new TimingWheelTaskScheduler();
+		scheduler.setTaskMetricsCallback(statistics);
+		scheduler.setTickMillis(1);
+		scheduler.afterPropertiesSet();
+		try {
+			CountDownLatch latch = new CountDownLatch(2);
+			scheduler.execute(latch::countDown);
+			scheduler.schedule(latch::countDown, new Date(System.currentTimeMillis() + 10));
+			assertThat(latch.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+			long deadline = System.currentTimeMillis() + 1000;
+			while (statistics.getCompletedTaskCount() < 2 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+			assertThat(statistics.getSubmittedTaskCount()).isEqualTo(2);
+			assertThat(statistics.getCompletedTaskCount()).isEqualTo(2);
+		}
+		finally {
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	public void poolSizeAndActiveCount() {
+		assertThat(scheduler.getPoolSize()).isLessThanOrEqualTo(1);
+		assertThat(scheduler.getActiveCount()).isEqualTo(0);
+		assertThat(scheduler.isRemoveOnCancelPolicy()).isTrue();
+		assertThat(scheduler.getTimingWheelExecutor().getTickThreadCount()).isEqualTo(2);
+	}
+
+}
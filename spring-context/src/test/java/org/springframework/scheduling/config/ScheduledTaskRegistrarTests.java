@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,30 @@
 
 package org.springframework.scheduling.config;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.InMemoryTaskLockProvider;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
+import org.springframework.scheduling.support.TaskLock;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -95,4 +112,186 @@ class ScheduledTaskRegistrarTests {
 		assertThat(this.taskRegistrar.getCronTaskList()).isEmpty();
 	}
 
+	@Test
+	void fixedRateTaskWithLockProviderRunsOncePerTick() throws Exception {
+		InMemoryTaskLockProvider lockProvider = new InMemoryTaskLockProvider();
+		CountingTask task = new CountingTask();
+		ThreadPoolTaskScheduler scheduler1 = new ThreadPoolTaskScheduler();
+		ThreadPoolTaskScheduler scheduler2 = new ThreadPoolTaskScheduler();
+		scheduler1.afterPropertiesSet();
+		scheduler2.afterPropertiesSet();
+		ScheduledTaskRegistrar registrar1 = lockingRegistrar(scheduler1, lockProvider, "node1");
+		ScheduledTaskRegistrar registrar2 = lockingRegistrar(scheduler2, lockProvider, "node2");
+		try {
+			long start = System.currentTimeMillis();
+			registrar1.scheduleFixedRateTask(new FixedRateTask(task, 100, 0));
+			registrar2.scheduleFixedRateTask(new FixedRateTask(task, 100, 0));
+			Thread.sleep(500);
+			long ticks = (System.currentTimeMillis() - start) / 100 + 2;
+			assertThat(task.count.get()).isGreaterThan(0).isLessThanOrEqualTo((int) ticks);
+			assertThat(lockProvider.getLastExecutionTime("countingTask(fixedRate=100)")).isNotNull();
+		}
+		finally {
+			registrar1.destroy();
+			registrar2.destroy();
+			scheduler1.shutdown();
+			scheduler2.shutdown();
+		}
+	}
+
+	@Test
+	void cronTaskWithLockProviderCatchesUpMissedExecution() {
+		InMemoryTaskLockProvider lockProvider = new InMemoryTaskLockProvider();
+		CountingTask task = new CountingTask();
+		TaskLock lock = lockProvider.tryLock(
+				"countingTask(cron=0 0 0 * * *)", Instant.now().minus(3, ChronoUnit.DAYS), Duration.ofMinutes(1));
+		assertThat(lock).isNotNull();
+		lock.unlock();
+
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		ScheduledTaskRegistrar registrar = lockingRegistrar(scheduler, lockProvider, "node");
+		registrar.setCatchUpMissedExecutions(true);
+		try {
+			registrar.scheduleCronTask(new CronTask(task, "0 0 0 * * *"));
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> task.count.get() == 1);
+			assertThat(lockProvider.getLastExecutionTime("countingTask(cron=0 0 0 * * *)"))
+					.isAfter(Instant.now().minus(1, ChronoUnit.DAYS));
+		}
+		finally {
+			registrar.destroy();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void cronTaskWithLockProviderCatchesUpLatestOfManyMissedExecutions() {
+		List<Instant> executionTimes = new CopyOnWriteArrayList<>();
+		InMemoryTaskLockProvider lockProvider = new InMemoryTaskLockProvider() {
+			@Override
+			public TaskLock tryLock(String taskName, Instant executionTime, Duration lockAtMostFor) {
+				executionTimes.add(executionTime);
+				return super.tryLock(taskName, executionTime, lockAtMostFor);
+			}
+		};
+		CountingTask task = new CountingTask();
+		lockProvider.tryLock("countingTask(cron=0 * * * * *)",
+				Instant.now().minus(30, ChronoUnit.DAYS), Duration.ofMinutes(1)).unlock();
+		executionTimes.clear();
+
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		ScheduledTaskRegistrar registrar = lockingRegistrar(scheduler, lockProvider, "node");
+		registrar.setCatchUpMissedExecutions(true);
+		try {
+			registrar.scheduleCronTask(new CronTask(task, "0 * * * * *"));
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> task.count.get() >= 1);
+			assertThat(executionTimes.get(0)).isAfter(Instant.now().minus(61, ChronoUnit.SECONDS));
+		}
+		finally {
+			registrar.destroy();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void taskNameIncludesSchedule() {
+		CountingTask task = new CountingTask();
+		assertThat(this.taskRegistrar.determineTaskName(new CronTask(task, "0 0 * * * *")))
+				.isEqualTo("countingTask(cron=0 0 * * * *)");
+		assertThat(this.taskRegistrar.determineTaskName(new FixedRateTask(task, 100, 0)))
+				.isEqualTo("countingTask(fixedRate=100)");
+		assertThat(this.taskRegistrar.determineTaskName(new FixedDelayTask(task, 100, 0)))
+				.isEqualTo("countingTask(fixedDelay=100)");
+	}
+
+	@Test
+	void taskNameForLambdaRejected() {
+		Runnable task = () -> {};
+		assertThatIllegalStateException().isThrownBy(() ->
+				this.taskRegistrar.determineTaskName(new FixedRateTask(task, 100, 0)));
+	}
+
+	@Test
+	void duplicateTaskNameRejected() {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.afterPropertiesSet();
+		ScheduledTaskRegistrar registrar = lockingRegistrar(scheduler, new InMemoryTaskLockProvider(), "node");
+		try {
+			registrar.scheduleCronTask(new CronTask(new CountingTask(), "0 0 * * * *"));
+			registrar.scheduleCronTask(new CronTask(new CountingTask(), "0 30 * * * *"));
+			assertThatIllegalStateException().isThrownBy(() ->
+					registrar.scheduleCronTask(new CronTask(new CountingTask(), "0 0 * * * *")));
+		}
+		finally {
+			registrar.destroy();
+			scheduler.shutdown();
+		}
+	}
+
+	@Test
+	void lockAcquisitionDelayAppliedWithinTaskExecution() {
+		InMemoryTaskLockProvider lockProvider = new InMemoryTaskLockProvider();
+		CountingTask task = new CountingTask();
+		LockingTaskRunnable lockingTask = new LockingTaskRunnable(task, "countingTask", lockProvider,
+				Duration.ofMinutes(1), 60000, 500, new ThreadPoolTaskScheduler());
+		lockingTask.run();
+		assertThat(task.count.get()).isEqualTo(1);
+		long expected = System.currentTimeMillis() - 500;
+		assertThat(lockProvider.getLastExecutionTime("countingTask"))
+				.isEqualTo(Instant.ofEpochMilli(expected - Math.floorMod(expected, 60000)));
+	}
+
+	@Test
+	void lockAcquisitionDelayShiftsTrigger() {
+		LockingTaskRunnable lockingTask = new LockingTaskRunnable(new CountingTask(), "countingTask",
+				new InMemoryTaskLockProvider(), Duration.ofMinutes(1), 0, 500, new ThreadPoolTaskScheduler());
+		PeriodicTrigger periodicTrigger = new PeriodicTrigger(1000);
+		periodicTrigger.setFixedRate(true);
+		Trigger trigger = lockingTask.wrapTrigger(periodicTrigger);
+		Date scheduled = new Date(10000);
+		Date next = trigger.nextExecutionTime(new SimpleTriggerContext(scheduled, scheduled, scheduled));
+		assertThat(next).isEqualTo(new Date(11000));
+		next = trigger.nextExecutionTime(new SimpleTriggerContext(next, next, new Date(11100)));
+		assertThat(next).isEqualTo(new Date(12000));
+	}
+
+	@Test
+	void lockAcquisitionDelayWithinSpreadWindow() {
+		this.taskRegistrar.setLockAcquisitionSpread(Duration.ofMillis(1000));
+		this.taskRegistrar.setNodeId("node1");
+		long delay = this.taskRegistrar.determineLockAcquisitionDelay("task");
+		assertThat(delay).isBetween(0L, 1000L);
+		assertThat(this.taskRegistrar.determineLockAcquisitionDelay("task")).isEqualTo(delay);
+		this.taskRegistrar.setLockAcquisitionSpread(Duration.ZERO);
+		assertThat(this.taskRegistrar.determineLockAcquisitionDelay("task")).isEqualTo(0);
+	}
+
+
+	private static ScheduledTaskRegistrar lockingRegistrar(
+			ThreadPoolTaskScheduler scheduler, InMemoryTaskLockProvider lockProvider, String nodeId) {
+
+		ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+		registrar.setTaskScheduler(scheduler);
+		registrar.setTaskLockProvider(lockProvider);
+		registrar.setNodeId(nodeId);
+		return registrar;
+	}
+
+
+	private static class CountingTask implements Runnable {
+
+		final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public void run() {
+			this.count.incrementAndGet();
+		}
+
+		@Override
+		public String toString() {
+			return "countingTask";
+		}
+	}
+
 }
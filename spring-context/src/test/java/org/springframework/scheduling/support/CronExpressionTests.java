@@ -0,0 +1,216 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link CronExpression}.
+ */
+class CronExpressionTests {
+
+	private static final ZoneId UTC = ZoneId.of("UTC");
+
+
+	@Test
+	void secondsStepAcrossHours() {
+		CronExpression expression = CronExpression.parse("*/15 * 1-4 * * *");
+		assertThat(expression.next(at(2012, 7, 1, 9, 53, 50))).isEqualTo(at(2012, 7, 2, 1, 0, 0));
+		assertThat(expression.next(at(2012, 7, 2, 1, 0, 0))).isEqualTo(at(2012, 7, 2, 1, 0, 15));
+		assertThat(expression.next(at(2012, 7, 2, 4, 59, 45))).isEqualTo(at(2012, 7, 3, 1, 0, 0));
+	}
+
+	@Test
+	void fractionalSecondsRoundedUp() {
+		CronExpression expression = CronExpression.parse("* * * * * *");
+		ZonedDateTime dateTime = at(2020, 1, 1, 10, 0, 0).withNano(500_000_000);
+		assertThat(expression.next(dateTime)).isEqualTo(at(2020, 1, 1, 10, 0, 1));
+	}
+
+	@Test
+	void weekdaysOnly() {
+		CronExpression expression = CronExpression.parse("0 0 9-17 * * MON-FRI");
+		// Friday evening -> Monday morning
+		assertThat(expression.next(at(2020, 5, 15, 18, 0, 0))).isEqualTo(at(2020, 5, 18, 9, 0, 0));
+	}
+
+	@Test
+	void sundayAsZeroOrSeven() {
+		ZonedDateTime saturday = at(2020, 5, 16, 12, 0, 0);
+		ZonedDateTime sunday = at(2020, 5, 17, 0, 0, 0);
+		assertThat(CronExpression.parse("0 0 0 * * 0").next(saturday)).isEqualTo(sunday);
+		assertThat(CronExpression.parse("0 0 0 * * 7").next(saturday)).isEqualTo(sunday);
+		assertThat(CronExpression.parse("0 0 0 * * SUN").next(saturday)).isEqualTo(sunday);
+	}
+
+	@Test
+	void macros() {
+		ZonedDateTime start = at(2020, 1, 15, 10, 30, 0);
+		assertThat(CronExpression.parse("@yearly").next(start)).isEqualTo(at(2021, 1, 1, 0, 0, 0));
+		assertThat(CronExpression.parse("@annually").next(start)).isEqualTo(at(2021, 1, 1, 0, 0, 0));
+		assertThat(CronExpression.parse("@monthly").next(start)).isEqualTo(at(2020, 2, 1, 0, 0, 0));
+		assertThat(CronExpression.parse("@weekly").next(start)).isEqualTo(at(2020, 1, 19, 0, 0, 0));
+		assertThat(CronExpression.parse("@daily").next(start)).isEqualTo(at(2020, 1, 16, 0, 0, 0));
+		assertThat(CronExpression.parse("@midnight").next(start)).isEqualTo(at(2020, 1, 16, 0, 0, 0));
+		assertThat(CronExpression.parse("@hourly").next(start)).isEqualTo(at(2020, 1, 15, 11, 0, 0));
+		assertThat(CronExpression.parse("@daily")).isEqualTo(CronExpression.parse("0 0 0 * * *"));
+	}
+
+	@Test
+	void lastDayOfMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 L * *");
+		assertThat(expression.next(at(2020, 1, 15, 0, 0, 0))).isEqualTo(at(2020, 1, 31, 0, 0, 0));
+		assertThat(expression.next(at(2020, 1, 31, 0, 0, 0))).isEqualTo(at(2020, 2, 29, 0, 0, 0));
+		assertThat(expression.next(at(2021, 2, 1, 0, 0, 0))).isEqualTo(at(2021, 2, 28, 0, 0, 0));
+	}
+
+	@Test
+	void lastDayOfMonthWithOffset() {
+		CronExpression expression = CronExpression.parse("0 0 0 L-3 * *");
+		assertThat(expression.next(at(2020, 1, 15, 0, 0, 0))).isEqualTo(at(2020, 1, 28, 0, 0, 0));
+		assertThat(expression.next(at(2020, 1, 28, 0, 0, 0))).isEqualTo(at(2020, 2, 26, 0, 0, 0));
+	}
+
+	@Test
+	void lastWeekdayOfMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 LW * *");
+		// 29 February 2020 is a Saturday
+		assertThat(expression.next(at(2020, 2, 1, 0, 0, 0))).isEqualTo(at(2020, 2, 28, 0, 0, 0));
+		// 31 May 2020 is a Sunday
+		assertThat(expression.next(at(2020, 5, 1, 0, 0, 0))).isEqualTo(at(2020, 5, 29, 0, 0, 0));
+	}
+
+	@Test
+	void nearestWeekday() {
+		CronExpression expression = CronExpression.parse("0 0 0 15W * *");
+		// 15 February 2020 is a Saturday, 15 March 2020 a Sunday
+		assertThat(expression.next(at(2020, 2, 1, 0, 0, 0))).isEqualTo(at(2020, 2, 14, 0, 0, 0));
+		assertThat(expression.next(at(2020, 3, 1, 0, 0, 0))).isEqualTo(at(2020, 3, 16, 0, 0, 0));
+		assertThat(expression.next(at(2020, 4, 1, 0, 0, 0))).isEqualTo(at(2020, 4, 15, 0, 0, 0));
+	}
+
+	@Test
+	void nearestWeekdayDoesNotLeaveMonth() {
+		// 1 February 2020 is a Saturday: the nearest weekday within the month is Monday the 3rd
+		CronExpression expression = CronExpression.parse("0 0 0 1W * *");
+		assertThat(expression.next(at(2020, 1, 15, 0, 0, 0))).isEqualTo(at(2020, 2, 3, 0, 0, 0));
+	}
+
+	@Test
+	void lastDayOfWeekInMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 * * 5L");
+		assertThat(expression.next(at(2020, 1, 1, 0, 0, 0))).isEqualTo(at(2020, 1, 31, 0, 0, 0));
+		assertThat(expression.next(at(2020, 2, 1, 0, 0, 0))).isEqualTo(at(2020, 2, 28, 0, 0, 0));
+		assertThat(expression.next(at(2020, 3, 1, 0, 0, 0))).isEqualTo(at(2020, 3, 27, 0, 0, 0));
+	}
+
+	@Test
+	void nthDayOfWeekInMonth() {
+		CronExpression expression = CronExpression.parse("0 0 0 * * FRI#3");
+		assertThat(expression.next(at(2020, 1, 1, 0, 0, 0))).isEqualTo(at(2020, 1, 17, 0, 0, 0));
+		assertThat(expression.next(at(2020, 1, 17, 0, 0, 0))).isEqualTo(at(2020, 2, 21, 0, 0, 0));
+	}
+
+	@Test
+	void fifthDayOfWeekSkipsShortMonths() {
+		CronExpression expression = CronExpression.parse("0 0 0 * * MON#5");
+		// February 2020 only has four Mondays
+		assertThat(expression.next(at(2020, 2, 1, 0, 0, 0))).isEqualTo(at(2020, 3, 30, 0, 0, 0));
+	}
+
+	@Test
+	void leapDayOnMonday() {
+		CronExpression expression = CronExpression.parse("0 0 0 29 2 MON");
+		ZonedDateTime next = expression.next(at(2020, 1, 1, 0, 0, 0));
+		assertThat(next).isEqualTo(at(2044, 2, 29, 0, 0, 0));
+		assertThat(next.getDayOfWeek()).isEqualTo(DayOfWeek.MONDAY);
+		// 2100 is not a leap year
+		assertThat(expression.next(at(2072, 3, 1, 0, 0, 0))).isEqualTo(at(2112, 2, 29, 0, 0, 0));
+	}
+
+	@Test
+	void impossibleDateReturnsNull() {
+		assertThat(CronExpression.parse("0 0 0 30 2 *").next(at(2020, 1, 1, 0, 0, 0))).isNull();
+		assertThat(CronExpression.parse("0 0 0 31 APR,JUN *").next(at(2020, 1, 1, 0, 0, 0))).isNull();
+	}
+
+	@Test
+	void daylightSavingGapSkipped() {
+		// Clocks go forward from 2am to 3am on 31 March 2013 in CET
+		ZoneId cet = ZoneId.of("CET");
+		CronExpression expression = CronExpression.parse("0 10 2 * * *");
+		ZonedDateTime start = ZonedDateTime.of(2013, 3, 31, 1, 0, 54, 0, cet);
+		assertThat(expression.next(start)).isEqualTo(ZonedDateTime.of(2013, 4, 1, 2, 10, 0, 0, cet));
+	}
+
+	@Test
+	void daylightSavingOverlapFiresOnce() {
+		// Clocks go back from 3am to 2am on 27 October 2013 in CET
+		ZoneId cet = ZoneId.of("CET");
+		CronExpression expression = CronExpression.parse("0 30 2 * * *");
+		ZonedDateTime first = expression.next(ZonedDateTime.of(2013, 10, 27, 1, 0, 0, 0, cet));
+		assertThat(first.toLocalDateTime()).isEqualTo(LocalDateTime.of(2013, 10, 27, 2, 30));
+		assertThat(expression.next(first).toLocalDateTime()).isEqualTo(LocalDateTime.of(2013, 10, 28, 2, 30));
+	}
+
+	@Test
+	void equivalentExpressions() {
+		assertThat(CronExpression.parse("57/2 * * * * *")).isEqualTo(CronExpression.parse("57,59 * * * * *"));
+		assertThat(CronExpression.parse("0 0 0 ? * MON-FRI")).isEqualTo(CronExpression.parse("0 0 0 * * 1-5"));
+		assertThat(CronExpression.parse("0 0 0 1 jan-mar *")).isEqualTo(CronExpression.parse("0 0 0 1 1,2,3 *"));
+		assertThat(CronExpression.parse("0 0 0 L * *")).isNotEqualTo(CronExpression.parse("0 0 0 LW * *"));
+		assertThat(CronExpression.parse("0 0 0 * * 5L").hashCode())
+				.isEqualTo(CronExpression.parse("0 0 0 * * FRIL").hashCode());
+	}
+
+	@Test
+	void invalidExpressions() {
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse(""));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("60 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("*/0 * * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("* 6-5 * * * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 L-31 * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 32W * *"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("0 0 0 * * MON#6"));
+		assertThatIllegalArgumentException().isThrownBy(() -> CronExpression.parse("@fortnightly"));
+	}
+
+	@Test
+	void validExpressions() {
+		assertThat(CronExpression.isValidExpression("0 */2 1-4 * * *")).isTrue();
+		assertThat(CronExpression.isValidExpression("0 0 0 LW * *")).isTrue();
+		assertThat(CronExpression.isValidExpression("@hourly")).isTrue();
+		assertThat(CronExpression.isValidExpression("0 */2 1-4 * * * *")).isFalse();
+		assertThat(CronExpression.isValidExpression("0 */2 1-4 * INVALID *")).isFalse();
+		assertThat(CronExpression.isValidExpression(null)).isFalse();
+	}
+
+
+	private static ZonedDateTime at(int year, int month, int day, int hour, int minute, int second) {
+		return ZonedDateTime.of(year, month, day, hour, minute, second, 0, UTC);
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 5.2.7
+ */
+class InMemoryTaskLockProviderTests {
+
+	private final InMemoryTaskLockProvider lockProvider = new InMemoryTaskLockProvider();
+
+	private final Instant tick = Instant.parse("2020-05-01T12:00:00Z");
+
+
+	@Test
+	void lockOncePerExecutionTime() {
+		assertThat(this.lockProvider.getLastExecutionTime("task")).isNull();
+		TaskLock lock = this.lockProvider.tryLock("task", this.tick, Duration.ofMinutes(1));
+		assertThat(lock).isNotNull();
+		assertThat(this.lockProvider.tryLock("task", this.tick, Duration.ofMinutes(1))).isNull();
+		assertThat(this.lockProvider.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNull();
+		assertThat(this.lockProvider.tryLock("other", this.tick, Duration.ofMinutes(1))).isNotNull();
+
+		lock.unlock();
+		assertThat(this.lockProvider.getLastExecutionTime("task")).isEqualTo(this.tick);
+		assertThat(this.lockProvider.tryLock("task", this.tick, Duration.ofMinutes(1))).isNull();
+		assertThat(this.lockProvider.tryLock("task", this.tick.minusSeconds(60), Duration.ofMinutes(1))).isNull();
+		assertThat(this.lockProvider.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNotNull();
+	}
+
+	@Test
+	void lockExpires() throws Exception {
+		assertThat(this.lockProvider.tryLock("task", this.tick, Duration.ofMillis(10))).isNotNull();
+		assertThat(this.lockProvider.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNull();
+		Thread.sleep(20);
+		assertThat(this.lockProvider.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNotNull();
+	}
+
+}
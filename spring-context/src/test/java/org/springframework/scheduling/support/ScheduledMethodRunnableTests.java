@@ -0,0 +1,151 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.scheduling.support;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.ReflectionUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link ScheduledMethodRunnable}.
+ */
+public class ScheduledMethodRunnableTests {
+
+	private final TestBean bean = new TestBean();
+
+
+	@Test
+	public void publicMethod() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "publicMethod");
+		assertThat(getInvoker(runnable)).isNotNull();
+
+		runnable.run();
+		runnable.run();
+		assertThat(this.bean.invocations).isEqualTo(2);
+	}
+
+	@Test
+	public void privateMethod() throws Exception {
+		Method method = TestBean.class.getDeclaredMethod("privateMethod");
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, method);
+		assertThat(getInvoker(runnable)).isNotNull();
+
+		runnable.run();
+		assertThat(this.bean.invocations).isEqualTo(1);
+	}
+
+	@Test
+	public void checkedException() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "checkedException");
+
+		assertThatExceptionOfType(UndeclaredThrowableException.class).isThrownBy(runnable::run)
+				.withCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void runtimeException() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "runtimeException");
+
+		assertThatIllegalStateException().isThrownBy(runnable::run).withMessage("runtime");
+	}
+
+	@Test
+	public void error() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "error");
+
+		assertThatExceptionOfType(AssertionError.class).isThrownBy(runnable::run).withMessage("error");
+	}
+
+	@Test
+	public void reflectiveFallback() throws Exception {
+		Method method = TestBean.class.getDeclaredMethod("privateMethod");
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, method);
+		clearInvoker(runnable);
+
+		runnable.run();
+		assertThat(this.bean.invocations).isEqualTo(1);
+	}
+
+	@Test
+	public void reflectiveFallbackWithCheckedException() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "checkedException");
+		clearInvoker(runnable);
+
+		assertThatExceptionOfType(UndeclaredThrowableException.class).isThrownBy(runnable::run)
+				.withCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	public void reflectiveFallbackWithRuntimeException() throws Exception {
+		ScheduledMethodRunnable runnable = new ScheduledMethodRunnable(this.bean, "runtimeException");
+		clearInvoker(runnable);
+
+		assertThatIllegalStateException().isThrownBy(runnable::run).withMessage("runtime");
+	}
+
+	private static Object getInvoker(ScheduledMethodRunnable runnable) {
+		Field field = ReflectionUtils.findField(ScheduledMethodRunnable.class, "invoker");
+		ReflectionUtils.makeAccessible(field);
+		return ReflectionUtils.getField(field, runnable);
+	}
+
+	/**
+	 * Simulate {@code createInvoker} not being able to obtain a handle.
+	 */
+	private static void clearInvoker(ScheduledMethodRunnable runnable) {
+		Field field = ReflectionUtils.findField(ScheduledMethodRunnable.class, "invoker");
+		ReflectionUtils.makeAccessible(field);
+		ReflectionUtils.setField(field, runnable, null);
+		assertThat(getInvoker(runnable)).isNull();
+	}
+
+
+	public static class TestBean {
+
+		int invocations;
+
+		public void publicMethod() {
+			this.invocations++;
+		}
+
+		private void privateMethod() {
+			this.invocations++;
+		}
+
+		public void checkedException() throws IOException {
+			throw new IOException("checked");
+		}
+
+		public void runtimeException() {
+			throw new IllegalStateException("runtime");
+		}
+
+		public void error() {
+			throw new AssertionError("error");
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ConcurrencyThrottleSupport;
 import org.springframework.util.CustomizableThreadCreator;
+import org.springframework.util.concurrent.ConcurrencyLimit;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.util.concurrent.ListenableFutureTask;
 
@@ -35,14 +36,19 @@ import org.springframework.util.concurrent.ListenableFutureTask;
  *
  * <p>Supports limiting concurrent threads through the "concurrencyLimit"
  * bean property. By default, the number of concurrent threads is unlimited.
+ * Alternatively, an {@link #setAdaptiveConcurrencyLimit adaptive limit} may
+ * determine the number of concurrent threads based on observed execution times.
  *
  * <p><b>NOTE: This implementation does not reuse threads!</b> Consider a
  * thread-pooling TaskExecutor implementation instead, in particular for
- * executing a large number of short-lived tasks.
+ * executing a large number of short-lived tasks. Alternatively, switch on
+ * {@link #setVirtualThreads "virtualThreads"} for cheap thread-per-task
+ * execution of I/O-bound tasks on runtimes which support virtual threads.
  *
  * @author Juergen Hoeller
  * @since 2.0
  * @see #setConcurrencyLimit
+ * @see #setVirtualThreads
  * @see SyncTaskExecutor
  * @see org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
  * @see org.springframework.scheduling.commonj.WorkManagerTaskExecutor
@@ -73,6 +79,8 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	@Nullable
 	private TaskDecorator taskDecorator;
 
+	private boolean virtualThreads = false;
+
 
 	/**
 	 * Create a new SimpleAsyncTaskExecutor with default thread name prefix.
@@ -132,6 +140,35 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		this.taskDecorator = taskDecorator;
 	}
 
+	/**
+	 * Specify whether to create virtual threads instead of platform threads,
+	 * if supported by the current runtime. Otherwise, this executor falls back
+	 * to regular threads as configured through the local properties.
+	 * <p>Virtual threads are named according to the
+	 * {@link #setThreadNamePrefix "threadNamePrefix"} as well, whereas other
+	 * thread settings such as priority and daemon status do not apply to them.
+	 * An external {@link #setThreadFactory ThreadFactory} is ignored in favor of
+	 * virtual threads if this flag has been set and virtual threads are available.
+	 * <p>Default is "false". Consider combining this with a
+	 * {@link #setConcurrencyLimit "concurrencyLimit"} for I/O-bound fan-out
+	 * towards resources with limited capacity.
+	 * @since 5.2.7
+	 * @see #isVirtualThreads()
+	 */
+	public void setVirtualThreads(boolean virtualThreads) {
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Return whether this executor actually creates virtual threads, i.e. whether
+	 * {@link #setVirtualThreads "virtualThreads"} has been switched on and virtual
+	 * threads are supported by the current runtime.
+	 * @since 5.2.7
+	 */
+	public boolean isVirtualThreads() {
+		return (this.virtualThreads && VirtualThreadDelegate.isSupported());
+	}
+
 	/**
 	 * Set the maximum number of parallel accesses allowed.
 	 * -1 indicates no concurrency limit at all.
@@ -153,11 +190,36 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		return this.concurrencyThrottle.getConcurrencyLimit();
 	}
 
+	/**
+	 * Specify an adaptive {@link ConcurrencyLimit} which determines the maximum
+	 * number of parallel accesses dynamically, based on the execution time of
+	 * the tasks, instead of a fixed {@link #setConcurrencyLimit "concurrencyLimit"}.
+	 * <p>Once the current limit is reached, submitting threads block until a
+	 * task completes or the start timeout given to {@link #execute(Runnable, long)}
+	 * elapses, in which case a {@link TaskTimeoutException} is thrown.
+	 * @since 5.2.7
+	 * @see org.springframework.util.concurrent.AimdConcurrencyLimit
+	 * @see org.springframework.util.concurrent.VegasConcurrencyLimit
+	 */
+	public void setAdaptiveConcurrencyLimit(@Nullable ConcurrencyLimit adaptiveConcurrencyLimit) {
+		this.concurrencyThrottle.setAdaptiveLimit(adaptiveConcurrencyLimit);
+	}
+
+	/**
+	 * Return the adaptive {@link ConcurrencyLimit}, if any.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public final ConcurrencyLimit getAdaptiveConcurrencyLimit() {
+		return this.concurrencyThrottle.getAdaptiveLimit();
+	}
+
 	/**
 	 * Return whether this throttle is currently active.
 	 * @return {@code true} if the concurrency limit for this instance is active
 	 * @see #getConcurrencyLimit()
 	 * @see #setConcurrencyLimit
+	 * @see #setAdaptiveConcurrencyLimit
 	 */
 	public final boolean isThrottleActive() {
 		return this.concurrencyThrottle.isThrottleActive();
@@ -179,7 +241,10 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	 * if configured (through the superclass's settings).
 	 * <p>Executes urgent tasks (with 'immediate' timeout) directly,
 	 * bypassing the concurrency throttle (if active). All other
-	 * tasks are subject to throttling.
+	 * tasks are subject to throttling, waiting for the given start
+	 * timeout at most (as of 5.2.7).
+	 * @throws TaskTimeoutException if the concurrency limit did not
+	 * allow for starting the task within the given timeout
 	 * @see #TIMEOUT_IMMEDIATE
 	 * @see #doExecute(Runnable)
 	 */
@@ -188,7 +253,10 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 		Assert.notNull(task, "Runnable must not be null");
 		Runnable taskToUse = (this.taskDecorator != null ? this.taskDecorator.decorate(task) : task);
 		if (isThrottleActive() && startTimeout > TIMEOUT_IMMEDIATE) {
-			this.concurrencyThrottle.beforeAccess();
+			if (!this.concurrencyThrottle.beforeAccess(startTimeout < TIMEOUT_INDEFINITE ? startTimeout : -1)) {
+				throw new TaskTimeoutException("Concurrency limit did not allow for starting task [" +
+						task + "] within " + startTimeout + " ms");
+			}
 			doExecute(new ConcurrencyThrottlingRunnable(taskToUse));
 		}
 		else {
@@ -228,12 +296,19 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	 * Template method for the actual execution of a task.
 	 * <p>The default implementation creates a new Thread and starts it.
 	 * @param task the Runnable to execute
+	 * @see #setVirtualThreads
 	 * @see #setThreadFactory
 	 * @see #createThread
 	 * @see java.lang.Thread#start()
 	 */
 	protected void doExecute(Runnable task) {
-		Thread thread = (this.threadFactory != null ? this.threadFactory.newThread(task) : createThread(task));
+		Thread thread;
+		if (isVirtualThreads()) {
+			thread = VirtualThreadDelegate.newVirtualThread(nextThreadName(), task);
+		}
+		else {
+			thread = (this.threadFactory != null ? this.threadFactory.newThread(task) : createThread(task));
+		}
 		thread.start();
 	}
 
@@ -246,13 +321,13 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 	private static class ConcurrencyThrottleAdapter extends ConcurrencyThrottleSupport {
 
 		@Override
-		protected void beforeAccess() {
-			super.beforeAccess();
+		protected boolean beforeAccess(long timeoutMillis) {
+			return super.beforeAccess(timeoutMillis);
 		}
 
 		@Override
-		protected void afterAccess() {
-			super.afterAccess();
+		protected void afterAccess(long elapsedNanos) {
+			super.afterAccess(elapsedNanos);
 		}
 	}
 
@@ -271,11 +346,12 @@ public class SimpleAsyncTaskExecutor extends CustomizableThreadCreator
 
 		@Override
 		public void run() {
+			long startTime = System.nanoTime();
 			try {
 				this.target.run();
 			}
 			finally {
-				concurrencyThrottle.afterAccess();
+				concurrencyThrottle.afterAccess(System.nanoTime() - startTime);
 			}
 		}
 	}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+/**
+ * Exception thrown when a {@link TaskExecutor} sheds a given task because
+ * it is overloaded: i.e. its concurrency limit has been reached and the task
+ * could not be queued (or has not been started) within its deadline.
+ *
+ * <p>In contrast to a general {@link TaskRejectedException}, e.g. after
+ * shutdown, this indicates a transient condition which allows for retrying
+ * the task later on or for responding with a "503 Service Unavailable"
+ * status in a web environment.
+ *
+ * @since 5.2.7
+ * @see org.springframework.scheduling.concurrent.AdaptiveThreadPoolTaskExecutor
+ */
+@SuppressWarnings("serial")
+public class TaskOverloadException extends TaskRejectedException {
+
+	/**
+	 * Create a new {@code TaskOverloadException}
+	 * with the specified detail message and no root cause.
+	 * @param msg the detail message
+	 */
+	public TaskOverloadException(String msg) {
+		super(msg);
+	}
+
+}
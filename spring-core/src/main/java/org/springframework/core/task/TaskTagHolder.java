@@ -0,0 +1,65 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+
+/**
+ * Simple holder class that associates a tag with the current thread while
+ * submitting a task, identifying the origin of the task for instrumented
+ * executors: e.g. the qualified name of an {@code @Async} method.
+ *
+ * <p>The tag is only meant to be exposed for the duration of a submission call,
+ * typically through a try-finally block which restores the previous tag.
+ *
+ * @since 5.2.7
+ * @see org.springframework.aop.interceptor.AsyncExecutionInterceptor
+ * @see org.springframework.scheduling.concurrent.TaskMetricsCallback
+ */
+public abstract class TaskTagHolder {
+
+	private static final ThreadLocal<String> currentTag = new NamedThreadLocal<>("Current task tag");
+
+
+	/**
+	 * Return the tag associated with the current thread, if any.
+	 * @return the current tag, or {@code null} if none
+	 */
+	@Nullable
+	public static String getTag() {
+		return currentTag.get();
+	}
+
+	/**
+	 * Associate the given tag with the current thread.
+	 * @param tag the tag to expose, or {@code null} to reset the thread-bound tag
+	 * @return the previously exposed tag, if any (for restoring it afterwards)
+	 */
+	@Nullable
+	public static String setTag(@Nullable String tag) {
+		String previousTag = currentTag.get();
+		if (tag != null) {
+			currentTag.set(tag);
+		}
+		else {
+			currentTag.remove();
+		}
+		return previousTag;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskDecorator} which propagates the thread-bound context of the
+ * submitting thread to the executing thread, based on a {@link ContextPropagator}.
+ *
+ * <p>Tasks submitted without any context bound are not wrapped at all.
+ *
+ * @since 5.2.7
+ * @see ContextPropagator#capture()
+ * @see ContextSnapshot#wrap(Runnable)
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+	private final ContextPropagator contextPropagator;
+
+
+	/**
+	 * Create a new ContextPropagatingTaskDecorator for the
+	 * {@link ContextPropagator#getDefault() default ContextPropagator}.
+	 */
+	public ContextPropagatingTaskDecorator() {
+		this(ContextPropagator.getDefault());
+	}
+
+	/**
+	 * Create a new ContextPropagatingTaskDecorator for the given ContextPropagator.
+	 * @param contextPropagator the ContextPropagator to capture the context with
+	 */
+	public ContextPropagatingTaskDecorator(ContextPropagator contextPropagator) {
+		Assert.notNull(contextPropagator, "ContextPropagator must not be null");
+		this.contextPropagator = contextPropagator;
+	}
+
+
+	@Override
+	public Runnable decorate(Runnable runnable) {
+		return this.contextPropagator.capture().wrap(runnable);
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.support.SpringFactoriesLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Central entry point for propagating thread-bound context from one thread
+ * to another, based on a fixed set of {@link ThreadLocalAccessor ThreadLocalAccessors}.
+ *
+ * <p>{@link #capture()} takes a {@link ContextSnapshot} of the values currently
+ * bound to the calling thread, which can then be restored on another thread through
+ * {@link ContextSnapshot#wrap(Runnable)}. Values are captured by reference into a
+ * single array per snapshot, without copying any maps; if no value is bound at all,
+ * a shared empty snapshot is returned and tasks are not wrapped.
+ *
+ * <p>Typically used through a {@link ContextPropagatingTaskDecorator} or through
+ * the "contextPropagator" property on Spring's {@code ExecutorConfigurationSupport}
+ * subclasses, e.g. {@code ThreadPoolTaskExecutor} as used for {@code @Async} methods.
+ * For Reactor-based code, a snapshot can be stored in a Reactor {@code Context}
+ * (see {@link ContextSnapshot#updateContext}), and the context of the scheduling
+ * thread can be propagated to tasks scheduled through Reactor's {@code Schedulers}
+ * (see {@link #registerReactorScheduleHook()}).
+ *
+ * @since 5.2.7
+ * @see ThreadLocalAccessor
+ * @see ContextSnapshot
+ * @see ContextPropagatingTaskDecorator
+ */
+public final class ContextPropagator {
+
+	private static final String REACTOR_HOOK_KEY = ContextPropagator.class.getName();
+
+	private static final boolean reactorPresent = ClassUtils.isPresent(
+			"reactor.core.scheduler.Schedulers", ContextPropagator.class.getClassLoader());
+
+	@Nullable
+	private static volatile ContextPropagator defaultInstance;
+
+
+	private final ThreadLocalAccessor<?>[] accessors;
+
+	private final ContextSnapshot emptySnapshot;
+
+
+	/**
+	 * Create a new ContextPropagator for the given accessors.
+	 * @param accessors the ThreadLocalAccessors to propagate values for
+	 */
+	public ContextPropagator(ThreadLocalAccessor<?>... accessors) {
+		Assert.noNullElements(accessors, "ThreadLocalAccessors must not contain null elements");
+		this.accessors = accessors.clone();
+		this.emptySnapshot = new ContextSnapshot(this.accessors, null);
+	}
+
+	/**
+	 * Create a new ContextPropagator for the given accessors.
+	 * @param accessors the ThreadLocalAccessors to propagate values for
+	 */
+	public ContextPropagator(Collection<? extends ThreadLocalAccessor<?>> accessors) {
+		this(accessors.toArray(new ThreadLocalAccessor<?>[0]));
+	}
+
+
+	/**
+	 * Return the ThreadLocalAccessors that this propagator captures values for.
+	 */
+	public List<ThreadLocalAccessor<?>> getAccessors() {
+		return Collections.unmodifiableList(Arrays.asList(this.accessors));
+	}
+
+	/**
+	 * Capture the values currently bound to the calling thread.
+	 * @return the snapshot of the current context (never {@code null};
+	 * a shared {@link ContextSnapshot#isEmpty() empty} snapshot if no value is bound)
+	 */
+	public ContextSnapshot capture() {
+		ThreadLocalAccessor<?>[] accessors = this.accessors;
+		Object[] values = null;
+		for (int i = 0; i < accessors.length; i++) {
+			Object value = accessors[i].getValue();
+			if (value != null) {
+				if (values == null) {
+					values = new Object[accessors.length];
+				}
+				values[i] = value;
+			}
+		}
+		return (values != null ? new ContextSnapshot(accessors, values) : this.emptySnapshot);
+	}
+
+	/**
+	 * Register a Reactor {@code Schedulers.onScheduleHook} which propagates the
+	 * context of the scheduling thread to any task run by a Reactor {@code Scheduler},
+	 * e.g. for {@code publishOn} and {@code subscribeOn} boundaries.
+	 * <p>The hook is global: a registration replaces any previous registration
+	 * through this method, across ContextPropagator instances.
+	 * @throws IllegalStateException if Reactor is not present
+	 * @see #resetReactorScheduleHook()
+	 */
+	public void registerReactorScheduleHook() {
+		Assert.state(reactorPresent, "Reactor not present");
+		ReactorDelegate.registerScheduleHook(this);
+	}
+
+	@Override
+	public String toString() {
+		return "ContextPropagator " + Arrays.toString(this.accessors);
+	}
+
+
+	/**
+	 * Return the default ContextPropagator for the ThreadLocalAccessors registered
+	 * in {@code META-INF/spring.factories} files on the classpath, e.g. for
+	 * {@code LocaleContextHolder} (spring-context) and {@code RequestContextHolder}
+	 * (spring-web).
+	 * <p>The accessor registrations are loaded once and cached from then on.
+	 * @see SpringFactoriesLoader#loadFactories
+	 */
+	public static ContextPropagator getDefault() {
+		ContextPropagator propagator = defaultInstance;
+		if (propagator == null) {
+			@SuppressWarnings("rawtypes")
+			List<ThreadLocalAccessor> accessors = SpringFactoriesLoader.loadFactories(
+					ThreadLocalAccessor.class, ContextPropagator.class.getClassLoader());
+			propagator = new ContextPropagator(accessors.toArray(new ThreadLocalAccessor<?>[0]));
+			defaultInstance = propagator;
+		}
+		return propagator;
+	}
+
+	/**
+	 * Remove a Reactor schedule hook registered through {@link #registerReactorScheduleHook()}.
+	 */
+	public static void resetReactorScheduleHook() {
+		if (reactorPresent) {
+			ReactorDelegate.resetScheduleHook();
+		}
+	}
+
+
+	/**
+	 * Inner class to avoid a hard dependency on Reactor at runtime.
+	 */
+	private static class ReactorDelegate {
+
+		public static void registerScheduleHook(ContextPropagator propagator) {
+			Schedulers.onScheduleHook(REACTOR_HOOK_KEY, task -> propagator.capture().wrap(task));
+		}
+
+		public static void resetScheduleHook() {
+			Schedulers.resetOnScheduleHook(REACTOR_HOOK_KEY);
+		}
+	}
+
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+
+import reactor.util.context.Context;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Immutable snapshot of thread-bound values, as captured by a {@link ContextPropagator}
+ * on one thread and restored on another thread around the execution of a task.
+ *
+ * <p>The captured values are held in a single array, aligned with the accessors
+ * of the propagator. Restoring the values on the executing thread does not allocate
+ * unless that thread has values of its own bound already, in which case those are
+ * reinstated after the task.
+ *
+ * @since 5.2.7
+ * @see ContextPropagator#capture()
+ */
+public final class ContextSnapshot {
+
+	private final ThreadLocalAccessor<?>[] accessors;
+
+	@Nullable
+	private final Object[] values;
+
+
+	ContextSnapshot(ThreadLocalAccessor<?>[] accessors, @Nullable Object[] values) {
+		this.accessors = accessors;
+		this.values = values;
+	}
+
+
+	/**
+	 * Return whether this snapshot is empty, i.e. captured no values at all.
+	 */
+	public boolean isEmpty() {
+		return (this.values == null);
+	}
+
+	/**
+	 * Wrap the given task so that the captured values are bound to the
+	 * executing thread during its execution.
+	 * @param task the task to wrap
+	 * @return the wrapped task, or the given task as-is if this snapshot is empty
+	 */
+	public Runnable wrap(Runnable task) {
+		if (this.values == null) {
+			return task;
+		}
+		return new ContextRunnable(this, task);
+	}
+
+	/**
+	 * Wrap the given task so that the captured values are bound to the
+	 * executing thread during its execution.
+	 * @param task the task to wrap
+	 * @return the wrapped task, or the given task as-is if this snapshot is empty
+	 */
+	public <V> Callable<V> wrap(Callable<V> task) {
+		if (this.values == null) {
+			return task;
+		}
+		return () -> {
+			Object[] previousValues = setThreadLocals();
+			try {
+				return task.call();
+			}
+			finally {
+				restoreThreadLocals(previousValues);
+			}
+		};
+	}
+
+	/**
+	 * Store this snapshot in the given Reactor {@code Context},
+	 * e.g. in a {@code subscriberContext} operator.
+	 * @param context the Reactor Context to update
+	 * @return the updated Context, or the given Context as-is if this snapshot is empty
+	 * @see #fromContext(Context)
+	 */
+	public Context updateContext(Context context) {
+		return (this.values != null ? context.put(ContextSnapshot.class, this) : context);
+	}
+
+	/**
+	 * Bind the captured values to the calling thread.
+	 * @return the values previously bound to the calling thread,
+	 * or {@code null} if there were none
+	 */
+	@Nullable
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	Object[] setThreadLocals() {
+		ThreadLocalAccessor[] accessors = this.accessors;
+		Object[] values = this.values;
+		Object[] previousValues = null;
+		if (values != null) {
+			for (int i = 0; i < accessors.length; i++) {
+				ThreadLocalAccessor accessor = accessors[i];
+				Object previousValue = accessor.getValue();
+				if (previousValue != null) {
+					if (previousValues == null) {
+						previousValues = new Object[accessors.length];
+					}
+					previousValues[i] = previousValue;
+				}
+				Object value = values[i];
+				if (value != null) {
+					accessor.setValue(value);
+				}
+				else if (previousValue != null) {
+					accessor.reset();
+				}
+			}
+		}
+		return previousValues;
+	}
+
+	/**
+	 * Restore the thread-bound values after {@link #setThreadLocals()}.
+	 * @param previousValues the values previously bound to the calling thread
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	void restoreThreadLocals(@Nullable Object[] previousValues) {
+		ThreadLocalAccessor[] accessors = this.accessors;
+		Object[] values = this.values;
+		if (values != null) {
+			for (int i = 0; i < accessors.length; i++) {
+				Object previousValue = (previousValues != null ? previousValues[i] : null);
+				if (previousValue != null) {
+					accessors[i].setValue(previousValue);
+				}
+				else if (values[i] != null) {
+					accessors[i].reset();
+				}
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ContextSnapshot " + (this.values != null ? Arrays.toString(this.values) : "[]");
+	}
+
+
+	/**
+	 * Return the snapshot stored in the given Reactor {@code Context}, if any.
+	 * @param context the Reactor Context to introspect
+	 * @return the snapshot, or {@code null} if none stored
+	 * @see #updateContext(Context)
+	 */
+	@Nullable
+	public static ContextSnapshot fromContext(Context context) {
+		return context.getOrDefault(ContextSnapshot.class, null);
+	}
+
+
+	/**
+	 * Runnable wrapper which binds the values of a snapshot around the target task.
+	 */
+	private static class ContextRunnable implements Runnable {
+
+		private final ContextSnapshot snapshot;
+
+		private final Runnable task;
+
+		public ContextRunnable(ContextSnapshot snapshot, Runnable task) {
+			this.snapshot = snapshot;
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			Object[] previousValues = this.snapshot.setThreadLocals();
+			try {
+				this.task.run();
+			}
+			finally {
+				this.snapshot.restoreThreadLocals(previousValues);
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.task.toString();
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Strategy for accessing a thread-bound value, e.g. held in a {@link ThreadLocal},
+ * for the purpose of propagating it to another thread through a {@link ContextSnapshot}.
+ *
+ * <p>Implementations are usually thin adapters for an existing holder class,
+ * e.g. for {@code LocaleContextHolder} or {@code RequestContextHolder}.
+ * They may be registered in {@code META-INF/spring.factories} under the key of this
+ * interface in order to be picked up by {@link ContextPropagator#getDefault()}.
+ * The value is exposed as-is: for propagation purposes, implementations are not
+ * supposed to copy the underlying value but rather to hand out the same instance.
+ *
+ * @since 5.2.7
+ * @param <V> the type of the thread-bound value
+ * @see ContextPropagator
+ */
+public interface ThreadLocalAccessor<V> {
+
+	/**
+	 * Return the value currently bound to the calling thread, if any.
+	 */
+	@Nullable
+	V getValue();
+
+	/**
+	 * Bind the given value to the calling thread.
+	 * @param value the value to bind (never {@code null})
+	 */
+	void setValue(V value);
+
+	/**
+	 * Remove any value bound to the calling thread.
+	 */
+	void reset();
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,10 +19,19 @@ package org.springframework.util;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import org.springframework.lang.Nullable;
+import org.springframework.util.concurrent.ConcurrencyLimit;
+
 /**
  * Support class for throttling concurrent access to a specific resource.
  *
@@ -35,6 +44,16 @@ import org.apache.commons.logging.LogFactory;
  * ("unbounded concurrency"). Subclasses may override this default;
  * check the javadoc of the concrete class that you're using.
  *
+ * <p>As of 5.2.7, the limit may also be determined dynamically through an
+ * {@link #setAdaptiveLimit adaptive ConcurrencyLimit}, which gets fed with
+ * the execution time of each access reported through {@link #afterAccess(long)}.
+ *
+ * <p>As of 5.2.7, access below the limit is granted through a lock-free
+ * compare-and-set on the concurrency count, only parking threads once the
+ * limit has been reached. Waiting threads are granted access in arrival
+ * order if {@link #setFair "fair"}; otherwise, arriving threads may barge
+ * ahead of waiting threads for higher throughput.
+ *
  * @author Juergen Hoeller
  * @since 1.2.5
  * @see #setConcurrencyLimit
@@ -60,11 +79,22 @@ public abstract class ConcurrencyThrottleSupport implements Serializable {
 	/** Transient to optimize serialization. */
 	protected transient Log logger = LogFactory.getLog(getClass());
 
-	private transient Object monitor = new Object();
-
 	private int concurrencyLimit = UNBOUNDED_CONCURRENCY;
 
-	private int concurrencyCount = 0;
+	@Nullable
+	private ConcurrencyLimit adaptiveLimit;
+
+	private boolean fair = false;
+
+	private transient AtomicInteger concurrencyCount = new AtomicInteger();
+
+	private transient Queue<Thread> waitingThreads = new ConcurrentLinkedQueue<>();
+
+	private transient AtomicInteger waitingCount = new AtomicInteger();
+
+	private transient LongAdder waitCount = new LongAdder();
+
+	private transient LongAdder timeoutCount = new LongAdder();
 
 
 	/**
@@ -87,13 +117,102 @@ public abstract class ConcurrencyThrottleSupport implements Serializable {
 		return this.concurrencyLimit;
 	}
 
+	/**
+	 * Specify an adaptive {@link ConcurrencyLimit} to determine the maximum number
+	 * of concurrent access attempts dynamically, overriding the fixed
+	 * {@link #setConcurrencyLimit "concurrencyLimit"}.
+	 * <p>The adaptive limit gets adjusted according to the execution times
+	 * reported through {@link #afterAccess(long)}. Like a switch between -1 and
+	 * a concrete limit, this is not meant to be changed at runtime.
+	 * @since 5.2.7
+	 * @see org.springframework.util.concurrent.AimdConcurrencyLimit
+	 * @see org.springframework.util.concurrent.VegasConcurrencyLimit
+	 */
+	public void setAdaptiveLimit(@Nullable ConcurrencyLimit adaptiveLimit) {
+		this.adaptiveLimit = adaptiveLimit;
+	}
+
+	/**
+	 * Return the adaptive {@link ConcurrencyLimit}, if any.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public ConcurrencyLimit getAdaptiveLimit() {
+		return this.adaptiveLimit;
+	}
+
+	/**
+	 * Specify whether threads waiting for access should be granted access
+	 * in arrival order, with newly arriving threads not barging ahead of them.
+	 * <p>Default is "false", in favor of throughput: a thread arriving while
+	 * access is available gets it right away, even if other threads have been
+	 * waiting for it. Analogous to the fairness setting of a
+	 * {@link java.util.concurrent.Semaphore}.
+	 * @since 5.2.7
+	 */
+	public void setFair(boolean fair) {
+		this.fair = fair;
+	}
+
+	/**
+	 * Return whether threads waiting for access are granted access in arrival order.
+	 * @since 5.2.7
+	 */
+	public boolean isFair() {
+		return this.fair;
+	}
+
 	/**
 	 * Return whether this throttle is currently active.
 	 * @return {@code true} if the concurrency limit for this instance is active
 	 * @see #getConcurrencyLimit()
+	 * @see #getAdaptiveLimit()
 	 */
 	public boolean isThrottleActive() {
-		return (this.concurrencyLimit >= 0);
+		return (this.concurrencyLimit >= 0 || this.adaptiveLimit != null);
+	}
+
+	/**
+	 * Return the number of accesses currently in progress.
+	 * @since 5.2.7
+	 */
+	public int getConcurrencyCount() {
+		return this.concurrencyCount.get();
+	}
+
+	/**
+	 * Return the number of threads currently waiting for access.
+	 * @since 5.2.7
+	 */
+	public int getWaitingCount() {
+		return this.waitingCount.get();
+	}
+
+	/**
+	 * Return the total number of accesses which had to wait for the
+	 * concurrency limit, including the ones which timed out eventually.
+	 * @since 5.2.7
+	 */
+	public long getWaitCount() {
+		return this.waitCount.sum();
+	}
+
+	/**
+	 * Return the total number of access attempts which timed out
+	 * before the concurrency limit allowed for access.
+	 * @since 5.2.7
+	 * @see #beforeAccess(long)
+	 */
+	public long getTimeoutCount() {
+		return this.timeoutCount.sum();
+	}
+
+	/**
+	 * Determine the currently effective concurrency limit.
+	 */
+	private int currentLimit() {
+		ConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+		return (adaptiveLimit != null ? Math.max(adaptiveLimit.getLimit(), 1) : this.concurrencyLimit);
 	}
 
 
@@ -103,38 +222,135 @@ public abstract class ConcurrencyThrottleSupport implements Serializable {
 	 * @see #afterAccess()
 	 */
 	protected void beforeAccess() {
-		if (this.concurrencyLimit == NO_CONCURRENCY) {
+		beforeAccess(-1);
+	}
+
+	/**
+	 * To be invoked before the main execution logic of concrete subclasses,
+	 * waiting for the given time at most if the concurrency limit has been reached.
+	 * <p>This implementation applies the concurrency throttle.
+	 * @param timeoutMillis the maximum time to wait for access in milliseconds,
+	 * or -1 for waiting indefinitely
+	 * @return {@code true} if access has been granted, or {@code false}
+	 * if the given timeout elapsed before (in which case
+	 * {@link #afterAccess()} must not be called)
+	 * @since 5.2.7
+	 * @see #afterAccess()
+	 */
+	protected boolean beforeAccess(long timeoutMillis) {
+		int limit = currentLimit();
+		if (limit == NO_CONCURRENCY) {
 			throw new IllegalStateException(
 					"Currently no invocations allowed - concurrency limit set to NO_CONCURRENCY");
 		}
-		if (this.concurrencyLimit > 0) {
-			boolean debug = logger.isDebugEnabled();
-			synchronized (this.monitor) {
-				boolean interrupted = false;
-				while (this.concurrencyCount >= this.concurrencyLimit) {
-					if (interrupted) {
-						throw new IllegalStateException("Thread was interrupted while waiting for invocation access, " +
-								"but concurrency limit still does not allow for entering");
-					}
+		if (limit > 0) {
+			if ((!this.fair || this.waitingThreads.isEmpty()) && tryAcquire()) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Entering throttle at concurrency count " + (this.concurrencyCount.get() - 1));
+				}
+				return true;
+			}
+			return awaitAccess(timeoutMillis);
+		}
+		return true;
+	}
+
+	/**
+	 * Increment the concurrency count if below the current limit.
+	 */
+	private boolean tryAcquire() {
+		for (;;) {
+			int count = this.concurrencyCount.get();
+			if (count >= currentLimit()) {
+				return false;
+			}
+			if (this.concurrencyCount.compareAndSet(count, count + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Park the current thread until the concurrency limit allows for access
+	 * or the given timeout elapses.
+	 */
+	private boolean awaitAccess(long timeoutMillis) {
+		boolean debug = logger.isDebugEnabled();
+		long startTime = System.nanoTime();
+		long deadline = (timeoutMillis >= 0 ? startTime + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0);
+		Thread currentThread = Thread.currentThread();
+		this.waitingThreads.add(currentThread);
+		this.waitingCount.incrementAndGet();
+		this.waitCount.increment();
+		boolean interrupted = false;
+		try {
+			for (;;) {
+				// Re-check after registering as waiting thread, not to miss an afterAccess call.
+				if ((!this.fair || this.waitingThreads.peek() == currentThread) && tryAcquire()) {
 					if (debug) {
-						logger.debug("Concurrency count " + this.concurrencyCount +
-								" has reached limit " + this.concurrencyLimit + " - blocking");
+						logger.debug("Entering throttle at concurrency count " + (this.concurrencyCount.get() - 1));
+					}
+					return true;
+				}
+				if (interrupted) {
+					throw new IllegalStateException("Thread was interrupted while waiting for invocation access, " +
+							"but concurrency limit still does not allow for entering");
+				}
+				if (timeoutMillis >= 0) {
+					long remainingNanos = deadline - System.nanoTime();
+					if (remainingNanos <= 0) {
+						this.timeoutCount.increment();
+						if (debug) {
+							logger.debug("Concurrency count " + this.concurrencyCount.get() +
+									" has reached limit " + currentLimit() + " - timed out");
+						}
+						ConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+						if (adaptiveLimit != null) {
+							// A timed-out access attempt is a sign of overload.
+							adaptiveLimit.onSample(System.nanoTime() - startTime, this.concurrencyCount.get(), true);
+						}
+						return false;
 					}
-					try {
-						this.monitor.wait();
+					if (debug) {
+						logger.debug("Concurrency count " + this.concurrencyCount.get() +
+								" has reached limit " + currentLimit() + " - blocking");
 					}
-					catch (InterruptedException ex) {
-						// Re-interrupt current thread, to allow other threads to react.
-						Thread.currentThread().interrupt();
-						interrupted = true;
+					LockSupport.parkNanos(this, remainingNanos);
+				}
+				else {
+					if (debug) {
+						logger.debug("Concurrency count " + this.concurrencyCount.get() +
+								" has reached limit " + currentLimit() + " - blocking");
 					}
+					LockSupport.park(this);
 				}
-				if (debug) {
-					logger.debug("Entering throttle at concurrency count " + this.concurrencyCount);
+				if (Thread.interrupted()) {
+					interrupted = true;
 				}
-				this.concurrencyCount++;
 			}
 		}
+		finally {
+			this.waitingThreads.remove(currentThread);
+			this.waitingCount.decrementAndGet();
+			// Pass on the signal if there is room for further threads (e.g. after a timeout).
+			if (this.concurrencyCount.get() < currentLimit()) {
+				signalWaitingThread();
+			}
+			if (interrupted) {
+				// Re-interrupt current thread, to allow other threads to react.
+				currentThread.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Unpark the longest-waiting thread, if any.
+	 */
+	private void signalWaitingThread() {
+		Thread waitingThread = this.waitingThreads.peek();
+		if (waitingThread != null) {
+			LockSupport.unpark(waitingThread);
+		}
 	}
 
 	/**
@@ -142,15 +358,43 @@ public abstract class ConcurrencyThrottleSupport implements Serializable {
 	 * @see #beforeAccess()
 	 */
 	protected void afterAccess() {
-		if (this.concurrencyLimit >= 0) {
-			synchronized (this.monitor) {
-				this.concurrencyCount--;
-				if (logger.isDebugEnabled()) {
-					logger.debug("Returning from throttle at concurrency count " + this.concurrencyCount);
-				}
-				this.monitor.notify();
+		if (isThrottleActive()) {
+			int count = this.concurrencyCount.decrementAndGet();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Returning from throttle at concurrency count " + count);
 			}
+			signalWaitingThread();
+		}
+	}
+
+	/**
+	 * To be invoked after the main execution logic of concrete subclasses,
+	 * reporting the execution time to the {@link #setAdaptiveLimit adaptive limit}.
+	 * @param elapsedNanos the execution time of the access in nanoseconds
+	 * @since 5.2.7
+	 * @see #beforeAccess(long)
+	 */
+	protected void afterAccess(long elapsedNanos) {
+		afterAccess(elapsedNanos, false);
+	}
+
+	/**
+	 * To be invoked after the main execution logic of concrete subclasses,
+	 * reporting the execution time and whether the access has been dropped
+	 * to the {@link #setAdaptiveLimit adaptive limit}.
+	 * @param elapsedNanos the execution time of the access in nanoseconds
+	 * @param dropped whether the access failed due to overload of the
+	 * guarded resource, e.g. with a timeout or a rejection
+	 * @since 5.2.7
+	 * @see #beforeAccess(long)
+	 * @see ConcurrencyLimit#onSample
+	 */
+	protected void afterAccess(long elapsedNanos, boolean dropped) {
+		ConcurrencyLimit adaptiveLimit = this.adaptiveLimit;
+		if (adaptiveLimit != null) {
+			adaptiveLimit.onSample(elapsedNanos, this.concurrencyCount.get(), dropped);
 		}
+		afterAccess();
 	}
 
 
@@ -164,7 +408,11 @@ public abstract class ConcurrencyThrottleSupport implements Serializable {
 
 		// Initialize transient fields.
 		this.logger = LogFactory.getLog(getClass());
-		this.monitor = new Object();
+		this.concurrencyCount = new AtomicInteger();
+		this.waitingThreads = new ConcurrentLinkedQueue<>();
+		this.waitingCount = new AtomicInteger();
+		this.waitCount = new LongAdder();
+		this.timeoutCount = new LongAdder();
 	}
 
 }
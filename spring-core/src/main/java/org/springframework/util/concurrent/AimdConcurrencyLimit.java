@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util.concurrent;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link ConcurrencyLimit} implementation with additive-increase /
+ * multiplicative-decrease semantics: the limit grows by one for every
+ * successful invocation which made use of at least half of the current
+ * limit, and gets reduced by the {@link #setBackoffRatio backoff ratio}
+ * for every dropped invocation or every invocation exceeding the
+ * {@link #setLatencyThreshold latency threshold}.
+ *
+ * <p>Simple and robust, reacting to overload quickly, at the expense of
+ * some oscillation around the actual capacity of the guarded resource.
+ *
+ * @since 5.2.7
+ * @see VegasConcurrencyLimit
+ */
+@SuppressWarnings("serial")
+public class AimdConcurrencyLimit implements ConcurrencyLimit, Serializable {
+
+	/**
+	 * Default latency threshold: 5000 milliseconds.
+	 * @see #setLatencyThreshold
+	 */
+	public static final long DEFAULT_LATENCY_THRESHOLD = 5000;
+
+
+	private int minLimit = 1;
+
+	private int maxLimit = 200;
+
+	private double backoffRatio = 0.9;
+
+	private long latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_LATENCY_THRESHOLD);
+
+	private volatile int limit;
+
+
+	/**
+	 * Create a new {@code AimdConcurrencyLimit} with an initial limit of 20.
+	 */
+	public AimdConcurrencyLimit() {
+		this(20);
+	}
+
+	/**
+	 * Create a new {@code AimdConcurrencyLimit} with the given initial limit.
+	 * @param initialLimit the initial concurrency limit
+	 */
+	public AimdConcurrencyLimit(int initialLimit) {
+		Assert.isTrue(initialLimit > 0, "Initial limit must be greater than 0");
+		this.limit = initialLimit;
+	}
+
+
+	/**
+	 * Set the minimum limit to back off to. Default is 1.
+	 */
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "Minimum limit must be greater than 0");
+		this.minLimit = minLimit;
+	}
+
+	/**
+	 * Set the maximum limit to grow to. Default is 200.
+	 */
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "Maximum limit must be greater than 0");
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Set the ratio to multiply the current limit with on overload.
+	 * Default is 0.9.
+	 */
+	public void setBackoffRatio(double backoffRatio) {
+		Assert.isTrue(backoffRatio > 0 && backoffRatio < 1, "Backoff ratio must be between 0 and 1");
+		this.backoffRatio = backoffRatio;
+	}
+
+	/**
+	 * Set the round-trip time (in milliseconds) above which an invocation is
+	 * considered as a sign of overload, just like a dropped invocation.
+	 * <p>Default is {@link #DEFAULT_LATENCY_THRESHOLD 5000 milliseconds}, so that
+	 * invocations which do not fail but take too long back off the limit as well.
+	 * This should be set to a value above the regular execution time.
+	 */
+	public void setLatencyThreshold(long latencyThresholdMillis) {
+		Assert.isTrue(latencyThresholdMillis > 0, "Latency threshold must be greater than 0");
+		this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+	}
+
+
+	@Override
+	public int getLimit() {
+		return this.limit;
+	}
+
+	@Override
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		int current = this.limit;
+		if (dropped || rttNanos > this.latencyThresholdNanos) {
+			current = Math.min(current - 1, (int) (current * this.backoffRatio));
+		}
+		else if (inFlight * 2 >= current) {
+			current++;
+		}
+		this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, current));
+	}
+
+	@Override
+	public String toString() {
+		return "AimdConcurrencyLimit [limit=" + this.limit + "]";
+	}
+
+}
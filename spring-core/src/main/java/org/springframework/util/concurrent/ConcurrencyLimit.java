@@ -0,0 +1,55 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util.concurrent;
+
+/**
+ * Strategy for a concurrency limit which is adjusted dynamically, based on
+ * the observed round-trip time of the invocations or tasks that it guards.
+ *
+ * <p>In contrast to a fixed limit, an adaptive limit shrinks as soon as the
+ * guarded resource shows signs of saturation (increasing latency or dropped
+ * requests) and grows again when capacity is available, avoiding unbounded
+ * queueing in front of an overloaded resource.
+ *
+ * <p>Implementations need to be thread-safe: {@link #getLimit()} is called
+ * for every admission decision, {@link #onSample} after every completed
+ * invocation, potentially from many threads concurrently.
+ *
+ * @since 5.2.7
+ * @see AimdConcurrencyLimit
+ * @see VegasConcurrencyLimit
+ * @see org.springframework.util.ConcurrencyThrottleSupport#setAdaptiveLimit
+ */
+public interface ConcurrencyLimit {
+
+	/**
+	 * Return the current concurrency limit, i.e. the number of invocations
+	 * which may be in flight at the same time (always at least 1).
+	 */
+	int getLimit();
+
+	/**
+	 * Record the outcome of a completed invocation.
+	 * @param rttNanos the round-trip time of the invocation in nanoseconds
+	 * @param inFlight the number of invocations in flight when this one completed,
+	 * including itself
+	 * @param dropped whether the invocation has been dropped due to overload,
+	 * e.g. failed with a timeout against the guarded resource
+	 */
+	void onSample(long rttNanos, int inFlight, boolean dropped);
+
+}
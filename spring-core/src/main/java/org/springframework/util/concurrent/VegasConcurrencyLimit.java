@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util.concurrent;
+
+import java.io.Serializable;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link ConcurrencyLimit} implementation following the TCP Vegas congestion
+ * control algorithm: the minimum observed round-trip time serves as a baseline
+ * for the resource without load, from which the number of queued invocations
+ * is estimated as {@code limit * (1 - minRtt / rtt)}. The limit grows while
+ * that estimated queue is short and shrinks once it is getting long, backing
+ * off immediately on dropped invocations.
+ *
+ * <p>In contrast to {@link AimdConcurrencyLimit}, this reacts to increasing
+ * latency before any invocation has been dropped, settling close to the actual
+ * capacity of the guarded resource. The baseline is re-probed periodically,
+ * in order to adapt to a changing resource.
+ *
+ * @since 5.2.7
+ * @see AimdConcurrencyLimit
+ */
+@SuppressWarnings("serial")
+public class VegasConcurrencyLimit implements ConcurrencyLimit, Serializable {
+
+	private int minLimit = 1;
+
+	private int maxLimit = 200;
+
+	private int probeMultiplier = 30;
+
+	private double estimatedLimit;
+
+	private long rttNoLoad;
+
+	private long sampleCount;
+
+	private volatile int limit;
+
+
+	/**
+	 * Create a new {@code VegasConcurrencyLimit} with an initial limit of 20.
+	 */
+	public VegasConcurrencyLimit() {
+		this(20);
+	}
+
+	/**
+	 * Create a new {@code VegasConcurrencyLimit} with the given initial limit.
+	 * @param initialLimit the initial concurrency limit
+	 */
+	public VegasConcurrencyLimit(int initialLimit) {
+		Assert.isTrue(initialLimit > 0, "Initial limit must be greater than 0");
+		this.estimatedLimit = initialLimit;
+		this.limit = initialLimit;
+	}
+
+
+	/**
+	 * Set the minimum limit to back off to. Default is 1.
+	 */
+	public void setMinLimit(int minLimit) {
+		Assert.isTrue(minLimit > 0, "Minimum limit must be greater than 0");
+		this.minLimit = minLimit;
+	}
+
+	/**
+	 * Set the maximum limit to grow to. Default is 200.
+	 */
+	public void setMaxLimit(int maxLimit) {
+		Assert.isTrue(maxLimit > 0, "Maximum limit must be greater than 0");
+		this.maxLimit = maxLimit;
+	}
+
+	/**
+	 * Set the number of samples (as a multiple of the current limit) after
+	 * which the no-load round-trip time baseline is probed again.
+	 * Default is 30.
+	 */
+	public void setProbeMultiplier(int probeMultiplier) {
+		Assert.isTrue(probeMultiplier > 0, "Probe multiplier must be greater than 0");
+		this.probeMultiplier = probeMultiplier;
+	}
+
+
+	@Override
+	public int getLimit() {
+		return this.limit;
+	}
+
+	@Override
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		if (rttNanos <= 0) {
+			return;
+		}
+		double current = this.estimatedLimit;
+		if (++this.sampleCount >= this.probeMultiplier * (long) current) {
+			// Reset the baseline: the next sample is going to establish a new one.
+			this.sampleCount = 0;
+			this.rttNoLoad = rttNanos;
+			return;
+		}
+		if (this.rttNoLoad == 0 || rttNanos < this.rttNoLoad) {
+			this.rttNoLoad = rttNanos;
+			return;
+		}
+
+		double log = Math.max(1, Math.log10(current));
+		double newLimit;
+		if (dropped) {
+			newLimit = current - log;
+		}
+		else if (inFlight * 2 < current) {
+			// Not making use of the current limit: no basis for an adjustment.
+			return;
+		}
+		else {
+			int queueSize = (int) Math.ceil(current * (1 - (double) this.rttNoLoad / rttNanos));
+			if (queueSize <= log) {
+				newLimit = current + 6 * log;
+			}
+			else if (queueSize < 3 * log) {
+				newLimit = current + log;
+			}
+			else if (queueSize > 6 * log) {
+				newLimit = current - log;
+			}
+			else {
+				return;
+			}
+		}
+		newLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+		this.estimatedLimit = newLimit;
+		this.limit = (int) newLimit;
+	}
+
+	@Override
+	public String toString() {
+		return "VegasConcurrencyLimit [limit=" + this.limit + "]";
+	}
+
+}
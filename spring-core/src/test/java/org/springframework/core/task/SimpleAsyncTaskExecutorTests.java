@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,13 +16,17 @@
 
 package org.springframework.core.task;
 
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.util.ConcurrencyThrottleSupport;
+import org.springframework.util.concurrent.AimdConcurrencyLimit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
@@ -48,6 +52,61 @@ class SimpleAsyncTaskExecutorTests {
 		assertThat(executor.isThrottleActive()).as("Concurrency throttle must not default to being active (on)").isFalse();
 	}
 
+	@Test
+	void startTimeoutExceededAtConcurrencyLimit() throws Exception {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+		executor.setConcurrencyLimit(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		executor.execute(() -> awaitQuietly(latch));
+		try {
+			assertThatExceptionOfType(TaskTimeoutException.class).isThrownBy(() ->
+					executor.execute(new NoOpRunnable(), 50));
+		}
+		finally {
+			latch.countDown();
+		}
+	}
+
+	@Test
+	void adaptiveConcurrencyLimitActivatesThrottle() throws Exception {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(1);
+		limit.setMaxLimit(1);
+		executor.setAdaptiveConcurrencyLimit(limit);
+		assertThat(executor.isThrottleActive()).isTrue();
+		CountDownLatch latch = new CountDownLatch(1);
+		executor.execute(() -> awaitQuietly(latch));
+		try {
+			assertThatExceptionOfType(TaskTimeoutException.class).isThrownBy(() ->
+					executor.execute(new NoOpRunnable(), 50));
+		}
+		finally {
+			latch.countDown();
+		}
+		CountDownLatch executed = new CountDownLatch(1);
+		executor.execute(executed::countDown, 1000);
+		assertThat(executed.await(1000, TimeUnit.MILLISECONDS)).isTrue();
+	}
+
+	@Test
+	void startTimeoutReportedAsDropToAdaptiveConcurrencyLimit() throws Exception {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(2);
+		limit.setMaxLimit(2);
+		executor.setAdaptiveConcurrencyLimit(limit);
+		CountDownLatch latch = new CountDownLatch(1);
+		executor.execute(() -> awaitQuietly(latch));
+		executor.execute(() -> awaitQuietly(latch));
+		try {
+			assertThatExceptionOfType(TaskTimeoutException.class).isThrownBy(() ->
+					executor.execute(new NoOpRunnable(), 50));
+			assertThat(limit.getLimit()).isEqualTo(1);
+		}
+		finally {
+			latch.countDown();
+		}
+	}
+
 	@Test
 	void threadNameGetsSetCorrectly() throws Exception {
 		final String customPrefix = "chankPop#";
@@ -72,12 +131,32 @@ class SimpleAsyncTaskExecutorTests {
 		assertThat(task.getThreadName()).isEqualTo("test");
 	}
 
+	@Test
+	void virtualThreadsIfSupported() throws Exception {
+		final Object monitor = new Object();
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("virtual-");
+		executor.setVirtualThreads(true);
+		assertThat(executor.isVirtualThreads()).isEqualTo(VirtualThreadDelegate.isSupported());
+		ThreadNameHarvester task = new ThreadNameHarvester(monitor);
+		executeAndWait(executor, task, monitor);
+		// Named according to the prefix, whether virtual or not
+		assertThat(task.getThreadName()).startsWith("virtual-");
+	}
+
 	@Test
 	void throwsExceptionWhenSuppliedWithNullRunnable() throws Exception {
 		assertThatIllegalArgumentException().isThrownBy(() ->
 				new SimpleAsyncTaskExecutor().execute(null));
 	}
 
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5000, TimeUnit.MILLISECONDS);
+		}
+		catch (InterruptedException ignored) {
+		}
+	}
+
 	private void executeAndWait(SimpleAsyncTaskExecutor executor, Runnable task, Object monitor) {
 		synchronized (monitor) {
 			executor.execute(task);
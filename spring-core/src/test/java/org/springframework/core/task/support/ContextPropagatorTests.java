@@ -0,0 +1,154 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.task.support;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.lang.Nullable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 5.2.7
+ */
+class ContextPropagatorTests {
+
+	private static final ThreadLocal<String> holder = new NamedThreadLocal<>("test holder");
+
+	private final ContextPropagator propagator = new ContextPropagator(new TestThreadLocalAccessor());
+
+
+	@AfterEach
+	void resetHolder() {
+		holder.remove();
+	}
+
+
+	@Test
+	void emptySnapshot() {
+		ContextSnapshot snapshot = this.propagator.capture();
+		assertThat(snapshot.isEmpty()).isTrue();
+		assertThat(this.propagator.capture()).isSameAs(snapshot);
+		Runnable task = () -> {};
+		assertThat(snapshot.wrap(task)).isSameAs(task);
+		Context context = Context.empty();
+		assertThat(snapshot.updateContext(context)).isSameAs(context);
+	}
+
+	@Test
+	void wrapRunnable() throws Exception {
+		holder.set("value");
+		ContextSnapshot snapshot = this.propagator.capture();
+		assertThat(snapshot.isEmpty()).isFalse();
+
+		AtomicReference<String> value = new AtomicReference<>();
+		Thread thread = new Thread(snapshot.wrap(() -> value.set(holder.get())));
+		thread.start();
+		thread.join();
+		assertThat(value.get()).isEqualTo("value");
+	}
+
+	@Test
+	void wrapCallable() throws Exception {
+		holder.set("value");
+		Callable<String> task = this.propagator.capture().wrap(holder::get);
+		holder.remove();
+		assertThat(task.call()).isEqualTo("value");
+		assertThat(holder.get()).isNull();
+	}
+
+	@Test
+	void previousValueRestored() {
+		holder.set("value");
+		ContextSnapshot snapshot = this.propagator.capture();
+		holder.set("other");
+		AtomicReference<String> value = new AtomicReference<>();
+		snapshot.wrap(() -> value.set(holder.get())).run();
+		assertThat(value.get()).isEqualTo("value");
+		assertThat(holder.get()).isEqualTo("other");
+	}
+
+	@Test
+	void reactorContext() {
+		holder.set("value");
+		ContextSnapshot snapshot = this.propagator.capture();
+		Context context = snapshot.updateContext(Context.empty());
+		assertThat(ContextSnapshot.fromContext(context)).isSameAs(snapshot);
+		assertThat(ContextSnapshot.fromContext(Context.empty())).isNull();
+
+		String result = Mono.subscriberContext()
+				.map(ctx -> ContextSnapshot.fromContext(ctx).wrap(holder::get))
+				.map(this::call)
+				.subscriberContext(snapshot::updateContext)
+				.subscribeOn(Schedulers.single())
+				.block();
+		assertThat(result).isEqualTo("value");
+	}
+
+	@Test
+	void reactorScheduleHook() {
+		this.propagator.registerReactorScheduleHook();
+		try {
+			holder.set("value");
+			String result = Mono.fromCallable(holder::get)
+					.subscribeOn(Schedulers.single())
+					.block();
+			assertThat(result).isEqualTo("value");
+		}
+		finally {
+			ContextPropagator.resetReactorScheduleHook();
+		}
+	}
+
+	private String call(Callable<String> task) {
+		try {
+			return task.call();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+
+	private static class TestThreadLocalAccessor implements ThreadLocalAccessor<String> {
+
+		@Override
+		@Nullable
+		public String getValue() {
+			return holder.get();
+		}
+
+		@Override
+		public void setValue(String value) {
+			holder.set(value);
+		}
+
+		@Override
+		public void reset() {
+			holder.remove();
+		}
+	}
+
+}
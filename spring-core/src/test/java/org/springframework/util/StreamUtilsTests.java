@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,13 +20,18 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Random;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InOrder;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -106,6 +111,25 @@ class StreamUtilsTests {
 		verify(out, never()).close();
 	}
 
+	@Test
+	void copyRangeFromFileChannel(@TempDir Path tempDir) throws Exception {
+		Path file = tempDir.resolve("bytes");
+		Files.write(file, bytes);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteArrayOutputStream out = spy(new ByteArrayOutputStream());
+			long count = StreamUtils.copyRange(channel, out, 10, 100);
+			assertThat(count).isEqualTo(91);
+			assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(bytes, 10, 101));
+			verify(out, never()).close();
+
+			out = new ByteArrayOutputStream();
+			count = StreamUtils.copyRange(channel, out, 100, Long.MAX_VALUE);
+			assertThat(count).isEqualTo(bytes.length - 100);
+			assertThat(out.toByteArray()).isEqualTo(Arrays.copyOfRange(bytes, 100, bytes.length));
+			assertThat(channel.isOpen()).isTrue();
+		}
+	}
+
 	@Test
 	void nonClosingInputStream() throws Exception {
 		InputStream source = mock(InputStream.class);
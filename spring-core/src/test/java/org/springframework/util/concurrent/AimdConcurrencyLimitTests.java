@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AimdConcurrencyLimit}.
+ */
+class AimdConcurrencyLimitTests {
+
+	private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+
+	@Test
+	void increaseWhenMakingUseOfLimit() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10);
+		limit.onSample(RTT, 5, false);
+		assertThat(limit.getLimit()).isEqualTo(11);
+		limit.onSample(RTT, 11, false);
+		assertThat(limit.getLimit()).isEqualTo(12);
+	}
+
+	@Test
+	void noIncreaseWhenNotMakingUseOfLimit() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10);
+		limit.onSample(RTT, 4, false);
+		assertThat(limit.getLimit()).isEqualTo(10);
+	}
+
+	@Test
+	void decreaseOnDrop() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(20);
+		limit.onSample(RTT, 20, true);
+		assertThat(limit.getLimit()).isEqualTo(18);
+		limit.setBackoffRatio(0.5);
+		limit.onSample(RTT, 18, true);
+		assertThat(limit.getLimit()).isEqualTo(9);
+	}
+
+	@Test
+	void decreaseOnLatencyThreshold() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10);
+		limit.setLatencyThreshold(100);
+		limit.onSample(RTT, 10, false);
+		assertThat(limit.getLimit()).isEqualTo(11);
+		limit.onSample(TimeUnit.MILLISECONDS.toNanos(200), 11, false);
+		assertThat(limit.getLimit()).isEqualTo(9);
+	}
+
+	@Test
+	void decreaseOnDefaultLatencyThreshold() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(10);
+		limit.onSample(TimeUnit.MILLISECONDS.toNanos(AimdConcurrencyLimit.DEFAULT_LATENCY_THRESHOLD + 1), 10, false);
+		assertThat(limit.getLimit()).isEqualTo(9);
+	}
+
+	@Test
+	void limitWithinBounds() {
+		AimdConcurrencyLimit limit = new AimdConcurrencyLimit(3);
+		limit.setMinLimit(2);
+		limit.setMaxLimit(4);
+		for (int i = 0; i < 10; i++) {
+			limit.onSample(RTT, 10, false);
+		}
+		assertThat(limit.getLimit()).isEqualTo(4);
+		for (int i = 0; i < 10; i++) {
+			limit.onSample(RTT, 10, true);
+		}
+		assertThat(limit.getLimit()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.util.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link VegasConcurrencyLimit}.
+ */
+class VegasConcurrencyLimitTests {
+
+	private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+
+	@Test
+	void firstSampleEstablishesBaseline() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(20);
+		limit.onSample(RTT, 20, false);
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void increaseWithoutQueueing() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(20);
+		limit.onSample(RTT, 20, false);
+		limit.onSample(RTT, 20, false);
+		assertThat(limit.getLimit()).isGreaterThan(20);
+	}
+
+	@Test
+	void noIncreaseWhenNotMakingUseOfLimit() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(20);
+		limit.onSample(RTT, 5, false);
+		limit.onSample(RTT, 5, false);
+		assertThat(limit.getLimit()).isEqualTo(20);
+	}
+
+	@Test
+	void decreaseWithIncreasingLatency() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(20);
+		limit.onSample(RTT, 20, false);
+		limit.onSample(RTT * 10, 20, false);
+		assertThat(limit.getLimit()).isLessThan(20);
+	}
+
+	@Test
+	void decreaseOnDrop() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(20);
+		limit.onSample(RTT, 20, false);
+		limit.onSample(RTT, 20, true);
+		assertThat(limit.getLimit()).isLessThan(20);
+	}
+
+	@Test
+	void limitWithinBounds() {
+		VegasConcurrencyLimit limit = new VegasConcurrencyLimit(10);
+		limit.setMinLimit(5);
+		limit.setMaxLimit(15);
+		limit.onSample(RTT, 10, false);
+		for (int i = 0; i < 10; i++) {
+			limit.onSample(RTT, 15, false);
+		}
+		assertThat(limit.getLimit()).isEqualTo(15);
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(RTT, 15, true);
+		}
+		assertThat(limit.getLimit()).isEqualTo(5);
+	}
+
+}
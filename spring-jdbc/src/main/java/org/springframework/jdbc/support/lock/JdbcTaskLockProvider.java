@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.lock;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.support.TaskLock;
+import org.springframework.scheduling.support.TaskLockProvider;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskLockProvider} implementation which keeps its locks in a shared
+ * database table, with one row per task:
+ *
+ * <pre class="code">
+ * CREATE TABLE SCHEDULED_TASK_LOCK (
+ *     TASK_NAME VARCHAR(200) NOT NULL PRIMARY KEY,
+ *     LAST_EXECUTION TIMESTAMP(3) NOT NULL,
+ *     LOCKED_UNTIL TIMESTAMP(3) NOT NULL,
+ *     LOCKED_BY VARCHAR(255) NOT NULL
+ * )</pre>
+ *
+ * <p>A lock is acquired through a single conditional {@code UPDATE} statement,
+ * which only succeeds if the recorded last execution time is before the requested
+ * execution time and if the current lock has expired; the row for a task gets
+ * inserted on first use. The timestamp columns need to provide millisecond
+ * precision, and the clocks of all nodes are assumed to be roughly in sync.
+ *
+ * <p>Lock acquisition is executed in auto-commit mode outside of any transaction,
+ * so the given {@code DataSource} should not be a transactional proxy bound to
+ * an ongoing transaction.
+ *
+ * @since 5.2.7
+ * @see org.springframework.scheduling.config.ScheduledTaskRegistrar#setTaskLockProvider
+ */
+public class JdbcTaskLockProvider implements TaskLockProvider {
+
+	/**
+	 * Default name of the lock table: {@value}.
+	 */
+	public static final String DEFAULT_TABLE_NAME = "SCHEDULED_TASK_LOCK";
+
+
+	private final JdbcOperations jdbcOperations;
+
+	private String tableName = DEFAULT_TABLE_NAME;
+
+	private String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+	private final Set<String> knownTaskNames = ConcurrentHashMap.newKeySet();
+
+
+	/**
+	 * Create a new JdbcTaskLockProvider for the given DataSource.
+	 * @param dataSource the DataSource to access the lock table with
+	 */
+	public JdbcTaskLockProvider(DataSource dataSource) {
+		this(new JdbcTemplate(dataSource));
+	}
+
+	/**
+	 * Create a new JdbcTaskLockProvider for the given JdbcOperations.
+	 * @param jdbcOperations the JdbcOperations to access the lock table with
+	 */
+	public JdbcTaskLockProvider(JdbcOperations jdbcOperations) {
+		Assert.notNull(jdbcOperations, "JdbcOperations must not be null");
+		this.jdbcOperations = jdbcOperations;
+	}
+
+
+	/**
+	 * Specify the name of the lock table.
+	 * <p>Default is {@link #DEFAULT_TABLE_NAME "SCHEDULED_TASK_LOCK"}.
+	 */
+	public void setTableName(String tableName) {
+		Assert.hasText(tableName, "'tableName' must not be empty");
+		this.tableName = tableName;
+	}
+
+	/**
+	 * Specify the id of this node, as recorded for an acquired lock.
+	 * <p>Default is the name of the running JVM, typically "pid@hostname".
+	 */
+	public void setNodeId(String nodeId) {
+		Assert.hasText(nodeId, "'nodeId' must not be empty");
+		this.nodeId = nodeId;
+	}
+
+
+	@Override
+	@Nullable
+	public TaskLock tryLock(String taskName, Instant executionTime, Duration lockAtMostFor) {
+		Instant now = Instant.now();
+		Timestamp execution = Timestamp.from(executionTime);
+		Timestamp lockedUntil = Timestamp.from(now.plus(lockAtMostFor));
+
+		if (!this.knownTaskNames.contains(taskName)) {
+			try {
+				this.jdbcOperations.update("INSERT INTO " + this.tableName +
+						" (TASK_NAME, LAST_EXECUTION, LOCKED_UNTIL, LOCKED_BY) VALUES (?, ?, ?, ?)",
+						taskName, execution, lockedUntil, this.nodeId);
+				this.knownTaskNames.add(taskName);
+				return () -> unlock(taskName, execution);
+			}
+			catch (DataIntegrityViolationException ex) {
+				// Row inserted by another node in the meantime -> regular update below
+				this.knownTaskNames.add(taskName);
+			}
+		}
+
+		int updated = this.jdbcOperations.update("UPDATE " + this.tableName +
+				" SET LAST_EXECUTION = ?, LOCKED_UNTIL = ?, LOCKED_BY = ?" +
+				" WHERE TASK_NAME = ? AND LAST_EXECUTION < ? AND LOCKED_UNTIL <= ?",
+				execution, lockedUntil, this.nodeId, taskName, execution, Timestamp.from(now));
+		return (updated > 0 ? () -> unlock(taskName, execution) : null);
+	}
+
+	private void unlock(String taskName, Timestamp execution) {
+		this.jdbcOperations.update("UPDATE " + this.tableName + " SET LOCKED_UNTIL = ?" +
+				" WHERE TASK_NAME = ? AND LOCKED_BY = ? AND LAST_EXECUTION = ?",
+				Timestamp.from(Instant.now()), taskName, this.nodeId, execution);
+	}
+
+	@Override
+	@Nullable
+	public Instant getLastExecutionTime(String taskName) {
+		List<Timestamp> result = this.jdbcOperations.queryForList(
+				"SELECT LAST_EXECUTION FROM " + this.tableName + " WHERE TASK_NAME = ?", Timestamp.class, taskName);
+		return (!result.isEmpty() ? result.get(0).toInstant() : null);
+	}
+
+}
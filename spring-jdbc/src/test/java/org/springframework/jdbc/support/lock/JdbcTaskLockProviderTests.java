@@ -0,0 +1,91 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.support.lock;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.scheduling.support.TaskLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @since 5.2.7
+ */
+class JdbcTaskLockProviderTests {
+
+	private final Instant tick = Instant.parse("2020-05-01T12:00:00.500Z");
+
+	private EmbeddedDatabase database;
+
+	private JdbcTaskLockProvider node1;
+
+	private JdbcTaskLockProvider node2;
+
+
+	@BeforeEach
+	void setup() {
+		this.database = new EmbeddedDatabaseBuilder().generateUniqueName(true).build();
+		new JdbcTemplate(this.database).execute("CREATE TABLE SCHEDULED_TASK_LOCK (" +
+				"TASK_NAME VARCHAR(200) NOT NULL PRIMARY KEY, LAST_EXECUTION TIMESTAMP(3) NOT NULL, " +
+				"LOCKED_UNTIL TIMESTAMP(3) NOT NULL, LOCKED_BY VARCHAR(255) NOT NULL)");
+		this.node1 = new JdbcTaskLockProvider(this.database);
+		this.node1.setNodeId("node1");
+		this.node2 = new JdbcTaskLockProvider(this.database);
+		this.node2.setNodeId("node2");
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.database.shutdown();
+	}
+
+
+	@Test
+	void lockOncePerExecutionTime() {
+		assertThat(this.node1.getLastExecutionTime("task")).isNull();
+		TaskLock lock = this.node1.tryLock("task", this.tick, Duration.ofMinutes(1));
+		assertThat(lock).isNotNull();
+		assertThat(this.node2.tryLock("task", this.tick, Duration.ofMinutes(1))).isNull();
+		assertThat(this.node2.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNull();
+
+		lock.unlock();
+		assertThat(this.node2.getLastExecutionTime("task")).isEqualTo(this.tick);
+		assertThat(this.node2.tryLock("task", this.tick, Duration.ofMinutes(1))).isNull();
+		TaskLock lock2 = this.node2.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1));
+		assertThat(lock2).isNotNull();
+		lock2.unlock();
+		assertThat(this.node1.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNull();
+		assertThat(this.node1.tryLock("task", this.tick.plusSeconds(120), Duration.ofMinutes(1))).isNotNull();
+	}
+
+	@Test
+	void lockExpires() throws Exception {
+		assertThat(this.node1.tryLock("task", this.tick, Duration.ofMillis(10))).isNotNull();
+		assertThat(this.node2.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNull();
+		Thread.sleep(20);
+		assertThat(this.node2.tryLock("task", this.tick.plusSeconds(60), Duration.ofMinutes(1))).isNotNull();
+	}
+
+}
@@ -19,6 +19,9 @@ package org.springframework.http.converter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
 
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.InputStreamResource;
@@ -131,6 +134,10 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 
 	protected void writeContent(Resource resource, HttpOutputMessage outputMessage)
 			throws IOException, HttpMessageNotWritableException {
+		if (resource.isFile()) {
+			writeFileContent(resource, outputMessage);
+			return;
+		}
 		try {
 			InputStream in = resource.getInputStream();
 			try {
@@ -153,4 +160,13 @@ public class ResourceHttpMessageConverter extends AbstractHttpMessageConverter<R
 		}
 	}
 
+	private void writeFileContent(Resource resource, HttpOutputMessage outputMessage) throws IOException {
+		try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+			StreamUtils.copyRange(channel, outputMessage.getBody(), 0, Long.MAX_VALUE);
+		}
+		catch (FileNotFoundException | NoSuchFileException ex) {
+			// ignore, see SPR-12999
+		}
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,7 +21,9 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
 
 import org.springframework.core.io.Resource;
@@ -154,7 +156,16 @@ public class ResourceRegionHttpMessageConverter extends AbstractGenericHttpMessa
 		responseHeaders.add("Content-Range", "bytes " + start + '-' + end + '/' + resourceLength);
 		responseHeaders.setContentLength(rangeLength);
 
-		InputStream in = region.getResource().getInputStream();
+		Resource resource = region.getResource();
+		if (resource.isFile()) {
+			// Positional transfer from the file, rather than skipping through a stream
+			try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+				StreamUtils.copyRange(channel, outputMessage.getBody(), start, end);
+			}
+			return;
+		}
+
+		InputStream in = resource.getInputStream();
 		try {
 			StreamUtils.copyRange(in, outputMessage.getBody(), start, end);
 		}
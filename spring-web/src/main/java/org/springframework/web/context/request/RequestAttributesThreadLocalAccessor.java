@@ -0,0 +1,50 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.context.request;
+
+import org.springframework.core.task.support.ThreadLocalAccessor;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ThreadLocalAccessor} for the {@link RequestAttributes} bound to the
+ * current thread through {@link RequestContextHolder}, registered with
+ * {@link org.springframework.core.task.support.ContextPropagator#getDefault()}.
+ *
+ * <p>Note that the propagated attributes refer to the original request:
+ * tasks which outlive the request should not rely on request-scoped state.
+ *
+ * @since 5.2.7
+ */
+public class RequestAttributesThreadLocalAccessor implements ThreadLocalAccessor<RequestAttributes> {
+
+	@Override
+	@Nullable
+	public RequestAttributes getValue() {
+		return RequestContextHolder.getRequestAttributes();
+	}
+
+	@Override
+	public void setValue(RequestAttributes value) {
+		RequestContextHolder.setRequestAttributes(value);
+	}
+
+	@Override
+	public void reset() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+}
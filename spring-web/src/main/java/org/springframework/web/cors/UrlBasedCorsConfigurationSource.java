@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,15 @@ import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Provide a per request {@link CorsConfiguration} instance based on a
@@ -34,6 +38,9 @@ import org.springframework.web.util.UrlPathHelper;
  *
  * <p>Exact path mapping URIs (such as {@code "/admin"}) are supported
  * as well as Ant-style path patterns (such as {@code "/admin/**"}).
+ * Alternatively, patterns may be pre-parsed into {@link PathPattern}s
+ * through {@link #setPatternParser}, matching them against the parsed
+ * {@link org.springframework.http.server.RequestPath} of each request.
  *
  * @author Sebastien Deleuze
  * @since 4.2
@@ -49,6 +56,12 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 	@Nullable
 	private String lookupPathAttributeName;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
+	@Nullable
+	private volatile Map<PathPattern, CorsConfiguration> pathPatternConfigurations;
+
 
 	/**
 	 * Set the PathMatcher implementation to use for matching URL paths
@@ -60,6 +73,31 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		this.pathMatcher = pathMatcher;
 	}
 
+	/**
+	 * Enable the use of parsed {@link PathPattern}s instead of String pattern
+	 * matching with a {@link PathMatcher}. The registered patterns are then
+	 * parsed once and matched against the {@link ServletRequestPathUtils
+	 * parsed request path}, and the {@code PathMatcher} and lookup path
+	 * related settings on this class are not used.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use, or {@code null} for String
+	 * pattern matching via {@link #setPathMatcher PathMatcher}
+	 * @since 5.2.7
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		this.pathPatternConfigurations = null;
+	}
+
+	/**
+	 * Return the {@link #setPatternParser configured} {@code PathPatternParser}, or {@code null}.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	/**
 	 * Shortcut to same property on underlying {@link #setUrlPathHelper UrlPathHelper}.
 	 * @see org.springframework.web.util.UrlPathHelper#setAlwaysUseFullPath
@@ -112,6 +150,7 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		if (corsConfigurations != null) {
 			this.corsConfigurations.putAll(corsConfigurations);
 		}
+		this.pathPatternConfigurations = null;
 	}
 
 	/**
@@ -126,12 +165,16 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 	 */
 	public void registerCorsConfiguration(String path, CorsConfiguration config) {
 		this.corsConfigurations.put(path, config);
+		this.pathPatternConfigurations = null;
 	}
 
 
 	@Override
 	@Nullable
 	public CorsConfiguration getCorsConfiguration(HttpServletRequest request) {
+		if (this.patternParser != null) {
+			return getCorsConfigurationForPathPatterns(request);
+		}
 		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request, this.lookupPathAttributeName);
 		for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
 			if (this.pathMatcher.match(entry.getKey(), lookupPath)) {
@@ -141,4 +184,32 @@ public class UrlBasedCorsConfigurationSource implements CorsConfigurationSource
 		return null;
 	}
 
+	@Nullable
+	private CorsConfiguration getCorsConfigurationForPathPatterns(HttpServletRequest request) {
+		Map<PathPattern, CorsConfiguration> configurations = getPathPatternConfigurations();
+		if (configurations.isEmpty()) {
+			return null;
+		}
+		PathContainer path = ServletRequestPathUtils.getOrParseRequestPath(request).pathWithinApplication();
+		for (Map.Entry<PathPattern, CorsConfiguration> entry : configurations.entrySet()) {
+			if (entry.getKey().matches(path)) {
+				return entry.getValue();
+			}
+		}
+		return null;
+	}
+
+	private Map<PathPattern, CorsConfiguration> getPathPatternConfigurations() {
+		Map<PathPattern, CorsConfiguration> configurations = this.pathPatternConfigurations;
+		PathPatternParser parser = this.patternParser;
+		if (configurations == null && parser != null) {
+			configurations = new LinkedHashMap<>(this.corsConfigurations.size());
+			for (Map.Entry<String, CorsConfiguration> entry : this.corsConfigurations.entrySet()) {
+				configurations.put(parser.parse(entry.getKey()), entry.getValue());
+			}
+			this.pathPatternConfigurations = configurations;
+		}
+		return (configurations != null ? configurations : Collections.emptyMap());
+	}
+
 }
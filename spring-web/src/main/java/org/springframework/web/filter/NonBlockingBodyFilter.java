@@ -0,0 +1,623 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequestWrapper;
+import javax.servlet.ServletResponseWrapper;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.commons.logging.Log;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * {@link javax.servlet.Filter} that reads request bodies and writes response
+ * bodies with Servlet 3.1 non-blocking I/O, so that no container thread is
+ * held while bytes trickle in from, or out to, a slow client.
+ *
+ * <p>A request with a {@code Content-Length} of up to
+ * {@link #setMaxInMemorySize maxInMemorySize} is put in async mode, and its
+ * body is read through a {@link ReadListener} into memory. Once complete, the
+ * request is dispatched again, and the rest of the filter chain, including
+ * message converters for {@code @RequestBody}, reads the body from memory.
+ * The response body is buffered likewise and, once the final dispatch has
+ * completed, written to the client through a {@link WriteListener}.
+ *
+ * <p>Requests and responses outside these bounds fall back to blocking I/O:
+ * chunked and form or multipart request bodies, response bodies beyond
+ * {@code maxInMemorySize}, and responses that are flushed explicitly, through
+ * {@code flushBuffer()} or a flush of the output stream or writer, e.g. for
+ * streaming, are passed through unchanged.
+ *
+ * <p><b>NOTE:</b> This filter must be registered with async support and for
+ * both the {@code REQUEST} and {@code ASYNC} dispatcher types. A request whose
+ * body is read with non-blocking I/O does not continue on its original
+ * {@code REQUEST} dispatch, but on the {@code ASYNC} dispatch that follows the
+ * read. Hence this filter must be ordered ahead of all other filters, and
+ * those must be registered for the {@code ASYNC} dispatcher type as well:
+ * filters mapped to {@code REQUEST} dispatches only are not applied to such
+ * requests. Filters ahead of this one would see the original dispatch return
+ * without a response; if the request or response has been wrapped by such a
+ * filter, this filter detects it and reads the request body with blocking I/O.
+ *
+ * @since 5.2.7
+ */
+public class NonBlockingBodyFilter extends OncePerRequestFilter {
+
+	private static final String BODY_ATTRIBUTE = NonBlockingBodyFilter.class.getName() + ".BODY";
+
+	private static final int CHUNK_SIZE = 8192;
+
+
+	private int maxInMemorySize = 256 * 1024;
+
+
+	/**
+	 * Set the maximum number of bytes of a request or response body to buffer
+	 * in memory for non-blocking I/O. Larger bodies use blocking I/O.
+	 * <p>By default this is set to 256K.
+	 */
+	public void setMaxInMemorySize(int maxInMemorySize) {
+		Assert.isTrue(maxInMemorySize > 0, "Max in-memory size must be greater than 0");
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+	/**
+	 * Return the configured maximum number of bytes to buffer in memory.
+	 */
+	public int getMaxInMemorySize() {
+		return this.maxInMemorySize;
+	}
+
+
+	/**
+	 * The default value is {@code false} so that the response body can be
+	 * written with non-blocking I/O after the last async dispatch.
+	 */
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		if (!request.isAsyncSupported()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		byte[] body = (byte[]) request.getAttribute(BODY_ATTRIBUTE);
+		if (body == null && !isAsyncDispatch(request) && isEligibleForNonBlockingRead(request)) {
+			if (isWrappedByPrecedingFilter(request, response)) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Request or response wrapped by a preceding filter: " +
+							"reading request body with blocking I/O");
+				}
+			}
+			else {
+				startNonBlockingRead(request, response);
+				return;
+			}
+		}
+
+		HttpServletRequest requestToUse = request;
+		if (body != null && WebUtils.getNativeRequest(request, BufferedBodyRequestWrapper.class) == null) {
+			requestToUse = new BufferedBodyRequestWrapper(request, body);
+		}
+
+		HttpServletResponse responseToUse = response;
+		if (WebUtils.getNativeResponse(response, BufferingResponseWrapper.class) == null) {
+			responseToUse = new BufferingResponseWrapper(response, this.maxInMemorySize);
+		}
+
+		filterChain.doFilter(requestToUse, responseToUse);
+
+		if (!isAsyncStarted(request)) {
+			BufferingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse, BufferingResponseWrapper.class);
+			Assert.state(wrapper != null, "BufferingResponseWrapper not found");
+			writeBody(request, wrapper);
+		}
+	}
+
+	/**
+	 * Whether the body of the given request should be read with non-blocking
+	 * I/O: its length must be known and within the in-memory limit, and it
+	 * must not be form data or multipart content that the Servlet container
+	 * parses itself.
+	 */
+	protected boolean isEligibleForNonBlockingRead(HttpServletRequest request) {
+		long contentLength = request.getContentLengthLong();
+		if (contentLength <= 0 || contentLength > this.maxInMemorySize) {
+			return false;
+		}
+		String contentType = request.getContentType();
+		if (contentType != null) {
+			try {
+				MediaType mediaType = MediaType.parseMediaType(contentType);
+				return (!MediaType.APPLICATION_FORM_URLENCODED.includes(mediaType) &&
+						!"multipart".equals(mediaType.getType()));
+			}
+			catch (InvalidMediaTypeException ex) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Whether a preceding filter has wrapped the request or response, in which
+	 * case it is likely to post-process them once the original dispatch returns,
+	 * i.e. before the request body has been read with non-blocking I/O.
+	 */
+	private boolean isWrappedByPrecedingFilter(HttpServletRequest request, HttpServletResponse response) {
+		return (request instanceof ServletRequestWrapper || response instanceof ServletResponseWrapper);
+	}
+
+	private void startNonBlockingRead(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.addListener(new TimeoutListener(response, HttpStatus.REQUEST_TIMEOUT, this.logger));
+		ServletInputStream inputStream = request.getInputStream();
+		inputStream.setReadListener(new BodyReadListener(
+				asyncContext, inputStream, response, (int) request.getContentLengthLong(), this.logger));
+	}
+
+	private void writeBody(HttpServletRequest request, BufferingResponseWrapper wrapper) throws IOException {
+		HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
+		byte[] body = wrapper.releaseContent();
+		if (body == null || body.length == 0) {
+			return;
+		}
+		if (!rawResponse.isCommitted() && !rawResponse.containsHeader(HttpHeaders.CONTENT_LENGTH)) {
+			rawResponse.setContentLength(body.length);
+		}
+		if (request.isAsyncStarted()) {
+			// Someone else's async processing: write as the Servlet API would otherwise
+			rawResponse.getOutputStream().write(body);
+			return;
+		}
+		AsyncContext asyncContext = request.startAsync();
+		asyncContext.addListener(new TimeoutListener(rawResponse, null, this.logger));
+		ServletOutputStream outputStream = rawResponse.getOutputStream();
+		outputStream.setWriteListener(new BodyWriteListener(asyncContext, outputStream, body, this.logger));
+	}
+
+
+	/**
+	 * Reads the request body into memory and dispatches once it is complete,
+	 * or responds with 400 if reading fails.
+	 */
+	private static class BodyReadListener implements ReadListener {
+
+		private final AsyncContext asyncContext;
+
+		private final ServletInputStream inputStream;
+
+		private final HttpServletResponse response;
+
+		private final FastByteArrayOutputStream content;
+
+		private final byte[] buffer = new byte[CHUNK_SIZE];
+
+		private final Log logger;
+
+		public BodyReadListener(AsyncContext asyncContext, ServletInputStream inputStream,
+				HttpServletResponse response, int contentLength, Log logger) {
+
+			this.asyncContext = asyncContext;
+			this.inputStream = inputStream;
+			this.response = response;
+			this.content = new FastByteArrayOutputStream(contentLength);
+			this.logger = logger;
+		}
+
+		@Override
+		public void onDataAvailable() throws IOException {
+			while (this.inputStream.isReady()) {
+				int read = this.inputStream.read(this.buffer);
+				if (read == -1) {
+					return;
+				}
+				this.content.write(this.buffer, 0, read);
+			}
+		}
+
+		@Override
+		public void onAllDataRead() {
+			this.asyncContext.getRequest().setAttribute(BODY_ATTRIBUTE, this.content.toByteArrayUnsafe());
+			this.asyncContext.dispatch();
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Failed to read request body: " + ex);
+			}
+			if (!this.response.isCommitted()) {
+				this.response.setStatus(HttpStatus.BAD_REQUEST.value());
+			}
+			this.asyncContext.complete();
+		}
+	}
+
+
+	/**
+	 * Completes the request if the client does not send the request body, or
+	 * accept the response body, in time, setting the given status if the
+	 * response has not been committed yet.
+	 */
+	private static class TimeoutListener implements AsyncListener {
+
+		private final HttpServletResponse response;
+
+		@Nullable
+		private final HttpStatus status;
+
+		private final Log logger;
+
+		public TimeoutListener(HttpServletResponse response, @Nullable HttpStatus status, Log logger) {
+			this.response = response;
+			this.status = status;
+			this.logger = logger;
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Async timeout during non-blocking " +
+						(this.status != null ? "read of request body" : "write of response body"));
+			}
+			if (this.status != null && !this.response.isCommitted()) {
+				this.response.setStatus(this.status.value());
+			}
+			event.getAsyncContext().complete();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+
+
+	/**
+	 * Writes the buffered response body whenever the output stream is ready,
+	 * completing the request once all of it has been written.
+	 */
+	private static class BodyWriteListener implements WriteListener {
+
+		private final AsyncContext asyncContext;
+
+		private final ServletOutputStream outputStream;
+
+		private final byte[] body;
+
+		private int offset;
+
+		private final Log logger;
+
+		public BodyWriteListener(AsyncContext asyncContext, ServletOutputStream outputStream,
+				byte[] body, Log logger) {
+
+			this.asyncContext = asyncContext;
+			this.outputStream = outputStream;
+			this.body = body;
+			this.logger = logger;
+		}
+
+		@Override
+		public void onWritePossible() throws IOException {
+			while (this.outputStream.isReady()) {
+				if (this.offset == this.body.length) {
+					this.asyncContext.complete();
+					return;
+				}
+				int length = Math.min(CHUNK_SIZE, this.body.length - this.offset);
+				this.outputStream.write(this.body, this.offset, length);
+				this.offset += length;
+			}
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Failed to write response body: " + ex);
+			}
+			this.asyncContext.complete();
+		}
+	}
+
+
+	/**
+	 * Exposes a request body that has already been read into memory.
+	 */
+	private static class BufferedBodyRequestWrapper extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		public BufferedBodyRequestWrapper(HttpServletRequest request, byte[] body) {
+			super(request);
+			this.body = body;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			return new BufferedBodyInputStream(this.body);
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			String encoding = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(),
+					(encoding != null ? encoding : WebUtils.DEFAULT_CHARACTER_ENCODING)));
+		}
+	}
+
+
+	private static class BufferedBodyInputStream extends ServletInputStream {
+
+		private final ByteArrayInputStream delegate;
+
+		public BufferedBodyInputStream(byte[] body) {
+			this.delegate = new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public int read() {
+			return this.delegate.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			return this.delegate.read(b, off, len);
+		}
+
+		@Override
+		public int available() {
+			return this.delegate.available();
+		}
+
+		@Override
+		public boolean isFinished() {
+			return (this.delegate.available() == 0);
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			throw new UnsupportedOperationException("Request body has already been read");
+		}
+	}
+
+
+	/**
+	 * Buffers the response body in memory up to a limit, beyond which, or on an
+	 * explicit {@link #flushBuffer()} or flush of the output stream or writer,
+	 * it switches to writing through.
+	 */
+	private static class BufferingResponseWrapper extends HttpServletResponseWrapper {
+
+		private final int limit;
+
+		@Nullable
+		private FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+
+		@Nullable
+		private ServletOutputStream outputStream;
+
+		@Nullable
+		private PrintWriter writer;
+
+		private boolean releasing;
+
+		public BufferingResponseWrapper(HttpServletResponse response, int limit) {
+			super(response);
+			this.limit = limit;
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (this.outputStream == null) {
+				this.outputStream = new BufferingServletOutputStream();
+			}
+			return this.outputStream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (this.writer == null) {
+				String encoding = getCharacterEncoding();
+				this.writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+						(encoding != null ? encoding : WebUtils.DEFAULT_CHARACTER_ENCODING)));
+			}
+			return this.writer;
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (this.writer != null) {
+				this.writer.flush();
+			}
+			writeThrough();
+			super.flushBuffer();
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			discardContent();
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			discardContent();
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public void sendRedirect(String location) throws IOException {
+			discardContent();
+			super.sendRedirect(location);
+		}
+
+		@Override
+		public void resetBuffer() {
+			super.resetBuffer();
+			if (this.content != null) {
+				this.content.reset();
+			}
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			if (this.content != null) {
+				this.content.reset();
+			}
+		}
+
+		private void write(byte[] b, int off, int len) throws IOException {
+			if (this.content != null && this.content.size() + len > this.limit) {
+				writeThrough();
+			}
+			if (this.content != null) {
+				this.content.write(b, off, len);
+			}
+			else {
+				getResponse().getOutputStream().write(b, off, len);
+			}
+		}
+
+		private void writeThrough() throws IOException {
+			if (this.content != null) {
+				FastByteArrayOutputStream content = this.content;
+				this.content = null;
+				if (content.size() > 0) {
+					content.writeTo(getResponse().getOutputStream());
+				}
+			}
+		}
+
+		private void discardContent() {
+			this.content = null;
+		}
+
+		/**
+		 * Return the buffered content and stop buffering, or {@code null} if
+		 * the content has already been written through.
+		 */
+		@Nullable
+		public byte[] releaseContent() {
+			if (this.writer != null) {
+				// Encode pending characters without switching to writing through
+				this.releasing = true;
+				try {
+					this.writer.flush();
+				}
+				finally {
+					this.releasing = false;
+				}
+			}
+			if (this.content == null) {
+				return null;
+			}
+			byte[] result = this.content.toByteArrayUnsafe();
+			this.content = null;
+			return result;
+		}
+
+
+		private class BufferingServletOutputStream extends ServletOutputStream {
+
+			private final byte[] single = new byte[1];
+
+			@Override
+			public void write(int b) throws IOException {
+				this.single[0] = (byte) b;
+				BufferingResponseWrapper.this.write(this.single, 0, 1);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				BufferingResponseWrapper.this.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (!releasing) {
+					writeThrough();
+					getResponse().getOutputStream().flush();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				try {
+					writeThrough();
+					getResponse().getOutputStream().setWriteListener(writeListener);
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException(ex);
+				}
+			}
+		}
+	}
+
+}
@@ -18,19 +18,24 @@ package org.springframework.web.filter;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.util.zip.CRC32;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
+import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.util.ContentCachingResponseWrapper;
@@ -46,6 +51,12 @@ import org.springframework.web.util.WebUtils;
  * (e.g. a {@link org.springframework.web.servlet.View}) is still rendered.
  * As such, this filter only saves bandwidth, not server performance.
  *
+ * <p>The response content is cached in memory until the ETag is computed.
+ * A {@link #setContentCacheLimit content cache limit} may be set in order to
+ * write larger responses through to the client as they are produced, without
+ * an ETag. Responses for which the handler has set an ETag itself, weak or
+ * strong, are never cached.
+ *
  * <p><b>NOTE:</b> As of Spring Framework 5.0, this filter uses request/response
  * decorators built on the Servlet 3.1 API.
  *
@@ -64,6 +75,10 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	private boolean writeWeakETag = false;
 
+	private int contentCacheLimit = -1;
+
+	private boolean fastHash = false;
+
 
 	/**
 	 * Set whether the ETag value written to the response should be weak, as per RFC 7232.
@@ -84,6 +99,46 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return this.writeWeakETag;
 	}
 
+	/**
+	 * Set the maximum number of bytes of response content to cache in order to
+	 * compute an ETag. Once a response exceeds this limit, or declares a larger
+	 * content length upfront, the content cached so far and the remaining content
+	 * are written straight to the response, and no ETag is generated for it.
+	 * <p>By default this is set to -1, i.e. the content is cached without limit.
+	 * @since 5.2.7
+	 */
+	public void setContentCacheLimit(int contentCacheLimit) {
+		this.contentCacheLimit = contentCacheLimit;
+	}
+
+	/**
+	 * Return the maximum number of bytes of response content to cache.
+	 * @since 5.2.7
+	 */
+	public int getContentCacheLimit() {
+		return this.contentCacheLimit;
+	}
+
+	/**
+	 * Set whether to generate the ETag from a CRC-32 checksum and the length of
+	 * the response content, which is considerably cheaper to compute than the
+	 * default MD5 hash, but not collision-resistant.
+	 * <p>Default is {@code false}.
+	 * @since 5.2.7
+	 * @see #generateETagHeaderValue(InputStream, boolean)
+	 */
+	public void setFastHash(boolean fastHash) {
+		this.fastHash = fastHash;
+	}
+
+	/**
+	 * Return whether to generate the ETag from a CRC-32 checksum.
+	 * @since 5.2.7
+	 */
+	public boolean isFastHash() {
+		return this.fastHash;
+	}
+
 
 	/**
 	 * The default value is {@code false} so that the filter may delay the generation
@@ -100,7 +155,7 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 		HttpServletResponse responseToUse = response;
 		if (!isAsyncDispatch(request) && !(response instanceof ContentCachingResponseWrapper)) {
-			responseToUse = new ConditionalContentCachingResponseWrapper(response, request);
+			responseToUse = new ConditionalContentCachingResponseWrapper(response, request, this.contentCacheLimit);
 		}
 
 		filterChain.doFilter(request, responseToUse);
@@ -118,7 +173,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		Assert.notNull(wrapper, "ContentCachingResponseWrapper not found");
 		HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
 
-		if (isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
+		if (!isContentStreamed(wrapper) &&
+				isEligibleForEtag(request, wrapper, wrapper.getStatus(), wrapper.getContentInputStream())) {
 			String eTag = wrapper.getHeader(HttpHeaders.ETAG);
 			if (!StringUtils.hasText(eTag)) {
 				eTag = generateETagHeaderValue(wrapper.getContentInputStream(), this.writeWeakETag);
@@ -163,7 +219,8 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 
 	/**
 	 * Generate the ETag header value from the given response body byte array.
-	 * <p>The default implementation generates an MD5 hash.
+	 * <p>The default implementation generates an MD5 hash, or a CRC-32 checksum
+	 * followed by the content length if {@link #setFastHash fastHash} is set.
 	 * @param inputStream the response body as an InputStream
 	 * @param isWeak whether the generated ETag should be weak
 	 * @return the ETag header value
@@ -176,11 +233,32 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 			builder.append("W/");
 		}
 		builder.append("\"0");
-		DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		if (this.fastHash) {
+			appendCrc32AsHex(inputStream, builder);
+		}
+		else {
+			DigestUtils.appendMd5DigestAsHex(inputStream, builder);
+		}
 		builder.append('"');
 		return builder.toString();
 	}
 
+	private static void appendCrc32AsHex(InputStream inputStream, StringBuilder builder) throws IOException {
+		CRC32 crc32 = new CRC32();
+		byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+		long length = 0;
+		int bytesRead;
+		while ((bytesRead = inputStream.read(buffer)) != -1) {
+			crc32.update(buffer, 0, bytesRead);
+			length += bytesRead;
+		}
+		String checksum = Long.toHexString(crc32.getValue());
+		for (int i = checksum.length(); i < 8; i++) {
+			builder.append('0');
+		}
+		builder.append(checksum).append('-').append(Long.toHexString(length));
+	}
+
 	private boolean compareETagHeaderValue(String requestETag, String responseETag) {
 		if (requestETag.startsWith("W/")) {
 			requestETag = requestETag.substring(2);
@@ -210,36 +288,239 @@ public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
 		return (request.getAttribute(STREAMING_ATTRIBUTE) != null);
 	}
 
+	private static boolean isContentStreamed(ContentCachingResponseWrapper wrapper) {
+		return (wrapper instanceof ConditionalContentCachingResponseWrapper &&
+				((ConditionalContentCachingResponseWrapper) wrapper).isStreaming());
+	}
+
 
 	/**
 	 * Returns the raw OutputStream, instead of the one that does caching,
-	 * if {@link #isContentCachingDisabled}.
+	 * if {@link #isContentCachingDisabled}. Switches to the raw OutputStream
+	 * once the content exceeds the content cache limit, if any.
+	 * <p>The limit is checked as bytes reach the OutputStream. Characters
+	 * written to the Writer are buffered and encoded in chunks, and are only
+	 * flushed when the content is accessed or the buffer flushed.
 	 */
 	private static class ConditionalContentCachingResponseWrapper extends ContentCachingResponseWrapper {
 
 		private final HttpServletRequest request;
 
+		private final int contentCacheLimit;
+
+		private boolean streaming;
+
+		@Nullable
+		private ServletOutputStream limitedOutputStream;
+
+		@Nullable
+		private PrintWriter limitedWriter;
+
+
+		ConditionalContentCachingResponseWrapper(
+				HttpServletResponse response, HttpServletRequest request, int contentCacheLimit) {
 
-		ConditionalContentCachingResponseWrapper(HttpServletResponse response, HttpServletRequest request) {
 			super(response);
 			this.request = request;
+			this.contentCacheLimit = contentCacheLimit;
 		}
 
 		@Override
 		public ServletOutputStream getOutputStream() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag() ?
-					getResponse().getOutputStream() : super.getOutputStream());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getOutputStream();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getOutputStream();
+			}
+			if (this.limitedOutputStream == null) {
+				this.limitedOutputStream = new LimitedServletOutputStream(super.getOutputStream());
+			}
+			return this.limitedOutputStream;
 		}
 
 		@Override
 		public PrintWriter getWriter() throws IOException {
-			return (isContentCachingDisabled(this.request) || hasETag()?
-					getResponse().getWriter() : super.getWriter());
+			if (isContentCachingDisabled(this.request) || hasETag()) {
+				return getResponse().getWriter();
+			}
+			if (this.contentCacheLimit < 0) {
+				return super.getWriter();
+			}
+			if (this.limitedWriter == null) {
+				String characterEncoding = getCharacterEncoding();
+				this.limitedWriter = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+						characterEncoding != null ? characterEncoding : WebUtils.DEFAULT_CHARACTER_ENCODING));
+			}
+			return this.limitedWriter;
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			if (exceedsLimit(len)) {
+				startStreaming();
+				getResponse().setContentLength(len);
+			}
+			else {
+				super.setContentLength(len);
+			}
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (exceedsLimit(len)) {
+				startStreaming();
+				getResponse().setContentLengthLong(len);
+			}
+			else {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			flushLimitedWriter();
+			if (this.streaming) {
+				getResponse().flushBuffer();
+			}
+		}
+
+		@Override
+		public void resetBuffer() {
+			flushLimitedWriter();
+			super.resetBuffer();
+			if (this.streaming) {
+				getResponse().resetBuffer();
+			}
+		}
+
+		@Override
+		public void reset() {
+			flushLimitedWriter();
+			super.reset();
+		}
+
+		@Override
+		public byte[] getContentAsByteArray() {
+			flushLimitedWriter();
+			return super.getContentAsByteArray();
+		}
+
+		@Override
+		public InputStream getContentInputStream() {
+			flushLimitedWriter();
+			return super.getContentInputStream();
+		}
+
+		@Override
+		public int getContentSize() {
+			flushLimitedWriter();
+			return super.getContentSize();
+		}
+
+		@Override
+		public void copyBodyToResponse() throws IOException {
+			flushLimitedWriter();
+			super.copyBodyToResponse();
+		}
+
+		/**
+		 * Write characters pending in the Writer through to the OutputStream,
+		 * where the content cache limit is applied to them.
+		 */
+		private void flushLimitedWriter() {
+			if (this.limitedWriter != null) {
+				this.limitedWriter.flush();
+			}
+		}
+
+		private int getCachedContentSize() {
+			return super.getContentSize();
 		}
 
 		private boolean hasETag() {
 			return StringUtils.hasText(getHeader(HttpHeaders.ETAG));
 		}
+
+		private boolean exceedsLimit(long len) {
+			return (this.streaming || (this.contentCacheLimit >= 0 && len > this.contentCacheLimit &&
+					!isContentCachingDisabled(this.request) && !hasETag()));
+		}
+
+		private void startStreaming() {
+			if (!this.streaming) {
+				this.streaming = true;
+				try {
+					copyBodyToResponse(false);
+				}
+				catch (IOException ex) {
+					throw new IllegalStateException("Failed to write cached content to the response", ex);
+				}
+			}
+		}
+
+		/**
+		 * Whether the content limit was exceeded and the content is written
+		 * through to the response, taking characters pending in the Writer
+		 * into account.
+		 */
+		boolean isStreaming() {
+			flushLimitedWriter();
+			return this.streaming;
+		}
+
+
+		private class LimitedServletOutputStream extends ServletOutputStream {
+
+			private final ServletOutputStream cachingStream;
+
+			LimitedServletOutputStream(ServletOutputStream cachingStream) {
+				this.cachingStream = cachingStream;
+			}
+
+			@Override
+			public void write(int b) throws IOException {
+				if (!streaming && getCachedContentSize() + 1 > contentCacheLimit) {
+					startStreaming();
+				}
+				if (streaming) {
+					getResponse().getOutputStream().write(b);
+				}
+				else {
+					this.cachingStream.write(b);
+				}
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				if (!streaming && (long) getCachedContentSize() + len > contentCacheLimit) {
+					startStreaming();
+				}
+				if (streaming) {
+					getResponse().getOutputStream().write(b, off, len);
+				}
+				else {
+					this.cachingStream.write(b, off, len);
+				}
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (streaming) {
+					getResponse().getOutputStream().flush();
+				}
+			}
+
+			@Override
+			public boolean isReady() {
+				return this.cachingStream.isReady();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				this.cachingStream.setWriteListener(writeListener);
+			}
+		}
 	}
 
 }
@@ -188,6 +188,15 @@ public class ControllerAdviceBean implements Ordered {
 		return this.beanType;
 	}
 
+	/**
+	 * Return whether the contained bean is a singleton, i.e. whether
+	 * {@link #resolveBean()} returns the same instance on every call.
+	 * @since 5.2.7
+	 */
+	public boolean isSingleton() {
+		return this.isSingleton;
+	}
+
 	/**
 	 * Get the bean instance for this {@code ControllerAdviceBean}, if necessary
 	 * resolving the bean name through the {@link BeanFactory}.
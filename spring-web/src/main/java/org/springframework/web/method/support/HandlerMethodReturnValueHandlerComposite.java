@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,32 @@ public class HandlerMethodReturnValueHandlerComposite implements HandlerMethodRe
 		return null;
 	}
 
+	/**
+	 * Find the registered {@link HandlerMethodReturnValueHandler} that
+	 * {@link #handleReturnValue} selects for any value of the given return type.
+	 * <p>This is only possible if the selection cannot depend on the actual
+	 * return value, i.e. if the first supporting handler is an
+	 * {@link AsyncHandlerMethodReturnValueHandler} itself or if no such async
+	 * handler is registered that could claim the value.
+	 * @param returnType the return type to find a handler for
+	 * @return the handler to use for the given return type, or {@code null}
+	 * if none found or if the selection depends on the return value
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public HandlerMethodReturnValueHandler getReturnValueHandlerForType(MethodParameter returnType) {
+		HandlerMethodReturnValueHandler handler = getReturnValueHandler(returnType);
+		if (handler == null || handler instanceof AsyncHandlerMethodReturnValueHandler) {
+			return handler;
+		}
+		for (HandlerMethodReturnValueHandler candidate : this.returnValueHandlers) {
+			if (candidate instanceof AsyncHandlerMethodReturnValueHandler) {
+				return null;
+			}
+		}
+		return handler;
+	}
+
 	/**
 	 * Iterate over registered {@link HandlerMethodReturnValueHandler HandlerMethodReturnValueHandlers} and invoke the one that supports it.
 	 * @throws IllegalStateException if no suitable {@link HandlerMethodReturnValueHandler} is found.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -53,6 +53,9 @@ public class InvocableHandlerMethod extends HandlerMethod {
 
 	private ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+	@Nullable
+	private volatile HandlerMethodArgumentResolver[] parameterResolvers;
+
 
 	/**
 	 * Create an instance from a {@code HandlerMethod}.
@@ -96,6 +99,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 	 */
 	public void setHandlerMethodArgumentResolvers(HandlerMethodArgumentResolverComposite argumentResolvers) {
 		this.resolvers = argumentResolvers;
+		this.parameterResolvers = null;
 	}
 
 	/**
@@ -152,6 +156,7 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			return EMPTY_ARGS;
 		}
 
+		HandlerMethodArgumentResolver[] parameterResolvers = getParameterResolvers(parameters);
 		Object[] args = new Object[parameters.length];
 		for (int i = 0; i < parameters.length; i++) {
 			MethodParameter parameter = parameters[i];
@@ -160,11 +165,15 @@ public class InvocableHandlerMethod extends HandlerMethod {
 			if (args[i] != null) {
 				continue;
 			}
-			if (!this.resolvers.supportsParameter(parameter)) {
-				throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+			HandlerMethodArgumentResolver resolver = parameterResolvers[i];
+			if (resolver == null) {
+				if (!this.resolvers.supportsParameter(parameter)) {
+					throw new IllegalStateException(formatArgumentError(parameter, "No suitable resolver"));
+				}
+				resolver = this.resolvers;
 			}
 			try {
-				args[i] = this.resolvers.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
+				args[i] = resolver.resolveArgument(parameter, mavContainer, request, this.dataBinderFactory);
 			}
 			catch (Exception ex) {
 				// Leave stack trace for later, exception may actually be resolved and handled...
@@ -180,6 +189,29 @@ public class InvocableHandlerMethod extends HandlerMethod {
 		return args;
 	}
 
+	/**
+	 * Return the resolver for each method parameter, determined once per
+	 * instance so that repeated invocations, e.g. of a cached handler method,
+	 * skip the per-parameter resolver lookup. Entries are {@code null} for
+	 * parameters without a resolver yet, or if a custom composite subclass
+	 * is in use, in which case the composite is consulted on every call.
+	 */
+	private HandlerMethodArgumentResolver[] getParameterResolvers(MethodParameter[] parameters) {
+		HandlerMethodArgumentResolver[] parameterResolvers = this.parameterResolvers;
+		if (parameterResolvers == null) {
+			parameterResolvers = new HandlerMethodArgumentResolver[parameters.length];
+			if (this.resolvers.getClass() == HandlerMethodArgumentResolverComposite.class) {
+				for (int i = 0; i < parameters.length; i++) {
+					MethodParameter parameter = parameters[i];
+					parameter.initParameterNameDiscovery(this.parameterNameDiscoverer);
+					parameterResolvers[i] = this.resolvers.getArgumentResolver(parameter);
+				}
+			}
+			this.parameterResolvers = parameterResolvers;
+		}
+		return parameterResolvers;
+	}
+
 	/**
 	 * Invoke the handler method with the given argument values.
 	 */
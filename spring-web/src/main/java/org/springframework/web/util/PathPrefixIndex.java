@@ -0,0 +1,316 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+
+/**
+ * A trie of path segments that indexes values, typically request mappings,
+ * by the leading literal segments of their URL path patterns, narrowing down
+ * the values that need to be checked for a given lookup path.
+ *
+ * <p>A value is indexed under the literal segments that precede the first
+ * segment with pattern syntax ({@code "*"}, {@code "?"}, <code>"{"</code>);
+ * the last segment of a pattern is never indexed so that suffix and trailing
+ * slash variants of a pattern are covered as well. The candidates for a
+ * lookup path are all values registered on the way from the root of the trie
+ * down along the segments of the path, i.e. a superset of the values with a
+ * pattern that matches the path. Segments are compared ignoring case and
+ * surrounding whitespace, and empty segments are skipped, for consistency with
+ * lenient {@link org.springframework.util.AntPathMatcher} and
+ * {@link org.springframework.web.util.pattern.PathPattern} configurations.
+ *
+ * <p>Values without patterns are registered at the root and are therefore
+ * candidates for every lookup path.
+ *
+ * <p>This class is not thread-safe: concurrent registrations and lookups
+ * need to be guarded by the caller, e.g. through a read-write lock.
+ *
+ * @since 5.2.7
+ * @param <T> the type of indexed value
+ */
+public class PathPrefixIndex<T> {
+
+	private final Node<T> root = new Node<>(null, "");
+
+	private final Map<T, List<Node<T>>> registrations = new HashMap<>();
+
+	private int multiNodeRegistrations;
+
+
+	/**
+	 * Register the given value under the given URL path patterns.
+	 * @param value the value to register
+	 * @param patterns the patterns to index the value by, or {@code null}
+	 * to register the value as a candidate for every lookup path
+	 */
+	public void add(T value, @Nullable Collection<String> patterns) {
+		remove(value);
+		List<Node<T>> nodes = new ArrayList<>(1);
+		if (patterns == null || patterns.isEmpty()) {
+			nodes.add(this.root);
+		}
+		else {
+			for (String pattern : patterns) {
+				Node<T> node = obtainNode(pattern);
+				if (!nodes.contains(node)) {
+					nodes.add(node);
+				}
+			}
+		}
+		for (Node<T> node : nodes) {
+			node.values.add(value);
+		}
+		if (nodes.size() > 1) {
+			this.multiNodeRegistrations++;
+		}
+		this.registrations.put(value, nodes);
+	}
+
+	/**
+	 * Remove the given value, if registered.
+	 * @param value the value to remove
+	 */
+	public void remove(T value) {
+		List<Node<T>> nodes = this.registrations.remove(value);
+		if (nodes == null) {
+			return;
+		}
+		for (Node<T> node : nodes) {
+			node.values.remove(value);
+			node.prune();
+		}
+		if (nodes.size() > 1) {
+			this.multiNodeRegistrations--;
+		}
+	}
+
+	/**
+	 * Return the number of registered values.
+	 */
+	public int size() {
+		return this.registrations.size();
+	}
+
+	/**
+	 * Return the values that are candidates for the given lookup path,
+	 * i.e. the values registered under a prefix of the path's segments.
+	 * @param lookupPath the decoded lookup path, with segments separated by "/"
+	 * @return the candidate values, in order of increasing prefix length
+	 */
+	public Collection<T> getCandidates(String lookupPath) {
+		Collector<T> collector = new Collector<>(this.root);
+		Node<T> node = this.root;
+		int length = lookupPath.length();
+		int start = 0;
+		while (node.children != null && start < length) {
+			int end = lookupPath.indexOf('/', start);
+			if (end == -1) {
+				end = length;
+			}
+			if (end > start) {
+				String segment = normalizeSegment(lookupPath.substring(start, end));
+				if (!segment.isEmpty()) {
+					node = node.children.get(segment);
+					if (node == null) {
+						break;
+					}
+					collector.add(node);
+				}
+			}
+			start = end + 1;
+		}
+		return collector.getValues(this.multiNodeRegistrations > 0);
+	}
+
+	/**
+	 * Variant of {@link #getCandidates(String)} for a parsed path, matching
+	 * the {@link PathContainer.PathSegment#valueToMatch() decoded values}
+	 * of its segments, as used by
+	 * {@link org.springframework.web.util.pattern.PathPattern}.
+	 * @param path the parsed lookup path
+	 * @return the candidate values, in order of increasing prefix length
+	 */
+	public Collection<T> getCandidates(PathContainer path) {
+		Collector<T> collector = new Collector<>(this.root);
+		Node<T> node = this.root;
+		for (PathContainer.Element element : path.elements()) {
+			if (node.children == null) {
+				break;
+			}
+			if (element instanceof PathContainer.PathSegment) {
+				String segment = normalizeSegment(((PathContainer.PathSegment) element).valueToMatch());
+				if (!segment.isEmpty()) {
+					node = node.children.get(segment);
+					if (node == null) {
+						break;
+					}
+					collector.add(node);
+				}
+			}
+		}
+		return collector.getValues(this.multiNodeRegistrations > 0);
+	}
+
+
+	private Node<T> obtainNode(String pattern) {
+		List<String> segments = new ArrayList<>();
+		for (String segment : pattern.split("/")) {
+			segment = normalizeSegment(segment);
+			if (!segment.isEmpty()) {
+				segments.add(segment);
+			}
+		}
+		Node<T> node = this.root;
+		// The last segment may be matched with a suffix or a trailing slash
+		for (int i = 0; i < segments.size() - 1; i++) {
+			String segment = segments.get(i);
+			if (!isLiteral(segment)) {
+				break;
+			}
+			node = node.obtainChild(segment);
+		}
+		return node;
+	}
+
+	private static boolean isLiteral(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Trim the given segment and fold its case, consistent with
+	 * {@link String#equalsIgnoreCase}.
+	 */
+	private static String normalizeSegment(String segment) {
+		String trimmed = segment.trim();
+		for (int i = 0; i < trimmed.length(); i++) {
+			char c = trimmed.charAt(i);
+			if (foldCase(c) != c) {
+				char[] chars = trimmed.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = foldCase(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return trimmed;
+	}
+
+	private static char foldCase(char c) {
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+
+	/**
+	 * A node in the trie, holding the values registered under the path
+	 * segments from the root down to this node.
+	 */
+	private static final class Node<T> {
+
+		@Nullable
+		private final Node<T> parent;
+
+		private final String segment;
+
+		private final List<T> values = new ArrayList<>(1);
+
+		@Nullable
+		private Map<String, Node<T>> children;
+
+		Node(@Nullable Node<T> parent, String segment) {
+			this.parent = parent;
+			this.segment = segment;
+		}
+
+		Node<T> obtainChild(String segment) {
+			if (this.children == null) {
+				this.children = new HashMap<>(4);
+			}
+			return this.children.computeIfAbsent(segment, key -> new Node<>(this, key));
+		}
+
+		void prune() {
+			Node<T> node = this;
+			while (node.parent != null && node.values.isEmpty() && node.children == null) {
+				Map<String, Node<T>> siblings = node.parent.children;
+				if (siblings != null) {
+					siblings.remove(node.segment);
+					if (siblings.isEmpty()) {
+						node.parent.children = null;
+					}
+				}
+				node = node.parent;
+			}
+		}
+	}
+
+
+	/**
+	 * Collects the values of the nodes along a lookup path, avoiding a copy
+	 * if only a single node contributes values.
+	 */
+	private static final class Collector<T> {
+
+		@Nullable
+		private List<T> single;
+
+		@Nullable
+		private List<T> combined;
+
+		Collector(Node<T> root) {
+			add(root);
+		}
+
+		void add(Node<T> node) {
+			if (node.values.isEmpty()) {
+				return;
+			}
+			if (this.single == null) {
+				this.single = node.values;
+			}
+			else {
+				if (this.combined == null) {
+					this.combined = new ArrayList<>(this.single);
+				}
+				this.combined.addAll(node.values);
+			}
+		}
+
+		Collection<T> getValues(boolean deduplicate) {
+			if (this.combined != null) {
+				return (deduplicate ? new LinkedHashSet<>(this.combined) : this.combined);
+			}
+			return (this.single != null ? Collections.unmodifiableList(this.single) : Collections.emptyList());
+		}
+	}
+
+}
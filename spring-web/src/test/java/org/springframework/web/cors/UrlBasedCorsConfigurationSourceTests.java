@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,7 +19,10 @@ package org.springframework.web.cors;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.http.server.RequestPath;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -50,6 +53,38 @@ public class UrlBasedCorsConfigurationSourceTests {
 		assertThat(this.configSource.getCorsConfiguration(request)).isEqualTo(config);
 	}
 
+	@Test
+	public void registerAndMatchWithPathPatterns() {
+		this.configSource.setPatternParser(new PathPatternParser());
+		CorsConfiguration config = new CorsConfiguration();
+		this.configSource.registerCorsConfiguration("/bar/**", config);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/test.html");
+		request.setContextPath("/app");
+		assertThat(this.configSource.getCorsConfiguration(request)).isNull();
+
+		request = new MockHttpServletRequest("GET", "/app/bar/test.html");
+		request.setContextPath("/app");
+		assertThat(this.configSource.getCorsConfiguration(request)).isEqualTo(config);
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isTrue();
+
+		CorsConfiguration fooConfig = new CorsConfiguration();
+		this.configSource.registerCorsConfiguration("/foo/{name}.html", fooConfig);
+		request = new MockHttpServletRequest("GET", "/foo/test.html");
+		assertThat(this.configSource.getCorsConfiguration(request)).isEqualTo(fooConfig);
+	}
+
+	@Test
+	public void matchWithPathPatternsUsesParsedRequestPath() {
+		this.configSource.setPatternParser(new PathPatternParser());
+		CorsConfiguration config = new CorsConfiguration();
+		this.configSource.registerCorsConfiguration("/bar/**", config);
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/foo/test.html");
+		ServletRequestPathUtils.setParsedRequestPath(RequestPath.parse("/bar/test.html", null), request);
+		assertThat(this.configSource.getCorsConfiguration(request)).isEqualTo(config);
+	}
+
 	@Test
 	public void unmodifiableConfigurationsMap() {
 		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.testfixture.servlet.MockAsyncContext;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link NonBlockingBodyFilter}.
+ */
+public class NonBlockingBodyFilterTests {
+
+	private final NonBlockingBodyFilter filter = new NonBlockingBodyFilter();
+
+	private final AtomicReference<String> requestBody = new AtomicReference<>();
+
+	private final AtomicInteger chainInvocations = new AtomicInteger();
+
+	private final FilterChain filterChain = (request, response) -> {
+		this.chainInvocations.incrementAndGet();
+		this.requestBody.set(StreamUtils.copyToString(request.getInputStream(), StandardCharsets.UTF_8));
+		response.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+	};
+
+
+	@Test
+	public void nonBlockingRead() throws Exception {
+		ListenerRequest request = new ListenerRequest("POST", "/upload");
+		request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		request.setContent("{\"name\":\"Jason\"}".getBytes(StandardCharsets.UTF_8));
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(0);
+		assertThat(request.isAsyncStarted()).isTrue();
+		assertThat(request.readListener).isNotNull();
+
+		request.readListener.onDataAvailable();
+		request.readListener.onAllDataRead();
+
+		assertThat(((MockAsyncContext) request.getAsyncContext()).getDispatchedPath()).isEqualTo("/upload");
+
+		request.setAsyncStarted(false);
+		this.filter.doFilter(request, response, this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(1);
+		assertThat(this.requestBody.get()).isEqualTo("{\"name\":\"Jason\"}");
+	}
+
+	@Test
+	public void readErrorRespondsWithBadRequest() throws Exception {
+		ListenerRequest request = new ListenerRequest("POST", "/upload");
+		request.setContent("Hello".getBytes(StandardCharsets.UTF_8));
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+		request.readListener.onError(new IOException("Connection reset"));
+
+		assertThat(response.getStatus()).isEqualTo(400);
+		assertThat(request.isAsyncStarted()).isFalse();
+		assertThat(this.chainInvocations.get()).isEqualTo(0);
+	}
+
+	@Test
+	public void readTimeoutRespondsWithRequestTimeout() throws Exception {
+		ListenerRequest request = new ListenerRequest("POST", "/upload");
+		request.setContent("Hello".getBytes(StandardCharsets.UTF_8));
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+		timeout(request);
+
+		assertThat(response.getStatus()).isEqualTo(408);
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void blockingReadWhenWrappedByPrecedingFilter() throws Exception {
+		ListenerRequest request = new ListenerRequest("POST", "/upload");
+		request.setContent("Hello".getBytes(StandardCharsets.UTF_8));
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, new HttpServletResponseWrapper(response), this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(1);
+		assertThat(this.requestBody.get()).isEqualTo("Hello");
+		assertThat(request.readListener).isNull();
+	}
+
+	@Test
+	public void nonBlockingWrite() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/download");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(1);
+		assertThat(response.getContentAsString()).isEmpty();
+		assertThat(response.getContentLength()).isEqualTo(5);
+		assertThat(request.isAsyncStarted()).isTrue();
+		assertThat(response.writeListener).isNotNull();
+
+		response.writeListener.onWritePossible();
+
+		assertThat(response.getContentAsString()).isEqualTo("Hello");
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void writeTimeoutCompletesRequest() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/download");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+		assertThat(request.isAsyncStarted()).isTrue();
+
+		timeout(request);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void blockingReadWhenBodyExceedsMaxInMemorySize() throws Exception {
+		this.filter.setMaxInMemorySize(4);
+
+		ListenerRequest request = new ListenerRequest("POST", "/upload");
+		request.setContent("Hello".getBytes(StandardCharsets.UTF_8));
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(1);
+		assertThat(this.requestBody.get()).isEqualTo("Hello");
+		assertThat(request.readListener).isNull();
+		assertThat(response.getContentAsString()).isEqualTo("Hello");
+		assertThat(response.writeListener).isNull();
+	}
+
+	@Test
+	public void blockingReadOfFormData() throws Exception {
+		ListenerRequest request = new ListenerRequest("POST", "/form");
+		request.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+		request.setContent("name=Jason".getBytes(StandardCharsets.UTF_8));
+
+		this.filter.doFilter(request, new ListenerResponse(), this.filterChain);
+
+		assertThat(this.chainInvocations.get()).isEqualTo(1);
+		assertThat(request.readListener).isNull();
+	}
+
+	@Test
+	public void writeThroughOnFlush() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/stream");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, (req, res) -> {
+			res.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+			res.flushBuffer();
+			assertThat(response.getContentAsString()).isEqualTo("Hello");
+		});
+
+		assertThat(response.isCommitted()).isTrue();
+		assertThat(response.writeListener).isNull();
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void writeThroughOnOutputStreamFlush() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/stream");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, (req, res) -> {
+			res.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+			res.getOutputStream().flush();
+			assertThat(response.getContentAsString()).isEqualTo("Hello");
+			res.getOutputStream().write(" World".getBytes(StandardCharsets.UTF_8));
+			assertThat(response.getContentAsString()).isEqualTo("Hello World");
+		});
+
+		assertThat(response.writeListener).isNull();
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void nonBlockingWriteWithWriter() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/download");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, (req, res) -> res.getWriter().write("Hello"));
+
+		assertThat(response.getContentAsString()).isEmpty();
+		assertThat(response.writeListener).isNotNull();
+
+		response.writeListener.onWritePossible();
+
+		assertThat(response.getContentAsString()).isEqualTo("Hello");
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	@Test
+	public void sendErrorDiscardsBufferedContent() throws Exception {
+		ListenerRequest request = new ListenerRequest("GET", "/error");
+		ListenerResponse response = new ListenerResponse();
+
+		this.filter.doFilter(request, response, (req, res) -> {
+			res.getOutputStream().write("Hello".getBytes(StandardCharsets.UTF_8));
+			((HttpServletResponse) res).sendError(500);
+		});
+
+		assertThat(response.getStatus()).isEqualTo(500);
+		assertThat(response.getContentAsString()).isEmpty();
+		assertThat(response.writeListener).isNull();
+	}
+
+	private void timeout(MockHttpServletRequest request) throws IOException {
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+	}
+
+
+	private static class ListenerRequest extends MockHttpServletRequest {
+
+		@Nullable
+		private ReadListener readListener;
+
+		public ListenerRequest(String method, String requestURI) {
+			super(method, requestURI);
+			setAsyncSupported(true);
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			byte[] body = getContentAsByteArray();
+			ByteArrayInputStream content = new ByteArrayInputStream(body != null ? body : new byte[0]);
+			return new ServletInputStream() {
+				@Override
+				public int read() {
+					return content.read();
+				}
+				@Override
+				public boolean isFinished() {
+					return (content.available() == 0);
+				}
+				@Override
+				public boolean isReady() {
+					return !isFinished();
+				}
+				@Override
+				public void setReadListener(ReadListener listener) {
+					readListener = listener;
+				}
+			};
+		}
+	}
+
+
+	private static class ListenerResponse extends MockHttpServletResponse {
+
+		@Nullable
+		private WriteListener writeListener;
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			ServletOutputStream delegate = super.getOutputStream();
+			return new ServletOutputStream() {
+				@Override
+				public void write(int b) throws IOException {
+					delegate.write(b);
+				}
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					delegate.write(b, off, len);
+				}
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+				@Override
+				public void setWriteListener(WriteListener listener) {
+					writeListener = listener;
+				}
+			};
+		}
+	}
+
+}
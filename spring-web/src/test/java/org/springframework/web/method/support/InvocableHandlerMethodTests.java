@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -66,6 +66,30 @@ public class InvocableHandlerMethodTests {
 		assertThat(getStubResolver(1).getResolvedParameters().get(0).getParameterName()).isEqualTo("stringArg");
 	}
 
+	@Test
+	public void resolveArgRepeatedly() throws Exception {
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+
+		InvocableHandlerMethod invocable = getInvocable(Integer.class, String.class);
+		assertThat(invocable.invokeForRequest(request, null)).isEqualTo("99-value");
+		assertThat(invocable.invokeForRequest(request, null)).isEqualTo("99-value");
+
+		assertThat(getStubResolver(0).getResolvedParameters().size()).isEqualTo(2);
+		assertThat(getStubResolver(1).getResolvedParameters().size()).isEqualTo(2);
+	}
+
+	@Test
+	public void resolveArgWithResolverAddedAfterFirstInvocation() throws Exception {
+		InvocableHandlerMethod invocable = getInvocable(Integer.class, String.class);
+		assertThatIllegalStateException().isThrownBy(() -> invocable.invokeForRequest(request, null));
+
+		this.composite.addResolver(new StubArgumentResolver(99));
+		this.composite.addResolver(new StubArgumentResolver("value"));
+
+		assertThat(invocable.invokeForRequest(request, null)).isEqualTo("99-value");
+	}
+
 	@Test
 	public void resolveNoArgValue() throws Exception {
 		this.composite.addResolver(new StubArgumentResolver(Integer.class));
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.server.PathContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPrefixIndex}.
+ */
+public class PathPrefixIndexTests {
+
+	private final PathPrefixIndex<String> index = new PathPrefixIndex<>();
+
+
+	@Test
+	public void candidatesByLeadingLiteralSegments() {
+		this.index.add("users", Collections.singleton("/api/users/{id}"));
+		this.index.add("orders", Collections.singleton("/api/orders/{id}/items/*"));
+		this.index.add("health", Collections.singleton("/admin/health"));
+
+		assertThat(this.index.getCandidates("/api/users/42")).containsExactly("users");
+		assertThat(this.index.getCandidates("/api/orders/42/items/1")).containsExactly("orders");
+		assertThat(this.index.getCandidates("/api/other")).isEmpty();
+		assertThat(this.index.getCandidates("/admin/health")).containsExactly("health");
+	}
+
+	@Test
+	public void lastSegmentNotIndexed() {
+		this.index.add("literal", Collections.singleton("/api/users"));
+		this.index.add("trailingSlash", Collections.singleton("/api/users/"));
+
+		assertThat(this.index.getCandidates("/api/users.json")).containsExactly("literal", "trailingSlash");
+		assertThat(this.index.getCandidates("/api/users/")).containsExactly("literal", "trailingSlash");
+		assertThat(this.index.getCandidates("/other/users")).isEmpty();
+	}
+
+	@Test
+	public void patternSyntaxStopsIndexing() {
+		this.index.add("wildcard", Collections.singleton("/api/*/users/{id}"));
+		this.index.add("variable", Collections.singleton("/{version}/users/{id}"));
+		this.index.add("regex", Collections.singleton("/api/{name:[a-z/]+}/users/{id}"));
+
+		assertThat(this.index.getCandidates("/api/v1/users/42")).containsExactlyInAnyOrder("wildcard", "variable", "regex");
+		assertThat(this.index.getCandidates("/v1/users/42")).containsExactly("variable");
+	}
+
+	@Test
+	public void valuesWithoutPatternsAlwaysCandidates() {
+		this.index.add("all", null);
+		this.index.add("none", Collections.emptySet());
+		this.index.add("users", Collections.singleton("/api/users/{id}"));
+
+		assertThat(this.index.getCandidates("/api/users/42")).containsExactly("all", "none", "users");
+		assertThat(this.index.getCandidates("/other")).containsExactly("all", "none");
+	}
+
+	@Test
+	public void multiplePatternsDeduplicated() {
+		this.index.add("multi", Arrays.asList("/api/{id}", "/api/users/{id}", "/api/users/{id}/*"));
+
+		assertThat(this.index.getCandidates("/api/users/42")).containsExactly("multi");
+		assertThat(this.index.getCandidates("/api/42")).containsExactly("multi");
+	}
+
+	@Test
+	public void segmentsIgnoreCaseWhitespaceAndEmptySegments() {
+		this.index.add("users", Collections.singleton("/API/Users/{id}"));
+
+		assertThat(this.index.getCandidates("/api/users/42")).containsExactly("users");
+		assertThat(this.index.getCandidates("//api//USERS/42")).containsExactly("users");
+		assertThat(this.index.getCandidates("/api /users/42")).containsExactly("users");
+	}
+
+	@Test
+	public void candidatesForParsedPath() {
+		this.index.add("users", Collections.singleton("/api/my users/{id}"));
+
+		PathContainer path = PathContainer.parsePath("/api/my%20users;a=b/42");
+		assertThat(this.index.getCandidates(path)).containsExactly("users");
+		assertThat(this.index.getCandidates(PathContainer.parsePath("/api/other/42"))).isEmpty();
+	}
+
+	@Test
+	public void remove() {
+		this.index.add("users", Collections.singleton("/api/users/{id}"));
+		this.index.add("orders", Collections.singleton("/api/orders/{id}"));
+		assertThat(this.index.size()).isEqualTo(2);
+
+		this.index.remove("users");
+		assertThat(this.index.size()).isEqualTo(1);
+		assertThat(this.index.getCandidates("/api/users/42")).isEmpty();
+		assertThat(this.index.getCandidates("/api/orders/42")).containsExactly("orders");
+
+		this.index.remove("orders");
+		this.index.remove("unknown");
+		assertThat(this.index.size()).isEqualTo(0);
+		assertThat(this.index.getCandidates("/api/orders/42")).isEmpty();
+	}
+
+	@Test
+	public void reAddReplacesPreviousRegistration() {
+		this.index.add("users", Collections.singleton("/api/users/{id}"));
+		this.index.add("users", Collections.singleton("/v2/users/{id}"));
+
+		assertThat(this.index.size()).isEqualTo(1);
+		assertThat(this.index.getCandidates("/api/users/42")).isEmpty();
+		assertThat(this.index.getCandidates("/v2/users/42")).containsExactly("users");
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,17 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.task.support.ContextPropagator;
+import org.springframework.core.task.support.ContextSnapshot;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.Nullable;
@@ -89,6 +95,38 @@ public abstract class ExchangeFilterFunctions {
 						Mono.error(exceptionFunction.apply(response)) : Mono.just(response)));
 	}
 
+	/**
+	 * Return a filter that captures the thread-bound context of the thread
+	 * executing the exchange, e.g. the thread calling {@code block()} on the
+	 * response in a Servlet application, and restores it on the thread which
+	 * emits the {@link ClientResponse}, for the duration of the response signal.
+	 * Operators applied to the response {@code Mono} therefore see the same
+	 * thread-bound context as the calling code.
+	 * <p>The captured {@link ContextSnapshot} is also stored in the Reactor
+	 * {@code Context} of the exchange, so that subsequent filters and the
+	 * underlying {@link ExchangeFunction} may restore it for other callbacks
+	 * through {@link ContextSnapshot#fromContext} and {@link ContextSnapshot#wrap}.
+	 * Note that this does not cover the consumption of the response body
+	 * stream, which needs to restore the snapshot on its own if necessary.
+	 * @param contextPropagator the propagator to capture the context with,
+	 * e.g. {@link ContextPropagator#getDefault()}
+	 * @return the filter to propagate the context with
+	 * @since 5.2.7
+	 */
+	public static ExchangeFilterFunction propagateContext(ContextPropagator contextPropagator) {
+		Assert.notNull(contextPropagator, "ContextPropagator must not be null");
+		return (request, next) -> {
+			ContextSnapshot snapshot = contextPropagator.capture();
+			if (snapshot.isEmpty()) {
+				return next.exchange(request);
+			}
+			return next.exchange(request)
+					.transform(Operators.<ClientResponse, ClientResponse>lift((scannable, subscriber) ->
+							new ContextRestoringSubscriber<>(subscriber, snapshot)))
+					.subscriberContext(snapshot::updateContext);
+		};
+	}
+
 	/**
 	 * Return a filter that applies HTTP Basic Authentication to the request
 	 * headers via {@link HttpHeaders#setBasicAuth(String)} and
@@ -191,4 +229,46 @@ public abstract class ExchangeFilterFunctions {
 		}
 	}
 
+
+	/**
+	 * Subscriber which binds the values of a {@link ContextSnapshot} to the
+	 * emitting thread while passing each signal on to the actual subscriber.
+	 */
+	private static class ContextRestoringSubscriber<T> implements CoreSubscriber<T> {
+
+		private final CoreSubscriber<? super T> actual;
+
+		private final ContextSnapshot snapshot;
+
+		public ContextRestoringSubscriber(CoreSubscriber<? super T> actual, ContextSnapshot snapshot) {
+			this.actual = actual;
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public Context currentContext() {
+			return this.actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.actual.onSubscribe(subscription);
+		}
+
+		@Override
+		public void onNext(T value) {
+			this.snapshot.wrap(() -> this.actual.onNext(value)).run();
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			this.snapshot.wrap(() -> this.actual.onError(ex)).run();
+		}
+
+		@Override
+		public void onComplete() {
+			this.snapshot.wrap(this.actual::onComplete).run();
+		}
+	}
+
 }
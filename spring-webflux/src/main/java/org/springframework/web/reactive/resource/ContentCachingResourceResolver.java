@@ -0,0 +1,453 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A {@link ResourceResolver} that keeps the content of resolved resources in
+ * memory, along with their response headers, an {@code ETag} derived from the
+ * content, and their last-modified time, so that frequently requested resources
+ * are not read from their location again for every request.
+ *
+ * <p>The cache is bounded by the total size of the content it holds, evicting
+ * the least recently used resources beyond the {@link #setMaxCacheSize limit}.
+ * Resources larger than {@link #setMaxResourceSize} are not cached. Encoded
+ * variants of a resource are cached under separate keys, based on the
+ * {@link #setContentCodings content codings} accepted by the request.
+ *
+ * <p>If the request accepts gzip and the resolved resource is not encoded
+ * already, e.g. by an {@link EncodedResourceResolver} further down the chain
+ * finding no pre-compressed file, content of a
+ * {@link #setCompressibleMediaTypes compressible} media type is compressed with
+ * gzip once, before it is cached.
+ *
+ * <p>Cached content is not refreshed when the underlying resources change,
+ * see {@link #clearCache()}. Note also that this resolver must be ordered ahead
+ * of a {@link VersionResourceResolver} with a content-based version strategy to
+ * ensure the version calculation is not impacted by the encoding.
+ *
+ * @since 5.2.7
+ * @see CachingResourceResolver
+ */
+public class ContentCachingResourceResolver extends AbstractResourceResolver {
+
+	/**
+	 * The default maximum total size of cached content: 10 MB.
+	 */
+	public static final long DEFAULT_MAX_CACHE_SIZE = 10 * 1024 * 1024;
+
+	/**
+	 * The default maximum size of a single cached resource: 512 KB.
+	 */
+	public static final long DEFAULT_MAX_RESOURCE_SIZE = 512 * 1024;
+
+	/**
+	 * The default media types compressed with gzip on the fly.
+	 */
+	public static final List<MediaType> DEFAULT_COMPRESSIBLE_MEDIA_TYPES = Collections.unmodifiableList(Arrays.asList(
+			MediaType.parseMediaType("text/*"), MediaType.parseMediaType("application/javascript"),
+			MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.parseMediaType("image/svg+xml")));
+
+	private static final String GZIP_CODING = "gzip";
+
+	private static final int MIN_COMPRESSIBLE_SIZE = 256;
+
+
+	private final List<String> contentCodings = new ArrayList<>(EncodedResourceResolver.DEFAULT_CODINGS);
+
+	private final List<MediaType> compressibleMediaTypes = new ArrayList<>(DEFAULT_COMPRESSIBLE_MEDIA_TYPES);
+
+	private long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+	private long maxResourceSize = DEFAULT_MAX_RESOURCE_SIZE;
+
+	private final Map<String, CachedResource> cache = new LinkedHashMap<>(64, 0.75f, true);
+
+	/** Total size of cached content, guarded by the cache Map. */
+	private long cacheSize;
+
+
+	/**
+	 * Configure the supported content codings from the
+	 * {@literal "Accept-Encoding"} header for which to cache resource variations.
+	 * <p>The codings configured here are generally expected to match those
+	 * configured on {@link EncodedResourceResolver#setContentCodings(List)}.
+	 * <p>By default this property is set to {@literal ["br", "gzip"]} based on
+	 * the value of {@link EncodedResourceResolver#DEFAULT_CODINGS}.
+	 * @param codings one or more supported content codings
+	 */
+	public void setContentCodings(List<String> codings) {
+		Assert.notEmpty(codings, "At least one content coding expected");
+		this.contentCodings.clear();
+		this.contentCodings.addAll(codings);
+	}
+
+	/**
+	 * Return a read-only list with the supported content codings.
+	 */
+	public List<String> getContentCodings() {
+		return Collections.unmodifiableList(this.contentCodings);
+	}
+
+	/**
+	 * Configure the media types to compress with gzip, if the request accepts
+	 * it and the resource is not encoded already. Set this to an empty list in
+	 * order to only cache pre-compressed variants.
+	 * <p>By default this property is set to {@link #DEFAULT_COMPRESSIBLE_MEDIA_TYPES}.
+	 * @param mediaTypes the media types to compress, possibly with wildcards
+	 */
+	public void setCompressibleMediaTypes(List<MediaType> mediaTypes) {
+		this.compressibleMediaTypes.clear();
+		this.compressibleMediaTypes.addAll(mediaTypes);
+	}
+
+	/**
+	 * Return a read-only list with the media types to compress.
+	 */
+	public List<MediaType> getCompressibleMediaTypes() {
+		return Collections.unmodifiableList(this.compressibleMediaTypes);
+	}
+
+	/**
+	 * Set the maximum total size of cached content, in bytes.
+	 * <p>Default is 10 MB.
+	 */
+	public void setMaxCacheSize(long maxCacheSize) {
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	/**
+	 * Return the maximum total size of cached content, in bytes.
+	 */
+	public long getMaxCacheSize() {
+		return this.maxCacheSize;
+	}
+
+	/**
+	 * Set the maximum size of a single resource to cache, in bytes.
+	 * Larger resources are served from their location.
+	 * <p>Default is 512 KB.
+	 */
+	public void setMaxResourceSize(long maxResourceSize) {
+		this.maxResourceSize = maxResourceSize;
+	}
+
+	/**
+	 * Return the maximum size of a single resource to cache, in bytes.
+	 */
+	public long getMaxResourceSize() {
+		return this.maxResourceSize;
+	}
+
+	/**
+	 * Remove all cached content, e.g. after resources have changed.
+	 */
+	public void clearCache() {
+		synchronized (this.cache) {
+			this.cache.clear();
+			this.cacheSize = 0;
+		}
+	}
+
+
+	@Override
+	protected Mono<Resource> resolveResourceInternal(@Nullable ServerWebExchange exchange,
+			String requestPath, List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		String key = computeKey(exchange, requestPath);
+		CachedResource cachedResource;
+		synchronized (this.cache) {
+			cachedResource = this.cache.get(key);
+		}
+		if (cachedResource != null) {
+			String logPrefix = exchange != null ? exchange.getLogPrefix() : "";
+			logger.trace(logPrefix + "Resource content served from memory");
+			return Mono.just(cachedResource);
+		}
+
+		boolean acceptsGzip = (exchange != null && acceptsGzip(exchange));
+		DataBufferFactory bufferFactory = (exchange != null ?
+				exchange.getResponse().bufferFactory() : new DefaultDataBufferFactory());
+		return chain.resolveResource(exchange, requestPath, locations)
+				.flatMap(resource -> cacheContent(key, resource, acceptsGzip, bufferFactory));
+	}
+
+	private String computeKey(@Nullable ServerWebExchange exchange, String requestPath) {
+		if (exchange != null) {
+			String codingKey = getContentCodingKey(exchange);
+			if (StringUtils.hasText(codingKey)) {
+				return requestPath + "+encoding=" + codingKey;
+			}
+		}
+		return requestPath;
+	}
+
+	@Nullable
+	private String getContentCodingKey(ServerWebExchange exchange) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+		if (!StringUtils.hasText(header)) {
+			return null;
+		}
+		return Arrays.stream(StringUtils.tokenizeToStringArray(header, ","))
+				.map(token -> {
+					int index = token.indexOf(';');
+					return (index >= 0 ? token.substring(0, index) : token).trim().toLowerCase();
+				})
+				.filter(this.contentCodings::contains)
+				.sorted()
+				.collect(Collectors.joining(","));
+	}
+
+	private boolean acceptsGzip(ServerWebExchange exchange) {
+		String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+		return (header != null && this.contentCodings.contains(GZIP_CODING) &&
+				header.toLowerCase().contains(GZIP_CODING));
+	}
+
+	private Mono<Resource> cacheContent(String key, Resource resource,
+			boolean acceptsGzip, DataBufferFactory bufferFactory) {
+
+		long maxSize = Math.min(this.maxResourceSize, this.maxCacheSize);
+		try {
+			if (!resource.isReadable() || resource.contentLength() > maxSize) {
+				return Mono.just(resource);
+			}
+		}
+		catch (IOException ex) {
+			return Mono.just(resource);
+		}
+		return DataBufferUtils.join(DataBufferUtils.read(resource, bufferFactory, StreamUtils.BUFFER_SIZE))
+				.map(dataBuffer -> {
+					byte[] content = new byte[dataBuffer.readableByteCount()];
+					dataBuffer.read(content);
+					DataBufferUtils.release(dataBuffer);
+					if (content.length > maxSize) {
+						return resource;
+					}
+					CachedResource cachedResource = createCachedResource(resource, content, acceptsGzip);
+					if (cachedResource == null) {
+						return resource;
+					}
+					putCachedResource(key, cachedResource);
+					return (Resource) cachedResource;
+				})
+				.defaultIfEmpty(resource)
+				.onErrorResume(ex -> {
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to read content of " + resource + " for caching", ex);
+					}
+					return Mono.just(resource);
+				});
+	}
+
+	@Nullable
+	private CachedResource createCachedResource(Resource resource, byte[] content, boolean acceptsGzip) {
+		HttpHeaders headers = new HttpHeaders();
+		if (resource instanceof HttpResource) {
+			headers.putAll(((HttpResource) resource).getResponseHeaders());
+		}
+		if (acceptsGzip && !headers.containsKey(HttpHeaders.CONTENT_ENCODING) && isCompressible(resource)) {
+			byte[] compressed;
+			try {
+				compressed = gzip(content);
+			}
+			catch (IOException ex) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Failed to compress content of " + resource, ex);
+				}
+				return null;
+			}
+			if (compressed.length < content.length) {
+				content = compressed;
+				headers.add(HttpHeaders.CONTENT_ENCODING, GZIP_CODING);
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+		}
+		if (headers.getETag() == null) {
+			headers.setETag("\"0" + DigestUtils.md5DigestAsHex(content) + '"');
+		}
+		return new CachedResource(resource, content, headers);
+	}
+
+	private boolean isCompressible(Resource resource) {
+		if (this.compressibleMediaTypes.isEmpty()) {
+			return false;
+		}
+		MediaType mediaType = MediaTypeFactory.getMediaType(resource).orElse(null);
+		return (mediaType != null && this.compressibleMediaTypes.stream().anyMatch(type -> type.includes(mediaType)));
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		if (content.length < MIN_COMPRESSIBLE_SIZE) {
+			return content;
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 2);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(content);
+		}
+		return out.toByteArray();
+	}
+
+	private void putCachedResource(String key, CachedResource resource) {
+		synchronized (this.cache) {
+			CachedResource previous = this.cache.put(key, resource);
+			if (previous != null) {
+				this.cacheSize -= previous.contentLength();
+			}
+			this.cacheSize += resource.contentLength();
+			Iterator<CachedResource> it = this.cache.values().iterator();
+			while (this.cacheSize > this.maxCacheSize && it.hasNext()) {
+				this.cacheSize -= it.next().contentLength();
+				it.remove();
+			}
+		}
+	}
+
+	@Override
+	protected Mono<String> resolveUrlPathInternal(String resourceUrlPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+
+	/**
+	 * An {@link HttpResource} with the content of another resource held in memory.
+	 */
+	static final class CachedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+
+		private final byte[] content;
+
+		private final HttpHeaders headers;
+
+		private final long lastModified;
+
+		CachedResource(Resource original, byte[] content, HttpHeaders headers) {
+			this.original = original;
+			this.content = content;
+			this.headers = headers;
+			this.lastModified = getLastModified(original);
+		}
+
+		private static long getLastModified(Resource resource) {
+			try {
+				return resource.lastModified();
+			}
+			catch (IOException ex) {
+				return -1;
+			}
+		}
+
+
+		/**
+		 * Whether the content is encoded, e.g. compressed with gzip.
+		 */
+		boolean isEncoded() {
+			return this.headers.containsKey(HttpHeaders.CONTENT_ENCODING);
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(this.content);
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public long contentLength() {
+			return this.content.length;
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			if (this.lastModified < 0) {
+				throw new FileNotFoundException(getDescription() + " has no last-modified time");
+			}
+			return this.lastModified;
+		}
+
+		@Override
+		public Resource createRelative(String relativePath) throws IOException {
+			return this.original.createRelative(relativePath);
+		}
+
+		@Override
+		@Nullable
+		public String getFilename() {
+			return this.original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "Cached content of " + this.original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			this.headers.forEach((name, values) -> headers.put(name, new ArrayList<>(values)));
+			return headers;
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			return (this == other);
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+	}
+
+}
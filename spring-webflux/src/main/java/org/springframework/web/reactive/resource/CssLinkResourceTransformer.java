@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -80,7 +80,9 @@ public class CssLinkResourceTransformer extends ResourceTransformerSupport {
 					String filename = outputResource.getFilename();
 					if (!"css".equals(StringUtils.getFilenameExtension(filename)) ||
 							inputResource instanceof EncodedResourceResolver.EncodedResource ||
-							inputResource instanceof GzipResourceResolver.GzippedResource) {
+							inputResource instanceof GzipResourceResolver.GzippedResource ||
+							(inputResource instanceof ContentCachingResourceResolver.CachedResource &&
+									((ContentCachingResourceResolver.CachedResource) inputResource).isEncoded())) {
 						return Mono.just(outputResource);
 					}
 
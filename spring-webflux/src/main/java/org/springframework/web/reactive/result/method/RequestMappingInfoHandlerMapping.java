@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,17 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	}
 
 
+	/**
+	 * Index the mapping by the {@link PathPattern#getPatternString() values}
+	 * of its URL patterns.
+	 */
+	@Override
+	protected Set<String> getIndexedPathPatterns(RequestMappingInfo info) {
+		return info.getPatternsCondition().getPatterns().stream()
+				.map(PathPattern::getPatternString)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+	}
+
 	/**
 	 * Check if the given RequestMappingInfo matches the current request and
 	 * return a (potentially new) instance with conditions that match the
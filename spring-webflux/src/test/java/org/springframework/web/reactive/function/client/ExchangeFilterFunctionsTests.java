@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -22,11 +22,14 @@ import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.task.support.ContextPropagator;
+import org.springframework.core.task.support.ThreadLocalAccessor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -97,6 +100,43 @@ public class ExchangeFilterFunctionsTests {
 		assertThat(filterInvoked[0]).isTrue();
 	}
 
+	@Test
+	public void propagateContext() {
+		ThreadLocal<String> holder = new ThreadLocal<>();
+		ContextPropagator propagator = new ContextPropagator(new ThreadLocalAccessor<String>() {
+			@Override
+			public String getValue() {
+				return holder.get();
+			}
+			@Override
+			public void setValue(String value) {
+				holder.set(value);
+			}
+			@Override
+			public void reset() {
+				holder.remove();
+			}
+		});
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+		ClientResponse response = mock(ClientResponse.class);
+		ExchangeFunction exchange = r -> Mono.just(response).publishOn(Schedulers.single());
+
+		holder.set("value");
+		try {
+			Mono<String> result = ExchangeFilterFunctions.propagateContext(propagator)
+					.filter(request, exchange)
+					.map(r -> String.valueOf(holder.get()));
+			assertThat(result.block()).isEqualTo("value");
+		}
+		finally {
+			holder.remove();
+		}
+		Mono<String> result = ExchangeFilterFunctions.propagateContext(propagator)
+				.filter(request, exchange)
+				.map(r -> String.valueOf(holder.get()));
+		assertThat(result.block()).isEqualTo("null");
+	}
+
 	@Test
 	public void basicAuthenticationUsernamePassword() {
 		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
@@ -24,6 +24,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Helps with configuring HandlerMappings path matching options such as trailing
@@ -43,6 +44,9 @@ import org.springframework.web.util.UrlPathHelper;
  */
 public class PathMatchConfigurer {
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	@Nullable
 	private Boolean suffixPatternMatch;
 
@@ -62,6 +66,26 @@ public class PathMatchConfigurer {
 	private Map<String, Predicate<Class<?>>> pathPrefixes;
 
 
+	/**
+	 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} as described in
+	 * {@link org.springframework.web.servlet.handler.AbstractHandlerMapping#setPatternParser},
+	 * for the {@code RequestMappingHandlerMapping} as well as for view controller,
+	 * bean name and resource handler mappings.
+	 * <p><strong>Note:</strong> This is mutually exclusive with the use of
+	 * {@link #setPathMatcher(PathMatcher)} and
+	 * {@link #setUseSuffixPatternMatch(Boolean)}; trailing slash matching
+	 * is then controlled through
+	 * {@link PathPatternParser#setMatchOptionalTrailingSeparator}.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to pre-parse patterns with
+	 * @since 5.2.7
+	 */
+	public PathMatchConfigurer setPatternParser(PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		return this;
+	}
+
 	/**
 	 * Whether to use suffix pattern match (".*") when matching patterns to
 	 * requests. If enabled a method mapped to "/users" also matches to "/users.*".
@@ -148,6 +172,15 @@ public class PathMatchConfigurer {
 	}
 
 
+	/**
+	 * Return the {@link PathPatternParser} to use, if configured.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
 	/**
 	 * Whether to use registered suffixes for pattern matching.
 	 * @deprecated as of 5.2.4. See class-level note in
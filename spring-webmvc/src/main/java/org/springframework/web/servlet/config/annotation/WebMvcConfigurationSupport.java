@@ -101,6 +101,7 @@ import org.springframework.web.servlet.resource.ResourceUrlProviderExposingInter
 import org.springframework.web.servlet.view.InternalResourceViewResolver;
 import org.springframework.web.servlet.view.ViewResolverComposite;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * This is the main class providing the configuration behind the MVC Java config.
@@ -289,6 +290,10 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 
 		PathMatchConfigurer configurer = getPathMatchConfigurer();
 
+		PathPatternParser patternParser = configurer.getPatternParser();
+		if (patternParser != null) {
+			mapping.setPatternParser(patternParser);
+		}
 		Boolean useSuffixPatternMatch = configurer.isUseSuffixPatternMatch();
 		if (useSuffixPatternMatch != null) {
 			mapping.setUseSuffixPatternMatch(useSuffixPatternMatch);
@@ -466,9 +471,17 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		handlerMapping.setUrlPathHelper(urlPathHelper);
 		handlerMapping.setInterceptors(getInterceptors(conversionService, resourceUrlProvider));
 		handlerMapping.setCorsConfigurations(getCorsConfigurations());
+		initPatternParser(handlerMapping);
 		return handlerMapping;
 	}
 
+	private void initPatternParser(AbstractHandlerMapping handlerMapping) {
+		PathPatternParser patternParser = getPathMatchConfigurer().getPatternParser();
+		if (patternParser != null) {
+			handlerMapping.setPatternParser(patternParser);
+		}
+	}
+
 	/**
 	 * Override this method to add view controllers.
 	 * @see ViewControllerRegistry
@@ -489,6 +502,7 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		mapping.setOrder(2);
 		mapping.setInterceptors(getInterceptors(conversionService, resourceUrlProvider));
 		mapping.setCorsConfigurations(getCorsConfigurations());
+		initPatternParser(mapping);
 		return mapping;
 	}
 
@@ -545,6 +559,7 @@ public class WebMvcConfigurationSupport implements ApplicationContextAware, Serv
 		handlerMapping.setUrlPathHelper(urlPathHelper);
 		handlerMapping.setInterceptors(getInterceptors(conversionService, resourceUrlProvider));
 		handlerMapping.setCorsConfigurations(getCorsConfigurations());
+		initPatternParser(handlerMapping);
 		return handlerMapping;
 	}
 
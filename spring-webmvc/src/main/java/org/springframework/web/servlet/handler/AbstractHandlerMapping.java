@@ -30,6 +30,8 @@ import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.Assert;
@@ -48,7 +50,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Abstract base class for {@link org.springframework.web.servlet.HandlerMapping}
@@ -59,6 +63,13 @@ import org.springframework.web.util.UrlPathHelper;
  * {@link #PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE}. Support for this attribute
  * is up to concrete subclasses, typically based on request URL mappings.
  *
+ * <p>URL patterns are matched with a {@link PathMatcher} against a
+ * {@link UrlPathHelper}-resolved lookup path by default. Alternatively,
+ * a {@link #setPatternParser PathPatternParser} may be configured to use
+ * parsed {@link org.springframework.web.util.pattern.PathPattern PathPatterns},
+ * matched against the request path as parsed once per request through
+ * {@link ServletRequestPathUtils}.
+ *
  * @author Juergen Hoeller
  * @author Rossen Stoyanchev
  * @since 07.04.2003
@@ -76,6 +87,9 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	private Object defaultHandler;
 
+	@Nullable
+	private PathPatternParser patternParser;
+
 	private UrlPathHelper urlPathHelper = new UrlPathHelper();
 
 	private PathMatcher pathMatcher = new AntPathMatcher();
@@ -113,6 +127,49 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		return this.defaultHandler;
 	}
 
+	/**
+	 * Enable the use of pre-parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * PathPatterns} as an alternative to String pattern matching with
+	 * {@link AntPathMatcher}. The syntax is largely the same but the
+	 * {@code PathPattern} syntax is more tailored for web applications,
+	 * and its implementation is more efficient since patterns are parsed
+	 * once and the request path is parsed only once per request.
+	 * <p>Note that when this property is set, the {@link #setPathMatcher
+	 * PathMatcher} is not used for request mapping and the lookup path is
+	 * derived from the parsed {@link RequestPath} rather than through the
+	 * {@link #setUrlPathHelper UrlPathHelper}, which remains in use for
+	 * decoding purposes only.
+	 * <p>By default this is not set.
+	 * @param patternParser the parser to use
+	 * @since 5.2.7
+	 */
+	public void setPatternParser(@Nullable PathPatternParser patternParser) {
+		this.patternParser = patternParser;
+		if (this.corsConfigurationSource instanceof UrlBasedCorsConfigurationSource) {
+			((UrlBasedCorsConfigurationSource) this.corsConfigurationSource).setPatternParser(patternParser);
+		}
+	}
+
+	/**
+	 * Return the {@link #setPatternParser(PathPatternParser) configured}
+	 * {@code PathPatternParser}, or {@code null}.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public PathPatternParser getPatternParser() {
+		return this.patternParser;
+	}
+
+	/**
+	 * Return {@code true} if a {@link #setPatternParser PathPatternParser}
+	 * has been configured.
+	 * @since 5.2.7
+	 */
+	@Override
+	public boolean usesPathPatterns() {
+		return (getPatternParser() != null);
+	}
+
 	/**
 	 * Shortcut to same property on underlying {@link #setUrlPathHelper UrlPathHelper}.
 	 * @see org.springframework.web.util.UrlPathHelper#setAlwaysUseFullPath(boolean)
@@ -216,6 +273,7 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 			source.setPathMatcher(this.pathMatcher);
 			source.setUrlPathHelper(this.urlPathHelper);
 			source.setLookupPathAttributeName(LOOKUP_PATH);
+			source.setPatternParser(this.patternParser);
 			this.corsConfigurationSource = source;
 		}
 		else {
@@ -443,6 +501,35 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 	@Nullable
 	protected abstract Object getHandlerInternal(HttpServletRequest request) throws Exception;
 
+	/**
+	 * Initialize the path to use for request mapping and expose it in the
+	 * {@link #LOOKUP_PATH} request attribute.
+	 * <p>When {@link #usesPathPatterns() parsed patterns} are enabled, the
+	 * lookup path is derived from the {@link ServletRequestPathUtils parsed
+	 * RequestPath}, which is parsed and cached first if necessary. The actual
+	 * pattern matching is done against the parsed path in that case, with the
+	 * (decoded) String lookup path used for direct path lookups only.
+	 * Otherwise the lookup path is resolved through the {@link UrlPathHelper}.
+	 * @param request the current request
+	 * @return the lookup path
+	 * @since 5.2.7
+	 */
+	protected String initLookupPath(HttpServletRequest request) {
+		String lookupPath;
+		if (usesPathPatterns()) {
+			RequestPath requestPath = ServletRequestPathUtils.getOrParseRequestPath(request);
+			lookupPath = this.urlPathHelper.removeSemicolonContent(requestPath.pathWithinApplication().value());
+			if (this.urlPathHelper.isUrlDecode()) {
+				lookupPath = this.urlPathHelper.decodeRequestString(request, lookupPath);
+			}
+		}
+		else {
+			lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+		}
+		request.setAttribute(LOOKUP_PATH, lookupPath);
+		return lookupPath;
+	}
+
 	/**
 	 * Build a {@link HandlerExecutionChain} for the given handler, including
 	 * applicable interceptors.
@@ -467,11 +554,20 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 		HandlerExecutionChain chain = (handler instanceof HandlerExecutionChain ?
 				(HandlerExecutionChain) handler : new HandlerExecutionChain(handler));
 
-		String lookupPath = this.urlPathHelper.getLookupPathForRequest(request, LOOKUP_PATH);
+		PathPatternParser parser = getPatternParser();
+		PathContainer path = null;
+		String lookupPath = null;
+		if (parser != null) {
+			path = ServletRequestPathUtils.getOrParseRequestPath(request).pathWithinApplication();
+		}
+		else {
+			lookupPath = this.urlPathHelper.getLookupPathForRequest(request, LOOKUP_PATH);
+		}
 		for (HandlerInterceptor interceptor : this.adaptedInterceptors) {
 			if (interceptor instanceof MappedInterceptor) {
 				MappedInterceptor mappedInterceptor = (MappedInterceptor) interceptor;
-				if (mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
+				if (parser != null ? mappedInterceptor.matches(path, parser) :
+						mappedInterceptor.matches(lookupPath, this.pathMatcher)) {
 					chain.addInterceptor(mappedInterceptor.getInterceptor());
 				}
 			}
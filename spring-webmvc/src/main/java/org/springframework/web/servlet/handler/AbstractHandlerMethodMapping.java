@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +44,7 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.core.KotlinDetector;
 import org.springframework.core.MethodIntrospector;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
@@ -52,6 +54,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsUtils;
 import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.PathPrefixIndex;
+import org.springframework.web.util.ServletRequestPathUtils;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define
@@ -360,8 +364,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	@Override
 	protected HandlerMethod getHandlerInternal(HttpServletRequest request) throws Exception {
-		String lookupPath = getUrlPathHelper().getLookupPathForRequest(request);
-		request.setAttribute(LOOKUP_PATH, lookupPath);
+		String lookupPath = initLookupPath(request);
 		this.mappingRegistry.acquireReadLock();
 		try {
 			HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
@@ -389,8 +392,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			addMatchingMappings(directPathMatches, matches, request);
 		}
 		if (matches.isEmpty()) {
-			// No choice but to go through all mappings...
-			addMatchingMappings(this.mappingRegistry.getMappings().keySet(), matches, request);
+			// Go through the mappings indexed under a prefix of the lookup path...
+			addMatchingMappings(getCandidateMappings(lookupPath, request), matches, request);
 		}
 
 		if (!matches.isEmpty()) {
@@ -423,6 +426,14 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 	}
 
+	private Collection<T> getCandidateMappings(String lookupPath, HttpServletRequest request) {
+		if (usesPathPatterns()) {
+			PathContainer path = ServletRequestPathUtils.getOrParseRequestPath(request).pathWithinApplication();
+			return this.mappingRegistry.getMappingsByPathPrefix(path);
+		}
+		return this.mappingRegistry.getMappingsByPathPrefix(lookupPath);
+	}
+
 	private void addMatchingMappings(Collection<T> mappings, List<Match> matches, HttpServletRequest request) {
 		for (T mapping : mappings) {
 			T match = getMatchingMapping(mapping, request);
@@ -504,6 +515,46 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 	 */
 	protected abstract Set<String> getMappingPathPatterns(T mapping);
 
+	/**
+	 * Return the request mapping paths that are not patterns, for use in a
+	 * direct (map-based) lookup by lookup path.
+	 * <p>The default implementation filters the {@link #getMappingPathPatterns
+	 * mapping path patterns} through
+	 * {@link org.springframework.util.PathMatcher#isPattern}.
+	 * @param mapping the mapping to introspect
+	 * @return the direct paths, possibly empty
+	 * @since 5.2.7
+	 */
+	protected Set<String> getDirectPaths(T mapping) {
+		Set<String> urls = Collections.emptySet();
+		for (String path : getMappingPathPatterns(mapping)) {
+			if (!getPathMatcher().isPattern(path)) {
+				urls = (urls.isEmpty() ? new LinkedHashSet<>(1) : urls);
+				urls.add(path);
+			}
+		}
+		return urls;
+	}
+
+	/**
+	 * Return the path patterns by which to index the given mapping, narrowing
+	 * down the mappings to check for a lookup path without a direct match to
+	 * those with a pattern that starts with the same literal path segments.
+	 * <p>Only to be overridden if {@link #getMatchingMapping} requires one of
+	 * the returned patterns to match the lookup path segment by segment, with
+	 * at most the last segment varying through suffix or trailing slash matching.
+	 * The default implementation returns {@code null}, in which case the
+	 * mapping is checked for every lookup path without a direct match.
+	 * @param mapping the mapping to introspect
+	 * @return the patterns to index the mapping by, or {@code null} for none
+	 * @since 5.2.7
+	 * @see PathPrefixIndex
+	 */
+	@Nullable
+	protected Set<String> getIndexedPathPatterns(T mapping) {
+		return null;
+	}
+
 	/**
 	 * Check if a mapping matches the current request and return a (potentially
 	 * new) mapping with conditions relevant to the current request.
@@ -536,6 +587,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
 		private final MultiValueMap<String, T> urlLookup = new LinkedMultiValueMap<>();
 
+		private final PathPrefixIndex<T> pathPrefixIndex = new PathPrefixIndex<>();
+
 		private final Map<String, List<HandlerMethod>> nameLookup = new ConcurrentHashMap<>();
 
 		private final Map<HandlerMethod, CorsConfiguration> corsLookup = new ConcurrentHashMap<>();
@@ -559,6 +612,24 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 			return this.urlLookup.get(urlPath);
 		}
 
+		/**
+		 * Return the mappings indexed under a prefix of the given lookup path,
+		 * i.e. the candidates for a pattern match. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(String lookupPath) {
+			return this.pathPrefixIndex.getCandidates(lookupPath);
+		}
+
+		/**
+		 * Variant of {@link #getMappingsByPathPrefix(String)} for a parsed
+		 * request path. Not thread-safe.
+		 * @see #acquireReadLock()
+		 */
+		public Collection<T> getMappingsByPathPrefix(PathContainer path) {
+			return this.pathPrefixIndex.getCandidates(path);
+		}
+
 		/**
 		 * Return handler methods by mapping name. Thread-safe for concurrent use.
 		 */
@@ -607,6 +678,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 				for (String url : directUrls) {
 					this.urlLookup.add(url, mapping);
 				}
+				this.pathPrefixIndex.add(mapping, getIndexedPathPatterns(mapping));
 
 				String name = null;
 				if (getNamingStrategy() != null) {
@@ -638,13 +710,7 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 		}
 
 		private List<String> getDirectUrls(T mapping) {
-			List<String> urls = new ArrayList<>(1);
-			for (String path : getMappingPathPatterns(mapping)) {
-				if (!getPathMatcher().isPattern(path)) {
-					urls.add(path);
-				}
-			}
-			return urls;
+			return new ArrayList<>(getDirectPaths(mapping));
 		}
 
 		private void addMappingName(String name, HandlerMethod handlerMethod) {
@@ -685,6 +751,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 					}
 				}
 
+				this.pathPrefixIndex.remove(definition.getMapping());
+
 				removeMappingName(definition);
 
 				this.corsLookup.remove(definition.getHandlerMethod());
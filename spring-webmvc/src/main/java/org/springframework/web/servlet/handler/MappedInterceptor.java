@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,12 +19,15 @@ package org.springframework.web.servlet.handler;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.PathMatcher;
 import org.springframework.web.context.request.WebRequestInterceptor;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Contains and delegates calls to a {@link HandlerInterceptor} along with
@@ -37,6 +40,9 @@ import org.springframework.web.servlet.ModelAndView;
  * {@code AbstractHandlerMethodMapping} (including ancestor ApplicationContext's) which
  * effectively means the interceptor is registered "globally" with all handler mappings.
  *
+ * <p>Patterns are matched with a {@link PathMatcher} by default, or parsed into
+ * {@link PathPattern}s once if the handler mapping uses a {@link PathPatternParser}.
+ *
  * @author Keith Donald
  * @author Rossen Stoyanchev
  * @author Brian Clozel
@@ -55,6 +61,9 @@ public final class MappedInterceptor implements HandlerInterceptor {
 	@Nullable
 	private PathMatcher pathMatcher;
 
+	@Nullable
+	private volatile ParsedPatterns parsedPatterns;
+
 
 	/**
 	 * Create a new MappedInterceptor instance.
@@ -163,6 +172,38 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		return false;
 	}
 
+	/**
+	 * Determine a match for the given parsed request path, using
+	 * {@link PathPattern}s parsed from the include and exclude patterns
+	 * with the given parser. The patterns are parsed on first use and
+	 * then reused for subsequent matches with the same parser.
+	 * @param path the path within the application of the current request
+	 * @param parser the parser to use for the include and exclude patterns
+	 * @return {@code true} if the interceptor applies to the given request path
+	 * @since 5.2.7
+	 */
+	public boolean matches(PathContainer path, PathPatternParser parser) {
+		ParsedPatterns patterns = this.parsedPatterns;
+		if (patterns == null || patterns.parser != parser) {
+			patterns = new ParsedPatterns(parser, this.includePatterns, this.excludePatterns);
+			this.parsedPatterns = patterns;
+		}
+		for (PathPattern pattern : patterns.excludePatterns) {
+			if (pattern.matches(path)) {
+				return false;
+			}
+		}
+		if (patterns.includePatterns.length == 0) {
+			return true;
+		}
+		for (PathPattern pattern : patterns.includePatterns) {
+			if (pattern.matches(path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
 			throws Exception {
@@ -184,4 +225,36 @@ public final class MappedInterceptor implements HandlerInterceptor {
 		this.interceptor.afterCompletion(request, response, handler, ex);
 	}
 
+
+	/**
+	 * Include and exclude patterns parsed with a specific {@link PathPatternParser}.
+	 */
+	private static final class ParsedPatterns {
+
+		final PathPatternParser parser;
+
+		final PathPattern[] includePatterns;
+
+		final PathPattern[] excludePatterns;
+
+		ParsedPatterns(PathPatternParser parser, @Nullable String[] includePatterns,
+				@Nullable String[] excludePatterns) {
+
+			this.parser = parser;
+			this.includePatterns = parse(parser, includePatterns);
+			this.excludePatterns = parse(parser, excludePatterns);
+		}
+
+		private static PathPattern[] parse(PathPatternParser parser, @Nullable String[] patterns) {
+			if (ObjectUtils.isEmpty(patterns)) {
+				return new PathPattern[0];
+			}
+			PathPattern[] result = new PathPattern[patterns.length];
+			for (int i = 0; i < patterns.length; i++) {
+				result[i] = parser.parse(patterns[i]);
+			}
+			return result;
+		}
+	}
+
 }
@@ -31,6 +31,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.HeadersRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ParamsRequestCondition;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.PatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
 import org.springframework.web.servlet.mvc.condition.RequestCondition;
@@ -38,11 +39,12 @@ import org.springframework.web.servlet.mvc.condition.RequestConditionHolder;
 import org.springframework.web.servlet.mvc.condition.RequestMethodsRequestCondition;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 /**
  * Request mapping information. Encapsulates the following request mapping conditions:
  * <ol>
- * <li>{@link PatternsRequestCondition}
+ * <li>{@link PatternsRequestCondition} or {@link PathPatternsRequestCondition}
  * <li>{@link RequestMethodsRequestCondition}
  * <li>{@link ParamsRequestCondition}
  * <li>{@link HeadersRequestCondition}
@@ -51,6 +53,12 @@ import org.springframework.web.util.UrlPathHelper;
  * <li>{@code RequestCondition} (optional, custom request condition)
  * </ol>
  *
+ * <p>A {@link PathPatternsRequestCondition} with parsed
+ * {@link org.springframework.web.util.pattern.PathPattern PathPatterns} is
+ * used instead of a {@link PatternsRequestCondition} if a
+ * {@link BuilderConfiguration#setPatternParser PathPatternParser} is
+ * configured; only one of the two is active for any given instance.
+ *
  * @author Arjen Poutsma
  * @author Rossen Stoyanchev
  * @since 3.1
@@ -76,6 +84,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	@Nullable
 	private final String name;
 
+	@Nullable
+	private final PathPatternsRequestCondition pathPatternsCondition;
+
 	private final PatternsRequestCondition patternsCondition;
 
 	private final RequestMethodsRequestCondition methodsCondition;
@@ -96,7 +107,17 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			@Nullable HeadersRequestCondition headers, @Nullable ConsumesRequestCondition consumes,
 			@Nullable ProducesRequestCondition produces, @Nullable RequestCondition<?> custom) {
 
+		this(name, null, patterns, methods, params, headers, consumes, produces, custom);
+	}
+
+	private RequestMappingInfo(@Nullable String name, @Nullable PathPatternsRequestCondition pathPatterns,
+			@Nullable PatternsRequestCondition patterns, @Nullable RequestMethodsRequestCondition methods,
+			@Nullable ParamsRequestCondition params, @Nullable HeadersRequestCondition headers,
+			@Nullable ConsumesRequestCondition consumes, @Nullable ProducesRequestCondition produces,
+			@Nullable RequestCondition<?> custom) {
+
 		this.name = (StringUtils.hasText(name) ? name : null);
+		this.pathPatternsCondition = pathPatterns;
 		this.patternsCondition = (patterns != null ? patterns : EMPTY_PATTERNS);
 		this.methodsCondition = (methods != null ? methods : EMPTY_REQUEST_METHODS);
 		this.paramsCondition = (params != null ? params : EMPTY_PARAMS);
@@ -121,8 +142,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	 * Re-create a RequestMappingInfo with the given custom request condition.
 	 */
 	public RequestMappingInfo(RequestMappingInfo info, @Nullable RequestCondition<?> customRequestCondition) {
-		this(info.name, info.patternsCondition, info.methodsCondition, info.paramsCondition, info.headersCondition,
-				info.consumesCondition, info.producesCondition, customRequestCondition);
+		this(info.name, info.pathPatternsCondition, info.patternsCondition, info.methodsCondition,
+				info.paramsCondition, info.headersCondition, info.consumesCondition, info.producesCondition,
+				customRequestCondition);
 	}
 
 
@@ -137,11 +159,45 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	/**
 	 * Return the URL patterns of this {@link RequestMappingInfo};
 	 * or instance with 0 patterns (never {@code null}).
+	 * <p>Note that this condition is empty if parsed
+	 * {@link #getPathPatternsCondition() path patterns} are in use.
+	 * @see #getActivePatternsCondition()
 	 */
 	public PatternsRequestCondition getPatternsCondition() {
 		return this.patternsCondition;
 	}
 
+	/**
+	 * Return the parsed {@link org.springframework.web.util.pattern.PathPattern
+	 * path patterns} of this {@link RequestMappingInfo}, or {@code null} if
+	 * String patterns are in use through {@link #getPatternsCondition()}.
+	 * @since 5.2.7
+	 * @see BuilderConfiguration#setPatternParser
+	 */
+	@Nullable
+	public PathPatternsRequestCondition getPathPatternsCondition() {
+		return this.pathPatternsCondition;
+	}
+
+	/**
+	 * Return the patterns condition in use, either
+	 * {@link #getPathPatternsCondition()} or {@link #getPatternsCondition()}.
+	 * @since 5.2.7
+	 */
+	public RequestCondition<?> getActivePatternsCondition() {
+		return (this.pathPatternsCondition != null ? this.pathPatternsCondition : this.patternsCondition);
+	}
+
+	/**
+	 * Return the patterns of the {@link #getActivePatternsCondition() active}
+	 * patterns condition as String values.
+	 * @since 5.2.7
+	 */
+	public Set<String> getPatternValues() {
+		return (this.pathPatternsCondition != null ?
+				this.pathPatternsCondition.getPatternValues() : this.patternsCondition.getPatterns());
+	}
+
 	/**
 	 * Return the HTTP request methods of this {@link RequestMappingInfo};
 	 * or instance with 0 request methods (never {@code null}).
@@ -199,6 +255,7 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	@Override
 	public RequestMappingInfo combine(RequestMappingInfo other) {
 		String name = combineNames(other);
+		PathPatternsRequestCondition pathPatterns = combinePathPatterns(other);
 		PatternsRequestCondition patterns = this.patternsCondition.combine(other.patternsCondition);
 		RequestMethodsRequestCondition methods = this.methodsCondition.combine(other.methodsCondition);
 		ParamsRequestCondition params = this.paramsCondition.combine(other.paramsCondition);
@@ -207,10 +264,23 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		ProducesRequestCondition produces = this.producesCondition.combine(other.producesCondition);
 		RequestConditionHolder custom = this.customConditionHolder.combine(other.customConditionHolder);
 
-		return new RequestMappingInfo(name, patterns,
+		return new RequestMappingInfo(name, pathPatterns, patterns,
 				methods, params, headers, consumes, produces, custom.getCondition());
 	}
 
+	@Nullable
+	private PathPatternsRequestCondition combinePathPatterns(RequestMappingInfo other) {
+		if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+			return this.pathPatternsCondition.combine(other.pathPatternsCondition);
+		}
+		else if (this.pathPatternsCondition != null) {
+			return this.pathPatternsCondition;
+		}
+		else {
+			return other.pathPatternsCondition;
+		}
+	}
+
 	@Nullable
 	private String combineNames(RequestMappingInfo other) {
 		if (this.name != null && other.name != null) {
@@ -255,16 +325,26 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		if (produces == null) {
 			return null;
 		}
-		PatternsRequestCondition patterns = this.patternsCondition.getMatchingCondition(request);
-		if (patterns == null) {
-			return null;
+		PathPatternsRequestCondition pathPatterns = null;
+		PatternsRequestCondition patterns = this.patternsCondition;
+		if (this.pathPatternsCondition != null) {
+			pathPatterns = this.pathPatternsCondition.getMatchingCondition(request);
+			if (pathPatterns == null) {
+				return null;
+			}
+		}
+		else {
+			patterns = this.patternsCondition.getMatchingCondition(request);
+			if (patterns == null) {
+				return null;
+			}
 		}
 		RequestConditionHolder custom = this.customConditionHolder.getMatchingCondition(request);
 		if (custom == null) {
 			return null;
 		}
 
-		return new RequestMappingInfo(this.name, patterns,
+		return new RequestMappingInfo(this.name, pathPatterns, patterns,
 				methods, params, headers, consumes, produces, custom.getCondition());
 	}
 
@@ -284,7 +364,12 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 				return result;
 			}
 		}
-		result = this.patternsCondition.compareTo(other.getPatternsCondition(), request);
+		if (this.pathPatternsCondition != null && other.pathPatternsCondition != null) {
+			result = this.pathPatternsCondition.compareTo(other.pathPatternsCondition, request);
+		}
+		else {
+			result = this.patternsCondition.compareTo(other.getPatternsCondition(), request);
+		}
 		if (result != 0) {
 			return result;
 		}
@@ -325,7 +410,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			return false;
 		}
 		RequestMappingInfo otherInfo = (RequestMappingInfo) other;
-		return (this.patternsCondition.equals(otherInfo.patternsCondition) &&
+		return (ObjectUtils.nullSafeEquals(this.pathPatternsCondition, otherInfo.pathPatternsCondition) &&
+				this.patternsCondition.equals(otherInfo.patternsCondition) &&
 				this.methodsCondition.equals(otherInfo.methodsCondition) &&
 				this.paramsCondition.equals(otherInfo.paramsCondition) &&
 				this.headersCondition.equals(otherInfo.headersCondition) &&
@@ -336,7 +422,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 
 	@Override
 	public int hashCode() {
-		return (this.patternsCondition.hashCode() * 31 +  // primary differentiation
+		return ((ObjectUtils.nullSafeHashCode(this.pathPatternsCondition) +
+				this.patternsCondition.hashCode()) * 31 +  // primary differentiation
 				this.methodsCondition.hashCode() + this.paramsCondition.hashCode() +
 				this.headersCondition.hashCode() + this.consumesCondition.hashCode() +
 				this.producesCondition.hashCode() + this.customConditionHolder.hashCode());
@@ -349,8 +436,8 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 			Set<RequestMethod> httpMethods = this.methodsCondition.getMethods();
 			builder.append(httpMethods.size() == 1 ? httpMethods.iterator().next() : httpMethods);
 		}
-		if (!this.patternsCondition.isEmpty()) {
-			Set<String> patterns = this.patternsCondition.getPatterns();
+		Set<String> patterns = getPatternValues();
+		if (!patterns.isEmpty()) {
 			builder.append(" ").append(patterns.size() == 1 ? patterns.iterator().next() : patterns);
 		}
 		if (!this.paramsCondition.isEmpty()) {
@@ -536,15 +623,24 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@SuppressWarnings("deprecation")
 		public RequestMappingInfo build() {
 
-			PatternsRequestCondition patternsCondition = ObjectUtils.isEmpty(this.paths) ? null :
-					new PatternsRequestCondition(
-							this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
-							this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
-							this.options.getFileExtensions());
+			PathPatternsRequestCondition pathPatternsCondition = null;
+			PatternsRequestCondition patternsCondition = null;
+			PathPatternParser parser = this.options.getPatternParser();
+			if (parser != null) {
+				pathPatternsCondition = (ObjectUtils.isEmpty(this.paths) ? null :
+						new PathPatternsRequestCondition(parser, this.paths));
+			}
+			else {
+				patternsCondition = (ObjectUtils.isEmpty(this.paths) ? null :
+						new PatternsRequestCondition(
+								this.paths, this.options.getUrlPathHelper(), this.options.getPathMatcher(),
+								this.options.useSuffixPatternMatch(), this.options.useTrailingSlashMatch(),
+								this.options.getFileExtensions()));
+			}
 
 			ContentNegotiationManager manager = this.options.getContentNegotiationManager();
 
-			return new RequestMappingInfo(this.mappingName, patternsCondition,
+			return new RequestMappingInfo(this.mappingName, pathPatternsCondition, patternsCondition,
 					ObjectUtils.isEmpty(this.methods) ?
 							null : new RequestMethodsRequestCondition(this.methods),
 					ObjectUtils.isEmpty(this.params) ?
@@ -569,6 +665,9 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 	 */
 	public static class BuilderConfiguration {
 
+		@Nullable
+		private PathPatternParser patternParser;
+
 		@Nullable
 		private UrlPathHelper urlPathHelper;
 
@@ -584,6 +683,28 @@ public final class RequestMappingInfo implements RequestCondition<RequestMapping
 		@Nullable
 		private ContentNegotiationManager contentNegotiationManager;
 
+		/**
+		 * Enable use of parsed {@link org.springframework.web.util.pattern.PathPattern
+		 * PathPatterns}, creating a {@link PathPatternsRequestCondition} rather than
+		 * a {@link PatternsRequestCondition}. The {@link #setUrlPathHelper UrlPathHelper},
+		 * {@link #setPathMatcher PathMatcher} and suffix/trailing slash match options
+		 * are then not used; trailing slash matching is a parser option instead.
+		 * <p>By default this is not set.
+		 * @since 5.2.7
+		 */
+		public void setPatternParser(@Nullable PathPatternParser patternParser) {
+			this.patternParser = patternParser;
+		}
+
+		/**
+		 * Return the {@link #setPatternParser configured} {@code PathPatternParser}, if any.
+		 * @since 5.2.7
+		 */
+		@Nullable
+		public PathPatternParser getPatternParser() {
+			return this.patternParser;
+		}
+
 		/**
 		 * Set a custom UrlPathHelper to use for the PatternsRequestCondition.
 		 * <p>By default this is not set.
@@ -33,6 +33,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
@@ -45,8 +49,11 @@ import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.AbstractHandlerMethodMapping;
 import org.springframework.web.servlet.mvc.condition.NameValueExpression;
+import org.springframework.web.servlet.mvc.condition.PathPatternsRequestCondition;
 import org.springframework.web.servlet.mvc.condition.ProducesRequestCondition;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPattern;
 
 /**
  * Abstract base class for classes for which {@link RequestMappingInfo} defines
@@ -81,7 +88,34 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	 */
 	@Override
 	protected Set<String> getMappingPathPatterns(RequestMappingInfo info) {
-		return info.getPatternsCondition().getPatterns();
+		return info.getPatternValues();
+	}
+
+	/**
+	 * Return the non-pattern paths of the supplied {@link RequestMappingInfo},
+	 * determined through {@link PathPattern#hasPatternSyntax()} in case of
+	 * parsed patterns, or through the {@code PathMatcher} otherwise.
+	 */
+	@Override
+	protected Set<String> getDirectPaths(RequestMappingInfo info) {
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		return (pathPatterns != null ? pathPatterns.getDirectPaths() : super.getDirectPaths(info));
+	}
+
+	/**
+	 * Index the mapping by its URL patterns, provided that these are matched
+	 * through {@link PathPattern}s or through a plain {@link AntPathMatcher}.
+	 * A custom {@code PathMatcher} may apply different matching rules, so the
+	 * mapping is checked for every lookup path without a direct match then.
+	 */
+	@Override
+	@Nullable
+	protected Set<String> getIndexedPathPatterns(RequestMappingInfo info) {
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		if (pathPatterns != null) {
+			return pathPatterns.getPatternValues();
+		}
+		return (getPathMatcher().getClass() == AntPathMatcher.class ? info.getPatternsCondition().getPatterns() : null);
 	}
 
 	/**
@@ -124,10 +158,23 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 	protected void handleMatch(RequestMappingInfo info, String lookupPath, HttpServletRequest request) {
 		super.handleMatch(info, lookupPath, request);
 
+		PathPatternsRequestCondition pathPatterns = info.getPathPatternsCondition();
+		if (pathPatterns != null) {
+			extractMatchDetails(pathPatterns, lookupPath, request);
+		}
+		else {
+			extractMatchDetails(info.getPatternsCondition().getPatterns(), lookupPath, request);
+		}
+
+		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
+			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
+			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+		}
+	}
+
+	private void extractMatchDetails(Set<String> patterns, String lookupPath, HttpServletRequest request) {
 		String bestPattern;
 		Map<String, String> uriVariables;
-
-		Set<String> patterns = info.getPatternsCondition().getPatterns();
 		if (patterns.isEmpty()) {
 			bestPattern = lookupPath;
 			uriVariables = Collections.emptyMap();
@@ -146,11 +193,29 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		Map<String, String> decodedUriVariables = getUrlPathHelper().decodePathVariables(request, uriVariables);
 		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, decodedUriVariables);
+	}
 
-		if (!info.getProducesCondition().getProducibleMediaTypes().isEmpty()) {
-			Set<MediaType> mediaTypes = info.getProducesCondition().getProducibleMediaTypes();
-			request.setAttribute(PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, mediaTypes);
+	private void extractMatchDetails(
+			PathPatternsRequestCondition condition, String lookupPath, HttpServletRequest request) {
+
+		PathPattern bestPattern = condition.getFirstPattern();
+		Map<String, String> uriVariables;
+		if (condition.isEmptyPathMapping()) {
+			request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, lookupPath);
+			uriVariables = Collections.emptyMap();
+		}
+		else {
+			PathContainer path = ServletRequestPathUtils.getParsedRequestPath(request).pathWithinApplication();
+			PathPattern.PathMatchInfo result = bestPattern.matchAndExtract(path);
+			Assert.notNull(result, () -> "Expected bestPattern: " + bestPattern + " to match lookupPath " + path);
+			request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, bestPattern.getPatternString());
+			uriVariables = result.getUriVariables();
+			if (isMatrixVariableContentAvailable()) {
+				request.setAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE, result.getMatrixVariables());
+			}
 		}
+		// Already decoded by PathPattern
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, uriVariables);
 	}
 
 	private boolean isMatrixVariableContentAvailable() {
@@ -250,7 +315,7 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
 
 		public PartialMatchHelper(Set<RequestMappingInfo> infos, HttpServletRequest request) {
 			for (RequestMappingInfo info : infos) {
-				if (info.getPatternsCondition().getMatchingCondition(request) != null) {
+				if (info.getActivePatternsCondition().getMatchingCondition(request) != null) {
 					this.partialMatches.add(new PartialMatch(info, request));
 				}
 			}
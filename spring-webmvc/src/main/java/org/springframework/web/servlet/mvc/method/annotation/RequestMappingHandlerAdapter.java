@@ -48,7 +48,9 @@ import org.springframework.http.converter.support.AllEncompassingFormHttpMessage
 import org.springframework.http.converter.xml.SourceHttpMessageConverter;
 import org.springframework.lang.Nullable;
 import org.springframework.ui.ModelMap;
+import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ReflectionUtils.MethodFilter;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.InitBinder;
@@ -167,6 +169,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private ReactiveAdapterRegistry reactiveAdapterRegistry = ReactiveAdapterRegistry.getSharedInstance();
 
+	private int streamingFlushSize = 1;
+
 	private boolean ignoreDefaultModelOnRedirect = false;
 
 	private int cacheSecondsForSessionAttributeHandlers = 0;
@@ -191,6 +195,8 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 	private final Map<ControllerAdviceBean, Set<Method>> modelAttributeAdviceCache = new LinkedHashMap<>();
 
+	private final Map<HandlerMethod, InvocationSetup> invocationSetupCache = new ConcurrentReferenceHashMap<>(256);
+
 
 	public RequestMappingHandlerAdapter() {
 		this.messageConverters = new ArrayList<>(4);
@@ -454,6 +460,21 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return this.reactiveAdapterRegistry;
 	}
 
+	/**
+	 * Set the number of elements to write before flushing the response when
+	 * streaming a {@code @ResponseBody} {@link java.util.stream.Stream},
+	 * {@link java.util.Iterator} or {@link Iterable} from a request mapping
+	 * that produces a streaming JSON media type such as
+	 * {@code "application/x-ndjson"}.
+	 * <p>The default is 1, i.e. flush after every element.
+	 * @since 5.2.7
+	 * @see StreamingJsonReturnValueHandler#setFlushSize
+	 */
+	public void setStreamingFlushSize(int streamingFlushSize) {
+		Assert.isTrue(streamingFlushSize > 0, "Flush size must be greater than 0");
+		this.streamingFlushSize = streamingFlushSize;
+	}
+
 	/**
 	 * By default the content of the "default" model is used both during
 	 * rendering and redirect scenarios. Alternatively a controller method
@@ -557,6 +578,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 	public void afterPropertiesSet() {
 		// Do this first, it may add ResponseBody advice beans
 		initControllerAdviceCache();
+		this.invocationSetupCache.clear();
 
 		if (this.argumentResolvers == null) {
 			List<HandlerMethodArgumentResolver> resolvers = getDefaultArgumentResolvers();
@@ -730,6 +752,11 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		// Annotation-based return value types
 		handlers.add(new ModelAttributeMethodProcessor(false));
+		StreamingJsonReturnValueHandler streamingHandler =
+				new StreamingJsonReturnValueHandler(getMessageConverters(),
+						this.contentNegotiationManager, this.requestResponseBodyAdvice);
+		streamingHandler.setFlushSize(this.streamingFlushSize);
+		handlers.add(streamingHandler);
 		handlers.add(new RequestResponseBodyMethodProcessor(getMessageConverters(),
 				this.contentNegotiationManager, this.requestResponseBodyAdvice));
 
@@ -838,22 +865,16 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 
 		ServletWebRequest webRequest = new ServletWebRequest(request, response);
 		try {
-			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod);
-			ModelFactory modelFactory = getModelFactory(handlerMethod, binderFactory);
-
-			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
-			if (this.argumentResolvers != null) {
-				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
-			}
-			if (this.returnValueHandlers != null) {
-				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
-			}
-			invocableMethod.setDataBinderFactory(binderFactory);
-			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+			InvocationSetup setup = getInvocationSetup(handlerMethod);
+			ServletInvocableHandlerMethod invocableMethod = setup.invocableMethod;
 
 			ModelAndViewContainer mavContainer = new ModelAndViewContainer();
 			mavContainer.addAllAttributes(RequestContextUtils.getInputFlashMap(request));
-			modelFactory.initModel(webRequest, mavContainer, invocableMethod);
+			ModelFactory modelFactory = null;
+			if (setup.requiresModelInitialization()) {
+				modelFactory = setup.createModelFactory();
+				modelFactory.initModel(webRequest, mavContainer, invocableMethod);
+			}
 			mavContainer.setIgnoreDefaultModelOnRedirect(this.ignoreDefaultModelOnRedirect);
 
 			AsyncWebRequest asyncWebRequest = WebAsyncUtils.createAsyncWebRequest(request, response);
@@ -881,6 +902,13 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 				return null;
 			}
 
+			if (modelFactory == null) {
+				if (mavContainer.isRequestHandled()) {
+					// No model attribute methods or session attributes, no view to render
+					return null;
+				}
+				modelFactory = setup.createModelFactory();
+			}
 			return getModelAndView(mavContainer, modelFactory, webRequest);
 		}
 		finally {
@@ -888,6 +916,51 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		}
 	}
 
+	/**
+	 * Return the {@link InvocationSetup} for the given handler method, reusing
+	 * a previously prepared one as long as the handler resolves to the same
+	 * instance. A setup which involves non-singleton {@code @ControllerAdvice}
+	 * beans is not cached, so that such beans are obtained for each request.
+	 */
+	private InvocationSetup getInvocationSetup(HandlerMethod handlerMethod) throws Exception {
+		HandlerMethod cacheKey = handlerMethod.getResolvedFromHandlerMethod();
+		if (cacheKey == null) {
+			cacheKey = handlerMethod;
+		}
+		InvocationSetup setup = this.invocationSetupCache.get(cacheKey);
+		if (setup == null || !setup.isApplicableTo(handlerMethod)) {
+			Map<ControllerAdviceBean, Object> adviceBeans = new LinkedHashMap<>();
+			WebDataBinderFactory binderFactory = getDataBinderFactory(handlerMethod, adviceBeans);
+			List<InvocableHandlerMethod> attrMethods = getModelAttributeMethods(handlerMethod, binderFactory, adviceBeans);
+
+			ServletInvocableHandlerMethod invocableMethod = createInvocableHandlerMethod(handlerMethod);
+			if (this.argumentResolvers != null) {
+				invocableMethod.setHandlerMethodArgumentResolvers(this.argumentResolvers);
+			}
+			if (this.returnValueHandlers != null) {
+				invocableMethod.setHandlerMethodReturnValueHandlers(this.returnValueHandlers);
+			}
+			invocableMethod.setDataBinderFactory(binderFactory);
+			invocableMethod.setParameterNameDiscoverer(this.parameterNameDiscoverer);
+
+			setup = new InvocationSetup(handlerMethod.getBean(), invocableMethod,
+					binderFactory, attrMethods, getSessionAttributesHandler(handlerMethod));
+			if (isSingletonAdvice(adviceBeans.keySet())) {
+				this.invocationSetupCache.put(cacheKey, setup);
+			}
+		}
+		return setup;
+	}
+
+	private boolean isSingletonAdvice(Set<ControllerAdviceBean> adviceBeans) {
+		for (ControllerAdviceBean adviceBean : adviceBeans) {
+			if (!adviceBean.isSingleton()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Create a {@link ServletInvocableHandlerMethod} from the given {@link HandlerMethod} definition.
 	 * @param handlerMethod the {@link HandlerMethod} definition
@@ -898,8 +971,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return new ServletInvocableHandlerMethod(handlerMethod);
 	}
 
-	private ModelFactory getModelFactory(HandlerMethod handlerMethod, WebDataBinderFactory binderFactory) {
-		SessionAttributesHandler sessionAttrHandler = getSessionAttributesHandler(handlerMethod);
+	private List<InvocableHandlerMethod> getModelAttributeMethods(HandlerMethod handlerMethod,
+			WebDataBinderFactory binderFactory, Map<ControllerAdviceBean, Object> adviceBeans) {
+
 		Class<?> handlerType = handlerMethod.getBeanType();
 		Set<Method> methods = this.modelAttributeCache.get(handlerType);
 		if (methods == null) {
@@ -910,7 +984,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		// Global methods first
 		this.modelAttributeAdviceCache.forEach((controllerAdviceBean, methodSet) -> {
 			if (controllerAdviceBean.isApplicableToBeanType(handlerType)) {
-				Object bean = controllerAdviceBean.resolveBean();
+				Object bean = adviceBeans.computeIfAbsent(controllerAdviceBean, ControllerAdviceBean::resolveBean);
 				for (Method method : methodSet) {
 					attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 				}
@@ -920,7 +994,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 			Object bean = handlerMethod.getBean();
 			attrMethods.add(createModelAttributeMethod(binderFactory, bean, method));
 		}
-		return new ModelFactory(attrMethods, binderFactory, sessionAttrHandler);
+		return attrMethods;
 	}
 
 	private InvocableHandlerMethod createModelAttributeMethod(WebDataBinderFactory factory, Object bean, Method method) {
@@ -933,7 +1007,9 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return attrMethod;
 	}
 
-	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod) throws Exception {
+	private WebDataBinderFactory getDataBinderFactory(HandlerMethod handlerMethod,
+			Map<ControllerAdviceBean, Object> adviceBeans) throws Exception {
+
 		Class<?> handlerType = handlerMethod.getBeanType();
 		Set<Method> methods = this.initBinderCache.get(handlerType);
 		if (methods == null) {
@@ -944,7 +1020,7 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		// Global methods first
 		this.initBinderAdviceCache.forEach((controllerAdviceBean, methodSet) -> {
 			if (controllerAdviceBean.isApplicableToBeanType(handlerType)) {
-				Object bean = controllerAdviceBean.resolveBean();
+				Object bean = adviceBeans.computeIfAbsent(controllerAdviceBean, ControllerAdviceBean::resolveBean);
 				for (Method method : methodSet) {
 					initBinderMethods.add(createInitBinderMethod(bean, method));
 				}
@@ -1004,4 +1080,63 @@ public class RequestMappingHandlerAdapter extends AbstractHandlerMethodAdapter
 		return mav;
 	}
 
+
+	/**
+	 * The per-handler-method setup for {@link #invokeHandlerMethod}: the
+	 * {@link ServletInvocableHandlerMethod} with its argument resolvers and
+	 * return value handlers, the {@code WebDataBinderFactory} and the
+	 * {@code @ModelAttribute} methods, bound to a specific handler instance
+	 * and to singleton {@code @ControllerAdvice} beans.
+	 */
+	private static final class InvocationSetup {
+
+		private final Object handlerBean;
+
+		private final ServletInvocableHandlerMethod invocableMethod;
+
+		private final WebDataBinderFactory binderFactory;
+
+		private final List<InvocableHandlerMethod> modelAttributeMethods;
+
+		private final SessionAttributesHandler sessionAttributesHandler;
+
+		InvocationSetup(Object handlerBean, ServletInvocableHandlerMethod invocableMethod,
+				WebDataBinderFactory binderFactory, List<InvocableHandlerMethod> modelAttributeMethods,
+				SessionAttributesHandler sessionAttributesHandler) {
+
+			this.handlerBean = handlerBean;
+			this.invocableMethod = invocableMethod;
+			this.binderFactory = binderFactory;
+			this.modelAttributeMethods = modelAttributeMethods;
+			this.sessionAttributesHandler = sessionAttributesHandler;
+		}
+
+		/**
+		 * Whether this setup may be used for the given (resolved) handler method,
+		 * i.e. the handler bean, which may be a non-singleton, is still the
+		 * instance that this setup was prepared with.
+		 */
+		boolean isApplicableTo(HandlerMethod handlerMethod) {
+			return (this.handlerBean == handlerMethod.getBean());
+		}
+
+		/**
+		 * Whether the model needs to be initialized before invoking the handler
+		 * method, i.e. there are {@code @ModelAttribute} methods to invoke or
+		 * session attributes to retrieve. If not, the {@link ModelFactory} is
+		 * only needed in case of a view to render.
+		 */
+		boolean requiresModelInitialization() {
+			return (!this.modelAttributeMethods.isEmpty() || this.sessionAttributesHandler.hasSessionAttributes());
+		}
+
+		/**
+		 * Create a {@link ModelFactory} for a single request, since it keeps
+		 * track of the model attribute methods invoked so far.
+		 */
+		ModelFactory createModelFactory() {
+			return new ModelFactory(this.modelAttributeMethods, this.binderFactory, this.sessionAttributesHandler);
+		}
+	}
+
 }
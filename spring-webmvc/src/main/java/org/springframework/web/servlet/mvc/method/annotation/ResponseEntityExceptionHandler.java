@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.ConversionNotSupportedException;
 import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.task.TaskOverloadException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -118,7 +119,8 @@ public abstract class ResponseEntityExceptionHandler {
 			MissingServletRequestPartException.class,
 			BindException.class,
 			NoHandlerFoundException.class,
-			AsyncRequestTimeoutException.class
+			AsyncRequestTimeoutException.class,
+			TaskOverloadException.class
 		})
 	@Nullable
 	public final ResponseEntity<Object> handleException(Exception ex, WebRequest request) throws Exception {
@@ -184,6 +186,10 @@ public abstract class ResponseEntityExceptionHandler {
 			HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
 			return handleAsyncRequestTimeoutException((AsyncRequestTimeoutException) ex, headers, status, request);
 		}
+		else if (ex instanceof TaskOverloadException) {
+			HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+			return handleTaskOverloadException((TaskOverloadException) ex, headers, status, request);
+		}
 		else {
 			// Unknown exception, typically a wrapper with a common MVC exception as cause
 			// (since @ExceptionHandler type declarations also match first-level causes):
@@ -446,6 +452,34 @@ public abstract class ResponseEntityExceptionHandler {
 		return handleExceptionInternal(ex, null, headers, status, webRequest);
 	}
 
+	/**
+	 * Customize the response for TaskOverloadException.
+	 * <p>This method delegates to {@link #handleExceptionInternal}.
+	 * @param ex the exception
+	 * @param headers the headers to be written to the response
+	 * @param status the selected response status
+	 * @param webRequest the current request
+	 * @return a {@code ResponseEntity} instance
+	 * @since 5.2.7
+	 */
+	@Nullable
+	protected ResponseEntity<Object> handleTaskOverloadException(
+			TaskOverloadException ex, HttpHeaders headers, HttpStatus status, WebRequest webRequest) {
+
+		if (webRequest instanceof ServletWebRequest) {
+			ServletWebRequest servletWebRequest = (ServletWebRequest) webRequest;
+			HttpServletResponse response = servletWebRequest.getResponse();
+			if (response != null && response.isCommitted()) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Async task rejected due to overload: " + ex.getMessage());
+				}
+				return null;
+			}
+		}
+
+		return handleExceptionInternal(ex, null, headers, status, webRequest);
+	}
+
 	/**
 	 * A single place to customize the response body of all exception types.
 	 * <p>The default implementation sets the {@link WebUtils#ERROR_EXCEPTION_ATTRIBUTE}
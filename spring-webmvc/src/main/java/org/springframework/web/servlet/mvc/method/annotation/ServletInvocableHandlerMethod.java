@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -67,6 +67,9 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	@Nullable
 	private HandlerMethodReturnValueHandlerComposite returnValueHandlers;
 
+	@Nullable
+	private volatile ReturnValueHandlerBinding returnValueHandlerBinding;
+
 
 	/**
 	 * Creates an instance from the given handler and method.
@@ -89,6 +92,7 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	 */
 	public void setHandlerMethodReturnValueHandlers(HandlerMethodReturnValueHandlerComposite returnValueHandlers) {
 		this.returnValueHandlers = returnValueHandlers;
+		this.returnValueHandlerBinding = null;
 	}
 
 
@@ -120,8 +124,9 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		mavContainer.setRequestHandled(false);
 		Assert.state(this.returnValueHandlers != null, "No return value handlers");
 		try {
-			this.returnValueHandlers.handleReturnValue(
-					returnValue, getReturnValueType(returnValue), mavContainer, webRequest);
+			MethodParameter returnType = getReturnValueType(returnValue);
+			getReturnValueHandler(this.returnValueHandlers, returnType).handleReturnValue(
+					returnValue, returnType, mavContainer, webRequest);
 		}
 		catch (Exception ex) {
 			if (logger.isTraceEnabled()) {
@@ -131,6 +136,30 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 		}
 	}
 
+	/**
+	 * Return the handler for the given return type, bound to this method for
+	 * the type of return value seen on the previous call so that repeated
+	 * invocations, e.g. of a cached handler method, skip the handler selection.
+	 * Falls back on the composite, selecting a handler per call, if the
+	 * selection depends on the return value or if a custom composite subclass
+	 * is in use.
+	 */
+	private HandlerMethodReturnValueHandler getReturnValueHandler(
+			HandlerMethodReturnValueHandlerComposite composite, MethodParameter returnType) {
+
+		if (composite.getClass() != HandlerMethodReturnValueHandlerComposite.class) {
+			return composite;
+		}
+		Class<?> valueType = returnType.getParameterType();
+		ReturnValueHandlerBinding binding = this.returnValueHandlerBinding;
+		if (binding == null || binding.valueType != valueType) {
+			HandlerMethodReturnValueHandler handler = composite.getReturnValueHandlerForType(returnType);
+			binding = new ReturnValueHandlerBinding(valueType, (handler != null ? handler : composite));
+			this.returnValueHandlerBinding = binding;
+		}
+		return binding.handler;
+	}
+
 	/**
 	 * Set the response status according to the {@link ResponseStatus} annotation.
 	 */
@@ -192,6 +221,22 @@ public class ServletInvocableHandlerMethod extends InvocableHandlerMethod {
 	}
 
 
+	/**
+	 * The return value handler selected for a specific type of return value.
+	 */
+	private static final class ReturnValueHandlerBinding {
+
+		final Class<?> valueType;
+
+		final HandlerMethodReturnValueHandler handler;
+
+		ReturnValueHandlerBinding(Class<?> valueType, HandlerMethodReturnValueHandler handler) {
+			this.valueType = valueType;
+			this.handler = handler;
+		}
+	}
+
+
 	/**
 	 * A nested subclass of {@code ServletInvocableHandlerMethod} that uses a
 	 * simple {@link Callable} instead of the original controller as the handler in
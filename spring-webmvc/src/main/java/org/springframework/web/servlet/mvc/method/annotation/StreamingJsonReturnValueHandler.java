@@ -0,0 +1,420 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Writes {@code @ResponseBody} return values of type {@link Stream},
+ * {@link Iterator} or {@link Iterable} element by element, for request
+ * mappings that explicitly produce {@code "application/x-ndjson"} or
+ * {@code "application/stream+json"}. The elements are written as
+ * newline-delimited JSON if one of those streaming media types is
+ * negotiated, or as a JSON array if the mapping also produces plain JSON
+ * and that is negotiated instead. Other such return values are left to
+ * {@link RequestResponseBodyMethodProcessor}.
+ *
+ * <p>Elements are written on the request thread as they are obtained, so
+ * a database cursor or similar source stays within its transaction and is
+ * never held in memory as a whole. Each element is written with the first
+ * {@link GenericHttpMessageConverter} that declares support for a JSON media
+ * type and can write the element, e.g. one for Jackson or Gson, but not a
+ * String or byte array converter that would write it as-is. The response
+ * is flushed every {@link #setFlushSize flushSize} elements. A {@code Stream},
+ * or an {@code Iterator} or {@code Iterable} that is {@link AutoCloseable},
+ * is closed once writing completes, fails, or the client goes away.
+ *
+ * <p>{@link ResponseBodyAdvice}, including {@code @JsonView} support, is
+ * applied to each element rather than to the return value as a whole. Note
+ * that errors raised after the first element has been written can no longer
+ * be rendered as an error response.
+ *
+ * @since 5.2.7
+ */
+public class StreamingJsonReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+	private static final List<MediaType> STREAMING_MEDIA_TYPES =
+			Arrays.asList(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON);
+
+	private static final List<MediaType> DEFAULT_MEDIA_TYPES =
+			Arrays.asList(MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON);
+
+	private static final byte[] NULL_ELEMENT = "null".getBytes(StandardCharsets.US_ASCII);
+
+
+	private final List<GenericHttpMessageConverter<?>> jsonConverters;
+
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	private final RequestResponseBodyAdviceChain advice;
+
+	private int flushSize = 1;
+
+
+	/**
+	 * Basic constructor with converters only, resolving the requested media
+	 * types from the "Accept" header.
+	 */
+	public StreamingJsonReturnValueHandler(List<HttpMessageConverter<?>> messageConverters) {
+		this(messageConverters, new ContentNegotiationManager(), null);
+	}
+
+	/**
+	 * Constructor with converters, a {@code ContentNegotiationManager} and
+	 * {@code ResponseBodyAdvice}.
+	 * @param messageConverters converters to select the JSON converters for
+	 * individual elements from
+	 * @param manager for determining the requested media types
+	 * @param responseBodyAdvice advice to apply to each element (may be {@code null})
+	 */
+	public StreamingJsonReturnValueHandler(List<HttpMessageConverter<?>> messageConverters,
+			ContentNegotiationManager manager, @Nullable List<Object> responseBodyAdvice) {
+
+		Assert.notEmpty(messageConverters, "HttpMessageConverter List must not be empty");
+		Assert.notNull(manager, "ContentNegotiationManager is required");
+		this.jsonConverters = initJsonConverters(messageConverters);
+		this.contentNegotiationManager = manager;
+		this.advice = new RequestResponseBodyAdviceChain(responseBodyAdvice);
+	}
+
+	private static List<GenericHttpMessageConverter<?>> initJsonConverters(List<HttpMessageConverter<?>> converters) {
+		List<GenericHttpMessageConverter<?>> result = new ArrayList<>();
+		for (HttpMessageConverter<?> converter : converters) {
+			if (converter instanceof GenericHttpMessageConverter) {
+				for (MediaType mediaType : converter.getSupportedMediaTypes()) {
+					if (!mediaType.isWildcardType() && isJsonMediaType(mediaType)) {
+						result.add((GenericHttpMessageConverter<?>) converter);
+						break;
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+
+	/**
+	 * Set the number of elements to write before flushing the response.
+	 * <p>By default this is 1, i.e. every element is sent to the client as
+	 * soon as it is written. Higher values reduce the number of flushes, and
+	 * hence of network packets, for sources that produce elements quickly.
+	 */
+	public void setFlushSize(int flushSize) {
+		Assert.isTrue(flushSize > 0, "Flush size must be greater than 0");
+		this.flushSize = flushSize;
+	}
+
+	/**
+	 * Return the configured number of elements to write before flushing.
+	 */
+	public int getFlushSize() {
+		return this.flushSize;
+	}
+
+
+	@Override
+	public boolean supportsReturnType(MethodParameter returnType) {
+		if (!AnnotatedElementUtils.hasAnnotation(returnType.getContainingClass(), ResponseBody.class) &&
+				!returnType.hasMethodAnnotation(ResponseBody.class)) {
+			return false;
+		}
+		if (this.jsonConverters.isEmpty()) {
+			return false;
+		}
+		Class<?> type = returnType.getParameterType();
+		return ((Stream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type) ||
+				Iterable.class.isAssignableFrom(type)) && producesStreamingMediaType(returnType));
+	}
+
+	private boolean producesStreamingMediaType(MethodParameter returnType) {
+		Method method = returnType.getMethod();
+		if (method == null) {
+			return false;
+		}
+		RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+		if (mapping == null || mapping.produces().length == 0) {
+			mapping = AnnotatedElementUtils.findMergedAnnotation(returnType.getContainingClass(), RequestMapping.class);
+		}
+		if (mapping != null) {
+			for (String produces : mapping.produces()) {
+				if (!produces.startsWith("!") && isStreamingMediaType(MediaType.parseMediaType(produces))) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void handleReturnValue(@Nullable Object returnValue, MethodParameter returnType,
+			ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+
+		mavContainer.setRequestHandled(true);
+		if (returnValue == null) {
+			return;
+		}
+
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+		Assert.state(request != null && response != null, "No HttpServletRequest/HttpServletResponse");
+
+		Class<?> containerType;
+		Iterator<?> iterator;
+		if (returnValue instanceof Stream) {
+			containerType = Stream.class;
+			iterator = ((Stream<?>) returnValue).iterator();
+		}
+		else if (returnValue instanceof Iterator) {
+			containerType = Iterator.class;
+			iterator = (Iterator<?>) returnValue;
+		}
+		else {
+			Assert.isInstanceOf(Iterable.class, returnValue, "Stream, Iterator or Iterable expected");
+			containerType = Iterable.class;
+			iterator = ((Iterable<?>) returnValue).iterator();
+		}
+
+		try {
+			MediaType mediaType = selectMediaType(webRequest);
+			ResolvableType elementType = ResolvableType.forMethodParameter(returnType).as(containerType).getGeneric();
+
+			// The body is written progressively: keep it out of the ETag buffer
+			ShallowEtagHeaderFilter.disableContentCaching(request);
+
+			ServletServerHttpRequest inputMessage = new ServletServerHttpRequest(request);
+			ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
+			outputMessage.getHeaders().setContentType(mediaType);
+			ElementWriter writer = new ElementWriter(returnType, elementType, inputMessage, outputMessage);
+			writeElements(iterator, isStreamingMediaType(mediaType), writer);
+		}
+		finally {
+			if (returnValue instanceof AutoCloseable) {
+				((AutoCloseable) returnValue).close();
+			}
+		}
+	}
+
+	private MediaType selectMediaType(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+		List<MediaType> acceptableTypes = new ArrayList<>(this.contentNegotiationManager.resolveMediaTypes(request));
+		MediaType.sortBySpecificityAndQuality(acceptableTypes);
+		Collection<MediaType> producibleTypes = getProducibleMediaTypes(request);
+		for (MediaType acceptableType : acceptableTypes) {
+			for (MediaType producibleType : producibleTypes) {
+				if (producibleType.isConcrete() && isJsonMediaType(producibleType) &&
+						acceptableType.isCompatibleWith(producibleType)) {
+					return producibleType.removeQualityValue();
+				}
+			}
+		}
+		throw new HttpMediaTypeNotAcceptableException(new ArrayList<>(producibleTypes));
+	}
+
+	@SuppressWarnings("unchecked")
+	private Collection<MediaType> getProducibleMediaTypes(NativeWebRequest request) {
+		Collection<MediaType> mediaTypes = (Collection<MediaType>) request.getAttribute(
+				HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		return (!CollectionUtils.isEmpty(mediaTypes) ? mediaTypes : DEFAULT_MEDIA_TYPES);
+	}
+
+	private void writeElements(Iterator<?> iterator, boolean newlineDelimited, ElementWriter writer)
+			throws IOException {
+
+		ElementOutputMessage outputMessage = writer.elementOutputMessage;
+		if (!newlineDelimited) {
+			outputMessage.writeSeparator('[');
+		}
+		int count = 0;
+		while (iterator.hasNext()) {
+			Object element = iterator.next();
+			if (count > 0 && !newlineDelimited) {
+				outputMessage.writeSeparator(',');
+			}
+			writer.write(element);
+			if (newlineDelimited) {
+				outputMessage.writeSeparator('\n');
+			}
+			if (++count % this.flushSize == 0) {
+				outputMessage.flush();
+			}
+		}
+		if (!newlineDelimited) {
+			outputMessage.writeSeparator(']');
+		}
+		outputMessage.flush();
+	}
+
+
+	private static boolean isStreamingMediaType(MediaType mediaType) {
+		for (MediaType streamingType : STREAMING_MEDIA_TYPES) {
+			if (streamingType.equalsTypeAndSubtype(mediaType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isJsonMediaType(MediaType mediaType) {
+		return (isStreamingMediaType(mediaType) || MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) ||
+				mediaType.getSubtype().endsWith("+json"));
+	}
+
+
+	/**
+	 * Writes individual elements with the first suitable converter, after
+	 * applying the {@code ResponseBodyAdvice} to each of them.
+	 */
+	private class ElementWriter {
+
+		private final MethodParameter returnType;
+
+		private final ResolvableType elementType;
+
+		private final ServletServerHttpRequest inputMessage;
+
+		private final ServletServerHttpResponse outputMessage;
+
+		final ElementOutputMessage elementOutputMessage;
+
+		ElementWriter(MethodParameter returnType, ResolvableType elementType,
+				ServletServerHttpRequest inputMessage, ServletServerHttpResponse outputMessage) throws IOException {
+
+			this.returnType = returnType;
+			this.elementType = elementType;
+			this.inputMessage = inputMessage;
+			this.outputMessage = outputMessage;
+			this.elementOutputMessage = new ElementOutputMessage(outputMessage.getBody());
+		}
+
+		@SuppressWarnings("unchecked")
+		public void write(@Nullable Object element) throws IOException {
+			if (element == null) {
+				this.elementOutputMessage.getBody().write(NULL_ELEMENT);
+				return;
+			}
+			Class<?> elementClass = element.getClass();
+			Type type = (this.elementType.getType() instanceof ParameterizedType ?
+					this.elementType.getType() : elementClass);
+			for (GenericHttpMessageConverter<?> converter : jsonConverters) {
+				GenericHttpMessageConverter<Object> jsonConverter = (GenericHttpMessageConverter<Object>) converter;
+				if (jsonConverter.canWrite(type, elementClass, MediaType.APPLICATION_JSON)) {
+					Object body = advice.beforeBodyWrite(element, this.returnType, MediaType.APPLICATION_JSON,
+							(Class<? extends HttpMessageConverter<?>>) converter.getClass(),
+							this.inputMessage, this.outputMessage);
+					if (body == null) {
+						this.elementOutputMessage.getBody().write(NULL_ELEMENT);
+					}
+					else {
+						jsonConverter.write(body, type, MediaType.APPLICATION_JSON, this.elementOutputMessage);
+					}
+					return;
+				}
+			}
+			throw new HttpMessageNotWritableException(
+					"No converter for [" + elementClass + "] with media type [" + MediaType.APPLICATION_JSON + "]");
+		}
+	}
+
+
+	/**
+	 * Output message for a single element: headers set by converters are
+	 * discarded, and flushes are deferred to the next batch boundary.
+	 */
+	private static class ElementOutputMessage implements HttpOutputMessage {
+
+		private final HttpHeaders headers = new HttpHeaders();
+
+		private final BufferedOutputStream buffer;
+
+		private final OutputStream body;
+
+		public ElementOutputMessage(OutputStream responseBody) {
+			this.buffer = new BufferedOutputStream(responseBody);
+			this.body = new FilterOutputStream(this.buffer) {
+				@Override
+				public void write(byte[] b, int off, int len) throws IOException {
+					this.out.write(b, off, len);
+				}
+				@Override
+				public void flush() {
+				}
+				@Override
+				public void close() {
+				}
+			};
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public OutputStream getBody() {
+			return this.body;
+		}
+
+		public void writeSeparator(char separator) throws IOException {
+			this.buffer.write(separator);
+		}
+
+		public void flush() throws IOException {
+			this.buffer.flush();
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,6 +28,7 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.beans.ConversionNotSupportedException;
 import org.springframework.beans.TypeMismatchException;
 import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskOverloadException;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.http.converter.HttpMessageNotWritableException;
@@ -131,6 +132,10 @@ import org.springframework.web.servlet.handler.AbstractHandlerExceptionResolver;
  * <td><p>AsyncRequestTimeoutException</p></td>
  * <td><p>503 (SC_SERVICE_UNAVAILABLE)</p></td>
  * </tr>
+ * <tr class="rowColor">
+ * <td><p>TaskOverloadException</p></td>
+ * <td><p>503 (SC_SERVICE_UNAVAILABLE)</p></td>
+ * </tr>
  * </tbody>
  * </table>
  *
@@ -229,6 +234,10 @@ public class DefaultHandlerExceptionResolver extends AbstractHandlerExceptionRes
 				return handleAsyncRequestTimeoutException(
 						(AsyncRequestTimeoutException) ex, request, response, handler);
 			}
+			else if (ex instanceof TaskOverloadException) {
+				return handleTaskOverloadException(
+						(TaskOverloadException) ex, request, response, handler);
+			}
 		}
 		catch (Exception handlerEx) {
 			if (logger.isWarnEnabled()) {
@@ -539,6 +548,32 @@ public class DefaultHandlerExceptionResolver extends AbstractHandlerExceptionRes
 		return new ModelAndView();
 	}
 
+	/**
+	 * Handle the case where an async task (e.g. for a {@code Callable} return value)
+	 * has been shed by an overloaded executor.
+	 * <p>The default implementation sends an HTTP 503 error.
+	 * @param ex the {@link TaskOverloadException} to be handled
+	 * @param request current HTTP request
+	 * @param response current HTTP response
+	 * @param handler the executed handler, or {@code null} if none chosen
+	 * at the time of the exception (for example, if multipart resolution failed)
+	 * @return an empty ModelAndView indicating the exception was handled
+	 * @throws IOException potentially thrown from {@link HttpServletResponse#sendError}
+	 * @since 5.2.7
+	 * @see org.springframework.scheduling.concurrent.AdaptiveThreadPoolTaskExecutor
+	 */
+	protected ModelAndView handleTaskOverloadException(TaskOverloadException ex,
+			HttpServletRequest request, HttpServletResponse response, @Nullable Object handler) throws IOException {
+
+		if (!response.isCommitted()) {
+			response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		}
+		else {
+			logger.warn("Async task rejected due to overload: " + ex.getMessage());
+		}
+		return new ModelAndView();
+	}
+
 	/**
 	 * Invoked to send a server error. Sets the status to 500 and also sets the
 	 * request attribute "javax.servlet.error.exception" to the Exception.
@@ -16,6 +16,7 @@
 
 package org.springframework.web.servlet.resource;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -29,6 +30,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import javax.servlet.ServletException;
+import javax.servlet.ServletResponseWrapper;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
@@ -40,6 +42,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.EmbeddedValueResolverAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRange;
@@ -88,6 +91,10 @@ import org.springframework.web.util.UrlPathHelper;
  * (if present) so that a {@code 304} status code will be returned as appropriate,
  * avoiding unnecessary overhead for resources that are already cached by the client.
  *
+ * <p>As of 5.2.7, resources in the file system are handed over to the Servlet
+ * container for sending, when it supports doing so without copying the content
+ * through the application, see {@link #setUseSendfile(boolean)}.
+ *
  * @author Keith Donald
  * @author Jeremy Grelle
  * @author Juergen Hoeller
@@ -103,6 +110,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 
 	private static final String URL_RESOURCE_CHARSET_PREFIX = "[charset=";
 
+	private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+	private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+	private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+	private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
 
 	private final List<String> locationValues = new ArrayList<>(4);
 
@@ -140,6 +155,10 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 	@Nullable
 	private StringValueResolver embeddedValueResolver;
 
+	private boolean useSendfile = true;
+
+	private long sendfileMinSize = 48 * 1024;
+
 
 	public ResourceHttpRequestHandler() {
 		super(HttpMethod.GET.name(), HttpMethod.HEAD.name());
@@ -341,6 +360,54 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		return this.urlPathHelper;
 	}
 
+	/**
+	 * Whether to let the Servlet container send resources in the file system,
+	 * for full content as well as single range requests, if it advertises support
+	 * for the {@code org.apache.tomcat.sendfile} request attributes (Tomcat, and
+	 * containers based on its connectors, with NIO or APR). The container may
+	 * then transfer the file with zero-copy {@code sendfile} system calls, after
+	 * the request has been handled.
+	 * <p>Since the content is written by the container, it would bypass response
+	 * wrappers, e.g. for content caching or compression. Resources are therefore
+	 * written through the configured {@link #setResourceHttpMessageConverter
+	 * converter} instead if the response has been wrapped by a filter, as well as
+	 * if they are smaller than the {@link #setSendfileMinSize sendfileMinSize}.
+	 * <p>By default this is set to "true".
+	 * @since 5.2.7
+	 */
+	public void setUseSendfile(boolean useSendfile) {
+		this.useSendfile = useSendfile;
+	}
+
+	/**
+	 * Whether resources may be handed over to the Servlet container for sending.
+	 * @since 5.2.7
+	 */
+	public boolean isUseSendfile() {
+		return this.useSendfile;
+	}
+
+	/**
+	 * Set the minimum number of bytes to send for the Servlet container to be
+	 * asked to send the content, given that smaller content is written faster
+	 * directly than through a separate {@code sendfile} operation.
+	 * <p>By default this is set to 48K, in line with Tomcat's own threshold.
+	 * @since 5.2.7
+	 * @see #setUseSendfile
+	 */
+	public void setSendfileMinSize(long sendfileMinSize) {
+		Assert.isTrue(sendfileMinSize >= 0, "Sendfile min size must not be negative");
+		this.sendfileMinSize = sendfileMinSize;
+	}
+
+	/**
+	 * Return the minimum number of bytes to send for sendfile to be used.
+	 * @since 5.2.7
+	 */
+	public long getSendfileMinSize() {
+		return this.sendfileMinSize;
+	}
+
 	@Override
 	public void setEmbeddedValueResolver(StringValueResolver resolver) {
 		this.embeddedValueResolver = resolver;
@@ -515,6 +582,10 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 			return;
 		}
 
+		if (this.useSendfile && sendfile(request, response, resource, mediaType)) {
+			return;
+		}
+
 		ServletServerHttpResponse outputMessage = new ServletServerHttpResponse(response);
 		if (request.getHeader(HttpHeaders.RANGE) == null) {
 			Assert.state(this.resourceHttpMessageConverter != null, "Not initialized");
@@ -538,6 +609,70 @@ public class ResourceHttpRequestHandler extends WebContentGenerator
 		}
 	}
 
+	/**
+	 * Hand the given resource over to the Servlet container for sending,
+	 * if it is a file of at least the minimum size, the response is not wrapped,
+	 * and the container supports it for the current request.
+	 * @return {@code true} if the container is going to send the content,
+	 * or {@code false} if it needs to be written by the handler
+	 */
+	private boolean sendfile(HttpServletRequest request, HttpServletResponse response,
+			Resource resource, @Nullable MediaType mediaType) throws IOException {
+
+		// A response wrapper would not see the content written by the container
+		if (!Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE)) || !resource.isFile() ||
+				response instanceof ServletResponseWrapper) {
+			return false;
+		}
+
+		File file = resource.getFile();
+		long start = 0;
+		long end = file.length();
+
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader == null) {
+			if (end < this.sendfileMinSize) {
+				return false;
+			}
+			setHeaders(response, resource, mediaType);
+		}
+		else {
+			ResourceRegion region;
+			try {
+				List<HttpRange> httpRanges = HttpRange.parseRanges(rangeHeader);
+				if (httpRanges.size() != 1) {
+					// Multipart byte ranges are written by the converter
+					return false;
+				}
+				region = httpRanges.get(0).toResourceRegion(resource);
+			}
+			catch (IllegalArgumentException ex) {
+				// Let the converter path respond with 416
+				return false;
+			}
+			start = region.getPosition();
+			end = Math.min(start + region.getCount(), end);
+			if (end - start < this.sendfileMinSize) {
+				return false;
+			}
+			response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+			response.setHeader("Content-Range", "bytes " + start + '-' + (end - 1) + '/' + file.length());
+			response.setContentLengthLong(end - start);
+			if (mediaType != null) {
+				response.setContentType(mediaType.toString());
+			}
+		}
+
+		request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getCanonicalPath());
+		request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+		request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+		if (logger.isTraceEnabled()) {
+			logger.trace("Sending " + file + " through the Servlet container");
+		}
+		return true;
+	}
+
 	@Nullable
 	protected Resource getResource(HttpServletRequest request) throws IOException {
 		String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,10 +16,12 @@
 
 package org.springframework.web.servlet.view;
 
-import java.util.LinkedHashMap;
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -39,6 +41,10 @@ import org.springframework.web.servlet.ViewResolver;
  * <p>Subclasses need to implement the {@link #loadView} template method,
  * building the View object for a specific view name and locale.
  *
+ * <p>As of 5.2.7, cached views are served without locking, and views for
+ * different cache keys are created concurrently: only resolution attempts
+ * for the same key wait for each other, with a single View being created.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @see #loadView
@@ -48,17 +54,8 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Default maximum number of entries for the view cache: 1024. */
 	public static final int DEFAULT_CACHE_LIMIT = 1024;
 
-	/** Dummy marker object for unresolved views in the cache Maps. */
-	private static final View UNRESOLVED_VIEW = new View() {
-		@Override
-		@Nullable
-		public String getContentType() {
-			return null;
-		}
-		@Override
-		public void render(@Nullable Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
-		}
-	};
+	/** Dummy marker object for unresolved views in the cache Map. */
+	private static final View UNRESOLVED_VIEW = new UnresolvedView(0);
 
 	/** Default cache filter that always caches. */
 	private static final CacheFilter DEFAULT_CACHE_FILTER = (view, viewName, locale) -> true;
@@ -70,27 +67,20 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	/** Whether we should refrain from resolving views again if unresolved once. */
 	private boolean cacheUnresolved = true;
 
+	/** How long unresolved views are cached for, in nanoseconds, with 0 meaning unlimited. */
+	private long cacheUnresolvedNanos = 0;
+
 	/** Filter function that determines if view should be cached. */
 	private CacheFilter cacheFilter = DEFAULT_CACHE_FILTER;
 
 	/** Fast access cache for Views, returning already cached instances without a global lock. */
 	private final Map<Object, View> viewAccessCache = new ConcurrentHashMap<>(DEFAULT_CACHE_LIMIT);
 
-	/** Map from view key to View instance, synchronized for View creation. */
-	@SuppressWarnings("serial")
-	private final Map<Object, View> viewCreationCache =
-			new LinkedHashMap<Object, View>(DEFAULT_CACHE_LIMIT, 0.75f, true) {
-				@Override
-				protected boolean removeEldestEntry(Map.Entry<Object, View> eldest) {
-					if (size() > getCacheLimit()) {
-						viewAccessCache.remove(eldest.getKey());
-						return true;
-					}
-					else {
-						return false;
-					}
-				}
-			};
+	/** Cache keys in the order of View creation, for evicting the eldest entries beyond the limit. */
+	private final Queue<Object> viewCreationOrder = new ConcurrentLinkedQueue<>();
+
+	/** Locks for View creation per cache key, held only while a View is being created. */
+	private final Map<Object, Object> viewCreationLocks = new ConcurrentHashMap<>();
 
 
 	/**
@@ -149,6 +139,27 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		return this.cacheUnresolved;
 	}
 
+	/**
+	 * Specify how long a view name once resolved to {@code null} is cached for,
+	 * after which its resolution is attempted again.
+	 * <p>Default is {@code null}: unresolved view names are cached until evicted
+	 * or removed. Only applies if {@link #setCacheUnresolved "cacheUnresolved"}
+	 * is "true".
+	 * @since 5.2.7
+	 */
+	public void setCacheUnresolvedTtl(@Nullable Duration cacheUnresolvedTtl) {
+		this.cacheUnresolvedNanos = (cacheUnresolvedTtl != null ? cacheUnresolvedTtl.toNanos() : 0);
+	}
+
+	/**
+	 * Return how long unresolved views are cached for, if limited.
+	 * @since 5.2.7
+	 */
+	@Nullable
+	public Duration getCacheUnresolvedTtl() {
+		return (this.cacheUnresolvedNanos > 0 ? Duration.ofNanos(this.cacheUnresolvedNanos) : null);
+	}
+
 	/**
 	 * Sets the filter that determines if view should be cached.
 	 * Default behaviour is to cache all views.
@@ -175,29 +186,65 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			View view = this.viewAccessCache.get(cacheKey);
+			View view = getCachedView(cacheKey);
 			if (view == null) {
-				synchronized (this.viewCreationCache) {
-					view = this.viewCreationCache.get(cacheKey);
-					if (view == null) {
-						// Ask the subclass to create the View object.
-						view = createView(viewName, locale);
-						if (view == null && this.cacheUnresolved) {
-							view = UNRESOLVED_VIEW;
-						}
-						if (view != null && this.cacheFilter.filter(view, viewName, locale)) {
-							this.viewAccessCache.put(cacheKey, view);
-							this.viewCreationCache.put(cacheKey, view);
+				Object lock = this.viewCreationLocks.computeIfAbsent(cacheKey, key -> new Object());
+				try {
+					synchronized (lock) {
+						view = getCachedView(cacheKey);
+						if (view == null) {
+							// Ask the subclass to create the View object.
+							view = createView(viewName, locale);
+							if (view == null && this.cacheUnresolved) {
+								view = (this.cacheUnresolvedNanos > 0 ?
+										new UnresolvedView(this.cacheUnresolvedNanos) : UNRESOLVED_VIEW);
+							}
+							if (view != null && this.cacheFilter.filter(view, viewName, locale)) {
+								putCachedView(cacheKey, view);
+							}
 						}
 					}
 				}
+				finally {
+					this.viewCreationLocks.remove(cacheKey, lock);
+				}
 			}
 			else {
 				if (logger.isTraceEnabled()) {
 					logger.trace(formatKey(cacheKey) + "served from cache");
 				}
 			}
-			return (view != UNRESOLVED_VIEW ? view : null);
+			return (view instanceof UnresolvedView ? null : view);
+		}
+	}
+
+	/**
+	 * Return the cached View for the given key, if any,
+	 * dropping an unresolved marker once its time-to-live has passed.
+	 */
+	@Nullable
+	private View getCachedView(Object cacheKey) {
+		View view = this.viewAccessCache.get(cacheKey);
+		if (view instanceof UnresolvedView && ((UnresolvedView) view).isExpired()) {
+			if (this.viewAccessCache.remove(cacheKey, view)) {
+				this.viewCreationOrder.remove(cacheKey);
+			}
+			return null;
+		}
+		return view;
+	}
+
+	private void putCachedView(Object cacheKey, View view) {
+		if (this.viewAccessCache.put(cacheKey, view) == null) {
+			this.viewCreationOrder.add(cacheKey);
+		}
+		int cacheLimit = getCacheLimit();
+		while (this.viewAccessCache.size() > cacheLimit) {
+			Object eldestKey = this.viewCreationOrder.poll();
+			if (eldestKey == null) {
+				break;
+			}
+			this.viewAccessCache.remove(eldestKey);
 		}
 	}
 
@@ -231,10 +278,9 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 		}
 		else {
 			Object cacheKey = getCacheKey(viewName, locale);
-			Object cachedView;
-			synchronized (this.viewCreationCache) {
-				this.viewAccessCache.remove(cacheKey);
-				cachedView = this.viewCreationCache.remove(cacheKey);
+			Object cachedView = this.viewAccessCache.remove(cacheKey);
+			if (cachedView != null) {
+				this.viewCreationOrder.remove(cacheKey);
 			}
 			if (logger.isDebugEnabled()) {
 				// Some debug output might be useful...
@@ -250,10 +296,8 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	 */
 	public void clearCache() {
 		logger.debug("Clearing all views from the cache");
-		synchronized (this.viewCreationCache) {
-			this.viewAccessCache.clear();
-			this.viewCreationCache.clear();
-		}
+		this.viewAccessCache.clear();
+		this.viewCreationOrder.clear();
 	}
 
 
@@ -292,6 +336,36 @@ public abstract class AbstractCachingViewResolver extends WebApplicationObjectSu
 	protected abstract View loadView(String viewName, Locale locale) throws Exception;
 
 
+	/**
+	 * Marker for unresolved views in the cache Map,
+	 * optionally expiring after a given time-to-live.
+	 */
+	private static final class UnresolvedView implements View {
+
+		private final long createdAt = System.nanoTime();
+
+		private final long ttlNanos;
+
+		UnresolvedView(long ttlNanos) {
+			this.ttlNanos = ttlNanos;
+		}
+
+		boolean isExpired() {
+			return (this.ttlNanos > 0 && System.nanoTime() - this.createdAt >= this.ttlNanos);
+		}
+
+		@Override
+		@Nullable
+		public String getContentType() {
+			return null;
+		}
+
+		@Override
+		public void render(@Nullable Map<String, ?> model, HttpServletRequest request, HttpServletResponse response) {
+		}
+	}
+
+
 	/**
 	 * Filter that determines if view should be cached.
 	 *
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.http.MediaType;
 import org.springframework.lang.Nullable;
+import org.springframework.ui.ModelMap;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.context.WebApplicationContext;
@@ -319,6 +320,11 @@ public abstract class AbstractView extends WebApplicationObjectSupport implement
 	/**
 	 * Creates a combined output Map (never {@code null}) that includes dynamic values and static attributes.
 	 * Dynamic values take precedence over static attributes.
+	 * <p>As of 5.2.7, a framework-created {@link ModelMap} is used as-is, rather
+	 * than copied, if the view declares that it does not add attributes to the
+	 * model and there are neither static attributes, path variables nor a
+	 * {@link #setRequestContextAttribute RequestContext} to merge into it.
+	 * @see #isModelReusable()
 	 */
 	protected Map<String, Object> createMergedOutputModel(@Nullable Map<String, ?> model,
 			HttpServletRequest request, HttpServletResponse response) {
@@ -327,6 +333,25 @@ public abstract class AbstractView extends WebApplicationObjectSupport implement
 		Map<String, Object> pathVars = (this.exposePathVariables ?
 				(Map<String, Object>) request.getAttribute(View.PATH_VARIABLES) : null);
 
+		Map<String, Object> mergedModel;
+		if (model instanceof ModelMap && isModelReusable() && this.requestContextAttribute == null &&
+				this.staticAttributes.isEmpty() && CollectionUtils.isEmpty(pathVars)) {
+			// Nothing to merge: avoid copying the request-specific model.
+			mergedModel = (ModelMap) model;
+		}
+		else {
+			mergedModel = mergeModel(model, pathVars);
+		}
+
+		// Expose RequestContext?
+		if (this.requestContextAttribute != null) {
+			mergedModel.put(this.requestContextAttribute, createRequestContext(request, response, mergedModel));
+		}
+
+		return mergedModel;
+	}
+
+	private Map<String, Object> mergeModel(@Nullable Map<String, ?> model, @Nullable Map<String, Object> pathVars) {
 		// Consolidate static and dynamic model attributes.
 		int size = this.staticAttributes.size();
 		size += (model != null ? model.size() : 0);
@@ -340,15 +365,24 @@ public abstract class AbstractView extends WebApplicationObjectSupport implement
 		if (model != null) {
 			mergedModel.putAll(model);
 		}
-
-		// Expose RequestContext?
-		if (this.requestContextAttribute != null) {
-			mergedModel.put(this.requestContextAttribute, createRequestContext(request, response, mergedModel));
-		}
-
 		return mergedModel;
 	}
 
+	/**
+	 * Return whether a framework-created model may be passed to
+	 * {@link #renderMergedOutputModel} as-is, rather than as a copy, if there
+	 * is nothing to merge into it.
+	 * <p>The default implementation returns {@code false}. Subclasses may
+	 * return {@code true} if they never add attributes to the merged model,
+	 * since the handler's model would otherwise be modified as a side effect
+	 * of rendering.
+	 * @since 5.2.7
+	 * @see #createMergedOutputModel
+	 */
+	protected boolean isModelReusable() {
+		return false;
+	}
+
 	/**
 	 * Create a RequestContext to expose under the specified attribute name.
 	 * <p>The default implementation creates a standard RequestContext instance for the
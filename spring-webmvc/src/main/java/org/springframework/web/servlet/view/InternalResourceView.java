@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -129,6 +129,14 @@ public class InternalResourceView extends AbstractUrlBasedView {
 		return false;
 	}
 
+	/**
+	 * The model is exposed as request attributes, without being modified.
+	 */
+	@Override
+	protected boolean isModelReusable() {
+		return true;
+	}
+
 
 	/**
 	 * Render the internal resource given the specified model.
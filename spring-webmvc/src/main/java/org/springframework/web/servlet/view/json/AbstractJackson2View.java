@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -144,6 +144,14 @@ public abstract class AbstractJackson2View extends AbstractView {
 		this.updateContentLength = updateContentLength;
 	}
 
+	/**
+	 * The model is filtered into a separate value, without being modified.
+	 */
+	@Override
+	protected boolean isModelReusable() {
+		return true;
+	}
+
 	@Override
 	protected void prepareResponse(HttpServletRequest request, HttpServletResponse response) {
 		setResponseContentType(request, response);
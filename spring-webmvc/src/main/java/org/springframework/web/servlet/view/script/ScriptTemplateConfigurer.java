@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -81,6 +81,9 @@ public class ScriptTemplateConfigurer implements ScriptTemplateConfig {
 	@Nullable
 	private String resourceLoaderPath;
 
+	@Nullable
+	private Integer cacheLimit;
+
 
 	/**
 	 * Default constructor.
@@ -282,4 +285,23 @@ public class ScriptTemplateConfigurer implements ScriptTemplateConfig {
 		return this.resourceLoaderPath;
 	}
 
+	/**
+	 * Set the maximum number of templates and template fragments to cache per
+	 * view, with the least recently used entries evicted beyond that limit.
+	 * With a shared {@link javax.script.Compilable} engine and no render function,
+	 * templates are also cached in compiled form.
+	 * <p>Default is 0, in which case templates are read (and evaluated) for
+	 * each rendering, picking up changes to them without a restart.
+	 * @since 5.2.7
+	 */
+	public void setCacheLimit(@Nullable Integer cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
+	@Override
+	@Nullable
+	public Integer getCacheLimit() {
+		return this.cacheLimit;
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,12 +21,16 @@ import java.io.InputStreamReader;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
@@ -65,6 +69,10 @@ import org.springframework.web.servlet.view.AbstractUrlBasedView;
  * {@code sharedEngine} property to {@code false} in order to run properly. See
  * {@link ScriptTemplateConfigurer#setSharedEngine(Boolean)} for more details.
  *
+ * <p>As of 5.2.7, templates and template fragments may be cached through the
+ * {@code cacheLimit} property, in compiled form where the engine supports it.
+ * See {@link ScriptTemplateConfigurer#setCacheLimit(Integer)} for more details.
+ *
  * @author Sebastien Deleuze
  * @author Juergen Hoeller
  * @since 4.2
@@ -114,9 +122,21 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 	@Nullable
 	private String[] resourceLoaderPaths;
 
+	@Nullable
+	private Integer cacheLimit;
+
 	@Nullable
 	private volatile ScriptEngineManager scriptEngineManager;
 
+	@Nullable
+	private Map<String, String> templateCache;
+
+	@Nullable
+	private Map<String, CompiledScript> compiledTemplateCache;
+
+	@Nullable
+	private volatile Object renderObjectInstance;
+
 
 	/**
 	 * Constructor for use as a bean.
@@ -209,6 +229,14 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 		}
 	}
 
+	/**
+	 * See {@link ScriptTemplateConfigurer#setCacheLimit(Integer)} documentation.
+	 * @since 5.2.7
+	 */
+	public void setCacheLimit(int cacheLimit) {
+		this.cacheLimit = cacheLimit;
+	}
+
 
 	@Override
 	protected void initApplicationContext(ApplicationContext context) {
@@ -246,6 +274,9 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 		if (this.sharedEngine == null && viewConfig.isSharedEngine() != null) {
 			this.sharedEngine = viewConfig.isSharedEngine();
 		}
+		if (this.cacheLimit == null && viewConfig.getCacheLimit() != null) {
+			this.cacheLimit = viewConfig.getCacheLimit();
+		}
 
 		int engineCount = 0;
 		if (this.engine != null) {
@@ -279,6 +310,14 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 			Assert.isInstanceOf(Invocable.class, this.engine,
 					"ScriptEngine must implement Invocable when 'renderFunction' is specified");
 		}
+
+		if (this.cacheLimit != null && this.cacheLimit > 0) {
+			this.templateCache = Collections.synchronizedMap(new TemplateCache<>(this.cacheLimit));
+			if (this.renderFunction == null && this.engine instanceof Compilable) {
+				// Compiled scripts are bound to the engine: only with a shared engine
+				this.compiledTemplateCache = Collections.synchronizedMap(new TemplateCache<>(this.cacheLimit));
+			}
+		}
 	}
 
 	protected ScriptEngine getEngine() {
@@ -400,11 +439,10 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 			ScriptEngine engine = getEngine();
 			String url = getUrl();
 			Assert.state(url != null, "'url' not set");
-			String template = getTemplate(url);
 
 			Function<String, String> templateLoader = path -> {
 				try {
-					return getTemplate(path);
+					return getCachedTemplate(path);
 				}
 				catch (IOException ex) {
 					throw new IllegalStateException(ex);
@@ -419,14 +457,19 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 				SimpleBindings bindings = new SimpleBindings();
 				bindings.putAll(model);
 				model.put("renderingContext", context);
-				html = engine.eval(template, bindings);
+				if (this.compiledTemplateCache != null) {
+					html = getCompiledTemplate(url, (Compilable) engine).eval(bindings);
+				}
+				else {
+					html = engine.eval(getCachedTemplate(url), bindings);
+				}
 			}
 			else if (this.renderObject != null) {
-				Object thiz = engine.eval(this.renderObject);
-				html = ((Invocable) engine).invokeMethod(thiz, this.renderFunction, template, model, context);
+				Object thiz = getRenderObject(engine, this.renderObject);
+				html = ((Invocable) engine).invokeMethod(thiz, this.renderFunction, getCachedTemplate(url), model, context);
 			}
 			else {
-				html = ((Invocable) engine).invokeFunction(this.renderFunction, template, model, context);
+				html = ((Invocable) engine).invokeFunction(this.renderFunction, getCachedTemplate(url), model, context);
 			}
 
 			response.getWriter().write(String.valueOf(html));
@@ -436,6 +479,41 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 		}
 	}
 
+	private String getCachedTemplate(String path) throws IOException {
+		if (this.templateCache == null) {
+			return getTemplate(path);
+		}
+		String template = this.templateCache.get(path);
+		if (template == null) {
+			template = getTemplate(path);
+			this.templateCache.put(path, template);
+		}
+		return template;
+	}
+
+	private CompiledScript getCompiledTemplate(String path, Compilable engine) throws IOException, ScriptException {
+		Assert.state(this.compiledTemplateCache != null, "No compiled template cache");
+		CompiledScript compiledTemplate = this.compiledTemplateCache.get(path);
+		if (compiledTemplate == null) {
+			compiledTemplate = engine.compile(getTemplate(path));
+			this.compiledTemplateCache.put(path, compiledTemplate);
+		}
+		return compiledTemplate;
+	}
+
+	private Object getRenderObject(ScriptEngine engine, String renderObject) throws ScriptException {
+		if (this.templateCache == null || Boolean.FALSE.equals(this.sharedEngine)) {
+			return engine.eval(renderObject);
+		}
+		// Shared engine with caching enabled: evaluate the render object once
+		Object thiz = this.renderObjectInstance;
+		if (thiz == null) {
+			thiz = engine.eval(renderObject);
+			this.renderObjectInstance = thiz;
+		}
+		return thiz;
+	}
+
 	protected String getTemplate(String path) throws IOException {
 		Resource resource = getResource(path);
 		if (resource == null) {
@@ -448,6 +526,28 @@ public class ScriptTemplateView extends AbstractUrlBasedView {
 	}
 
 
+	/**
+	 * Cache for template sources and compiled templates,
+	 * evicting the least recently used entries beyond the given limit.
+	 * Needs to be synchronized externally.
+	 */
+	@SuppressWarnings("serial")
+	private static class TemplateCache<V> extends LinkedHashMap<String, V> {
+
+		private final int cacheLimit;
+
+		public TemplateCache(int cacheLimit) {
+			super(16, 0.75f, true);
+			this.cacheLimit = cacheLimit;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+			return (size() > this.cacheLimit);
+		}
+	}
+
+
 	/**
 	 * Key class for the {@code enginesHolder ThreadLocal}.
 	 * Only used if scripts have been specified; otherwise, the
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.web.servlet;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Locale;
 
 import javax.servlet.Servlet;
@@ -37,6 +38,7 @@ import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.RequestPath;
 import org.springframework.web.context.ConfigurableWebApplicationContext;
 import org.springframework.web.context.ConfigurableWebEnvironment;
 import org.springframework.web.context.ContextLoader;
@@ -56,7 +58,9 @@ import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
 import org.springframework.web.testfixture.servlet.MockServletConfig;
 import org.springframework.web.testfixture.servlet.MockServletContext;
+import org.springframework.web.util.ServletRequestPathUtils;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -495,6 +499,50 @@ public class DispatcherServletTests {
 		assertThat(response.getStatus() == HttpServletResponse.SC_NOT_FOUND).as("Matched through parent controller/handler pair: not response=" + response.getStatus()).isFalse();
 	}
 
+	@Test
+	public void parsedRequestPathWithPathPatterns() throws ServletException, IOException {
+		DispatcherServlet servlet = initPathPatternDispatcherServlet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest(getServletContext(), "GET", "/app/path/info");
+		request.setContextPath("/app");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		servlet.service(request, response);
+
+		assertThat(request.getAttribute("parsedRequestPath")).isEqualTo("/path/info");
+		assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/path/{name}");
+		assertThat(ServletRequestPathUtils.hasParsedRequestPath(request)).isFalse();
+	}
+
+	@Test
+	public void parsedRequestPathRestoredAfterInclude() throws ServletException, IOException {
+		DispatcherServlet servlet = initPathPatternDispatcherServlet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest(getServletContext(), "GET", "/outer");
+		RequestPath outerPath = RequestPath.parse("/outer", null);
+		ServletRequestPathUtils.setParsedRequestPath(outerPath, request);
+		request.setAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE, "/path/included");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		servlet.service(request, response);
+
+		assertThat(request.getAttribute("parsedRequestPath")).isEqualTo("/path/included");
+		assertThat(ServletRequestPathUtils.getParsedRequestPath(request)).isSameAs(outerPath);
+	}
+
+	private DispatcherServlet initPathPatternDispatcherServlet() throws ServletException {
+		StaticWebApplicationContext wac = new StaticWebApplicationContext();
+		wac.setServletContext(getServletContext());
+		wac.registerSingleton("pathController", PathRecordingController.class);
+		MutablePropertyValues pvs = new MutablePropertyValues();
+		pvs.add("patternParser", new PathPatternParser());
+		pvs.add("urlMap", Collections.singletonMap("/path/{name}", "pathController"));
+		wac.registerSingleton("pathMapping", SimpleUrlHandlerMapping.class, pvs);
+		wac.refresh();
+
+		DispatcherServlet servlet = new DispatcherServlet(wac);
+		servlet.init(new MockServletConfig(getServletContext(), "pathPatterns"));
+		return servlet;
+	}
+
 	@Test
 	public void detectAllHandlerAdapters() throws ServletException, IOException {
 		DispatcherServlet complexDispatcherServlet = new DispatcherServlet();
@@ -847,6 +895,17 @@ public class DispatcherServletTests {
 	}
 
 
+	public static class PathRecordingController implements Controller {
+
+		@Override
+		public ModelAndView handleRequest(HttpServletRequest request, HttpServletResponse response) {
+			RequestPath path = ServletRequestPathUtils.getParsedRequestPath(request);
+			request.setAttribute("parsedRequestPath", path.pathWithinApplication().value());
+			return null;
+		}
+	}
+
+
 	private static class TestWebContextInitializer
 			implements ApplicationContextInitializer<ConfigurableWebApplicationContext> {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package org.springframework.web.servlet.handler;
 
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Map;
 
@@ -24,11 +25,16 @@ import javax.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.server.PathContainer;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.HandlerExecutionChain;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -88,6 +94,44 @@ public class MappedInterceptorTests {
 		assertThat(mappedInterceptor.matches("/admin/foo", pathMatcher)).isFalse();
 	}
 
+	@Test
+	public void includeAndExcludePatternsWithPathPatterns() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				new String[] { "/foo/**" }, new String[] { "/foo/admin/**" }, this.interceptor);
+		PathPatternParser parser = new PathPatternParser();
+
+		assertThat(mappedInterceptor.matches(PathContainer.parsePath("/foo/bar"), parser)).isTrue();
+		assertThat(mappedInterceptor.matches(PathContainer.parsePath("/foo;q=1/bar;s=2"), parser)).isTrue();
+		assertThat(mappedInterceptor.matches(PathContainer.parsePath("/foo/admin/bar"), parser)).isFalse();
+		assertThat(mappedInterceptor.matches(PathContainer.parsePath("/bar/foo"), parser)).isFalse();
+	}
+
+	@Test
+	public void noPatternsWithPathPatterns() {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(null, null, this.interceptor);
+		assertThat(mappedInterceptor.matches(PathContainer.parsePath("/foo"), new PathPatternParser())).isTrue();
+	}
+
+	@Test
+	public void handlerMappingWithPathPatterns() throws Exception {
+		MappedInterceptor mappedInterceptor = new MappedInterceptor(
+				new String[] { "/foo/**" }, new String[] { "/foo/admin/**" }, this.interceptor);
+		SimpleUrlHandlerMapping mapping = new SimpleUrlHandlerMapping(Collections.singletonMap("/**", new Object()));
+		mapping.setPatternParser(new PathPatternParser());
+		mapping.setInterceptors(mappedInterceptor);
+		mapping.setApplicationContext(new StaticApplicationContext());
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo/bar");
+		request.setContextPath("/app");
+		HandlerExecutionChain chain = mapping.getHandler(request);
+		assertThat(chain.getInterceptors()).contains(this.interceptor);
+
+		request = new MockHttpServletRequest("GET", "/app/foo/admin/bar");
+		request.setContextPath("/app");
+		chain = mapping.getHandler(request);
+		assertThat(chain.getInterceptors()).doesNotContain(this.interceptor);
+	}
+
 	@Test
 	public void customPathMatcher() {
 		MappedInterceptor mappedInterceptor = new MappedInterceptor(new String[] { "/foo/[0-9]*" }, this.interceptor);
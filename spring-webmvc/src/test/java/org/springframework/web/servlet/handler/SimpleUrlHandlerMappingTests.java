@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@
 package org.springframework.web.servlet.handler;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 
@@ -30,6 +32,7 @@ import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockServletContext;
 import org.springframework.web.util.WebUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -157,6 +160,64 @@ public class SimpleUrlHandlerMappingTests {
 		assertThat(req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)).isEqualTo("/somePath");
 	}
 
+	@Test
+	public void urlMappingWithPathPatterns() throws Exception {
+		Object welcome = new Object();
+		Object resources = new Object();
+		Object user = new Object();
+		Map<String, Object> urlMap = new LinkedHashMap<>();
+		urlMap.put("/welcome.html", welcome);
+		urlMap.put("/resources/**", resources);
+		urlMap.put("/resources/{name}.css", resources);
+		urlMap.put("/users/{id}", user);
+		SimpleUrlHandlerMapping hm = new SimpleUrlHandlerMapping(urlMap);
+		hm.setPatternParser(new PathPatternParser());
+		hm.setApplicationContext(new StaticApplicationContext());
+
+		assertThat(hm.getPathPatternHandlerMap()).hasSize(urlMap.size());
+
+		MockHttpServletRequest req = new MockHttpServletRequest("GET", "/app/welcome.html");
+		req.setContextPath("/app");
+		HandlerExecutionChain hec = getHandler(hm, req);
+		assertThat(hec.getHandler()).isSameAs(welcome);
+		assertThat(req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)).isEqualTo("/welcome.html");
+
+		req = new MockHttpServletRequest("GET", "/app/resources/css/main.css");
+		req.setContextPath("/app");
+		hec = getHandler(hm, req);
+		assertThat(hec.getHandler()).isSameAs(resources);
+		assertThat(req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/resources/**");
+		assertThat(req.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE)).isEqualTo("css/main.css");
+
+		req = new MockHttpServletRequest("GET", "/resources/main.css");
+		hec = getHandler(hm, req);
+		assertThat(hec.getHandler()).isSameAs(resources);
+		assertThat(req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/resources/{name}.css");
+
+		req = new MockHttpServletRequest("GET", "/users/j%C3%BCrgen");
+		hec = getHandler(hm, req);
+		assertThat(hec.getHandler()).isSameAs(user);
+		assertThat(req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/users/{id}");
+		assertThat(req.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE))
+				.isEqualTo(Collections.singletonMap("id", "j\u00fcrgen"));
+
+		RequestMatchResult result = hm.match(req, "/users/{id}");
+		assertThat(result).isNotNull();
+		assertThat(result.extractUriTemplateVariables()).containsEntry("id", "j\u00fcrgen");
+		assertThat(hm.match(req, "/accounts/{id}")).isNull();
+
+		req = new MockHttpServletRequest("GET", "/other");
+		assertThat(hm.getHandler(req)).isNull();
+	}
+
+	@Test
+	public void patternParserSetAfterHandlerRegistration() {
+		SimpleUrlHandlerMapping hm = new SimpleUrlHandlerMapping(Collections.singletonMap("/welcome.html", new Object()));
+		hm.setApplicationContext(new StaticApplicationContext());
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+				hm.setPatternParser(new PathPatternParser()));
+	}
+
 	private HandlerExecutionChain getHandler(HandlerMapping hm, MockHttpServletRequest req) throws Exception {
 		HandlerExecutionChain hec = hm.getHandler(req);
 		HandlerInterceptor[] interceptors = hec.getInterceptors();
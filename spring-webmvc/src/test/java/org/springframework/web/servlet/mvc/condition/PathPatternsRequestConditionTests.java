@@ -0,0 +1,168 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.condition;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link PathPatternsRequestCondition}.
+ */
+public class PathPatternsRequestConditionTests {
+
+	private static final PathPatternParser parser = new PathPatternParser();
+
+
+	@Test
+	public void prependSlash() {
+		assertThat(createCondition("foo").getFirstPattern().getPatternString()).isEqualTo("/foo");
+	}
+
+	@Test
+	public void prependNonEmptyPatternsOnly() {
+		PathPatternsRequestCondition condition = createCondition("");
+		assertThat(condition.getFirstPattern().getPatternString()).isEqualTo("");
+		assertThat(condition.isEmptyPathMapping()).isTrue();
+	}
+
+	@Test
+	public void combineEmptySets() {
+		PathPatternsRequestCondition c1 = createCondition();
+		PathPatternsRequestCondition c2 = createCondition();
+		PathPatternsRequestCondition c3 = c1.combine(c2);
+
+		assertThat(c3).isSameAs(c1);
+		assertThat(c3.getPatternValues()).containsExactly("");
+	}
+
+	@Test
+	public void combineOnePatternWithEmptySet() {
+		PathPatternsRequestCondition c1 = createCondition("/type1", "/type2");
+		PathPatternsRequestCondition c2 = createCondition();
+
+		assertThat(c1.combine(c2)).isEqualTo(createCondition("/type1", "/type2"));
+
+		c1 = createCondition();
+		c2 = createCondition("/method1", "/method2");
+
+		assertThat(c1.combine(c2)).isEqualTo(createCondition("/method1", "/method2"));
+	}
+
+	@Test
+	public void combineMultiplePatterns() {
+		PathPatternsRequestCondition c1 = createCondition("/t1", "/t2");
+		PathPatternsRequestCondition c2 = createCondition("/m1", "/m2");
+
+		assertThat(c1.combine(c2)).isEqualTo(createCondition("/t1/m1", "/t1/m2", "/t2/m1", "/t2/m2"));
+	}
+
+	@Test
+	public void matchDirectPath() {
+		PathPatternsRequestCondition condition = createCondition("/foo");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(createRequest("/foo"));
+
+		assertThat(match).isNotNull();
+		assertThat(condition.getMatchingCondition(createRequest("/bar"))).isNull();
+	}
+
+	@Test
+	public void matchPattern() {
+		PathPatternsRequestCondition condition = createCondition("/foo/*");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(createRequest("/foo/bar"));
+
+		assertThat(match).isNotNull();
+	}
+
+	@Test
+	public void matchSortPatterns() {
+		PathPatternsRequestCondition condition = createCondition("/**", "/foo/bar", "/foo/*");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(createRequest("/foo/bar"));
+
+		assertThat(match).isEqualTo(createCondition("/foo/bar", "/foo/*", "/**"));
+	}
+
+	@Test
+	public void matchWithContextPath() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/foo");
+		request.setContextPath("/app");
+		ServletRequestPathUtils.parseAndCache(request);
+
+		assertThat(createCondition("/foo").getMatchingCondition(request)).isNotNull();
+	}
+
+	@Test
+	public void matchEncodedPath() {
+		PathPatternsRequestCondition condition = createCondition("/foo bar");
+		PathPatternsRequestCondition match = condition.getMatchingCondition(createRequest("/foo%20bar"));
+
+		assertThat(match).isNotNull();
+	}
+
+	@Test
+	public void directPaths() {
+		assertThat(createCondition("/foo", "/bar/{id}", "/baz").getDirectPaths()).containsExactlyInAnyOrder("/foo", "/baz");
+		assertThat(createCondition("/bar/{id}").getDirectPaths()).isEmpty();
+		assertThat(createCondition().getDirectPaths()).containsExactly("");
+	}
+
+	@Test
+	public void compareToConsistentWithEquals() {
+		PathPatternsRequestCondition c1 = createCondition("/foo*");
+		PathPatternsRequestCondition c2 = createCondition("/foo*");
+
+		assertThat(c1.compareTo(c2, createRequest("/foo"))).isEqualTo(0);
+	}
+
+	@Test
+	public void equallyMatchingPatternsNumberOfPatterns() {
+		PathPatternsRequestCondition c1 = createCondition("/foo*", "/bar*");
+		PathPatternsRequestCondition c2 = createCondition("/foo*");
+
+		assertThat(c1.compareTo(c2, createRequest("/foo"))).isEqualTo(-1);
+		assertThat(c2.compareTo(c1, createRequest("/foo"))).isEqualTo(1);
+	}
+
+	@Test
+	public void comparePatternSpecificity() {
+		HttpServletRequest request = createRequest("/foo");
+		PathPatternsRequestCondition c1 = createCondition("/fo*").getMatchingCondition(request);
+		PathPatternsRequestCondition c2 = createCondition("/foo").getMatchingCondition(request);
+
+		assertThat(c1).isNotNull();
+		assertThat(c2).isNotNull();
+		assertThat(c1.compareTo(c2, request)).isEqualTo(1);
+	}
+
+
+	private PathPatternsRequestCondition createCondition(String... patterns) {
+		return new PathPatternsRequestCondition(parser, patterns);
+	}
+
+	private MockHttpServletRequest createRequest(String requestUri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+		ServletRequestPathUtils.parseAndCache(request);
+		return request;
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -272,6 +272,94 @@ public class RequestMappingHandlerAdapterTests {
 		assertThat(this.response.getContentAsString()).isEqualTo("{\"status\":400,\"message\":\"body\"}");
 	}
 
+	@Test
+	public void invocationSetupReusedForSameHandlerAndAdvice() throws Exception {
+		CountingHandlerAdapter adapter = initCountingHandlerAdapter();
+		this.webAppContext.registerSingleton("maa", ModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+		Map<String, Object> model1 = adapter.handle(this.request, this.response, handlerMethod).getModel();
+		Map<String, Object> model2 = adapter.handle(this.request, this.response, handlerMethod).getModel();
+
+		assertThat(adapter.invocableMethodCount).isEqualTo(1);
+		assertThat(model1.get("instance")).isSameAs(model2.get("instance"));
+		assertThat(model2.get("attr1")).isEqualTo("lAttr1");
+		assertThat(model2.get("attr2")).isEqualTo("gAttr2");
+	}
+
+	@Test
+	public void invocationSetupNotReusedForPrototypeHandler() throws Exception {
+		CountingHandlerAdapter adapter = initCountingHandlerAdapter();
+		this.webAppContext.registerPrototype("controller", SimpleController.class);
+		this.webAppContext.refresh();
+		adapter.afterPropertiesSet();
+
+		Method method = SimpleController.class.getDeclaredMethod("handle");
+		HandlerMethod handlerMethod = new HandlerMethod("controller", this.webAppContext.getBeanFactory(), method);
+		adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean());
+		adapter.handle(this.request, this.response, handlerMethod.createWithResolvedBean());
+
+		assertThat(adapter.invocableMethodCount).isEqualTo(2);
+	}
+
+	@Test
+	public void invocationSetupNotCachedForPrototypeControllerAdvice() throws Exception {
+		CountingHandlerAdapter adapter = initCountingHandlerAdapter();
+		this.webAppContext.registerPrototype("maa", ModelAttributeAdvice.class);
+		this.webAppContext.refresh();
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+		Map<String, Object> model1 = adapter.handle(this.request, this.response, handlerMethod).getModel();
+		Map<String, Object> model2 = adapter.handle(this.request, this.response, handlerMethod).getModel();
+
+		assertThat(adapter.invocableMethodCount).isEqualTo(2);
+		assertThat(model1.get("instance")).isNotSameAs(model2.get("instance"));
+	}
+
+	@Test
+	public void invocationSetupClearedOnAfterPropertiesSet() throws Exception {
+		CountingHandlerAdapter adapter = initCountingHandlerAdapter();
+		this.webAppContext.refresh();
+		adapter.afterPropertiesSet();
+
+		HandlerMethod handlerMethod = handlerMethod(new SimpleController(), "handle");
+		adapter.handle(this.request, this.response, handlerMethod);
+		adapter.afterPropertiesSet();
+		adapter.handle(this.request, this.response, handlerMethod);
+
+		assertThat(adapter.invocableMethodCount).isEqualTo(2);
+	}
+
+	@Test
+	public void handleWithoutModelAttributeMethods() throws Exception {
+		this.handlerAdapter.afterPropertiesSet();
+		FlashMap flashMap = new FlashMap();
+		flashMap.put("flashAttr", "flashValue");
+		this.request.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, flashMap);
+
+		HandlerMethod handlerMethod = handlerMethod(new NoModelAttributeController(), "handle", Model.class);
+		ModelAndView mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+
+		assertThat(mav.getViewName()).isEqualTo("view");
+		assertThat(mav.getModel().get("attr")).isEqualTo("value");
+		assertThat(mav.getModel().get("flashAttr")).isEqualTo("flashValue");
+
+		handlerMethod = handlerMethod(new NoModelAttributeController(), "handleWithResponseEntity");
+		mav = this.handlerAdapter.handle(this.request, this.response, handlerMethod);
+
+		assertThat(mav).isNull();
+		assertThat(this.response.getContentAsString()).isEqualTo("body");
+	}
+
+	private CountingHandlerAdapter initCountingHandlerAdapter() {
+		CountingHandlerAdapter adapter = new CountingHandlerAdapter();
+		adapter.setApplicationContext(this.webAppContext);
+		return adapter;
+	}
+
 	private HandlerMethod handlerMethod(Object handler, String methodName, Class<?>... paramTypes) throws Exception {
 		Method method = handler.getClass().getDeclaredMethod(methodName, paramTypes);
 		return new InvocableHandlerMethod(handler, method);
@@ -308,6 +396,20 @@ public class RequestMappingHandlerAdapterTests {
 	}
 
 
+	@SuppressWarnings("unused")
+	private static class NoModelAttributeController {
+
+		public String handle(Model model) {
+			model.addAttribute("attr", "value");
+			return "view";
+		}
+
+		public ResponseEntity<String> handleWithResponseEntity() {
+			return ResponseEntity.ok("body");
+		}
+	}
+
+
 	@SessionAttributes("attr1")
 	private static class SessionAttributeController {
 
@@ -414,4 +516,16 @@ public class RequestMappingHandlerAdapterTests {
 
 	}
 
+
+	private static class CountingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+		int invocableMethodCount;
+
+		@Override
+		protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+			this.invocableMethodCount++;
+			return super.createInvocableHandlerMethod(handlerMethod);
+		}
+	}
+
 }
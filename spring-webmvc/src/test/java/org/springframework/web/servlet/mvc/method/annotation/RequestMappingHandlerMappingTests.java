@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,7 @@ import org.springframework.core.annotation.AliasFor;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.accept.PathExtensionContentNegotiationStrategy;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -46,10 +47,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.method.HandlerTypePredicate;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.RequestMatchResult;
 import org.springframework.web.servlet.mvc.condition.ConsumesRequestCondition;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -230,6 +235,39 @@ public class RequestMappingHandlerMappingTests {
 		assertComposedAnnotationMapping(RequestMethod.PATCH);
 	}
 
+	@Test
+	@SuppressWarnings("unchecked")
+	public void pathPatternsWithUriAndMatrixVariables() throws Exception {
+		this.wac.registerSingleton("carController", CarController.class);
+		this.wac.refresh();
+
+		RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+		mapping.setPatternParser(new PathPatternParser());
+		mapping.setRemoveSemicolonContent(false);
+		mapping.setApplicationContext(this.wac);
+		mapping.afterPropertiesSet();
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/cars;color=red/2020%2D01");
+		request.setContextPath("/app");
+		HandlerMethod handlerMethod = (HandlerMethod) mapping.getHandler(request).getHandler();
+		assertThat(handlerMethod.getMethod().getName()).isEqualTo("findCar");
+
+		assertThat(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE)).isEqualTo("/{type}/{year}");
+
+		Map<String, String> uriVariables =
+				(Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		assertThat(uriVariables).containsEntry("type", "cars").containsEntry("year", "2020-01");
+
+		Map<String, MultiValueMap<String, String>> matrixVariables =
+				(Map<String, MultiValueMap<String, String>>) request.getAttribute(HandlerMapping.MATRIX_VARIABLES_ATTRIBUTE);
+		assertThat(matrixVariables.get("type").getFirst("color")).isEqualTo("red");
+
+		RequestMatchResult result = mapping.match(request, "/{type}/{year}");
+		assertThat(result).isNotNull();
+		assertThat(result.extractUriTemplateVariables()).containsEntry("type", "cars").containsEntry("year", "2020-01");
+		assertThat(mapping.match(request, "/{type}")).isNull();
+	}
+
 	private RequestMappingInfo assertComposedAnnotationMapping(RequestMethod requestMethod) throws Exception {
 		String methodName = requestMethod.name().toLowerCase();
 		String path = "/" + methodName;
@@ -316,6 +354,15 @@ public class RequestMappingHandlerMappingTests {
 	}
 
 
+	@Controller
+	static class CarController {
+
+		@GetMapping("/{type}/{year}")
+		public void findCar() {
+		}
+	}
+
+
 	private static class Foo {
 	}
 
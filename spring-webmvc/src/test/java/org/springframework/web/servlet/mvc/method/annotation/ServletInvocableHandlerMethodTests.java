@@ -48,6 +48,7 @@ import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.method.annotation.RequestParamMethodArgumentResolver;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodArgumentResolverComposite;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.method.support.HandlerMethodReturnValueHandlerComposite;
@@ -234,6 +235,43 @@ public class ServletInvocableHandlerMethodTests {
 		assertThat(this.mavContainer.getViewName()).isEqualTo("view");
 	}
 
+	@Test
+	public void invokeAndHandle_ReturnValueHandlerBoundPerValueType() throws Exception {
+		CountingReturnValueHandler viewHandler = new CountingReturnValueHandler(new ViewMethodReturnValueHandler());
+		CountingReturnValueHandler viewNameHandler = new CountingReturnValueHandler(new ViewNameMethodReturnValueHandler());
+		this.argumentResolvers.addResolver(new RequestParamMethodArgumentResolver(null, false));
+		this.returnValueHandlers.addHandler(viewHandler).addHandler(viewNameHandler);
+
+		ServletInvocableHandlerMethod hm = getHandlerMethod(new Handler(), "dynamicReturnValue", String.class);
+		hm.invokeAndHandle(this.webRequest, new ModelAndViewContainer());
+		hm.invokeAndHandle(this.webRequest, new ModelAndViewContainer());
+
+		assertThat(viewHandler.supportsCount).isEqualTo(1);
+		assertThat(viewHandler.handleCount).isEqualTo(2);
+
+		this.request.setParameter("param", "value");
+		hm.invokeAndHandle(this.webRequest, new ModelAndViewContainer());
+		hm.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(viewHandler.supportsCount).isEqualTo(2);
+		assertThat(viewNameHandler.supportsCount).isEqualTo(1);
+		assertThat(viewNameHandler.handleCount).isEqualTo(2);
+		assertThat(this.mavContainer.getViewName()).isEqualTo("view");
+	}
+
+	@Test
+	public void invokeAndHandle_ReturnValueHandlerNotBoundWithAsyncHandler() throws Exception {
+		CountingReturnValueHandler viewNameHandler = new CountingReturnValueHandler(new ViewNameMethodReturnValueHandler());
+		this.returnValueHandlers.addHandler(viewNameHandler).addHandler(new StringAsyncReturnValueHandler());
+
+		ServletInvocableHandlerMethod hm = getHandlerMethod(new Handler(), "handle");
+		hm.invokeAndHandle(this.webRequest, this.mavContainer);
+		hm.invokeAndHandle(this.webRequest, this.mavContainer);
+
+		assertThat(viewNameHandler.supportsCount).isEqualTo(3);
+		assertThat(viewNameHandler.handleCount).isEqualTo(2);
+	}
+
 	@Test
 	public void wrapConcurrentResult_MethodLevelResponseBody() throws Exception {
 		wrapConcurrentResult_ResponseBody(new MethodLevelResponseBodyHandler(), "bar", String.class);
@@ -499,6 +537,53 @@ public class ServletInvocableHandlerMethodTests {
 	}
 
 
+	private static class CountingReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+		private final HandlerMethodReturnValueHandler delegate;
+
+		int supportsCount;
+
+		int handleCount;
+
+		CountingReturnValueHandler(HandlerMethodReturnValueHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean supportsReturnType(MethodParameter returnType) {
+			this.supportsCount++;
+			return this.delegate.supportsReturnType(returnType);
+		}
+
+		@Override
+		public void handleReturnValue(Object returnValue, MethodParameter returnType,
+				ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+
+			this.handleCount++;
+			this.delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+		}
+	}
+
+
+	private static class StringAsyncReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+		@Override
+		public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+			return false;
+		}
+
+		@Override
+		public boolean supportsReturnType(MethodParameter returnType) {
+			return String.class == returnType.getParameterType();
+		}
+
+		@Override
+		public void handleReturnValue(Object returnValue, MethodParameter returnType,
+				ModelAndViewContainer mavContainer, NativeWebRequest webRequest) {
+		}
+	}
+
+
 	@SuppressWarnings("unused")
 	private static class StreamingHandler {
 
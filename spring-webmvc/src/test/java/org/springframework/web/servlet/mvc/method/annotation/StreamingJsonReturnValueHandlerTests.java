@@ -0,0 +1,290 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.mvc.method.annotation;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link StreamingJsonReturnValueHandler}.
+ */
+public class StreamingJsonReturnValueHandlerTests {
+
+	private StreamingJsonReturnValueHandler handler;
+
+	private ModelAndViewContainer mavContainer;
+
+	private NativeWebRequest webRequest;
+
+	private MockHttpServletRequest request;
+
+	private MockHttpServletResponse response;
+
+
+	@BeforeEach
+	public void setup() {
+		this.handler = new StreamingJsonReturnValueHandler(
+				Collections.singletonList(new MappingJackson2HttpMessageConverter()));
+		this.mavContainer = new ModelAndViewContainer();
+
+		this.request = new MockHttpServletRequest("GET", "/path");
+		this.response = new MockHttpServletResponse();
+		this.webRequest = new ServletWebRequest(this.request, this.response);
+	}
+
+
+	@Test
+	public void supportsReturnType() throws Exception {
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleStream"))).isTrue();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleIterator"))).isTrue();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleNdjsonList"))).isTrue();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleJsonStream"))).isFalse();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handlePlainStream"))).isFalse();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleList"))).isFalse();
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleStreamWithoutResponseBody"))).isFalse();
+	}
+
+	@Test
+	public void jsonArray() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		Stream<Person> stream = Stream.of(new Person("Jason"), new Person("John")).onClose(() -> closed.set(true));
+
+		this.handler.handleReturnValue(stream, returnType(TestController.class, "handleStream"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.mavContainer.isRequestHandled()).isTrue();
+		assertThat(this.response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(this.response.getContentAsString()).isEqualTo("[{\"name\":\"Jason\"},{\"name\":\"John\"}]");
+		assertThat(closed.get()).isTrue();
+	}
+
+	@Test
+	public void emptyJsonArray() throws Exception {
+		this.handler.handleReturnValue(Stream.empty(), returnType(TestController.class, "handleStream"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentAsString()).isEqualTo("[]");
+	}
+
+	@Test
+	public void newlineDelimitedJson() throws Exception {
+		this.request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+		this.handler.setFlushSize(10);
+
+		Iterator<Person> iterator = Arrays.asList(new Person("Jason"), null, new Person("John")).iterator();
+		this.handler.handleReturnValue(iterator, returnType(TestController.class, "handleIterator"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+		assertThat(this.response.getContentAsString())
+				.isEqualTo("{\"name\":\"Jason\"}\nnull\n{\"name\":\"John\"}\n");
+	}
+
+	@Test
+	public void newlineDelimitedJsonForProducibleMediaType() throws Exception {
+		this.request.setAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+				Collections.singleton(MediaType.APPLICATION_NDJSON));
+
+		List<Person> list = Arrays.asList(new Person("Jason"), new Person("John"));
+		this.handler.handleReturnValue(list, returnType(TestController.class, "handleNdjsonList"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+		assertThat(this.response.getContentAsString()).isEqualTo("{\"name\":\"Jason\"}\n{\"name\":\"John\"}\n");
+	}
+
+	@Test
+	public void jsonArrayOfStrings() throws Exception {
+		initHandlerWithStringConverters();
+
+		this.handler.handleReturnValue(Stream.of("foo", "bar"), returnType(TestController.class, "handleStringStream"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+		assertThat(this.response.getContentAsString()).isEqualTo("[\"foo\",\"bar\"]");
+	}
+
+	@Test
+	public void newlineDelimitedJsonOfStrings() throws Exception {
+		initHandlerWithStringConverters();
+		this.request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+
+		this.handler.handleReturnValue(Stream.of("foo", "bar"), returnType(TestController.class, "handleStringStream"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+		assertThat(this.response.getContentAsString()).isEqualTo("\"foo\"\n\"bar\"\n");
+	}
+
+	@Test
+	public void notSupportedWithoutJsonConverter() throws Exception {
+		this.handler = new StreamingJsonReturnValueHandler(
+				Arrays.asList(new StringHttpMessageConverter(), new ByteArrayHttpMessageConverter()));
+
+		assertThat(this.handler.supportsReturnType(returnType(TestController.class, "handleStringStream"))).isFalse();
+	}
+
+	@Test
+	public void responseBodyAdviceAppliedPerElement() throws Exception {
+		this.handler = new StreamingJsonReturnValueHandler(
+				Collections.singletonList(new MappingJackson2HttpMessageConverter()),
+				new ContentNegotiationManager(), Collections.singletonList(new UpperCaseNameAdvice()));
+		this.request.addHeader("Accept", MediaType.APPLICATION_NDJSON_VALUE);
+
+		Stream<Person> stream = Stream.of(new Person("Jason"), new Person("John"));
+		this.handler.handleReturnValue(stream, returnType(TestController.class, "handleStream"),
+				this.mavContainer, this.webRequest);
+
+		assertThat(this.response.getContentAsString()).isEqualTo("{\"name\":\"JASON\"}\n{\"name\":\"JOHN\"}\n");
+	}
+
+	@Test
+	public void notAcceptable() throws Exception {
+		this.request.addHeader("Accept", MediaType.APPLICATION_XML_VALUE);
+
+		AtomicBoolean closed = new AtomicBoolean();
+		Stream<Person> stream = Stream.of(new Person("Jason")).onClose(() -> closed.set(true));
+
+		assertThatExceptionOfType(HttpMediaTypeNotAcceptableException.class).isThrownBy(() ->
+				this.handler.handleReturnValue(stream, returnType(TestController.class, "handleStream"),
+						this.mavContainer, this.webRequest));
+		assertThat(this.response.getContentAsString()).isEmpty();
+		assertThat(closed.get()).isTrue();
+	}
+
+
+	private void initHandlerWithStringConverters() {
+		this.handler = new StreamingJsonReturnValueHandler(Arrays.asList(new StringHttpMessageConverter(),
+				new ByteArrayHttpMessageConverter(), new MappingJackson2HttpMessageConverter()));
+	}
+
+	private MethodParameter returnType(Class<?> clazz, String methodName) throws NoSuchMethodException {
+		Method method = clazz.getDeclaredMethod(methodName);
+		return new MethodParameter(method, -1);
+	}
+
+
+	@SuppressWarnings("unused")
+	private static class TestController {
+
+		@ResponseBody
+		@GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+		private Stream<Person> handleStream() {
+			return null;
+		}
+
+		@ResponseBody
+		@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+		private Iterator<Person> handleIterator() {
+			return null;
+		}
+
+		@ResponseBody
+		@GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+		private Stream<String> handleStringStream() {
+			return null;
+		}
+
+		@ResponseBody
+		@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+		private Stream<Person> handleJsonStream() {
+			return null;
+		}
+
+		@ResponseBody
+		private Stream<Person> handlePlainStream() {
+			return null;
+		}
+
+		@ResponseBody
+		@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+		private List<Person> handleNdjsonList() {
+			return null;
+		}
+
+		@ResponseBody
+		private List<Person> handleList() {
+			return null;
+		}
+
+		private Stream<Person> handleStreamWithoutResponseBody() {
+			return null;
+		}
+	}
+
+
+	public static class Person {
+
+		private final String name;
+
+		public Person(String name) {
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+
+	private static class UpperCaseNameAdvice implements ResponseBodyAdvice<Object> {
+
+		@Override
+		public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+			return true;
+		}
+
+		@Override
+		public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+				Class<? extends HttpMessageConverter<?>> converterType, ServerHttpRequest request,
+				ServerHttpResponse response) {
+
+			return new Person(((Person) body).getName().toUpperCase());
+		}
+	}
+
+}
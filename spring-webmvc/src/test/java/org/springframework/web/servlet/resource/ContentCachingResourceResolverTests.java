@@ -0,0 +1,158 @@
+/*
+ * Copyright 2002-2020 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.servlet.resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link ContentCachingResourceResolver}.
+ */
+public class ContentCachingResourceResolverTests {
+
+	private static final String CSS_CONTENT = StringUtils.collectionToDelimitedString(
+			Collections.nCopies(100, "h1 { color:red; }"), "\n");
+
+
+	private ContentCachingResourceResolver resolver;
+
+	private ResourceResolverChain chain;
+
+	private List<Resource> locations;
+
+
+	@BeforeEach
+	public void setup(@TempDir Path tempDir) throws IOException {
+		Files.write(tempDir.resolve("main.css"), CSS_CONTENT.getBytes(StandardCharsets.UTF_8));
+		Files.write(tempDir.resolve("other.css"), CSS_CONTENT.getBytes(StandardCharsets.UTF_8));
+		Files.write(tempDir.resolve("foo.txt"), "Some text.".getBytes(StandardCharsets.UTF_8));
+		Files.write(tempDir.resolve("image.png"), new byte[1024]);
+
+		this.resolver = new ContentCachingResourceResolver();
+
+		List<ResourceResolver> resolvers = new ArrayList<>();
+		resolvers.add(this.resolver);
+		resolvers.add(new PathResourceResolver());
+		this.chain = new DefaultResourceResolverChain(resolvers);
+
+		this.locations = new ArrayList<>();
+		this.locations.add(new FileSystemResource(tempDir.toString() + "/"));
+	}
+
+
+	@Test
+	public void resolveResourceFromMemory() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		Resource resource = this.chain.resolveResource(request, "foo.txt", this.locations);
+
+		assertThat(resource).isInstanceOf(HttpResource.class);
+		assertThat(resource.isFile()).isFalse();
+		assertThat(resource.getFilename()).isEqualTo("foo.txt");
+		assertThat(resource.contentLength()).isEqualTo(10);
+		assertThat(FileCopyUtils.copyToByteArray(resource.getInputStream()))
+				.isEqualTo("Some text.".getBytes(StandardCharsets.UTF_8));
+		assertThat(((HttpResource) resource).getResponseHeaders().getETag()).startsWith("\"0");
+
+		assertThat(this.chain.resolveResource(request, "foo.txt", this.locations)).isSameAs(resource);
+	}
+
+	@Test
+	public void resolveResourceNoMatch() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		assertThat(this.chain.resolveResource(request, "invalid.css", this.locations)).isNull();
+	}
+
+	@Test
+	public void resolveResourceWithGzipCompression() throws IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip, deflate");
+		Resource resource = this.chain.resolveResource(request, "main.css", this.locations);
+
+		HttpHeaders headers = ((HttpResource) resource).getResponseHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getFirst(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(resource.contentLength()).isLessThan(CSS_CONTENT.length());
+		byte[] content = FileCopyUtils.copyToByteArray(new GZIPInputStream(resource.getInputStream()));
+		assertThat(new String(content, StandardCharsets.UTF_8)).isEqualTo(CSS_CONTENT);
+
+		Resource identity = this.chain.resolveResource(new MockHttpServletRequest(), "main.css", this.locations);
+		assertThat(identity).isNotSameAs(resource);
+		assertThat(((HttpResource) identity).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(((HttpResource) identity).getResponseHeaders().getETag()).isNotEqualTo(headers.getETag());
+		assertThat(identity.contentLength()).isEqualTo(CSS_CONTENT.length());
+	}
+
+	@Test
+	public void resolveResourceWithoutCompressibleMediaType() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader("Accept-Encoding", "gzip");
+		Resource resource = this.chain.resolveResource(request, "image.png", this.locations);
+
+		assertThat(((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+	}
+
+	@Test
+	public void resolveResourceLargerThanMaxResourceSize() {
+		this.resolver.setMaxResourceSize(100);
+		Resource resource = this.chain.resolveResource(new MockHttpServletRequest(), "main.css", this.locations);
+
+		assertThat(resource).isInstanceOf(FileSystemResource.class);
+	}
+
+	@Test
+	public void evictLeastRecentlyUsedBeyondMaxCacheSize() {
+		this.resolver.setMaxCacheSize(CSS_CONTENT.length() + 10);
+		MockHttpServletRequest request = new MockHttpServletRequest();
+
+		Resource foo = this.chain.resolveResource(request, "foo.txt", this.locations);
+		Resource main = this.chain.resolveResource(request, "main.css", this.locations);
+		assertThat(this.chain.resolveResource(request, "foo.txt", this.locations)).isSameAs(foo);
+		assertThat(this.chain.resolveResource(request, "main.css", this.locations)).isSameAs(main);
+
+		this.chain.resolveResource(request, "other.css", this.locations);
+		assertThat(this.chain.resolveResource(request, "main.css", this.locations)).isNotSameAs(main);
+	}
+
+	@Test
+	public void clearCache() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		Resource resource = this.chain.resolveResource(request, "foo.txt", this.locations);
+
+		this.resolver.clearCache();
+		assertThat(this.chain.resolveResource(request, "foo.txt", this.locations)).isNotSameAs(resource);
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -28,7 +28,9 @@ import javax.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.context.ApplicationContextException;
+import org.springframework.ui.ModelMap;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
 import org.springframework.web.servlet.View;
 import org.springframework.web.testfixture.servlet.MockHttpServletRequest;
 import org.springframework.web.testfixture.servlet.MockHttpServletResponse;
@@ -73,6 +75,74 @@ public class BaseViewTests {
 		assertThat(tv.initialized).isTrue();
 	}
 
+	@Test
+	public void renderWithModelMapCopiedByDefault() throws Exception {
+		WebApplicationContext wac = mock(WebApplicationContext.class);
+		given(wac.getServletContext()).willReturn(new MockServletContext());
+
+		TestView tv = new TestView(wac);
+		tv.setApplicationContext(wac);
+
+		ModelMap model = new ModelMap("foo", "bar");
+		tv.render(model, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertThat(tv.model).isNotSameAs(model);
+		assertThat(tv.model).containsEntry("foo", "bar");
+	}
+
+	@Test
+	public void renderWithReusableModelMap() throws Exception {
+		WebApplicationContext wac = mock(WebApplicationContext.class);
+		given(wac.getServletContext()).willReturn(new MockServletContext());
+
+		TestView tv = new TestView(wac);
+		tv.setApplicationContext(wac);
+		tv.modelReusable = true;
+
+		ModelMap model = new ModelMap("foo", "bar");
+		tv.render(model, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertThat(tv.model).isSameAs(model);
+	}
+
+	@Test
+	public void renderWithReusableModelMapAndRequestContextAttribute() throws Exception {
+		WebApplicationContext wac = mock(WebApplicationContext.class);
+		given(wac.getServletContext()).willReturn(new MockServletContext());
+
+		TestView tv = new TestView(wac);
+		tv.setApplicationContext(wac);
+		tv.modelReusable = true;
+		tv.setRequestContextAttribute("rc");
+
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, wac);
+		ModelMap model = new ModelMap("foo", "bar");
+		tv.render(model, request, new MockHttpServletResponse());
+
+		assertThat(tv.model).isNotSameAs(model);
+		assertThat(tv.model).containsKey("rc");
+		assertThat(model).doesNotContainKey("rc");
+	}
+
+	@Test
+	public void renderWithModelMapAndStaticAttributes() throws Exception {
+		WebApplicationContext wac = mock(WebApplicationContext.class);
+		given(wac.getServletContext()).willReturn(new MockServletContext());
+
+		TestView tv = new TestView(wac);
+		tv.setApplicationContext(wac);
+		tv.modelReusable = true;
+		tv.addStaticAttribute("baz", "qux");
+
+		ModelMap model = new ModelMap("foo", "bar");
+		tv.render(model, new MockHttpServletRequest(), new MockHttpServletResponse());
+
+		assertThat(tv.model).isNotSameAs(model);
+		assertThat(tv.model).containsEntry("foo", "bar").containsEntry("baz", "qux");
+		assertThat(model).doesNotContainKey("baz");
+	}
+
 	/**
 	 * Test attribute passing, NOT CSV parsing.
 	 */
@@ -298,6 +368,8 @@ public class BaseViewTests {
 
 		boolean initialized;
 
+		boolean modelReusable;
+
 		/** Captured model in render */
 		Map<String, Object> model;
 
@@ -305,6 +377,11 @@ public class BaseViewTests {
 			this.wac = wac;
 		}
 
+		@Override
+		protected boolean isModelReusable() {
+			return this.modelReusable;
+		}
+
 		@Override
 		protected void renderMergedOutputModel(Map<String, Object> model, HttpServletRequest request,
 				HttpServletResponse response) throws ServletException, IOException {
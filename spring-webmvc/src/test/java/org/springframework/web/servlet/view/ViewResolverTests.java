@@ -16,10 +16,18 @@
 
 package org.springframework.web.servlet.view;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.RequestDispatcher;
@@ -558,6 +566,94 @@ public class ViewResolverTests {
 		assertThat(count.intValue()).isEqualTo(2);
 	}
 
+	@Test
+	public void cacheUnresolvedWithTtl() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) {
+				count.incrementAndGet();
+				return null;
+			}
+		};
+		viewResolver.setCacheUnresolvedTtl(Duration.ofMillis(50));
+
+		assertThat(viewResolver.resolveViewName("view", Locale.getDefault())).isNull();
+		assertThat(viewResolver.resolveViewName("view", Locale.getDefault())).isNull();
+		assertThat(count.intValue()).isEqualTo(1);
+
+		Thread.sleep(100);
+		assertThat(viewResolver.resolveViewName("view", Locale.getDefault())).isNull();
+		assertThat(viewResolver.resolveViewName("view", Locale.getDefault())).isNull();
+		assertThat(count.intValue()).isEqualTo(2);
+	}
+
+	@Test
+	public void cacheLimit() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) {
+				count.incrementAndGet();
+				return new TestView();
+			}
+		};
+		viewResolver.setCacheLimit(2);
+
+		View view1 = viewResolver.resolveViewName("view1", Locale.getDefault());
+		viewResolver.resolveViewName("view2", Locale.getDefault());
+		viewResolver.resolveViewName("view3", Locale.getDefault());
+		assertThat(count.intValue()).isEqualTo(3);
+
+		viewResolver.resolveViewName("view2", Locale.getDefault());
+		viewResolver.resolveViewName("view3", Locale.getDefault());
+		assertThat(count.intValue()).isEqualTo(3);
+
+		assertThat(viewResolver.resolveViewName("view1", Locale.getDefault())).isNotSameAs(view1);
+		assertThat(count.intValue()).isEqualTo(4);
+	}
+
+	@Test
+	public void concurrentResolutionCreatesViewOnce() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AbstractCachingViewResolver viewResolver = new AbstractCachingViewResolver() {
+			@Override
+			protected View loadView(String viewName, Locale locale) throws Exception {
+				if (viewName.equals("slow")) {
+					count.incrementAndGet();
+					loading.countDown();
+					release.await(5, TimeUnit.SECONDS);
+				}
+				return new TestView();
+			}
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<View>> results = new ArrayList<>();
+			results.add(executor.submit(() -> viewResolver.resolveViewName("slow", Locale.getDefault())));
+			assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < 3; i++) {
+				results.add(executor.submit(() -> viewResolver.resolveViewName("slow", Locale.getDefault())));
+			}
+
+			// Views for other keys are not blocked by the pending creation
+			assertThat(viewResolver.resolveViewName("fast", Locale.getDefault())).isNotNull();
+
+			release.countDown();
+			View view = results.get(0).get(5, TimeUnit.SECONDS);
+			for (Future<View> result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(view);
+			}
+			assertThat(count.intValue()).isEqualTo(1);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
 
 	public static class TestView extends InternalResourceView {
 
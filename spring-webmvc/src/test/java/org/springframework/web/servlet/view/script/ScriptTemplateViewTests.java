@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2019 the original author or authors.
+ * Copyright 2002-2020 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -26,6 +26,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
 import javax.script.ScriptEngine;
 
@@ -47,8 +50,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Unit tests for {@link ScriptTemplateView}.
@@ -320,7 +328,80 @@ public class ScriptTemplateViewTests {
 		assertThat(accessor.getPropertyValue("sharedEngine")).isEqualTo(false);
 	}
 
+	@Test
+	public void cacheLimitWithRenderObject() throws Exception {
+		InvocableScriptEngine engine = mock(InvocableScriptEngine.class);
+		Object template = new Object();
+		given(engine.eval("Template")).willReturn(template);
+		given(engine.invokeMethod(eq(template), eq("render"), any())).willReturn("foo");
+		this.configurer.setCacheLimit(10);
+
+		this.view.setEngine(engine);
+		this.view.setRenderObject("Template");
+		this.view.setRenderFunction("render");
+		this.view.setResourceLoaderPath("classpath:org/springframework/web/servlet/view/script/");
+		this.view.setUrl("empty.txt");
+		this.view.setApplicationContext(this.wac);
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = renderView(this.view);
+			assertThat(response.getContentAsString()).isEqualTo("foo");
+		}
+		verify(engine, times(1)).eval("Template");
+	}
+
+	@Test
+	public void cacheLimitWithCompilableEngine() throws Exception {
+		CompilableScriptEngine engine = mock(CompilableScriptEngine.class);
+		CompiledScript compiledScript = mock(CompiledScript.class);
+		given(engine.compile(anyString())).willReturn(compiledScript);
+		given(compiledScript.eval(any(Bindings.class))).willReturn("foo");
+
+		this.view.setEngine(engine);
+		this.view.setCacheLimit(10);
+		this.view.setResourceLoaderPath("classpath:org/springframework/web/servlet/view/script/");
+		this.view.setUrl("empty.txt");
+		this.view.setApplicationContext(this.wac);
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = renderView(this.view);
+			assertThat(response.getContentAsString()).isEqualTo("foo");
+		}
+		verify(engine, times(1)).compile(anyString());
+		verify(engine, never()).eval(anyString(), any(Bindings.class));
+	}
+
+	@Test
+	public void noCacheLimitWithCompilableEngine() throws Exception {
+		CompilableScriptEngine engine = mock(CompilableScriptEngine.class);
+		given(engine.eval(anyString(), any(Bindings.class))).willReturn("foo");
+
+		this.view.setEngine(engine);
+		this.view.setResourceLoaderPath("classpath:org/springframework/web/servlet/view/script/");
+		this.view.setUrl("empty.txt");
+		this.view.setApplicationContext(this.wac);
+
+		for (int i = 0; i < 3; i++) {
+			MockHttpServletResponse response = renderView(this.view);
+			assertThat(response.getContentAsString()).isEqualTo("foo");
+		}
+		verify(engine, never()).compile(anyString());
+		verify(engine, times(3)).eval(anyString(), any(Bindings.class));
+	}
+
+	private MockHttpServletResponse renderView(ScriptTemplateView view) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, this.wac);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		view.render(new HashMap<>(), request, response);
+		return response;
+	}
+
+
 	private interface InvocableScriptEngine extends ScriptEngine, Invocable {
 	}
 
+	private interface CompilableScriptEngine extends ScriptEngine, Compilable {
+	}
+
 }